@@ -7,10 +7,14 @@ import android.content.Context;
 
 import com.azure.android.communication.chat.implementation.AzureCommunicationChatServiceImpl;
 import com.azure.android.communication.chat.implementation.CFBackedPageAsyncStream;
+import com.azure.android.communication.chat.implementation.CancellableServiceClientFactory;
 import com.azure.android.communication.chat.implementation.ChatImpl;
+import com.azure.android.communication.chat.implementation.FanOutAsyncStream;
+import com.azure.android.communication.chat.implementation.SharedChatResources;
 import com.azure.android.communication.chat.implementation.converters.CommunicationErrorResponseExceptionConverter;
 import com.azure.android.communication.chat.implementation.converters.CreateChatThreadOptionsConverter;
 import com.azure.android.communication.chat.implementation.converters.CreateChatThreadResultConverter;
+import com.azure.android.communication.chat.implementation.notifications.ChatEventDeduplicator;
 import com.azure.android.communication.chat.implementation.notifications.fcm.PushNotificationClient;
 import com.azure.android.communication.chat.implementation.notifications.signaling.CommunicationSignalingClient;
 import com.azure.android.communication.chat.models.ChatEvent;
@@ -18,6 +22,7 @@ import com.azure.android.communication.chat.models.ChatEventType;
 import com.azure.android.communication.chat.models.ChatErrorResponseException;
 import com.azure.android.communication.chat.models.ChatPushNotification;
 import com.azure.android.communication.chat.models.ChatThreadItem;
+import com.azure.android.communication.chat.models.ChatThreadOperationResult;
 import com.azure.android.communication.chat.models.CreateChatThreadOptions;
 import com.azure.android.communication.chat.models.CreateChatThreadResult;
 import com.azure.android.communication.chat.models.ListChatThreadsOptions;
@@ -33,9 +38,13 @@ import com.azure.android.core.rest.annotation.ServiceMethod;
 import com.azure.android.core.rest.util.paging.PagedAsyncStream;
 import com.azure.android.core.rest.util.paging.PagedResponse;
 import com.azure.android.core.util.AsyncStream;
+import com.azure.android.core.util.CancellationToken;
 import com.azure.android.core.util.RequestContext;
 import com.azure.android.core.util.Function;
 
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import java9.util.concurrent.CompletableFuture;
 import java9.util.function.Consumer;
 
@@ -43,35 +52,67 @@ import java9.util.function.Consumer;
  * Async Client that supports chat operations.
  */
 @ServiceClient(builder = ChatClientBuilder.class, isAsync = true)
-public final class ChatAsyncClient {
+public final class ChatAsyncClient implements Closeable {
+    /**
+     * The default maximum number of operations {@link #runOnChatThreads(Iterable, Function)} runs at once,
+     * matching the number of requests the default HTTP client sends to a host at once.
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 5;
+
     private final ClientLogger logger = new ClientLogger(ChatAsyncClient.class);
 
     private final AzureCommunicationChatServiceImpl chatServiceClient;
+    private final CancellableServiceClientFactory cancellableServiceClientFactory;
     private final SignalingClient signalingClient;
     private final PushNotificationClient pushNotificationClient;
+    private final ChatEventDeduplicator eventDeduplicator;
     private final ChatImpl chatClient;
+    private final SharedChatResources sharedResources;
+    private final AtomicBoolean closed = new AtomicBoolean();
 
     ChatAsyncClient(
         AzureCommunicationChatServiceImpl chatServiceClient,
-        CommunicationTokenCredential communicationTokenCredential) {
+        CommunicationTokenCredential communicationTokenCredential,
+        SharedChatResources sharedResources) {
         this.chatServiceClient = chatServiceClient;
-        this.signalingClient = new CommunicationSignalingClient(communicationTokenCredential);
+        this.cancellableServiceClientFactory = new CancellableServiceClientFactory(chatServiceClient);
+        this.sharedResources = sharedResources;
+        // Shared by the channels so that an event received from both is delivered once.
+        this.eventDeduplicator = new ChatEventDeduplicator();
+        this.signalingClient = new CommunicationSignalingClient(communicationTokenCredential, this.eventDeduplicator);
         this.chatClient = chatServiceClient.getChatClient();
-        this.pushNotificationClient = new PushNotificationClient(communicationTokenCredential);
+        this.pushNotificationClient = new PushNotificationClient(communicationTokenCredential, this.eventDeduplicator);
     }
 
     /**
      * Creates a chat thread client.
      *
+     * <p>
+     * The thread client shares the HTTP client of this client and holds a reference of its own on it, so it
+     * remains usable once this client is closed, until it is closed itself.
+     * </p>
+     *
      * @param chatThreadId The id of the thread.
      * @throws NullPointerException if chatThreadId is null
+     * @throws IllegalStateException if this client is closed.
      * @return the client.
      */
     public ChatThreadAsyncClient getChatThreadClient(String chatThreadId) {
+        return this.getChatThreadClient(chatThreadId, this.chatServiceClient);
+    }
+
+    private ChatThreadAsyncClient getChatThreadClient(String chatThreadId,
+                                                      AzureCommunicationChatServiceImpl chatServiceClient) {
         if (chatThreadId == null) {
             throw logger.logExceptionAsError(new NullPointerException("'chatThreadId' cannot be null."));
         }
-        return new ChatThreadAsyncClient(this.chatServiceClient, chatThreadId);
+        if (this.sharedResources == null) {
+            return new ChatThreadAsyncClient(chatServiceClient, chatThreadId, null);
+        }
+        if (this.closed.get() || !this.sharedResources.retain()) {
+            throw logger.logExceptionAsError(new IllegalStateException("The client is closed."));
+        }
+        return new ChatThreadAsyncClient(chatServiceClient, chatThreadId, this.sharedResources);
     }
 
     /**
@@ -209,6 +250,77 @@ public final class ChatAsyncClient {
             });
     }
 
+    /**
+     * Runs an operation on each of the given chat threads, with at most {@link #DEFAULT_MAX_CONCURRENCY}
+     * operations running at once.
+     *
+     * @param chatThreadIds The ids of the chat threads to run the operation on.
+     * @param operation The operation to run, given the client of a chat thread.
+     * @param <T> The type of the value the operation produces.
+     * @throws NullPointerException if chatThreadIds or operation is null, or if chatThreadIds contains a null id.
+     * @return the {@link AsyncStream} that emits the result of each operation as it completes.
+     * @see #runOnChatThreads(Iterable, int, Function)
+     */
+    @ServiceMethod(returns = ReturnType.COLLECTION)
+    public <T> AsyncStream<ChatThreadOperationResult<T>> runOnChatThreads(
+        Iterable<String> chatThreadIds,
+        Function<ChatThreadAsyncClient, CompletableFuture<T>> operation) {
+        return this.runOnChatThreads(chatThreadIds, DEFAULT_MAX_CONCURRENCY, operation);
+    }
+
+    /**
+     * Runs an operation on each of the given chat threads, such as getting the properties, the first page of
+     * messages and the read receipts of the threads of an inbox, with at most {@code maxConcurrency} operations
+     * running at once.
+     *
+     * <p>
+     * The operations share the HTTP pipeline of this client. The result of each operation is emitted as it
+     * completes, carrying either the value the operation produced or the error it failed with; a failed
+     * operation does not stop the others. The stream completes once every operation completed. Cancelling
+     * the {@link CancellationToken} returned by
+     * {@link AsyncStream#forEach(com.azure.android.core.util.AsyncStreamHandler)} cancels the whole batch,
+     * including the service calls in flight of the operations running, made through the client given to them.
+     * </p>
+     *
+     * @param chatThreadIds The ids of the chat threads to run the operation on.
+     * @param maxConcurrency The maximum number of operations running at once.
+     * @param operation The operation to run, given the client of a chat thread.
+     * @param <T> The type of the value the operation produces.
+     * @throws NullPointerException if chatThreadIds or operation is null, or if chatThreadIds contains a null id.
+     * @throws IllegalArgumentException if maxConcurrency is not positive.
+     * @return the {@link AsyncStream} that emits the result of each operation as it completes.
+     */
+    @ServiceMethod(returns = ReturnType.COLLECTION)
+    public <T> AsyncStream<ChatThreadOperationResult<T>> runOnChatThreads(
+        Iterable<String> chatThreadIds,
+        int maxConcurrency,
+        Function<ChatThreadAsyncClient, CompletableFuture<T>> operation) {
+        if (operation == null) {
+            throw logger.logExceptionAsError(new NullPointerException("'operation' cannot be null."));
+        }
+        return new FanOutAsyncStream<>(chatThreadIds,
+            (chatThreadId, cancellationToken) -> {
+                // The calls of the thread client are cancelled along with the operation.
+                final ChatThreadAsyncClient chatThreadClient = this.getChatThreadClient(chatThreadId,
+                    this.cancellableServiceClientFactory.create(cancellationToken));
+                try {
+                    final CompletableFuture<T> operationFuture = operation.call(chatThreadClient);
+                    if (operationFuture == null) {
+                        chatThreadClient.close();
+                    } else {
+                        // The thread client is closed once the operation completes, releasing its reference.
+                        operationFuture.whenComplete((value, error) -> chatThreadClient.close());
+                    }
+                    return operationFuture;
+                } catch (RuntimeException e) {
+                    chatThreadClient.close();
+                    throw e;
+                }
+            },
+            maxConcurrency,
+            this.logger);
+    }
+
     /**
      * Deletes a chat thread.
      *
@@ -395,4 +507,32 @@ public final class ChatAsyncClient {
     public void removeEventHandler(ChatEventType chatEventType, RealTimeNotificationCallback listener) {
         this.signalingClient.off(chatEventType, listener);
     }
+
+    /**
+     * Gets the number of events received from both the realtime and the push notifications, and dropped from the
+     * channel that received them last.
+     *
+     * @return the number of duplicate events dropped.
+     */
+    public long getDuplicateEventCount() {
+        return this.eventDeduplicator.getDuplicateCount();
+    }
+
+    /**
+     * Closes the client, releasing the HTTP client (with its thread pool and connection pool) and the serializer
+     * the builder shares across the clients of the same endpoint and credential once no other client uses them.
+     *
+     * <p>
+     * The client must not be used once closed, the thread clients it created remain usable until they are
+     * closed. Closing a client built with a user provided HTTP client or pipeline, or a client closed already,
+     * does nothing. Closing is optional, the shared resources of a client never closed are released once its
+     * credential is no longer reachable.
+     * </p>
+     */
+    @Override
+    public void close() {
+        if (this.sharedResources != null && this.closed.compareAndSet(false, true)) {
+            this.sharedResources.release();
+        }
+    }
 }
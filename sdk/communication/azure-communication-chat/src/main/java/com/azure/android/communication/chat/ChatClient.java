@@ -25,6 +25,7 @@ import com.azure.android.core.rest.util.paging.PagedResponse;
 import com.azure.android.core.util.RequestContext;
 import com.azure.android.core.util.Function;
 
+import java.io.Closeable;
 import java.util.concurrent.ExecutionException;
 
 import java9.util.concurrent.CompletableFuture;
@@ -34,7 +35,7 @@ import java9.util.function.Consumer;
  * Sync Client that supports chat operations.
  */
 @ServiceClient(builder = ChatClientBuilder.class, isAsync = false)
-public final class ChatClient {
+public final class ChatClient implements Closeable {
     private final ClientLogger logger = new ClientLogger(ChatClient.class);
     private final ChatAsyncClient client;
 
@@ -50,8 +51,14 @@ public final class ChatClient {
     /**
      * Creates a chat thread client.
      *
+     * <p>
+     * The thread client shares the HTTP client of this client and remains usable once this client is closed,
+     * until it is closed itself.
+     * </p>
+     *
      * @param chatThreadId The id of the chat thread.
      * @throws NullPointerException if chatThreadId is null
+     * @throws IllegalStateException if this client is closed.
      * @return the client.
      */
     public ChatThreadClient getChatThreadClient(String chatThreadId) {
@@ -288,6 +295,29 @@ public final class ChatClient {
         this.client.removeEventHandler(chatEventType, listener);
     }
 
+    /**
+     * Gets the number of events received from both the realtime and the push notifications, and dropped from the
+     * channel that received them last.
+     *
+     * @return the number of duplicate events dropped.
+     */
+    public long getDuplicateEventCount() {
+        return this.client.getDuplicateEventCount();
+    }
+
+    /**
+     * Closes the client, releasing the HTTP client (with its thread pool and connection pool) and the serializer
+     * the builder shares across the clients of the same endpoint and credential once no other client uses them.
+     *
+     * <p>
+     * The client must not be used once closed.
+     * </p>
+     */
+    @Override
+    public void close() {
+        this.client.close();
+    }
+
     private <T> T block(CompletableFuture<T> completableFuture) {
         try {
             return completableFuture.get();
@@ -4,6 +4,7 @@
 package com.azure.android.communication.chat;
 
 import com.azure.android.communication.chat.implementation.AzureCommunicationChatServiceImplBuilder;
+import com.azure.android.communication.chat.implementation.SharedChatResources;
 import com.azure.android.communication.common.CommunicationAccessToken;
 import com.azure.android.communication.common.CommunicationTokenCredential;
 import com.azure.android.core.http.HttpClient;
@@ -193,6 +194,7 @@ public final class ChatClientBuilder {
         }
 
         HttpPipeline pipeline;
+        SharedChatResources sharedResources = null;
         if (this.httpPipeline != null) {
             pipeline = this.httpPipeline;
         } else {
@@ -221,7 +223,14 @@ public final class ChatClientBuilder {
                 chain.processNextPolicy(httpRequest);
             };
 
-            pipeline = createHttpPipeline(this.httpClient,
+            HttpClient httpClient = this.httpClient;
+            if (httpClient == null) {
+                // The clients of an endpoint and a credential share one HTTP client, rather than each client
+                // opening its own thread pool and connection pool.
+                sharedResources = SharedChatResources.acquire(this.endpoint, this.communicationTokenCredential);
+                httpClient = sharedResources.getHttpClient();
+            }
+            pipeline = createHttpPipeline(httpClient,
                 authorizationPolicy,
                 this.customPolicies);
         }
@@ -231,9 +240,18 @@ public final class ChatClientBuilder {
                 ? ChatServiceVersion.getLatest().getVersion()
                 : this.serviceVersion.getVersion())
             .endpoint(this.endpoint)
-            .pipeline(pipeline);
+            .pipeline(pipeline)
+            .jacksonSerder(sharedResources == null ? null : sharedResources.getJacksonSerder());
 
-        return new ChatAsyncClient(clientBuilder.buildClient(), this.communicationTokenCredential);
+        try {
+            return new ChatAsyncClient(clientBuilder.buildClient(), this.communicationTokenCredential,
+                sharedResources);
+        } catch (RuntimeException e) {
+            if (sharedResources != null) {
+                sharedResources.release();
+            }
+            throw e;
+        }
     }
 
     private HttpPipeline createHttpPipeline(HttpClient httpClient,
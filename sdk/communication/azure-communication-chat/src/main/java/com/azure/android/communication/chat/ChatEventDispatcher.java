@@ -0,0 +1,367 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat;
+
+import com.azure.android.communication.chat.models.ChatEvent;
+import com.azure.android.communication.chat.models.ChatEventBatchCallback;
+import com.azure.android.communication.chat.models.ChatUserEvent;
+import com.azure.android.communication.chat.models.ReadReceiptReceivedEvent;
+import com.azure.android.communication.chat.models.RealTimeNotificationCallback;
+import com.azure.android.communication.chat.models.TypingIndicatorReceivedEvent;
+import com.azure.android.core.logging.ClientLogger;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers the realtime notifications to the app in batches, on an executor of its choice, so that a busy chat
+ * does not post every event to the UI thread one at a time. Register the dispatcher as the handler of the event
+ * types to deliver with {@link ChatAsyncClient#addEventHandler}.
+ *
+ * <p>
+ * The events are queued per chat thread, and the events of a thread are delivered in the order they were
+ * received, one batch at a time. A batch holds the events queued during the batch window started by its first
+ * event, or while the previous batch of the thread was being delivered.
+ * </p>
+ *
+ * <p>
+ * Typing indicators and read receipts are idempotent: a queued one is replaced by the next one from the same
+ * sender. When the queue of a thread is full, its oldest typing indicator is dropped to make room, or its oldest
+ * event if it holds none.
+ * </p>
+ */
+public final class ChatEventDispatcher implements RealTimeNotificationCallback, Closeable {
+    /**
+     * The default maximum number of events queued per chat thread.
+     */
+    public static final int DEFAULT_MAX_QUEUED_EVENTS_PER_THREAD = 256;
+
+    private final ClientLogger logger = new ClientLogger(ChatEventDispatcher.class);
+    private final ChatEventBatchCallback callback;
+    private final Executor executor;
+    private final long batchWindowMillis;
+    private final int maxQueuedEventsPerThread;
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownsScheduler;
+    // Guarded by 'this'.
+    private final Map<String, ThreadEvents> eventsByThread = new HashMap<>();
+    private int queuedEventCount;
+    private int maxQueuedEventCount;
+    private long droppedEventCount;
+    private long mergedEventCount;
+    private boolean closed;
+
+    /**
+     * Creates a dispatcher delivering the events as they are received, batching only those received while the
+     * previous batch of their thread is being delivered.
+     *
+     * @param callback The callback receiving the events.
+     * @param executor The executor to deliver the events on, for example the main thread executor.
+     * @throws NullPointerException if callback or executor is null.
+     */
+    public ChatEventDispatcher(ChatEventBatchCallback callback, Executor executor) {
+        this(callback, executor, 0, DEFAULT_MAX_QUEUED_EVENTS_PER_THREAD);
+    }
+
+    /**
+     * Creates a dispatcher.
+     *
+     * @param callback The callback receiving the events.
+     * @param executor The executor to deliver the events on, for example the main thread executor.
+     * @param batchWindowMillis The time the first event of a batch waits for more events, in milliseconds.
+     * @param maxQueuedEventsPerThread The maximum number of events queued per chat thread.
+     * @throws NullPointerException if callback or executor is null.
+     * @throws IllegalArgumentException if batchWindowMillis is negative or maxQueuedEventsPerThread not positive.
+     */
+    public ChatEventDispatcher(ChatEventBatchCallback callback,
+                               Executor executor,
+                               long batchWindowMillis,
+                               int maxQueuedEventsPerThread) {
+        this(callback, executor, batchWindowMillis, maxQueuedEventsPerThread, null, true);
+    }
+
+    /**
+     * package-private.
+     *
+     * Creates a dispatcher scheduling the batch windows on the given scheduler, or on its own if null.
+     */
+    ChatEventDispatcher(ChatEventBatchCallback callback,
+                        Executor executor,
+                        long batchWindowMillis,
+                        int maxQueuedEventsPerThread,
+                        ScheduledExecutorService scheduler,
+                        boolean ownsScheduler) {
+        if (callback == null) {
+            throw logger.logExceptionAsError(new NullPointerException("'callback' cannot be null."));
+        }
+        if (executor == null) {
+            throw logger.logExceptionAsError(new NullPointerException("'executor' cannot be null."));
+        }
+        if (batchWindowMillis < 0) {
+            throw logger.logExceptionAsError(new IllegalArgumentException(
+                "'batchWindowMillis' cannot be negative, provided: " + batchWindowMillis));
+        }
+        if (maxQueuedEventsPerThread <= 0) {
+            throw logger.logExceptionAsError(new IllegalArgumentException(
+                "'maxQueuedEventsPerThread' must be positive, provided: " + maxQueuedEventsPerThread));
+        }
+        this.callback = callback;
+        this.executor = executor;
+        this.batchWindowMillis = batchWindowMillis;
+        this.maxQueuedEventsPerThread = maxQueuedEventsPerThread;
+        // The scheduler is only needed to wait for the batch windows.
+        this.scheduler = scheduler != null || batchWindowMillis == 0 ? scheduler : createScheduler();
+        this.ownsScheduler = ownsScheduler;
+    }
+
+    /**
+     * Queues an event received from the realtime notifications, to deliver with the other events of its thread.
+     *
+     * @param chatEvent the chat event.
+     */
+    @Override
+    public void onChatEvent(ChatEvent chatEvent) {
+        if (chatEvent == null) {
+            return;
+        }
+        final String chatThreadId = chatEvent.getChatThreadId() == null ? "" : chatEvent.getChatThreadId();
+        final ThreadEvents events;
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            ThreadEvents threadEvents = this.eventsByThread.get(chatThreadId);
+            if (threadEvents == null) {
+                threadEvents = new ThreadEvents(chatThreadId);
+                this.eventsByThread.put(chatThreadId, threadEvents);
+            }
+            this.queueLocked(threadEvents, chatEvent);
+            if (threadEvents.scheduled || threadEvents.delivering) {
+                // Delivered with the batch scheduled, or with the next one once the batch being delivered is done.
+                return;
+            }
+            threadEvents.scheduled = true;
+            events = threadEvents;
+        }
+        this.schedule(events);
+    }
+
+    /**
+     * Gets the number of events queued, waiting to be delivered.
+     *
+     * @return the number of events queued.
+     */
+    public synchronized int getQueuedEventCount() {
+        return this.queuedEventCount;
+    }
+
+    /**
+     * Gets the number of events of a chat thread queued, waiting to be delivered.
+     *
+     * @param chatThreadId The id of the chat thread.
+     * @return the number of events of the thread queued.
+     */
+    public synchronized int getQueuedEventCount(String chatThreadId) {
+        final ThreadEvents threadEvents = this.eventsByThread.get(chatThreadId);
+        return threadEvents == null ? 0 : threadEvents.queue.size();
+    }
+
+    /**
+     * Gets the highest number of events queued at once since the dispatcher was created.
+     *
+     * @return the highest number of events queued.
+     */
+    public synchronized int getMaxQueuedEventCount() {
+        return this.maxQueuedEventCount;
+    }
+
+    /**
+     * Gets the number of events dropped because the queue of their thread was full.
+     *
+     * @return the number of events dropped.
+     */
+    public synchronized long getDroppedEventCount() {
+        return this.droppedEventCount;
+    }
+
+    /**
+     * Gets the number of typing indicators and read receipts replaced by a more recent one before being delivered.
+     *
+     * @return the number of events merged.
+     */
+    public synchronized long getMergedEventCount() {
+        return this.mergedEventCount;
+    }
+
+    /**
+     * Stops delivering the events, dropping the events queued.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            this.eventsByThread.clear();
+            this.queuedEventCount = 0;
+        }
+        if (this.ownsScheduler && this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+    }
+
+    private void queueLocked(ThreadEvents threadEvents, ChatEvent chatEvent) {
+        if (isIdempotent(chatEvent)) {
+            final Iterator<ChatEvent> iterator = threadEvents.queue.iterator();
+            while (iterator.hasNext()) {
+                if (isSameKind(iterator.next(), chatEvent)) {
+                    iterator.remove();
+                    this.queuedEventCount--;
+                    this.mergedEventCount++;
+                    break;
+                }
+            }
+        }
+        if (threadEvents.queue.size() >= this.maxQueuedEventsPerThread) {
+            ChatEvent dropped = null;
+            final Iterator<ChatEvent> iterator = threadEvents.queue.iterator();
+            while (iterator.hasNext()) {
+                final ChatEvent queued = iterator.next();
+                if (queued instanceof TypingIndicatorReceivedEvent) {
+                    iterator.remove();
+                    dropped = queued;
+                    break;
+                }
+            }
+            if (dropped == null) {
+                dropped = threadEvents.queue.poll();
+            }
+            this.queuedEventCount--;
+            this.droppedEventCount++;
+            logger.warning("The event queue of the chat thread {} is full, dropped a {}.",
+                threadEvents.chatThreadId, dropped.getClass().getSimpleName());
+        }
+        threadEvents.queue.add(chatEvent);
+        this.queuedEventCount++;
+        this.maxQueuedEventCount = Math.max(this.maxQueuedEventCount, this.queuedEventCount);
+    }
+
+    private void schedule(ThreadEvents threadEvents) {
+        if (this.batchWindowMillis == 0) {
+            this.execute(threadEvents);
+            return;
+        }
+        try {
+            // The executor rejecting the delivery is handled in execute, the scheduled future would swallow it.
+            this.scheduler.schedule(() -> this.execute(threadEvents), this.batchWindowMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            this.onRejected(threadEvents, e);
+        }
+    }
+
+    private void execute(ThreadEvents threadEvents) {
+        try {
+            this.executor.execute(() -> this.deliver(threadEvents));
+        } catch (RejectedExecutionException e) {
+            this.onRejected(threadEvents, e);
+        }
+    }
+
+    private void onRejected(ThreadEvents threadEvents, RejectedExecutionException e) {
+        logger.warning("Cannot schedule the delivery of the events of the chat thread {}.",
+            threadEvents.chatThreadId, e);
+        synchronized (this) {
+            // The events stay queued, and are delivered with the next event of the thread.
+            threadEvents.scheduled = false;
+        }
+    }
+
+    private void deliver(ThreadEvents threadEvents) {
+        final List<ChatEvent> batch;
+        synchronized (this) {
+            threadEvents.scheduled = false;
+            if (this.closed || threadEvents.queue.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(threadEvents.queue);
+            threadEvents.queue.clear();
+            this.queuedEventCount -= batch.size();
+            threadEvents.delivering = true;
+        }
+        try {
+            this.callback.onChatEvents(batch);
+        } catch (RuntimeException e) {
+            logger.warning("The callback failed to handle the events of the chat thread {}.",
+                threadEvents.chatThreadId, e);
+        }
+        synchronized (this) {
+            threadEvents.delivering = false;
+            if (this.closed) {
+                return;
+            }
+            if (threadEvents.queue.isEmpty()) {
+                // Released once idle, the thread may not receive events anymore.
+                this.eventsByThread.remove(threadEvents.chatThreadId);
+                return;
+            }
+            threadEvents.scheduled = true;
+        }
+        this.schedule(threadEvents);
+    }
+
+    private static boolean isIdempotent(ChatEvent chatEvent) {
+        return chatEvent instanceof TypingIndicatorReceivedEvent || chatEvent instanceof ReadReceiptReceivedEvent;
+    }
+
+    /**
+     * Whether two events are of the same idempotent kind and from the same sender, the second superseding the first.
+     */
+    private static boolean isSameKind(ChatEvent queued, ChatEvent chatEvent) {
+        if (queued.getClass() != chatEvent.getClass()) {
+            return false;
+        }
+        final ChatUserEvent queuedUserEvent = (ChatUserEvent) queued;
+        final ChatUserEvent userEvent = (ChatUserEvent) chatEvent;
+        return queuedUserEvent.getSender() == null
+            ? userEvent.getSender() == null
+            : queuedUserEvent.getSender().equals(userEvent.getSender());
+    }
+
+    private static ScheduledExecutorService createScheduler() {
+        final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "chat-event-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * The events of a chat thread, guarded by the dispatcher.
+     */
+    private static final class ThreadEvents {
+        private final String chatThreadId;
+        private final ArrayDeque<ChatEvent> queue = new ArrayDeque<>();
+        // Whether a delivery of the events is scheduled.
+        private boolean scheduled;
+        // Whether a batch of the events is being delivered.
+        private boolean delivering;
+
+        ThreadEvents(String chatThreadId) {
+            this.chatThreadId = chatThreadId;
+        }
+    }
+}
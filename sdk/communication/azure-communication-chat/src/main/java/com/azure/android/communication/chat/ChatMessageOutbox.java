@@ -0,0 +1,604 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat;
+
+import com.azure.android.communication.chat.implementation.store.SegmentedMessageLog;
+import com.azure.android.communication.chat.models.ChatMessage;
+import com.azure.android.communication.chat.models.ListChatMessagesOptions;
+import com.azure.android.communication.chat.models.SendChatMessageOptions;
+import com.azure.android.communication.chat.models.SendChatMessageResult;
+import com.azure.android.core.http.exception.HttpResponseException;
+import com.azure.android.core.logging.ClientLogger;
+import com.azure.android.core.serde.jackson.JacksonSerder;
+import com.azure.android.core.serde.jackson.SerdeEncoding;
+import com.azure.android.core.util.AsyncStreamHandler;
+import com.azure.android.core.util.CancellationToken;
+import com.azure.android.core.util.Function;
+import com.azure.android.core.util.RequestContext;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.threeten.bp.Instant;
+import org.threeten.bp.OffsetDateTime;
+import org.threeten.bp.ZoneOffset;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import java9.util.concurrent.CompletableFuture;
+import java9.util.concurrent.CompletionException;
+
+/**
+ * A durable outbox of the messages to send, so that a message is not lost when the network drops or the process
+ * dies before the service acknowledged it.
+ *
+ * <p>
+ * A message is appended to a log in the outbox directory before it is sent, and removed from it once the service
+ * returned its {@link SendChatMessageResult}. The messages of a chat thread are sent one after the other, in the
+ * order they were enqueued, while the messages of different threads are sent in parallel. A message that fails to
+ * be sent for a transient reason, such as a network error, a throttled request, a server error, or an authentication
+ * failure while the token is refreshed, is sent again with an exponential backoff of at most a minute; a message the
+ * service rejects is removed and its future fails.
+ * </p>
+ *
+ * <p>
+ * So that a message failing over and over does not hold back the messages of its thread enqueued after it, a
+ * message is set aside once {@code maxAttempts} attempts failed: its future fails with the last error and the next
+ * message of the thread is sent, but the message stays in the outbox directory and is sent again once the outbox
+ * is opened again, after the messages enqueued after it.
+ * </p>
+ *
+ * <p>
+ * Each message carries a client message id in its metadata, under {@link #CLIENT_MESSAGE_ID_METADATA_KEY}. Before
+ * sending again a message whose previous attempt may have reached the service, the outbox lists the messages of the
+ * thread sent since the message was enqueued and acknowledges it if one of them carries its client message id,
+ * so that a message is not delivered twice. The messages left in the outbox by a previous process are sent again
+ * the same way when the outbox is opened.
+ * </p>
+ *
+ * <p>
+ * The content of the messages waiting to be sent is kept in the log, not in memory, and the number of messages
+ * waiting is bounded.
+ * </p>
+ */
+public final class ChatMessageOutbox implements Closeable {
+    /**
+     * The metadata key of the client message id of the messages sent through the outbox.
+     */
+    public static final String CLIENT_MESSAGE_ID_METADATA_KEY = "clientMessageId";
+
+    /**
+     * The default maximum number of messages waiting to be sent.
+     */
+    public static final int DEFAULT_MAX_BACKLOG = 1000;
+
+    /**
+     * The default number of attempts to send a message before setting it aside, about three minutes of attempts
+     * with the default retry delay.
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 8;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final long MAX_SEGMENT_BYTES = 256 * 1024;
+    private static final long MAX_RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    // The clock difference tolerated between the device and the service when looking for a delivered message.
+    private static final long CLOCK_SKEW_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final ClientLogger logger = new ClientLogger(ChatMessageOutbox.class);
+    private final JacksonSerder jacksonSerder = JacksonSerder.createDefault();
+    private final Function<String, ChatThreadAsyncClient> clientProvider;
+    private final int maxBacklog;
+    private final long baseRetryDelayMillis;
+    private final int maxAttempts;
+    private final ScheduledExecutorService scheduler;
+    // Guarded by 'this'.
+    private final SegmentedMessageLog log;
+    private final Map<String, ThreadOutbox> outboxByThread = new HashMap<>();
+    private int backlog;
+    private long lastEnqueuedOnMillis;
+    private boolean closed;
+
+    /**
+     * Opens the outbox stored in the given directory, and starts sending the messages it holds.
+     *
+     * @param directory The directory to store the messages in.
+     * @param clientProvider The provider of the client of a chat thread, given its id, for example
+     *     {@code chatAsyncClient::getChatThreadClient}.
+     * @throws NullPointerException if directory or clientProvider is null.
+     * @throws RuntimeException if the outbox cannot be read.
+     */
+    public ChatMessageOutbox(File directory, Function<String, ChatThreadAsyncClient> clientProvider) {
+        this(directory, clientProvider, DEFAULT_MAX_BACKLOG, TimeUnit.SECONDS.toMillis(1));
+    }
+
+    /**
+     * Opens the outbox stored in the given directory, and starts sending the messages it holds.
+     *
+     * @param directory The directory to store the messages in.
+     * @param clientProvider The provider of the client of a chat thread, given its id.
+     * @param maxBacklog The maximum number of messages waiting to be sent.
+     * @param baseRetryDelayMillis The delay before sending again a message that failed to be sent the first time,
+     *     in milliseconds, doubled on each subsequent failure up to a minute.
+     * @throws NullPointerException if directory or clientProvider is null.
+     * @throws IllegalArgumentException if maxBacklog or baseRetryDelayMillis is not positive.
+     * @throws RuntimeException if the outbox cannot be read.
+     */
+    public ChatMessageOutbox(File directory,
+                             Function<String, ChatThreadAsyncClient> clientProvider,
+                             int maxBacklog,
+                             long baseRetryDelayMillis) {
+        this(directory, clientProvider, maxBacklog, baseRetryDelayMillis, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    /**
+     * Opens the outbox stored in the given directory, and starts sending the messages it holds.
+     *
+     * @param directory The directory to store the messages in.
+     * @param clientProvider The provider of the client of a chat thread, given its id.
+     * @param maxBacklog The maximum number of messages waiting to be sent.
+     * @param baseRetryDelayMillis The delay before sending again a message that failed to be sent the first time,
+     *     in milliseconds, doubled on each subsequent failure up to a minute.
+     * @param maxAttempts The number of attempts to send a message before setting it aside until the outbox is
+     *     opened again.
+     * @throws NullPointerException if directory or clientProvider is null.
+     * @throws IllegalArgumentException if maxBacklog, baseRetryDelayMillis or maxAttempts is not positive.
+     * @throws RuntimeException if the outbox cannot be read.
+     */
+    public ChatMessageOutbox(File directory,
+                             Function<String, ChatThreadAsyncClient> clientProvider,
+                             int maxBacklog,
+                             long baseRetryDelayMillis,
+                             int maxAttempts) {
+        if (directory == null) {
+            throw logger.logExceptionAsError(new NullPointerException("'directory' cannot be null."));
+        }
+        if (clientProvider == null) {
+            throw logger.logExceptionAsError(new NullPointerException("'clientProvider' cannot be null."));
+        }
+        if (maxBacklog <= 0) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'maxBacklog' must be positive, provided: " + maxBacklog));
+        }
+        if (baseRetryDelayMillis <= 0) {
+            throw logger.logExceptionAsError(new IllegalArgumentException(
+                "'baseRetryDelayMillis' must be positive, provided: " + baseRetryDelayMillis));
+        }
+        if (maxAttempts <= 0) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'maxAttempts' must be positive, provided: " + maxAttempts));
+        }
+        this.clientProvider = clientProvider;
+        this.maxBacklog = maxBacklog;
+        this.baseRetryDelayMillis = baseRetryDelayMillis;
+        this.maxAttempts = maxAttempts;
+        this.scheduler = createScheduler();
+        try {
+            this.log = new SegmentedMessageLog(directory, MAX_SEGMENT_BYTES, this.logger);
+            synchronized (this) {
+                for (byte[] payload : this.log.readAllOldestFirst()) {
+                    final OutboxRecord record = this.jacksonSerder.deserialize(new String(payload, UTF_8),
+                        OutboxRecord.class,
+                        SerdeEncoding.JSON);
+                    // The previous process may have sent the message without getting the acknowledgment.
+                    final Entry entry = new Entry(record, true);
+                    this.getOrCreateThreadOutbox(record.chatThreadId).entries.add(entry);
+                    this.backlog++;
+                    this.lastEnqueuedOnMillis = Math.max(this.lastEnqueuedOnMillis, record.enqueuedOnMillis);
+                }
+            }
+        } catch (IOException e) {
+            this.scheduler.shutdown();
+            throw logger.logExceptionAsError(new RuntimeException(e));
+        }
+        for (ThreadOutbox threadOutbox : this.getThreadOutboxes()) {
+            this.sendNext(threadOutbox);
+        }
+    }
+
+    /**
+     * Enqueues a message to send to a chat thread, once the messages enqueued before it for the thread are sent.
+     *
+     * @param chatThreadId The id of the chat thread.
+     * @param options Options for sending the message.
+     * @return the {@link CompletableFuture} that emits the result of sending the message once the service
+     * acknowledged it.
+     */
+    public CompletableFuture<SendChatMessageResult> enqueue(String chatThreadId, SendChatMessageOptions options) {
+        if (chatThreadId == null) {
+            return CompletableFuture.failedFuture(new NullPointerException("'chatThreadId' cannot be null."));
+        }
+        if (options == null) {
+            return CompletableFuture.failedFuture(new NullPointerException("'options' cannot be null."));
+        }
+        final ThreadOutbox threadOutbox;
+        final Entry entry;
+        synchronized (this) {
+            if (this.closed) {
+                return CompletableFuture.failedFuture(new IllegalStateException("The outbox is closed."));
+            }
+            if (this.backlog >= this.maxBacklog) {
+                return CompletableFuture.failedFuture(new IllegalStateException(
+                    "The outbox is full, " + this.backlog + " messages are waiting to be sent."));
+            }
+            final OutboxRecord record = new OutboxRecord();
+            record.clientMessageId = UUID.randomUUID().toString();
+            record.chatThreadId = chatThreadId;
+            // Strictly increasing, the log orders the messages by this time.
+            record.enqueuedOnMillis = Math.max(System.currentTimeMillis(), this.lastEnqueuedOnMillis + 1);
+            record.options = copyWithClientMessageId(options, record.clientMessageId);
+            try {
+                this.log.append(record.clientMessageId,
+                    record.enqueuedOnMillis,
+                    this.jacksonSerder.serialize(record, SerdeEncoding.JSON).getBytes(UTF_8));
+            } catch (IOException | RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            this.lastEnqueuedOnMillis = record.enqueuedOnMillis;
+            this.backlog++;
+            entry = new Entry(record, false);
+            threadOutbox = this.getOrCreateThreadOutbox(chatThreadId);
+            threadOutbox.entries.add(entry);
+        }
+        this.sendNext(threadOutbox);
+        return entry.result.copy();
+    }
+
+    /**
+     * Gets the number of messages waiting to be sent, or to be acknowledged by the service.
+     *
+     * @return the backlog size.
+     */
+    public synchronized int getBacklogCount() {
+        return this.backlog;
+    }
+
+    /**
+     * Gets the number of messages of a chat thread waiting to be sent, or to be acknowledged by the service.
+     *
+     * @param chatThreadId The id of the chat thread.
+     * @return the backlog size of the thread.
+     */
+    public synchronized int getBacklogCount(String chatThreadId) {
+        final ThreadOutbox threadOutbox = this.outboxByThread.get(chatThreadId);
+        return threadOutbox == null ? 0 : threadOutbox.entries.size();
+    }
+
+    /**
+     * Stops sending the messages and closes the log. The messages not acknowledged yet stay in the outbox
+     * directory, and are sent once the outbox is opened again; their futures fail with a
+     * {@link CancellationException}.
+     */
+    @Override
+    public void close() {
+        final List<Entry> pendingEntries = new ArrayList<>();
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            for (ThreadOutbox threadOutbox : this.outboxByThread.values()) {
+                pendingEntries.addAll(threadOutbox.entries);
+            }
+            try {
+                this.log.close();
+            } catch (IOException e) {
+                logger.warning("Cannot close the outbox log.", e);
+            }
+        }
+        this.scheduler.shutdownNow();
+        for (Entry entry : pendingEntries) {
+            entry.result.completeExceptionally(new CancellationException("The outbox is closed, the message "
+                + entry.clientMessageId + " stays in the outbox and is sent again once it is opened again."));
+        }
+    }
+
+    private void sendNext(ThreadOutbox threadOutbox) {
+        final Entry entry;
+        synchronized (this) {
+            if (this.closed || threadOutbox.sending || threadOutbox.entries.isEmpty()) {
+                return;
+            }
+            threadOutbox.sending = true;
+            entry = threadOutbox.entries.peek();
+        }
+        this.attempt(threadOutbox, entry);
+    }
+
+    private void attempt(ThreadOutbox threadOutbox, Entry entry) {
+        final ChatThreadAsyncClient client;
+        try {
+            client = this.getClient(threadOutbox);
+        } catch (RuntimeException e) {
+            this.onAttemptFailed(threadOutbox, entry, e);
+            return;
+        }
+        final CompletableFuture<SendChatMessageResult> sent;
+        if (entry.mayHaveBeenSent) {
+            sent = this.findSent(client, entry).thenCompose(result -> result != null
+                ? CompletableFuture.completedFuture(result)
+                : this.send(client, entry));
+        } else {
+            sent = this.send(client, entry);
+        }
+        sent.whenComplete((result, throwable) -> {
+            if (throwable == null) {
+                this.onAttemptSucceeded(threadOutbox, entry, result);
+            } else {
+                this.onAttemptFailed(threadOutbox, entry, unwrap(throwable));
+            }
+        });
+    }
+
+    private void onAttemptSucceeded(ThreadOutbox threadOutbox, Entry entry, SendChatMessageResult result) {
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.removeLocked(threadOutbox, entry);
+        }
+        entry.result.complete(result);
+        this.sendNext(threadOutbox);
+    }
+
+    private void onAttemptFailed(ThreadOutbox threadOutbox, Entry entry, Throwable throwable) {
+        if (!isTransient(throwable)) {
+            logger.warning("The message {} of the chat thread {} was rejected, removing it from the outbox.",
+                entry.clientMessageId, entry.chatThreadId, throwable);
+            synchronized (this) {
+                if (this.closed) {
+                    return;
+                }
+                this.removeLocked(threadOutbox, entry);
+            }
+            entry.result.completeExceptionally(throwable);
+            this.sendNext(threadOutbox);
+            return;
+        }
+        final long delayMillis;
+        final boolean setAside;
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            // The request may have reached the service before failing.
+            entry.mayHaveBeenSent = true;
+            delayMillis = Math.min(MAX_RETRY_DELAY_MILLIS,
+                this.baseRetryDelayMillis << Math.min(entry.failureCount, 20));
+            entry.failureCount++;
+            setAside = entry.failureCount >= this.maxAttempts;
+            if (setAside) {
+                // The message stays in the log, only the messages after it are no longer held back.
+                this.dequeueLocked(threadOutbox);
+            }
+        }
+        if (setAside) {
+            logger.warning("Cannot send the message {} of the chat thread {} after {} attempts, setting it aside "
+                    + "until the outbox is opened again.",
+                entry.clientMessageId, entry.chatThreadId, entry.failureCount, throwable);
+            entry.result.completeExceptionally(throwable);
+            this.sendNext(threadOutbox);
+            return;
+        }
+        logger.warning("Cannot send the message {} of the chat thread {}, retrying in {} ms.",
+            entry.clientMessageId, entry.chatThreadId, delayMillis, throwable);
+        try {
+            this.scheduler.schedule(() -> this.attempt(threadOutbox, entry), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // The outbox was closed, the message is sent once it is opened again.
+        }
+    }
+
+    private CompletableFuture<SendChatMessageResult> send(ChatThreadAsyncClient client, Entry entry) {
+        final OutboxRecord record;
+        try {
+            final byte[] payload;
+            synchronized (this) {
+                if (this.closed) {
+                    // Reading would open the log files again.
+                    return CompletableFuture.failedFuture(new CancellationException("The outbox is closed."));
+                }
+                payload = this.log.read(entry.clientMessageId);
+            }
+            if (payload == null) {
+                return CompletableFuture.failedFuture(new IllegalStateException(
+                    "The message " + entry.clientMessageId + " is missing from the outbox."));
+            }
+            record = this.jacksonSerder.deserialize(new String(payload, UTF_8), OutboxRecord.class, SerdeEncoding.JSON);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return client.sendMessage(record.options);
+    }
+
+    /**
+     * Looks for a message of the thread carrying the client message id of the entry, sent since it was enqueued.
+     */
+    private CompletableFuture<SendChatMessageResult> findSent(ChatThreadAsyncClient client, Entry entry) {
+        final CompletableFuture<SendChatMessageResult> found = new CompletableFuture<>();
+        final ListChatMessagesOptions options = new ListChatMessagesOptions()
+            .setStartTime(OffsetDateTime.ofInstant(
+                Instant.ofEpochMilli(entry.enqueuedOnMillis - CLOCK_SKEW_MILLIS), ZoneOffset.UTC));
+        client.listMessages(options, RequestContext.NONE).forEach(new AsyncStreamHandler<ChatMessage>() {
+            private CancellationToken token;
+
+            @Override
+            public void onInit(CancellationToken cancellationToken) {
+                this.token = cancellationToken;
+            }
+
+            @Override
+            public void onNext(ChatMessage message) {
+                if (message.getMetadata() != null
+                    && entry.clientMessageId.equals(message.getMetadata().get(CLIENT_MESSAGE_ID_METADATA_KEY))) {
+                    found.complete(new SendChatMessageResult().setId(message.getId()));
+                    this.token.cancel();
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                found.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                found.complete(null);
+            }
+        });
+        return found;
+    }
+
+    private void removeLocked(ThreadOutbox threadOutbox, Entry entry) {
+        try {
+            this.log.remove(entry.clientMessageId);
+        } catch (IOException e) {
+            // The message is sent again, and found already sent, once the outbox is opened again.
+            logger.warning("Cannot remove the message {} from the outbox.", entry.clientMessageId, e);
+        }
+        this.dequeueLocked(threadOutbox);
+    }
+
+    private void dequeueLocked(ThreadOutbox threadOutbox) {
+        threadOutbox.entries.poll();
+        threadOutbox.sending = false;
+        this.backlog--;
+    }
+
+    private synchronized ChatThreadAsyncClient getClient(ThreadOutbox threadOutbox) {
+        if (threadOutbox.client == null) {
+            threadOutbox.client = this.clientProvider.call(threadOutbox.chatThreadId);
+            if (threadOutbox.client == null) {
+                throw new NullPointerException("The client provider returned a null client.");
+            }
+        }
+        return threadOutbox.client;
+    }
+
+    private synchronized ThreadOutbox[] getThreadOutboxes() {
+        return this.outboxByThread.values().toArray(new ThreadOutbox[0]);
+    }
+
+    private ThreadOutbox getOrCreateThreadOutbox(String chatThreadId) {
+        ThreadOutbox threadOutbox = this.outboxByThread.get(chatThreadId);
+        if (threadOutbox == null) {
+            threadOutbox = new ThreadOutbox(chatThreadId);
+            this.outboxByThread.put(chatThreadId, threadOutbox);
+        }
+        return threadOutbox;
+    }
+
+    private static SendChatMessageOptions copyWithClientMessageId(SendChatMessageOptions options,
+                                                                  String clientMessageId) {
+        final Map<String, String> metadata = options.getMetadata() == null
+            ? new HashMap<>()
+            : new HashMap<>(options.getMetadata());
+        metadata.put(CLIENT_MESSAGE_ID_METADATA_KEY, clientMessageId);
+        return new SendChatMessageOptions()
+            .setContent(options.getContent())
+            .setSenderDisplayName(options.getSenderDisplayName())
+            .setType(options.getType())
+            .setMetadata(metadata);
+    }
+
+    /**
+     * Whether a failure is worth sending the message again: the service did not reject the message itself.
+     */
+    private static boolean isTransient(Throwable throwable) {
+        if (!(throwable instanceof HttpResponseException)) {
+            return !(throwable instanceof IllegalArgumentException
+                || throwable instanceof IllegalStateException
+                || throwable instanceof NullPointerException);
+        }
+        final HttpResponseException exception = (HttpResponseException) throwable;
+        if (exception.getResponse() == null) {
+            return true;
+        }
+        final int statusCode = exception.getResponse().getStatusCode();
+        // A 401 or 403 is returned while the token expired and is being refreshed, not because of the message.
+        return statusCode == 401 || statusCode == 403 || statusCode == 408 || statusCode == 429 || statusCode >= 500;
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            return throwable.getCause();
+        }
+        return throwable;
+    }
+
+    private static ScheduledExecutorService createScheduler() {
+        final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "chat-message-outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * The messages of a chat thread waiting to be sent, guarded by the outbox.
+     */
+    private static final class ThreadOutbox {
+        private final String chatThreadId;
+        private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+        private ChatThreadAsyncClient client;
+        // Whether the first entry is being sent.
+        private boolean sending;
+
+        ThreadOutbox(String chatThreadId) {
+            this.chatThreadId = chatThreadId;
+        }
+    }
+
+    /**
+     * A message waiting to be sent, with the future of its result. Its options stay in the log until it is sent.
+     */
+    private static final class Entry {
+        private final String clientMessageId;
+        private final String chatThreadId;
+        private final long enqueuedOnMillis;
+        private final CompletableFuture<SendChatMessageResult> result = new CompletableFuture<>();
+        // Guarded by the outbox.
+        private boolean mayHaveBeenSent;
+        private int failureCount;
+
+        Entry(OutboxRecord record, boolean mayHaveBeenSent) {
+            this.clientMessageId = record.clientMessageId;
+            this.chatThreadId = record.chatThreadId;
+            this.enqueuedOnMillis = record.enqueuedOnMillis;
+            this.mayHaveBeenSent = mayHaveBeenSent;
+        }
+    }
+
+    /**
+     * package-private.
+     *
+     * The record of a message in the outbox log.
+     */
+    static final class OutboxRecord {
+        @JsonProperty(value = "clientMessageId")
+        private String clientMessageId;
+
+        @JsonProperty(value = "chatThreadId")
+        private String chatThreadId;
+
+        @JsonProperty(value = "enqueuedOn")
+        private long enqueuedOnMillis;
+
+        @JsonProperty(value = "options")
+        private SendChatMessageOptions options;
+    }
+}
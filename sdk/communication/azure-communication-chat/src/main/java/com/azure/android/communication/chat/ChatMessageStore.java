@@ -0,0 +1,564 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat;
+
+import com.azure.android.communication.chat.implementation.converters.ChatMessageConverter;
+import com.azure.android.communication.chat.implementation.store.SegmentedMessageLog;
+import com.azure.android.communication.chat.models.ChatEvent;
+import com.azure.android.communication.chat.models.ChatMessage;
+import com.azure.android.communication.chat.models.ChatMessageContent;
+import com.azure.android.communication.chat.models.ChatMessageDeletedEvent;
+import com.azure.android.communication.chat.models.ChatMessageEditedEvent;
+import com.azure.android.communication.chat.models.ChatMessageReceivedEvent;
+import com.azure.android.communication.chat.models.ListChatMessagesOptions;
+import com.azure.android.communication.chat.models.RealTimeNotificationCallback;
+import com.azure.android.core.logging.ClientLogger;
+import com.azure.android.core.serde.jackson.JacksonSerder;
+import com.azure.android.core.serde.jackson.SerdeEncoding;
+import com.azure.android.core.util.AsyncStreamHandler;
+import com.azure.android.core.util.Function;
+import com.azure.android.core.util.RequestContext;
+
+import org.threeten.bp.Instant;
+import org.threeten.bp.OffsetDateTime;
+import org.threeten.bp.ZoneOffset;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import java9.util.concurrent.CompletableFuture;
+
+/**
+ * A local store of chat messages, persisted as an append-only log of segment files per chat thread, so that
+ * re-opening a conversation reads its messages from disk instead of retrieving every page again.
+ *
+ * <p>
+ * The store is fed by {@link #sync(ChatThreadAsyncClient)}, which retrieves the messages created since the last
+ * completed sync, and kept current by the message events of the realtime or push notifications: the store
+ * is a {@link RealTimeNotificationCallback} to register for the {@code CHAT_MESSAGE_RECEIVED},
+ * {@code CHAT_MESSAGE_EDITED} and {@code CHAT_MESSAGE_DELETED} event types.
+ * </p>
+ *
+ * <p>
+ * The store does not depend on the Android SQLite database, it only needs a directory it can write to. The segment
+ * files of the chat threads least recently used beyond {@code maxOpenLogs} are closed, and opened again once their
+ * chat thread is used again.
+ * </p>
+ */
+public final class ChatMessageStore implements RealTimeNotificationCallback, Closeable {
+    /**
+     * The default size at which a segment file is closed and a new one started.
+     */
+    public static final long DEFAULT_MAX_SEGMENT_BYTES = 1024 * 1024;
+
+    /**
+     * The default number of chat threads whose segment files are kept open.
+     */
+    public static final int DEFAULT_MAX_OPEN_LOGS = 16;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    // The file of a chat thread directory holding the creation time of the most recent message a sync retrieved.
+    private static final String SYNC_WATERMARK_FILE = "sync-watermark";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final ClientLogger logger = new ClientLogger(ChatMessageStore.class);
+    private final File directory;
+    private final long maxSegmentBytes;
+    private final int maxOpenLogs;
+    private final JacksonSerder jacksonSerder = JacksonSerder.createDefault();
+    // Guarded by 'this'.
+    private final Map<String, SegmentedMessageLog> logs = new HashMap<>();
+    // The logs whose files may be open, from the least recently used, guarded by 'this'.
+    private final LinkedHashMap<String, SegmentedMessageLog> openLogs = new LinkedHashMap<>(16, 0.75f, true);
+    private boolean closed;
+
+    /**
+     * Creates a store persisting the messages in the given directory.
+     *
+     * @param directory The directory to store the messages in.
+     * @throws NullPointerException if directory is null.
+     */
+    public ChatMessageStore(File directory) {
+        this(directory, DEFAULT_MAX_SEGMENT_BYTES);
+    }
+
+    /**
+     * Creates a store persisting the messages in the given directory.
+     *
+     * @param directory The directory to store the messages in.
+     * @param maxSegmentBytes The size at which a segment file is closed and a new one started.
+     * @throws NullPointerException if directory is null.
+     * @throws IllegalArgumentException if maxSegmentBytes is not positive.
+     */
+    public ChatMessageStore(File directory, long maxSegmentBytes) {
+        this(directory, maxSegmentBytes, DEFAULT_MAX_OPEN_LOGS);
+    }
+
+    /**
+     * Creates a store persisting the messages in the given directory.
+     *
+     * @param directory The directory to store the messages in.
+     * @param maxSegmentBytes The size at which a segment file is closed and a new one started.
+     * @param maxOpenLogs The number of chat threads whose segment files are kept open.
+     * @throws NullPointerException if directory is null.
+     * @throws IllegalArgumentException if maxSegmentBytes or maxOpenLogs is not positive.
+     */
+    public ChatMessageStore(File directory, long maxSegmentBytes, int maxOpenLogs) {
+        if (directory == null) {
+            throw logger.logExceptionAsError(new NullPointerException("'directory' cannot be null."));
+        }
+        if (maxSegmentBytes <= 0) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'maxSegmentBytes' must be positive, provided: " + maxSegmentBytes));
+        }
+        if (maxOpenLogs <= 0) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'maxOpenLogs' must be positive, provided: " + maxOpenLogs));
+        }
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.maxOpenLogs = maxOpenLogs;
+    }
+
+    /**
+     * Retrieves the messages of a chat thread created since the most recent message retrieved by the last completed
+     * sync, or all the messages if the thread was never synced, and stores them.
+     *
+     * <p>
+     * Only a completed sync advances the point the next sync starts from: the messages stored from the events do
+     * not, so that the messages created while the notifications were not received are retrieved.
+     * </p>
+     *
+     * @param client The client of the chat thread.
+     * @return the {@link CompletableFuture} that emits the number of messages retrieved.
+     */
+    public CompletableFuture<Integer> sync(ChatThreadAsyncClient client) {
+        if (client == null) {
+            return CompletableFuture.failedFuture(new NullPointerException("'client' cannot be null."));
+        }
+        final String chatThreadId = client.getChatThreadId();
+        final ListChatMessagesOptions options = new ListChatMessagesOptions();
+        try {
+            final Long syncedUntilMillis = this.readSyncWatermark(chatThreadId);
+            if (syncedUntilMillis != null) {
+                options.setStartTime(
+                    OffsetDateTime.ofInstant(Instant.ofEpochMilli(syncedUntilMillis), ZoneOffset.UTC));
+            }
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        final CompletableFuture<Integer> result = new CompletableFuture<>();
+        client.listMessages(options, RequestContext.NONE).forEach(new AsyncStreamHandler<ChatMessage>() {
+            private int count;
+            private Long latestCreatedOnMillis;
+
+            @Override
+            public void onNext(ChatMessage message) {
+                putMessageUnlessSuperseded(chatThreadId, message);
+                final long createdOnMillis = message.getCreatedOn().toInstant().toEpochMilli();
+                if (this.latestCreatedOnMillis == null || createdOnMillis > this.latestCreatedOnMillis) {
+                    this.latestCreatedOnMillis = createdOnMillis;
+                }
+                this.count++;
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                try {
+                    if (this.latestCreatedOnMillis != null) {
+                        advanceSyncWatermark(chatThreadId, this.latestCreatedOnMillis);
+                    }
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+                result.complete(this.count);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Stores a message of a chat thread, replacing the stored message with the same id if any.
+     *
+     * @param chatThreadId The id of the chat thread.
+     * @param message The message.
+     * @throws NullPointerException if chatThreadId or message is null.
+     * @throws IllegalArgumentException if the message has no id or no creation time.
+     * @throws RuntimeException if the message cannot be written.
+     */
+    public void putMessage(String chatThreadId, ChatMessage message) {
+        this.validateMessage(message);
+        try {
+            this.append(this.getLog(chatThreadId), message);
+        } catch (IOException e) {
+            throw logger.logExceptionAsError(new RuntimeException(e));
+        }
+    }
+
+    /**
+     * Stores a message retrieved from the service, unless the stored message with the same id has a newer version,
+     * as an edit event applied while the message was being retrieved leaves.
+     */
+    private void putMessageUnlessSuperseded(String chatThreadId, ChatMessage message) {
+        this.validateMessage(message);
+        final SegmentedMessageLog log = this.getLog(chatThreadId);
+        try {
+            // The operations of the log are synchronized on it, holding its monitor makes the read and the append
+            // atomic with regards to the events applied concurrently.
+            synchronized (log) {
+                final ChatMessage storedMessage = this.decode(log.read(message.getId()));
+                if (storedMessage != null && isNewer(storedMessage.getVersion(), message.getVersion())) {
+                    return;
+                }
+                this.append(log, message);
+            }
+        } catch (IOException e) {
+            throw logger.logExceptionAsError(new RuntimeException(e));
+        }
+    }
+
+    /**
+     * Gets a stored message of a chat thread.
+     *
+     * @param chatThreadId The id of the chat thread.
+     * @param messageId The id of the message.
+     * @return the message, null if the store has no message with the id.
+     * @throws NullPointerException if chatThreadId or messageId is null.
+     * @throws RuntimeException if the message cannot be read.
+     */
+    public ChatMessage getMessage(String chatThreadId, String messageId) {
+        if (messageId == null) {
+            throw logger.logExceptionAsError(new NullPointerException("'messageId' cannot be null."));
+        }
+        try {
+            return this.decode(this.getLog(chatThreadId).read(messageId));
+        } catch (IOException e) {
+            throw logger.logExceptionAsError(new RuntimeException(e));
+        }
+    }
+
+    /**
+     * Gets the stored messages of a chat thread, ordered from the most recently created to the oldest, as the
+     * service lists them.
+     *
+     * @param chatThreadId The id of the chat thread.
+     * @return the messages.
+     * @throws NullPointerException if chatThreadId is null.
+     * @throws RuntimeException if the messages cannot be read.
+     */
+    public List<ChatMessage> getMessages(String chatThreadId) {
+        try {
+            final List<byte[]> payloads = this.getLog(chatThreadId).readAllNewestFirst();
+            final List<ChatMessage> messages = new ArrayList<>(payloads.size());
+            for (byte[] payload : payloads) {
+                messages.add(this.decode(payload));
+            }
+            return messages;
+        } catch (IOException e) {
+            throw logger.logExceptionAsError(new RuntimeException(e));
+        }
+    }
+
+    /**
+     * Gets the creation time of the most recent message stored for a chat thread.
+     *
+     * @param chatThreadId The id of the chat thread.
+     * @return the creation time, null if no message of the thread is stored.
+     * @throws NullPointerException if chatThreadId is null.
+     * @throws RuntimeException if the messages cannot be read.
+     */
+    public OffsetDateTime getLatestCreatedOn(String chatThreadId) {
+        final Long latestCreatedOnMillis = this.getLog(chatThreadId).getLatestCreatedOnMillis();
+        return latestCreatedOnMillis == null
+            ? null
+            : OffsetDateTime.ofInstant(Instant.ofEpochMilli(latestCreatedOnMillis), ZoneOffset.UTC);
+    }
+
+    /**
+     * Applies a message event to the stored messages of its chat thread. Other events are ignored.
+     *
+     * <p>
+     * A received message is stored, an edited message has its content and edit time updated, and a deleted
+     * message has its deletion time set, as the service lists deleted messages. An edit or a deletion of a
+     * message not stored yet stores what the event carries of the message.
+     * </p>
+     *
+     * @param chatEvent The event.
+     */
+    @Override
+    public void onChatEvent(ChatEvent chatEvent) {
+        if (chatEvent == null || chatEvent.getChatThreadId() == null) {
+            return;
+        }
+        final String chatThreadId = chatEvent.getChatThreadId();
+        try {
+            if (chatEvent instanceof ChatMessageReceivedEvent) {
+                final ChatMessageReceivedEvent event = (ChatMessageReceivedEvent) chatEvent;
+                // An edit applied before this event arrived, as a late push notification does, is kept.
+                this.putMessageUnlessSuperseded(chatThreadId, new ChatMessage()
+                    .setId(event.getId())
+                    .setType(event.getType())
+                    .setVersion(event.getVersion())
+                    .setContent(new ChatMessageContent().setMessage(event.getContent()))
+                    .setSenderDisplayName(event.getSenderDisplayName())
+                    .setSenderCommunicationIdentifier(event.getSender())
+                    .setCreatedOn(event.getCreatedOn())
+                    .setMetadata(event.getMetadata()));
+            } else if (chatEvent instanceof ChatMessageEditedEvent) {
+                final ChatMessageEditedEvent event = (ChatMessageEditedEvent) chatEvent;
+                this.updateMessage(chatThreadId, event.getId(), event.getVersion(), event.getCreatedOn(),
+                    event.getSenderDisplayName(), message -> {
+                        final ChatMessageContent content = message.getContent() == null
+                            ? new ChatMessageContent()
+                            : message.getContent();
+                        return message
+                            .setContent(content.setMessage(event.getContent()))
+                            .setEditedOn(event.getEditedOn())
+                            .setMetadata(event.getMetadata());
+                    });
+            } else if (chatEvent instanceof ChatMessageDeletedEvent) {
+                final ChatMessageDeletedEvent event = (ChatMessageDeletedEvent) chatEvent;
+                this.updateMessage(chatThreadId, event.getId(), event.getVersion(), event.getCreatedOn(),
+                    event.getSenderDisplayName(), message -> message.setDeletedOn(event.getDeletedOn()));
+            }
+        } catch (RuntimeException e) {
+            // The event is dropped, the next sync retrieves the messages created since the last completed sync.
+            logger.warning("Cannot apply the event to the message store.", e);
+        }
+    }
+
+    /**
+     * Closes the segment files. The store must not be used once closed.
+     */
+    @Override
+    public void close() {
+        final List<SegmentedMessageLog> toClose;
+        synchronized (this) {
+            this.closed = true;
+            toClose = new ArrayList<>(this.logs.values());
+            this.logs.clear();
+            this.openLogs.clear();
+        }
+        this.closeLogs(toClose);
+    }
+
+    /**
+     * Gets the number of chat threads whose segment files may be open.
+     *
+     * @return The number of chat threads.
+     */
+    synchronized int getOpenLogCount() {
+        return this.openLogs.size();
+    }
+
+    /**
+     * Applies an update to a stored message, or to what the event carries of the message if it is not stored yet.
+     * The update is skipped if the stored message has a newer version than the event.
+     */
+    private void updateMessage(String chatThreadId,
+                               String messageId,
+                               String version,
+                               OffsetDateTime createdOn,
+                               String senderDisplayName,
+                               Function<ChatMessage, ChatMessage> update) {
+        if (messageId == null) {
+            throw logger.logExceptionAsError(new NullPointerException("'messageId' cannot be null."));
+        }
+        final SegmentedMessageLog log = this.getLog(chatThreadId);
+        try {
+            // The operations of the log are synchronized on it, holding its monitor makes the read-modify-write
+            // atomic with regards to the messages stored concurrently, by sync() or by other events.
+            synchronized (log) {
+                ChatMessage message = this.decode(log.read(messageId));
+                if (message == null) {
+                    message = new ChatMessage()
+                        .setId(messageId)
+                        .setCreatedOn(createdOn)
+                        .setSenderDisplayName(senderDisplayName);
+                } else if (isNewer(message.getVersion(), version)) {
+                    return;
+                }
+                final ChatMessage updatedMessage = update.call(message.setVersion(version));
+                this.validateMessage(updatedMessage);
+                this.append(log, updatedMessage);
+            }
+        } catch (IOException e) {
+            throw logger.logExceptionAsError(new RuntimeException(e));
+        }
+    }
+
+    /**
+     * Reads the creation time of the most recent message retrieved by a completed sync of a chat thread.
+     *
+     * @return the creation time in milliseconds since the epoch, null if the thread was never synced.
+     */
+    private Long readSyncWatermark(String chatThreadId) {
+        final SegmentedMessageLog log = this.getLog(chatThreadId);
+        final File file = new File(new File(this.directory, toDirectoryName(chatThreadId)), SYNC_WATERMARK_FILE);
+        synchronized (log) {
+            if (!file.isFile()) {
+                return null;
+            }
+            try (RandomAccessFile watermark = new RandomAccessFile(file, "r")) {
+                return Long.parseLong(watermark.readUTF());
+            } catch (IOException | NumberFormatException e) {
+                // The next sync retrieves all the messages again.
+                logger.warning("Cannot read the sync watermark of the chat thread {}.", chatThreadId, e);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Moves the sync watermark of a chat thread forward to the given creation time, unless a concurrent sync
+     * moved it further. The watermark is written to a temporary file renamed over the previous one, so that a crash
+     * leaves either of them.
+     */
+    private void advanceSyncWatermark(String chatThreadId, long createdOnMillis) {
+        final SegmentedMessageLog log = this.getLog(chatThreadId);
+        final File threadDirectory = new File(this.directory, toDirectoryName(chatThreadId));
+        final File file = new File(threadDirectory, SYNC_WATERMARK_FILE);
+        final File temporaryFile = new File(threadDirectory, SYNC_WATERMARK_FILE + ".tmp");
+        synchronized (log) {
+            final Long syncedUntilMillis = this.readSyncWatermark(chatThreadId);
+            if (syncedUntilMillis != null && syncedUntilMillis >= createdOnMillis) {
+                return;
+            }
+            try {
+                try (RandomAccessFile watermark = new RandomAccessFile(temporaryFile, "rw")) {
+                    watermark.setLength(0);
+                    watermark.writeUTF(Long.toString(createdOnMillis));
+                    watermark.getFD().sync();
+                }
+                if (!temporaryFile.renameTo(file) && !(file.delete() && temporaryFile.renameTo(file))) {
+                    throw new IOException("Cannot replace the sync watermark " + file);
+                }
+            } catch (IOException e) {
+                throw logger.logExceptionAsError(new RuntimeException(e));
+            }
+        }
+    }
+
+    private void validateMessage(ChatMessage message) {
+        if (message == null) {
+            throw logger.logExceptionAsError(new NullPointerException("'message' cannot be null."));
+        }
+        if (message.getId() == null || message.getCreatedOn() == null) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'message' must have an id and a creation time."));
+        }
+    }
+
+    private void append(SegmentedMessageLog log, ChatMessage message) throws IOException {
+        final byte[] payload = this.jacksonSerder
+            .serialize(ChatMessageConverter.convert(message, this.logger), SerdeEncoding.JSON)
+            .getBytes(UTF_8);
+        log.append(message.getId(), message.getCreatedOn().toInstant().toEpochMilli(), payload);
+    }
+
+    /**
+     * Gets the log of a chat thread, marking it as the most recently used. The files of the logs least recently
+     * used beyond {@code maxOpenLogs} are closed; a log stays usable once its files are closed, it opens them again
+     * on demand.
+     */
+    private SegmentedMessageLog getLog(String chatThreadId) {
+        if (chatThreadId == null) {
+            throw logger.logExceptionAsError(new NullPointerException("'chatThreadId' cannot be null."));
+        }
+        final SegmentedMessageLog log;
+        final List<SegmentedMessageLog> toClose = new ArrayList<>();
+        synchronized (this) {
+            if (this.closed) {
+                throw logger.logExceptionAsError(new IllegalStateException("The message store is closed."));
+            }
+            SegmentedMessageLog existingLog = this.logs.get(chatThreadId);
+            if (existingLog == null) {
+                try {
+                    existingLog = new SegmentedMessageLog(new File(this.directory, toDirectoryName(chatThreadId)),
+                        this.maxSegmentBytes,
+                        this.logger);
+                } catch (IOException e) {
+                    throw logger.logExceptionAsError(new RuntimeException(e));
+                }
+                this.logs.put(chatThreadId, existingLog);
+            }
+            log = existingLog;
+            this.openLogs.put(chatThreadId, log);
+            final Iterator<SegmentedMessageLog> leastRecentlyUsed = this.openLogs.values().iterator();
+            while (this.openLogs.size() > this.maxOpenLogs) {
+                toClose.add(leastRecentlyUsed.next());
+                leastRecentlyUsed.remove();
+            }
+        }
+        // Closed outside the lock, closing waits for the operation running on the log if any.
+        this.closeLogs(toClose);
+        return log;
+    }
+
+    private void closeLogs(List<SegmentedMessageLog> toClose) {
+        for (SegmentedMessageLog log : toClose) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                logger.warning("Cannot close the message log.", e);
+            }
+        }
+    }
+
+    private ChatMessage decode(byte[] payload) throws IOException {
+        if (payload == null) {
+            return null;
+        }
+        final com.azure.android.communication.chat.implementation.models.ChatMessage message = this.jacksonSerder
+            .deserialize(new String(payload, UTF_8),
+                com.azure.android.communication.chat.implementation.models.ChatMessage.class,
+                SerdeEncoding.JSON);
+        return ChatMessageConverter.convert(message, this.logger);
+    }
+
+    /**
+     * Whether a stored version is newer than the version of an update. The versions are the times of the last edit
+     * in milliseconds since the epoch; a version that is not a number is not considered newer.
+     */
+    private static boolean isNewer(String storedVersion, String version) {
+        if (storedVersion == null || version == null) {
+            return false;
+        }
+        try {
+            return Long.parseLong(storedVersion) > Long.parseLong(version);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the name of the directory of a chat thread, the hexadecimal encoding of its id since the ids contain
+     * characters some file systems do not allow in a name.
+     */
+    private static String toDirectoryName(String chatThreadId) {
+        final byte[] bytes = chatThreadId.getBytes(UTF_8);
+        final char[] name = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            name[2 * i] = HEX_DIGITS[(bytes[i] >>> 4) & 0xF];
+            name[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+        return new String(name);
+    }
+}
@@ -6,6 +6,7 @@ package com.azure.android.communication.chat;
 import com.azure.android.communication.chat.implementation.AzureCommunicationChatServiceImpl;
 import com.azure.android.communication.chat.implementation.CFBackedPageAsyncStream;
 import com.azure.android.communication.chat.implementation.ChatThreadImpl;
+import com.azure.android.communication.chat.implementation.SharedChatResources;
 import com.azure.android.communication.chat.implementation.converters.AddChatParticipantsResultConverter;
 import com.azure.android.communication.chat.implementation.converters.AddChatParticipantsOptionsConverter;
 import com.azure.android.communication.chat.implementation.converters.ChatMessageConverter;
@@ -45,9 +46,11 @@ import com.azure.android.core.util.AsyncStream;
 import com.azure.android.core.util.RequestContext;
 import com.azure.android.core.util.Function;
 
+import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import java9.util.concurrent.CompletableFuture;
 
@@ -55,15 +58,20 @@ import java9.util.concurrent.CompletableFuture;
  * Async Client that supports chat thread operations.
  */
 @ServiceClient(builder = ChatThreadClientBuilder.class, isAsync = true)
-public final class ChatThreadAsyncClient {
+public final class ChatThreadAsyncClient implements Closeable {
     private final ClientLogger logger = new ClientLogger(ChatThreadAsyncClient.class);
 
     private final ChatThreadImpl chatThreadClient;
     private final String chatThreadId;
+    private final SharedChatResources sharedResources;
+    private final AtomicBoolean closed = new AtomicBoolean();
 
-    ChatThreadAsyncClient(AzureCommunicationChatServiceImpl chatServiceClient, String chatThreadId) {
+    ChatThreadAsyncClient(AzureCommunicationChatServiceImpl chatServiceClient,
+                          String chatThreadId,
+                          SharedChatResources sharedResources) {
         this.chatThreadClient = chatServiceClient.getChatThreadClient();
         this.chatThreadId = chatThreadId;
+        this.sharedResources = sharedResources;
     }
 
     /**
@@ -596,8 +604,10 @@ public final class ChatThreadAsyncClient {
             }
         };
 
+        final int prefetchPageCount = listMessagesOptions == null ? 0 : listMessagesOptions.getPrefetchPageCount();
         final Function<String, AsyncStream<PagedResponse<ChatMessage>>> streamRetriever = (String pageId) -> {
-            return new CFBackedPageAsyncStream<>(pageRetriever, id -> id != null, pageId, this.logger);
+            return new CFBackedPageAsyncStream<>(pageRetriever, id -> id != null, pageId, this.logger,
+                prefetchPageCount);
         };
 
         return new PagedAsyncStream<>(streamRetriever, this.logger);
@@ -1011,4 +1021,20 @@ public final class ChatThreadAsyncClient {
                     null);
             });
     }
+
+    /**
+     * Closes the client, releasing the HTTP client (with its thread pool and connection pool) and the serializer
+     * the builder shares across the clients of the same endpoint and credential once no other client uses them.
+     *
+     * <p>
+     * The client must not be used once closed. Closing a client built with a user provided HTTP client or
+     * pipeline, or a client closed already, does nothing.
+     * </p>
+     */
+    @Override
+    public void close() {
+        if (this.sharedResources != null && this.closed.compareAndSet(false, true)) {
+            this.sharedResources.release();
+        }
+    }
 }
@@ -0,0 +1,398 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat;
+
+import com.azure.android.communication.chat.models.ChatEvent;
+import com.azure.android.communication.chat.models.ChatParticipant;
+import com.azure.android.communication.chat.models.ChatThreadDeletedEvent;
+import com.azure.android.communication.chat.models.ChatThreadProperties;
+import com.azure.android.communication.chat.models.ChatThreadPropertiesUpdatedEvent;
+import com.azure.android.communication.chat.models.ParticipantsAddedEvent;
+import com.azure.android.communication.chat.models.ParticipantsRemovedEvent;
+import com.azure.android.communication.chat.models.RealTimeNotificationCallback;
+import com.azure.android.communication.common.CommunicationIdentifier;
+import com.azure.android.core.logging.ClientLogger;
+import com.azure.android.core.util.AsyncStreamHandler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import java9.util.concurrent.CompletableFuture;
+
+/**
+ * An in-memory cache of the properties and the participants of chat threads, so that rendering a thread header
+ * or the avatars of its participants does not call the service every time.
+ *
+ * <p>
+ * The cache keeps the entries of at most {@code maxThreadCount} threads, evicting the least recently used one.
+ * It is kept current by the thread events of the realtime or push notifications: the cache is a
+ * {@link RealTimeNotificationCallback} to register for the {@code CHAT_THREAD_PROPERTIES_UPDATED},
+ * {@code PARTICIPANTS_ADDED}, {@code PARTICIPANTS_REMOVED} and {@code CHAT_THREAD_DELETED} event types. An entry
+ * older than the time-to-live is retrieved again, which bounds its staleness when the notifications are not
+ * running.
+ * </p>
+ *
+ * <p>
+ * The values the cache emits are shared between the callers and must not be modified.
+ * </p>
+ */
+public final class ChatThreadCache implements RealTimeNotificationCallback {
+    /**
+     * The default number of threads the cache keeps the entries of.
+     */
+    public static final int DEFAULT_MAX_THREAD_COUNT = 100;
+
+    /**
+     * The default time after which an entry is retrieved again, in milliseconds.
+     */
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final ClientLogger logger = new ClientLogger(ChatThreadCache.class);
+    private final long timeToLiveNanos;
+    private final Ticker ticker;
+    // The entries in access order, guarded by 'this'.
+    private final LinkedHashMap<String, Entry> entries;
+    // Guarded by 'this'.
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a cache with the default size and time-to-live.
+     */
+    public ChatThreadCache() {
+        this(DEFAULT_MAX_THREAD_COUNT, DEFAULT_TIME_TO_LIVE_MILLIS);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxThreadCount The number of threads the cache keeps the entries of.
+     * @param timeToLiveMillis The time after which an entry is retrieved again, in milliseconds.
+     * @throws IllegalArgumentException if maxThreadCount or timeToLiveMillis is not positive.
+     */
+    public ChatThreadCache(int maxThreadCount, long timeToLiveMillis) {
+        this(maxThreadCount, timeToLiveMillis, System::nanoTime);
+    }
+
+    /**
+     * package-private.
+     *
+     * Creates a cache reading the time from the given ticker.
+     */
+    ChatThreadCache(final int maxThreadCount, long timeToLiveMillis, Ticker ticker) {
+        if (maxThreadCount <= 0) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'maxThreadCount' must be positive, provided: " + maxThreadCount));
+        }
+        if (timeToLiveMillis <= 0) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'timeToLiveMillis' must be positive, provided: " + timeToLiveMillis));
+        }
+        this.timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+        this.ticker = ticker;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (this.size() > maxThreadCount) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets the properties of a chat thread, from the cache if they were retrieved less than the time-to-live ago.
+     *
+     * @param client The client of the chat thread.
+     * @return the {@link CompletableFuture} that emits the thread properties.
+     */
+    public CompletableFuture<ChatThreadProperties> getProperties(ChatThreadAsyncClient client) {
+        if (client == null) {
+            return CompletableFuture.failedFuture(new NullPointerException("'client' cannot be null."));
+        }
+        final String chatThreadId = client.getChatThreadId();
+        final Slot<ChatThreadProperties> slot;
+        synchronized (this) {
+            final Entry entry = this.getOrCreateEntry(chatThreadId);
+            if (this.isFresh(entry.properties)) {
+                this.hitCount++;
+                return entry.properties.value.copy();
+            }
+            this.missCount++;
+            slot = new Slot<>(new CompletableFuture<>(), this.ticker.nanoTime());
+            entry.properties = slot;
+        }
+        this.load(chatThreadId, slot, client.getProperties(), false);
+        return slot.value.copy();
+    }
+
+    /**
+     * Gets the participants of a chat thread, from the cache if they were retrieved less than the time-to-live
+     * ago.
+     *
+     * @param client The client of the chat thread.
+     * @return the {@link CompletableFuture} that emits the thread participants.
+     */
+    public CompletableFuture<List<ChatParticipant>> getParticipants(ChatThreadAsyncClient client) {
+        if (client == null) {
+            return CompletableFuture.failedFuture(new NullPointerException("'client' cannot be null."));
+        }
+        final String chatThreadId = client.getChatThreadId();
+        final Slot<List<ChatParticipant>> slot;
+        synchronized (this) {
+            final Entry entry = this.getOrCreateEntry(chatThreadId);
+            if (this.isFresh(entry.participants)) {
+                this.hitCount++;
+                return entry.participants.value.copy();
+            }
+            this.missCount++;
+            slot = new Slot<>(new CompletableFuture<>(), this.ticker.nanoTime());
+            entry.participants = slot;
+        }
+        final CompletableFuture<List<ChatParticipant>> retrieved = new CompletableFuture<>();
+        client.listParticipants().forEach(new AsyncStreamHandler<ChatParticipant>() {
+            private final List<ChatParticipant> participants = new ArrayList<>();
+
+            @Override
+            public void onNext(ChatParticipant participant) {
+                this.participants.add(participant);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                retrieved.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                retrieved.complete(Collections.unmodifiableList(this.participants));
+            }
+        });
+        this.load(chatThreadId, slot, retrieved, true);
+        return slot.value.copy();
+    }
+
+    /**
+     * Removes the entry of a chat thread, its properties and participants are retrieved again on the next call.
+     *
+     * @param chatThreadId The id of the chat thread.
+     */
+    public synchronized void invalidate(String chatThreadId) {
+        this.entries.remove(chatThreadId);
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public synchronized void invalidateAll() {
+        this.entries.clear();
+    }
+
+    /**
+     * Gets the number of calls served from the cache.
+     *
+     * @return the hit count.
+     */
+    public synchronized long getHitCount() {
+        return this.hitCount;
+    }
+
+    /**
+     * Gets the number of calls that retrieved the value from the service.
+     *
+     * @return the miss count.
+     */
+    public synchronized long getMissCount() {
+        return this.missCount;
+    }
+
+    /**
+     * Gets the number of entries evicted to keep the cache within its size.
+     *
+     * @return the eviction count.
+     */
+    public synchronized long getEvictionCount() {
+        return this.evictionCount;
+    }
+
+    /**
+     * Gets the ratio of the calls served from the cache to all the calls.
+     *
+     * @return the hit rate, between 0 and 1, or 0 if the cache was not called.
+     */
+    public synchronized double getHitRate() {
+        final long requestCount = this.hitCount + this.missCount;
+        return requestCount == 0 ? 0 : (double) this.hitCount / requestCount;
+    }
+
+    /**
+     * Applies a thread event to the cached entry of its chat thread. Other events are ignored.
+     *
+     * <p>
+     * An update of the properties patches the cached topic, added and removed participants patch the cached
+     * participants, and a deleted thread has its entry removed. A value still being retrieved when the event
+     * arrives may or may not reflect it, so it is dropped from the cache instead.
+     * </p>
+     *
+     * @param chatEvent The event.
+     */
+    @Override
+    public void onChatEvent(ChatEvent chatEvent) {
+        if (chatEvent == null || chatEvent.getChatThreadId() == null) {
+            return;
+        }
+        final String chatThreadId = chatEvent.getChatThreadId();
+        synchronized (this) {
+            if (chatEvent instanceof ChatThreadDeletedEvent) {
+                this.entries.remove(chatThreadId);
+                return;
+            }
+            final Entry entry = this.entries.get(chatThreadId);
+            if (entry == null) {
+                return;
+            }
+            if (chatEvent instanceof ChatThreadPropertiesUpdatedEvent) {
+                final ChatThreadProperties updated = ((ChatThreadPropertiesUpdatedEvent) chatEvent).getProperties();
+                final ChatThreadProperties cached = completedValue(entry.properties);
+                if (cached == null || updated == null || updated.getTopic() == null) {
+                    entry.properties = null;
+                } else {
+                    entry.properties = entry.properties.patch(new ChatThreadProperties()
+                        .setId(cached.getId())
+                        .setTopic(updated.getTopic())
+                        .setCreatedOn(cached.getCreatedOn())
+                        .setCreatedByCommunicationIdentifier(cached.getCreatedByCommunicationIdentifier()));
+                }
+            } else if (chatEvent instanceof ParticipantsAddedEvent) {
+                final List<ChatParticipant> added = ((ParticipantsAddedEvent) chatEvent).getParticipantsAdded();
+                final List<ChatParticipant> cached = completedValue(entry.participants);
+                if (cached == null || added == null) {
+                    entry.participants = null;
+                } else {
+                    final List<ChatParticipant> participants = withoutParticipants(cached, added);
+                    participants.addAll(added);
+                    entry.participants = entry.participants.patch(Collections.unmodifiableList(participants));
+                }
+            } else if (chatEvent instanceof ParticipantsRemovedEvent) {
+                final List<ChatParticipant> removed = ((ParticipantsRemovedEvent) chatEvent).getParticipantsRemoved();
+                final List<ChatParticipant> cached = completedValue(entry.participants);
+                if (cached == null || removed == null) {
+                    entry.participants = null;
+                } else {
+                    entry.participants = entry.participants.patch(
+                        Collections.unmodifiableList(withoutParticipants(cached, removed)));
+                }
+            }
+        }
+    }
+
+    private <T> void load(String chatThreadId, Slot<T> slot, CompletableFuture<T> retrieval, boolean participants) {
+        retrieval.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                // A failure is not cached, the next call retrieves the value again.
+                synchronized (this) {
+                    final Entry entry = this.entries.get(chatThreadId);
+                    if (entry != null) {
+                        if (participants && entry.participants == slot) {
+                            entry.participants = null;
+                        } else if (!participants && entry.properties == slot) {
+                            entry.properties = null;
+                        }
+                    }
+                }
+                slot.value.completeExceptionally(throwable);
+            } else {
+                slot.value.complete(value);
+            }
+        });
+    }
+
+    private Entry getOrCreateEntry(String chatThreadId) {
+        Entry entry = this.entries.get(chatThreadId);
+        if (entry == null) {
+            entry = new Entry();
+            this.entries.put(chatThreadId, entry);
+        }
+        return entry;
+    }
+
+    private boolean isFresh(Slot<?> slot) {
+        return slot != null && this.ticker.nanoTime() - slot.retrievedAtNanos < this.timeToLiveNanos;
+    }
+
+    private static <T> T completedValue(Slot<T> slot) {
+        if (slot == null || !slot.value.isDone() || slot.value.isCompletedExceptionally()) {
+            return null;
+        }
+        return slot.value.getNow(null);
+    }
+
+    private static List<ChatParticipant> withoutParticipants(List<ChatParticipant> participants,
+                                                             List<ChatParticipant> toRemove) {
+        final List<ChatParticipant> remaining = new ArrayList<>(participants.size());
+        for (ChatParticipant participant : participants) {
+            boolean removed = false;
+            for (ChatParticipant candidate : toRemove) {
+                if (sameIdentifier(participant.getCommunicationIdentifier(),
+                    candidate.getCommunicationIdentifier())) {
+                    removed = true;
+                    break;
+                }
+            }
+            if (!removed) {
+                remaining.add(participant);
+            }
+        }
+        return remaining;
+    }
+
+    private static boolean sameIdentifier(CommunicationIdentifier identifier, CommunicationIdentifier other) {
+        return identifier == null ? other == null : identifier.equals(other);
+    }
+
+    /**
+     * package-private.
+     *
+     * The source of the time the cache measures the age of its entries with, in nanoseconds.
+     */
+    interface Ticker {
+        long nanoTime();
+    }
+
+    /**
+     * The cached properties and participants of a chat thread, guarded by the cache.
+     */
+    private static final class Entry {
+        private Slot<ChatThreadProperties> properties;
+        private Slot<List<ChatParticipant>> participants;
+    }
+
+    /**
+     * A cached value, or the retrieval of it still running, with the time the retrieval started.
+     */
+    private static final class Slot<T> {
+        private final CompletableFuture<T> value;
+        private final long retrievedAtNanos;
+
+        Slot(CompletableFuture<T> value, long retrievedAtNanos) {
+            this.value = value;
+            this.retrievedAtNanos = retrievedAtNanos;
+        }
+
+        /**
+         * Creates a slot with the patched value, aging from the same retrieval time since the part of the value
+         * the event does not carry is as old as before.
+         */
+        Slot<T> patch(T value) {
+            return new Slot<>(CompletableFuture.completedFuture(value), this.retrievedAtNanos);
+        }
+    }
+}
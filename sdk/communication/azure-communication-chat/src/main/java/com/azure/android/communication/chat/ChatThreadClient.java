@@ -3,6 +3,7 @@
 
 package com.azure.android.communication.chat;
 
+import com.azure.android.communication.chat.implementation.ReadAheadPageRetriever;
 import com.azure.android.communication.chat.models.AddChatParticipantsResult;
 import com.azure.android.communication.chat.models.ChatErrorResponseException;
 import com.azure.android.communication.chat.models.ChatMessage;
@@ -28,6 +29,7 @@ import com.azure.android.core.rest.util.paging.PagedResponse;
 import com.azure.android.core.util.RequestContext;
 import com.azure.android.core.util.Function;
 
+import java.io.Closeable;
 import java.util.concurrent.ExecutionException;
 
 import java9.util.concurrent.CompletableFuture;
@@ -36,7 +38,7 @@ import java9.util.concurrent.CompletableFuture;
  * Sync Client that supports chat thread operations.
  */
 @ServiceClient(builder = ChatThreadClientBuilder.class, isAsync = false)
-public final class ChatThreadClient {
+public final class ChatThreadClient implements Closeable {
     private final ClientLogger logger = new ClientLogger(ChatThreadClient.class);
 
     private final ChatThreadAsyncClient client;
@@ -337,13 +339,25 @@ public final class ChatThreadClient {
     @ServiceMethod(returns = ReturnType.COLLECTION)
     public PagedIterable<ChatMessage> listMessages(ListChatMessagesOptions listMessagesOptions,
         RequestContext requestContext) {
-        final Function<String, PagedResponse<ChatMessage>> pageRetriever = (String pageId) -> {
-            if (pageId == null) {
-                return this.getMessagesFirstPageWithResponse(listMessagesOptions, requestContext);
-            } else {
-                return this.getMessagesNextPageWithResponse(pageId, requestContext);
-            }
-        };
+        final int readAheadPageCount = listMessagesOptions == null ? 0 : listMessagesOptions.getPrefetchPageCount();
+        final Function<String, PagedResponse<ChatMessage>> pageRetriever;
+        if (readAheadPageCount > 0) {
+            pageRetriever = new ReadAheadPageRetriever<>((String pageId) -> {
+                if (pageId == null) {
+                    return this.client.getMessagesFirstPage(listMessagesOptions, requestContext);
+                } else {
+                    return this.client.getMessagesNextPage(pageId, requestContext);
+                }
+            }, pageId -> pageId != null, readAheadPageCount, this.logger);
+        } else {
+            pageRetriever = (String pageId) -> {
+                if (pageId == null) {
+                    return this.getMessagesFirstPageWithResponse(listMessagesOptions, requestContext);
+                } else {
+                    return this.getMessagesNextPageWithResponse(pageId, requestContext);
+                }
+            };
+        }
         return new PagedIterable<>(pageRetriever, pageId -> pageId != null, this.logger);
     }
 
@@ -554,6 +568,19 @@ public final class ChatThreadClient {
         return block(this.client.getReadReceiptsNextPage(nextLink, requestContext));
     }
 
+    /**
+     * Closes the client, releasing the HTTP client (with its thread pool and connection pool) and the serializer
+     * the builder shares across the clients of the same endpoint and credential once no other client uses them.
+     *
+     * <p>
+     * The client must not be used once closed.
+     * </p>
+     */
+    @Override
+    public void close() {
+        this.client.close();
+    }
+
     private <T> T block(CompletableFuture<T> completableFuture) {
         try {
             return completableFuture.get();
@@ -5,6 +5,7 @@ package com.azure.android.communication.chat;
 
 import com.azure.android.communication.chat.implementation.AzureCommunicationChatServiceImpl;
 import com.azure.android.communication.chat.implementation.AzureCommunicationChatServiceImplBuilder;
+import com.azure.android.communication.chat.implementation.SharedChatResources;
 import com.azure.android.communication.common.CommunicationAccessToken;
 import com.azure.android.communication.common.CommunicationTokenCredential;
 import com.azure.android.core.http.HttpClient;
@@ -204,14 +205,25 @@ public final class ChatThreadClientBuilder {
             throw logger.logExceptionAsError(new NullPointerException("'chatThreadId' is required."));
         }
 
-        return new ChatThreadAsyncClient(createInternalClient(), chatThreadId);
-    }
-
-    private AzureCommunicationChatServiceImpl createInternalClient() {
         if (endpoint == null) {
             throw logger.logExceptionAsError(new NullPointerException("'endpoint' is required."));
         }
 
+        final SharedChatResources sharedResources = this.httpPipeline == null && this.httpClient == null
+            && this.communicationTokenCredential != null
+            ? SharedChatResources.acquire(this.endpoint, this.communicationTokenCredential)
+            : null;
+        try {
+            return new ChatThreadAsyncClient(createInternalClient(sharedResources), chatThreadId, sharedResources);
+        } catch (RuntimeException e) {
+            if (sharedResources != null) {
+                sharedResources.release();
+            }
+            throw e;
+        }
+    }
+
+    private AzureCommunicationChatServiceImpl createInternalClient(SharedChatResources sharedResources) {
         HttpPipeline pipeline;
 
         if (this.httpPipeline != null) {
@@ -242,7 +254,9 @@ public final class ChatThreadClientBuilder {
                 chain.processNextPolicy(httpRequest);
             };
 
-            pipeline = createHttpPipeline(this.httpClient,
+            // The clients of an endpoint and a credential share one HTTP client, rather than each client
+            // opening its own thread pool and connection pool.
+            pipeline = createHttpPipeline(sharedResources == null ? this.httpClient : sharedResources.getHttpClient(),
                 authorizationPolicy,
                 this.customPolicies);
         }
@@ -252,7 +266,8 @@ public final class ChatThreadClientBuilder {
                 ? ChatServiceVersion.getLatest().getVersion()
                 : this.serviceVersion.getVersion())
             .endpoint(this.endpoint)
-            .pipeline(pipeline);
+            .pipeline(pipeline)
+            .jacksonSerder(sharedResources == null ? null : sharedResources.getJacksonSerder());
 
         return clientBuilder.buildClient();
     }
@@ -0,0 +1,284 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat;
+
+import com.azure.android.core.logging.ClientLogger;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import java9.util.concurrent.CompletableFuture;
+
+/**
+ * Sends the read receipts of chat threads, coalescing the receipts requested in quick succession so that only
+ * the one of the most recent message is sent.
+ *
+ * <p>
+ * Per chat thread, at most one receipt is sent at a time and one is pending. A requested receipt replaces the
+ * pending one if its message is more recent, and the pending receipt is sent once the debounce window started by
+ * the first receipt pending has elapsed, or when {@link #flush()} is called, for example when the app goes to the
+ * background. The future returned for a receipt completes when a receipt for its message, or for a more recent
+ * message, is sent.
+ * </p>
+ *
+ * <p>
+ * Message ids are compared as the creation times the service assigns them; the most recently requested receipt
+ * is considered the most recent when the ids are not numeric.
+ * </p>
+ */
+public final class ReadReceiptDispatcher implements Closeable {
+    /**
+     * The default time a receipt waits for more recent receipts to coalesce with, in milliseconds.
+     */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 500;
+
+    private final ClientLogger logger = new ClientLogger(ReadReceiptDispatcher.class);
+    private final long debounceMillis;
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownsScheduler;
+    // Guarded by 'this'.
+    private final Map<String, ThreadReceipts> receiptsByThread = new HashMap<>();
+    private boolean closed;
+
+    /**
+     * Creates a dispatcher with the default debounce window.
+     */
+    public ReadReceiptDispatcher() {
+        this(DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    /**
+     * Creates a dispatcher.
+     *
+     * @param debounceMillis The time a receipt waits for more recent receipts to coalesce with, in milliseconds.
+     * @throws IllegalArgumentException if debounceMillis is negative.
+     */
+    public ReadReceiptDispatcher(long debounceMillis) {
+        this(debounceMillis, createScheduler(), true);
+    }
+
+    /**
+     * package-private.
+     *
+     * Creates a dispatcher scheduling the debounce windows on the given scheduler.
+     */
+    ReadReceiptDispatcher(long debounceMillis, ScheduledExecutorService scheduler, boolean ownsScheduler) {
+        if (debounceMillis < 0) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'debounceMillis' cannot be negative, provided: " + debounceMillis));
+        }
+        this.debounceMillis = debounceMillis;
+        this.scheduler = scheduler;
+        this.ownsScheduler = ownsScheduler;
+    }
+
+    /**
+     * Requests a read receipt for a message of a chat thread.
+     *
+     * @param client The client of the chat thread.
+     * @param chatMessageId The id of the message read.
+     * @return the {@link CompletableFuture} that completes when a receipt for the message, or for a more recent
+     * message, is sent.
+     */
+    public CompletableFuture<Void> sendReadReceipt(ChatThreadAsyncClient client, String chatMessageId) {
+        if (client == null) {
+            return CompletableFuture.failedFuture(new NullPointerException("'client' cannot be null."));
+        }
+        if (chatMessageId == null) {
+            return CompletableFuture.failedFuture(new NullPointerException("'chatMessageId' cannot be null."));
+        }
+        final CompletableFuture<Void> receiptFuture = new CompletableFuture<>();
+        synchronized (this) {
+            if (this.closed) {
+                return CompletableFuture.failedFuture(new IllegalStateException("The dispatcher is closed."));
+            }
+            ThreadReceipts receipts = this.receiptsByThread.get(client.getChatThreadId());
+            if (receipts == null) {
+                receipts = new ThreadReceipts(client.getChatThreadId());
+                this.receiptsByThread.put(client.getChatThreadId(), receipts);
+            }
+            receipts.client = client;
+            if (receipts.sentMessageId != null && !isMoreRecent(chatMessageId, receipts.sentMessageId)) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (receipts.inFlight != null && !isMoreRecent(chatMessageId, receipts.inFlight.chatMessageId)) {
+                receipts.inFlight.waiters.add(receiptFuture);
+                return receiptFuture;
+            }
+            if (receipts.pending == null) {
+                receipts.pending = new Receipt(chatMessageId);
+                receipts.flushRequested = false;
+                final ThreadReceipts flushed = receipts;
+                receipts.scheduledFlush = this.scheduler.schedule(() -> this.flush(flushed),
+                    this.debounceMillis,
+                    TimeUnit.MILLISECONDS);
+            } else if (isMoreRecent(chatMessageId, receipts.pending.chatMessageId)) {
+                receipts.pending.chatMessageId = chatMessageId;
+            }
+            receipts.pending.waiters.add(receiptFuture);
+        }
+        return receiptFuture;
+    }
+
+    /**
+     * Sends the pending receipts without waiting for their debounce window to elapse.
+     */
+    public void flush() {
+        final List<ThreadReceipts> toFlush;
+        synchronized (this) {
+            toFlush = new ArrayList<>(this.receiptsByThread.values());
+        }
+        for (ThreadReceipts receipts : toFlush) {
+            this.flush(receipts);
+        }
+    }
+
+    /**
+     * Sends the pending receipts and stops accepting new ones.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+        }
+        this.flush();
+        if (this.ownsScheduler) {
+            this.scheduler.shutdown();
+        }
+    }
+
+    private void flush(ThreadReceipts receipts) {
+        final Receipt toSend;
+        final ChatThreadAsyncClient client;
+        synchronized (this) {
+            if (receipts.pending == null) {
+                return;
+            }
+            if (receipts.scheduledFlush != null) {
+                receipts.scheduledFlush.cancel(false);
+                receipts.scheduledFlush = null;
+            }
+            if (receipts.inFlight != null) {
+                // Sent once the receipt in flight completes.
+                receipts.flushRequested = true;
+                return;
+            }
+            toSend = receipts.pending;
+            receipts.pending = null;
+            receipts.inFlight = toSend;
+            client = receipts.client;
+        }
+        this.send(receipts, client, toSend);
+    }
+
+    private void send(ThreadReceipts receipts, ChatThreadAsyncClient client, Receipt receipt) {
+        CompletableFuture<Void> sendFuture;
+        try {
+            sendFuture = client.sendReadReceipt(receipt.chatMessageId);
+        } catch (RuntimeException e) {
+            sendFuture = CompletableFuture.failedFuture(e);
+        }
+        sendFuture.whenComplete((ignored, throwable) -> {
+            final List<CompletableFuture<Void>> completed;
+            final boolean sendPending;
+            synchronized (this) {
+                completed = new ArrayList<>(receipt.waiters);
+                receipts.inFlight = null;
+                if (throwable == null) {
+                    if (receipts.sentMessageId == null || isMoreRecent(receipt.chatMessageId, receipts.sentMessageId)) {
+                        receipts.sentMessageId = receipt.chatMessageId;
+                    }
+                    if (receipts.pending != null
+                        && !isMoreRecent(receipts.pending.chatMessageId, receipts.sentMessageId)) {
+                        // The receipt sent covers the pending one.
+                        completed.addAll(receipts.pending.waiters);
+                        if (receipts.scheduledFlush != null) {
+                            receipts.scheduledFlush.cancel(false);
+                            receipts.scheduledFlush = null;
+                        }
+                        receipts.pending = null;
+                    }
+                }
+                sendPending = receipts.pending != null && (receipts.flushRequested || this.closed);
+            }
+            for (CompletableFuture<Void> waiter : completed) {
+                if (throwable == null) {
+                    waiter.complete(null);
+                } else {
+                    waiter.completeExceptionally(throwable);
+                }
+            }
+            if (throwable != null) {
+                logger.warning("Cannot send the read receipt of the chat thread {}.", receipts.chatThreadId, throwable);
+            }
+            if (sendPending) {
+                this.flush(receipts);
+            }
+        });
+    }
+
+    /**
+     * Whether a message is more recent than another. The ids the service assigns are creation times in
+     * milliseconds; ids that are not numeric are considered more recent when different, the most recently
+     * requested receipt being the one to send.
+     */
+    private static boolean isMoreRecent(String chatMessageId, String otherChatMessageId) {
+        try {
+            return Long.parseLong(chatMessageId) > Long.parseLong(otherChatMessageId);
+        } catch (NumberFormatException e) {
+            return !chatMessageId.equals(otherChatMessageId);
+        }
+    }
+
+    private static ScheduledExecutorService createScheduler() {
+        final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "read-receipt-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * The receipts of a chat thread, guarded by the dispatcher.
+     */
+    private static final class ThreadReceipts {
+        private final String chatThreadId;
+        private ChatThreadAsyncClient client;
+        private Receipt inFlight;
+        private Receipt pending;
+        private ScheduledFuture<?> scheduledFlush;
+        // Whether the pending receipt is to be sent as soon as the one in flight completes.
+        private boolean flushRequested;
+        // The id of the most recent message a receipt was sent for.
+        private String sentMessageId;
+
+        ThreadReceipts(String chatThreadId) {
+            this.chatThreadId = chatThreadId;
+        }
+    }
+
+    /**
+     * A receipt to send, with the futures of the receipts it covers.
+     */
+    private static final class Receipt {
+        private final List<CompletableFuture<Void>> waiters = new ArrayList<>();
+        private String chatMessageId;
+
+        Receipt(String chatMessageId) {
+            this.chatMessageId = chatMessageId;
+        }
+    }
+}
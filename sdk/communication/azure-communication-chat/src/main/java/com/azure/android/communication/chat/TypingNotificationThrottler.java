@@ -0,0 +1,262 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat;
+
+import com.azure.android.communication.chat.models.SendChatMessageOptions;
+import com.azure.android.communication.chat.models.SendChatMessageResult;
+import com.azure.android.core.logging.ClientLogger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import java9.util.concurrent.CompletableFuture;
+
+/**
+ * Sends the typing notifications of chat threads at most once per interval, so that reporting every keystroke
+ * does not send a request each time and get throttled by the service.
+ *
+ * <p>
+ * Per chat thread, the first keystroke of an interval sends a notification right away, and the keystrokes
+ * following it within the interval send a single notification once the interval elapsed. While the throttler is
+ * inactive, for example when the app is in the background or the realtime notifications are stopped, the
+ * keystrokes are dropped without sending a request.
+ * </p>
+ *
+ * <p>
+ * Sending a message cancels the pending notification of its chat thread. The throttler does not observe the
+ * messages sent through the {@link ChatThreadAsyncClient}: send them through
+ * {@link #sendMessage(ChatThreadAsyncClient, SendChatMessageOptions)}, or call {@link #onMessageSent(String)}
+ * once a message is sent. Otherwise the pending notification is sent after the message, showing the sender as
+ * still typing.
+ * </p>
+ *
+ * <p>
+ * The pending notifications of all the throttlers are scheduled on a single shared thread.
+ * </p>
+ */
+public final class TypingNotificationThrottler {
+    /**
+     * The default minimum interval between two typing notifications of a thread, in milliseconds, the time the
+     * service expects a typing notification to be shown for.
+     */
+    public static final long DEFAULT_MIN_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(8);
+
+    private final ClientLogger logger = new ClientLogger(TypingNotificationThrottler.class);
+    private final long minIntervalNanos;
+    private final ScheduledExecutorService scheduler;
+    // Guarded by 'this'.
+    private final Map<String, ThreadTyping> typingByThread = new HashMap<>();
+    private boolean active = true;
+
+    /**
+     * Creates a throttler with the default minimum interval.
+     */
+    public TypingNotificationThrottler() {
+        this(DEFAULT_MIN_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Creates a throttler.
+     *
+     * @param minIntervalMillis The minimum interval between two typing notifications of a thread, in milliseconds.
+     * @throws IllegalArgumentException if minIntervalMillis is not positive.
+     */
+    public TypingNotificationThrottler(long minIntervalMillis) {
+        this(minIntervalMillis, SharedScheduler.INSTANCE);
+    }
+
+    /**
+     * package-private.
+     *
+     * Creates a throttler scheduling the pending notifications on the given scheduler.
+     */
+    TypingNotificationThrottler(long minIntervalMillis, ScheduledExecutorService scheduler) {
+        if (minIntervalMillis <= 0) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'minIntervalMillis' must be positive, provided: " + minIntervalMillis));
+        }
+        this.minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minIntervalMillis);
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Reports a keystroke in a chat thread, sending a typing notification now or once the interval elapsed.
+     * A notification that fails to be sent is logged and dropped.
+     *
+     * @param client The client of the chat thread.
+     * @throws NullPointerException if client is null.
+     */
+    public void onTyping(ChatThreadAsyncClient client) {
+        if (client == null) {
+            throw logger.logExceptionAsError(new NullPointerException("'client' cannot be null."));
+        }
+        final String chatThreadId = client.getChatThreadId();
+        synchronized (this) {
+            if (!this.active) {
+                return;
+            }
+            ThreadTyping typing = this.typingByThread.get(chatThreadId);
+            if (typing == null) {
+                typing = new ThreadTyping();
+                this.typingByThread.put(chatThreadId, typing);
+            }
+            typing.client = client;
+            final long now = System.nanoTime();
+            final long sinceLastSent = now - typing.lastSentNanos;
+            if (typing.neverSent || sinceLastSent >= this.minIntervalNanos) {
+                typing.neverSent = false;
+                typing.lastSentNanos = now;
+            } else {
+                if (typing.pendingSend == null) {
+                    final ThreadTyping scheduled = typing;
+                    typing.pendingSend = this.scheduler.schedule(() -> this.sendPending(scheduled),
+                        this.minIntervalNanos - sinceLastSent,
+                        TimeUnit.NANOSECONDS);
+                }
+                return;
+            }
+        }
+        this.send(client);
+    }
+
+    /**
+     * Sends a message to a chat thread, then cancels the pending typing notification of the thread once the message
+     * is sent.
+     *
+     * @param client The client of the chat thread.
+     * @param options Options for sending the message.
+     * @return the {@link CompletableFuture} that emits the id of the message.
+     */
+    public CompletableFuture<SendChatMessageResult> sendMessage(ChatThreadAsyncClient client,
+                                                                SendChatMessageOptions options) {
+        if (client == null) {
+            return CompletableFuture.failedFuture(new NullPointerException("'client' cannot be null."));
+        }
+        final String chatThreadId = client.getChatThreadId();
+        return client.sendMessage(options).thenApply(result -> {
+            this.onMessageSent(chatThreadId);
+            return result;
+        });
+    }
+
+    /**
+     * Reports that a message was sent in a chat thread, cancelling the pending typing notification of the thread.
+     * The next keystroke sends a notification right away.
+     *
+     * @param chatThreadId The id of the chat thread.
+     */
+    public void onMessageSent(String chatThreadId) {
+        final ScheduledFuture<?> toCancel;
+        synchronized (this) {
+            final ThreadTyping typing = this.typingByThread.remove(chatThreadId);
+            toCancel = typing == null ? null : takePendingSend(typing);
+        }
+        if (toCancel != null) {
+            toCancel.cancel(false);
+        }
+    }
+
+    /**
+     * Sets whether the throttler sends typing notifications. Deactivating it cancels the pending notifications.
+     *
+     * @param active Whether the throttler sends typing notifications.
+     */
+    public void setActive(boolean active) {
+        final List<ScheduledFuture<?>> toCancel = new ArrayList<>();
+        synchronized (this) {
+            this.active = active;
+            if (active) {
+                return;
+            }
+            for (ThreadTyping typing : this.typingByThread.values()) {
+                final ScheduledFuture<?> pendingSend = takePendingSend(typing);
+                if (pendingSend != null) {
+                    toCancel.add(pendingSend);
+                }
+            }
+            this.typingByThread.clear();
+        }
+        for (ScheduledFuture<?> pendingSend : toCancel) {
+            pendingSend.cancel(false);
+        }
+    }
+
+    /**
+     * Gets whether the throttler sends typing notifications.
+     *
+     * @return whether the throttler is active.
+     */
+    public synchronized boolean isActive() {
+        return this.active;
+    }
+
+    private void sendPending(ThreadTyping typing) {
+        final ChatThreadAsyncClient client;
+        synchronized (this) {
+            if (typing.pendingSend == null) {
+                return;
+            }
+            typing.pendingSend = null;
+            // A message sent or the throttler deactivated in the meantime removed the thread.
+            if (!this.active || this.typingByThread.get(typing.client.getChatThreadId()) != typing) {
+                return;
+            }
+            typing.lastSentNanos = System.nanoTime();
+            client = typing.client;
+        }
+        this.send(client);
+    }
+
+    /**
+     * Takes the pending notification of a thread to cancel it outside the lock, the notification does not send
+     * even if it already started running. Must be called holding the lock.
+     */
+    private static ScheduledFuture<?> takePendingSend(ThreadTyping typing) {
+        final ScheduledFuture<?> pendingSend = typing.pendingSend;
+        typing.pendingSend = null;
+        return pendingSend;
+    }
+
+    private void send(ChatThreadAsyncClient client) {
+        client.sendTypingNotification().whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                logger.warning("Cannot send the typing notification of the chat thread {}.",
+                    client.getChatThreadId(), throwable);
+            }
+        });
+    }
+
+    /**
+     * The typing state of a chat thread, guarded by the throttler.
+     */
+    private static final class ThreadTyping {
+        private ChatThreadAsyncClient client;
+        private boolean neverSent = true;
+        private long lastSentNanos;
+        private ScheduledFuture<?> pendingSend;
+    }
+
+    /**
+     * The scheduler of the pending notifications of all the throttlers, created on first use.
+     */
+    private static final class SharedScheduler {
+        private static final ScheduledExecutorService INSTANCE = create();
+
+        private static ScheduledExecutorService create() {
+            final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                final Thread thread = new Thread(runnable, "typing-notification-throttler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+}
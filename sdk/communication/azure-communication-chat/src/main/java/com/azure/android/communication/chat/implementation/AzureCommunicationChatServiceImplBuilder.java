@@ -98,6 +98,22 @@ public final class AzureCommunicationChatServiceImplBuilder {
         return this;
     }
 
+    /*
+     * The serializer to serialize an object into a string.
+     */
+    private JacksonSerder jacksonSerder;
+
+    /**
+     * Sets The serializer to serialize an object into a string.
+     *
+     * @param jacksonSerder the jacksonSerder value.
+     * @return the AzureCommunicationChatServiceImplBuilder.
+     */
+    public AzureCommunicationChatServiceImplBuilder jacksonSerder(JacksonSerder jacksonSerder) {
+        this.jacksonSerder = jacksonSerder;
+        return this;
+    }
+
     /*
      * The logging configuration for HTTP requests and responses.
      */
@@ -159,8 +175,11 @@ public final class AzureCommunicationChatServiceImplBuilder {
         if (pipeline == null) {
             this.pipeline = createHttpPipeline();
         }
+        if (jacksonSerder == null) {
+            this.jacksonSerder = JacksonSerder.createDefault();
+        }
         AzureCommunicationChatServiceImpl client =
-                new AzureCommunicationChatServiceImpl(pipeline, JacksonSerder.createDefault(), endpoint, apiVersion);
+                new AzureCommunicationChatServiceImpl(pipeline, jacksonSerder, endpoint, apiVersion);
         return client;
     }
 
@@ -12,6 +12,11 @@ import com.azure.android.core.util.CancellationToken;
 import com.azure.android.core.util.Function;
 import com.azure.android.core.util.Predicate;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CancellationException;
 
 import java9.util.concurrent.CompletableFuture;
@@ -23,15 +28,41 @@ public final class CFBackedPageAsyncStream<T>
     private final Predicate<String> continuationPredicate;
     private final String startPageId;
     private final ClientLogger logger;
+    private final int prefetchDepth;
 
     public CFBackedPageAsyncStream(Function<String, CompletableFuture<PagedResponse<T>>> pageRetriever,
                                    Predicate<String> continuationPredicate,
                                    String startPageId,
                                    ClientLogger logger) {
+        this(pageRetriever, continuationPredicate, startPageId, logger, 0);
+    }
+
+    /**
+     * Creates a CFBackedPageAsyncStream that retrieves up to {@code prefetchDepth} pages ahead of the page
+     * being delivered to the handler, overlapping the page retrievals with the processing of the pages.
+     *
+     * @param pageRetriever The function to retrieve a page given its id, null for the first page.
+     * @param continuationPredicate The predicate telling whether a continuation token identifies a next page.
+     * @param startPageId The id of the page to start the enumeration from.
+     * @param logger The logger.
+     * @param prefetchDepth The number of pages to retrieve ahead, 0 to retrieve a page only once the previous
+     *     page is delivered.
+     * @throws IllegalArgumentException if {@code prefetchDepth} is negative.
+     */
+    public CFBackedPageAsyncStream(Function<String, CompletableFuture<PagedResponse<T>>> pageRetriever,
+                                   Predicate<String> continuationPredicate,
+                                   String startPageId,
+                                   ClientLogger logger,
+                                   int prefetchDepth) {
+        if (prefetchDepth < 0) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'prefetchDepth' cannot be negative, provided: " + prefetchDepth));
+        }
         this.pageRetriever = pageRetriever;
         this.continuationPredicate = continuationPredicate;
         this.startPageId = startPageId;
         this.logger = logger;
+        this.prefetchDepth = prefetchDepth;
     }
 
     @Override
@@ -44,10 +75,13 @@ public final class CFBackedPageAsyncStream<T>
         }
 
         final CompletableFuture<Void> completableFuture = this.enumeratePages(startPageId, token, handler);
-        token.registerOnCancel(() -> {
+        final String onCancelId = UUID.randomUUID().toString();
+        token.registerOnCancel(onCancelId, () -> {
             completableFuture.cancel(true);
         });
         completableFuture.whenCompleteAsync((ignored, throwable) -> {
+            // The enumeration ended, the token no longer holds on to it.
+            token.unregisterOnCancel(onCancelId);
             if (throwable != null) {
                 if (throwable instanceof CompletionException && throwable.getCause() != null) {
                     // unwrap CF's CompletionException.
@@ -65,6 +99,9 @@ public final class CFBackedPageAsyncStream<T>
     private CompletableFuture<Void> enumeratePages(String pageId,
                                                    CancellationToken token,
                                                    AsyncStreamHandler<PagedResponse<T>> handler) {
+        if (this.prefetchDepth > 0) {
+            return new PrefetchingEnumeration(token, handler).begin(pageId);
+        }
         return this.pageRetriever.call(pageId).handleAsync((pagedResponse, throwable) -> {
             if (throwable != null) {
                 if (throwable instanceof RuntimeException) {
@@ -91,4 +128,149 @@ public final class CFBackedPageAsyncStream<T>
             }
         });
     }
+
+    private RuntimeException toRuntimeException(Throwable throwable) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        if (throwable instanceof RuntimeException) {
+            // avoid double-wrapping for already unchecked exception
+            return logger.logExceptionAsError((RuntimeException) throwable);
+        } else {
+            // wrap checked exception in a unchecked runtime exception
+            return logger.logExceptionAsError(new RuntimeException(throwable));
+        }
+    }
+
+    // The enumeration retrieving the next pages while the handler processes the current one.
+    //
+    // The pages are retrieved one after the other, as the id of a page is known only once the previous
+    // page is retrieved, and up to 'prefetchDepth' pages ahead of the page being delivered. The pages are
+    // delivered to the handler in order, one at a time; an error retrieving a page is signaled once the
+    // pages before it are delivered.
+    //
+    private final class PrefetchingEnumeration {
+        private final CancellationToken token;
+        private final AsyncStreamHandler<PagedResponse<T>> handler;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        // Guarded by 'this'. The pages retrieved or being retrieved, not yet delivered, in order.
+        private final Deque<CompletableFuture<PagedResponse<T>>> pages = new ArrayDeque<>();
+        private String nextPageId;
+        private boolean retrieving;
+        private boolean exhausted;
+
+        PrefetchingEnumeration(CancellationToken token, AsyncStreamHandler<PagedResponse<T>> handler) {
+            this.token = token;
+            this.handler = handler;
+        }
+
+        CompletableFuture<Void> begin(String pageId) {
+            this.nextPageId = pageId;
+            final String onCancelId = UUID.randomUUID().toString();
+            this.result.whenComplete((ignored, throwable) -> this.token.unregisterOnCancel(onCancelId));
+            this.token.registerOnCancel(onCancelId, () -> {
+                final List<CompletableFuture<PagedResponse<T>>> pendingPages;
+                synchronized (this) {
+                    this.exhausted = true;
+                    pendingPages = new ArrayList<>(this.pages);
+                }
+                for (CompletableFuture<PagedResponse<T>> page : pendingPages) {
+                    page.cancel(true);
+                }
+            });
+            this.retrieveNextPage();
+            return this.result;
+        }
+
+        private void retrieveNextPage() {
+            final String pageId;
+            final CompletableFuture<PagedResponse<T>> page = new CompletableFuture<>();
+            final boolean isHead;
+            synchronized (this) {
+                // The page being delivered plus 'prefetchDepth' pages ahead of it.
+                if (this.retrieving || this.exhausted || this.pages.size() > prefetchDepth) {
+                    return;
+                }
+                this.retrieving = true;
+                pageId = this.nextPageId;
+                this.pages.addLast(page);
+                isHead = this.pages.size() == 1;
+            }
+            if (isHead) {
+                this.deliver(page);
+            }
+
+            CompletableFuture<PagedResponse<T>> retrieval;
+            try {
+                retrieval = pageRetriever.call(pageId);
+            } catch (RuntimeException e) {
+                retrieval = CompletableFuture.failedFuture(e);
+            }
+            retrieval.whenComplete((pagedResponse, throwable) -> {
+                // Find the next page id before the page is delivered, to start retrieving the next page
+                // while the handler processes this one.
+                synchronized (this) {
+                    this.retrieving = false;
+                    if (throwable != null) {
+                        this.exhausted = true;
+                    } else {
+                        final String continuationToken = pagedResponse.getContinuationToken();
+                        this.nextPageId = continuationPredicate.test(continuationToken) ? continuationToken : null;
+                        this.exhausted = this.exhausted || this.nextPageId == null;
+                    }
+                }
+                if (throwable != null) {
+                    page.completeExceptionally(throwable);
+                } else {
+                    page.complete(pagedResponse);
+                }
+                this.retrieveNextPage();
+            });
+        }
+
+        private void deliver(CompletableFuture<PagedResponse<T>> page) {
+            page.handleAsync((pagedResponse, throwable) -> {
+                if (this.token.isCancellationRequested()) {
+                    this.result.completeExceptionally(new CancellationException());
+                    return null;
+                }
+                if (throwable != null) {
+                    this.result.completeExceptionally(toRuntimeException(throwable));
+                    return null;
+                }
+                try {
+                    this.handler.onNext(pagedResponse);
+                } catch (Throwable t) {
+                    synchronized (this) {
+                        this.exhausted = true;
+                    }
+                    this.result.completeExceptionally(t);
+                    return null;
+                }
+
+                final CompletableFuture<PagedResponse<T>> nextPage;
+                final boolean isLastPage;
+                synchronized (this) {
+                    this.pages.removeFirst();
+                    nextPage = this.pages.peekFirst();
+                    isLastPage = nextPage == null && this.exhausted;
+                }
+                if (isLastPage) {
+                    if (this.token.isCancellationRequested()) {
+                        this.result.completeExceptionally(new CancellationException());
+                    } else {
+                        this.result.complete(null);
+                    }
+                    return null;
+                }
+                // Delivering the page made room in the window, refill it before delivering the next page so that
+                // its retrieval overlaps with the processing. With no page queued, the retrieval delivers it.
+                this.retrieveNextPage();
+                if (nextPage != null) {
+                    this.deliver(nextPage);
+                }
+                return null;
+            });
+        }
+    }
 }
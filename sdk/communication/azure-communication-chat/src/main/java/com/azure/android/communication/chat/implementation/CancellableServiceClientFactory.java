@@ -0,0 +1,123 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat.implementation;
+
+import com.azure.android.core.http.HttpCallDispatcher;
+import com.azure.android.core.http.HttpCallback;
+import com.azure.android.core.http.HttpClient;
+import com.azure.android.core.http.HttpPipeline;
+import com.azure.android.core.http.HttpPipelineBuilder;
+import com.azure.android.core.http.HttpPipelinePolicy;
+import com.azure.android.core.http.HttpRequest;
+import com.azure.android.core.http.HttpResponse;
+import com.azure.android.core.util.CancellationToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Creates the service clients whose calls are cancelled by a {@link CancellationToken}, such as the token of one
+ * operation of a batch, while the generated service methods take no token.
+ *
+ * <p>
+ * A client created shares the policies and the HTTP client, with its dispatcher, of the service client the
+ * factory is created for; only the HTTP client is wrapped so that each request is sent with a token cancelled once
+ * either the token of the pipeline run or the given token is cancelled.
+ * </p>
+ */
+public final class CancellableServiceClientFactory {
+    private final AzureCommunicationChatServiceImpl serviceClient;
+    private final HttpPipelinePolicy[] policies;
+
+    /**
+     * Creates a CancellableServiceClientFactory.
+     *
+     * @param serviceClient The service client whose pipeline the clients created share.
+     */
+    public CancellableServiceClientFactory(AzureCommunicationChatServiceImpl serviceClient) {
+        this.serviceClient = serviceClient;
+        final HttpPipeline httpPipeline = serviceClient.getHttpPipeline();
+        final List<HttpPipelinePolicy> policies = new ArrayList<>();
+        // The pipeline does not expose its number of policies, only the policy at an index.
+        try {
+            for (int i = 0; ; i++) {
+                policies.add(httpPipeline.getPolicy(i));
+            }
+        } catch (IndexOutOfBoundsException e) {
+            // Every policy is collected.
+        }
+        this.policies = policies.toArray(new HttpPipelinePolicy[0]);
+    }
+
+    /**
+     * Creates a service client whose calls are cancelled once the given token is cancelled.
+     *
+     * @param cancellationToken The token to cancel the calls of the client.
+     * @return The service client, the shared one if the token is {@link CancellationToken#NONE}.
+     */
+    public AzureCommunicationChatServiceImpl create(CancellationToken cancellationToken) {
+        if (cancellationToken == CancellationToken.NONE) {
+            return this.serviceClient;
+        }
+        final HttpPipeline httpPipeline = new HttpPipelineBuilder()
+            .policies(this.policies)
+            .httpClient(new CancellableHttpClient(this.serviceClient.getHttpPipeline().getHttpClient(),
+                cancellationToken))
+            .build();
+        return new AzureCommunicationChatServiceImpl(httpPipeline,
+            this.serviceClient.getJacksonSerder(),
+            this.serviceClient.getEndpoint(),
+            this.serviceClient.getApiVersion());
+    }
+
+    /**
+     * An HTTP client sending the requests through another one, with a token that the given token also cancels.
+     */
+    private static final class CancellableHttpClient implements HttpClient {
+        private final HttpClient httpClient;
+        private final CancellationToken operationToken;
+
+        CancellableHttpClient(HttpClient httpClient, CancellationToken operationToken) {
+            this.httpClient = httpClient;
+            this.operationToken = operationToken;
+        }
+
+        @Override
+        public HttpCallDispatcher getHttpCallDispatcher() {
+            return this.httpClient.getHttpCallDispatcher();
+        }
+
+        @Override
+        public void send(HttpRequest httpRequest, CancellationToken cancellationToken, HttpCallback httpCallback) {
+            if (this.operationToken.isCancellationRequested()) {
+                httpCallback.onError(new IOException("Canceled."));
+                return;
+            }
+            final CancellationToken linkedToken = new CancellationToken();
+            final String registrationId = UUID.randomUUID().toString();
+            cancellationToken.registerOnCancel(registrationId, linkedToken::cancel);
+            this.operationToken.registerOnCancel(registrationId, linkedToken::cancel);
+            this.httpClient.send(httpRequest, linkedToken, new HttpCallback() {
+                @Override
+                public void onSuccess(HttpResponse response) {
+                    unregister(cancellationToken, registrationId);
+                    httpCallback.onSuccess(response);
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    unregister(cancellationToken, registrationId);
+                    httpCallback.onError(error);
+                }
+            });
+        }
+
+        private void unregister(CancellationToken cancellationToken, String registrationId) {
+            cancellationToken.unregisterOnCancel(registrationId);
+            this.operationToken.unregisterOnCancel(registrationId);
+        }
+    }
+}
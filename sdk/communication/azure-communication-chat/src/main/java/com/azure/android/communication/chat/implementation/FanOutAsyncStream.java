@@ -0,0 +1,302 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat.implementation;
+
+import com.azure.android.communication.chat.models.ChatThreadOperationResult;
+import com.azure.android.core.logging.ClientLogger;
+import com.azure.android.core.util.AsyncStream;
+import com.azure.android.core.util.AsyncStreamHandler;
+import com.azure.android.core.util.CancellationToken;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import java9.util.concurrent.CompletableFuture;
+import java9.util.concurrent.CompletionException;
+import java9.util.function.BiFunction;
+
+/**
+ * An {@link AsyncStream} that runs an operation on each chat thread of a batch, with at most
+ * {@code maxConcurrency} operations running at once, and signals the result of each operation as it completes.
+ *
+ * <p>
+ * A failed operation does not end the batch, its error is reported in its {@link ChatThreadOperationResult}.
+ * The stream completes once every operation completed. Cancelling the {@link CancellationToken} returned by
+ * {@link #forEach(AsyncStreamHandler)} cancels the {@link CancellationToken} given to each operation running and
+ * its future, skips the operations not started, and ends the stream with a {@link CancellationException}.
+ * </p>
+ *
+ * @param <T> The type of the value the operation produces.
+ */
+public final class FanOutAsyncStream<T> implements AsyncStream<ChatThreadOperationResult<T>> {
+    private final List<String> chatThreadIds;
+    private final BiFunction<String, CancellationToken, CompletableFuture<T>> operation;
+    private final int maxConcurrency;
+    private final ClientLogger logger;
+
+    /**
+     * Creates a FanOutAsyncStream.
+     *
+     * @param chatThreadIds The ids of the chat threads to run the operation on.
+     * @param operation The operation to run, given the id of a chat thread and the token cancelled when the batch
+     *     is cancelled, to pass to the service calls of the operation.
+     * @param maxConcurrency The maximum number of operations running at once.
+     * @param logger The logger to log.
+     * @throws NullPointerException if {@code chatThreadIds} or {@code operation} is null, or if
+     *     {@code chatThreadIds} contains a null id.
+     * @throws IllegalArgumentException if {@code maxConcurrency} is not positive.
+     */
+    public FanOutAsyncStream(Iterable<String> chatThreadIds,
+                             BiFunction<String, CancellationToken, CompletableFuture<T>> operation,
+                             int maxConcurrency,
+                             ClientLogger logger) {
+        if (chatThreadIds == null) {
+            throw logger.logExceptionAsError(new NullPointerException("'chatThreadIds' cannot be null."));
+        }
+        if (operation == null) {
+            throw logger.logExceptionAsError(new NullPointerException("'operation' cannot be null."));
+        }
+        if (maxConcurrency <= 0) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'maxConcurrency' must be positive, provided: " + maxConcurrency));
+        }
+        this.chatThreadIds = new ArrayList<>();
+        for (String chatThreadId : chatThreadIds) {
+            if (chatThreadId == null) {
+                throw logger.logExceptionAsError(
+                    new NullPointerException("'chatThreadIds' cannot contain a null id."));
+            }
+            this.chatThreadIds.add(chatThreadId);
+        }
+        this.operation = operation;
+        this.maxConcurrency = maxConcurrency;
+        this.logger = logger;
+    }
+
+    @Override
+    public CancellationToken forEach(AsyncStreamHandler<ChatThreadOperationResult<T>> handler) {
+        final CancellationToken token = new CancellationToken();
+        new Batch(token, handler).begin();
+        return token;
+    }
+
+    /**
+     * The state of one enumeration of the stream.
+     */
+    private final class Batch {
+        private final CancellationToken token;
+        private final AsyncStreamHandler<ChatThreadOperationResult<T>> handler;
+        // The number of launch requests, only the thread bringing it from 0 to 1 starts operations.
+        private final AtomicInteger launchRequests = new AtomicInteger();
+        // The number of drain requests, only the thread bringing it from 0 to 1 signals the handler.
+        private final AtomicInteger drainRequests = new AtomicInteger();
+        // The operations running and their cancellation tokens, guarded by 'this'.
+        private final Map<CompletableFuture<T>, CancellationToken> running = new HashMap<>();
+        // The results not signaled yet, in the order the operations completed, guarded by 'this'.
+        private final Queue<ChatThreadOperationResult<T>> results = new ArrayDeque<>();
+        // Guarded by 'this'.
+        private int nextIndex;
+        private int signaledCount;
+        private boolean terminated;
+        private boolean terminalSignalPending;
+        private Throwable terminalError;
+
+        Batch(CancellationToken token, AsyncStreamHandler<ChatThreadOperationResult<T>> handler) {
+            this.token = token;
+            this.handler = handler;
+        }
+
+        void begin() {
+            this.handler.onInit(this.token);
+            this.token.registerOnCancel(() -> {
+                final List<Map.Entry<CompletableFuture<T>, CancellationToken>> toCancel;
+                synchronized (this) {
+                    // Terminate first, the operations cancelled below then signal no result.
+                    this.terminateLocked(new CancellationException());
+                    toCancel = new ArrayList<>(this.running.entrySet());
+                }
+                for (Map.Entry<CompletableFuture<T>, CancellationToken> operation : toCancel) {
+                    // The token cancels the service calls of the operation, the future only its result.
+                    operation.getValue().cancel();
+                    operation.getKey().cancel(true);
+                }
+                this.drain();
+            });
+            if (chatThreadIds.isEmpty()) {
+                this.terminate(null);
+                return;
+            }
+            this.launch();
+        }
+
+        /**
+         * Starts operations until {@code maxConcurrency} are running or every operation is started. An operation
+         * completing synchronously requests another launch instead of starting the next one recursively.
+         */
+        private void launch() {
+            if (this.launchRequests.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (true) {
+                    final String chatThreadId;
+                    synchronized (this) {
+                        if (this.terminated
+                            || this.running.size() >= maxConcurrency
+                            || this.nextIndex >= chatThreadIds.size()) {
+                            break;
+                        }
+                        chatThreadId = chatThreadIds.get(this.nextIndex++);
+                    }
+                    this.start(chatThreadId);
+                }
+                missed = this.launchRequests.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void start(String chatThreadId) {
+            final CancellationToken operationToken = new CancellationToken();
+            CompletableFuture<T> operationFuture;
+            try {
+                operationFuture = operation.apply(chatThreadId, operationToken);
+                if (operationFuture == null) {
+                    operationFuture = CompletableFuture.failedFuture(
+                        new NullPointerException("The operation returned a null future."));
+                }
+            } catch (RuntimeException e) {
+                operationFuture = CompletableFuture.failedFuture(e);
+            }
+            final boolean cancelled;
+            synchronized (this) {
+                cancelled = this.terminated;
+                if (!cancelled) {
+                    this.running.put(operationFuture, operationToken);
+                }
+            }
+            if (cancelled) {
+                // The batch ended while the operation started.
+                operationToken.cancel();
+                operationFuture.cancel(true);
+                return;
+            }
+            final CompletableFuture<T> startedFuture = operationFuture;
+            startedFuture.whenComplete((value, throwable) -> {
+                synchronized (this) {
+                    this.running.remove(startedFuture);
+                }
+                this.onOperationCompleted(new ChatThreadOperationResult<>(chatThreadId,
+                    throwable == null ? value : null,
+                    unwrap(throwable)));
+            });
+        }
+
+        private void onOperationCompleted(ChatThreadOperationResult<T> result) {
+            synchronized (this) {
+                if (this.terminated) {
+                    return;
+                }
+                this.results.add(result);
+            }
+            this.drain();
+            this.launch();
+        }
+
+        /**
+         * Signals the results queued, then the terminal signal once pending, outside the lock so that a slow
+         * handler does not block the threads completing other operations. Signals are delivered one at a time,
+         * in the order the operations completed; a thread requesting a drain while another drains leaves the
+         * signals to it.
+         */
+        private void drain() {
+            if (this.drainRequests.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (true) {
+                    final ChatThreadOperationResult<T> result;
+                    final Throwable error;
+                    synchronized (this) {
+                        result = this.results.poll();
+                        if (result == null && !this.terminalSignalPending) {
+                            break;
+                        }
+                        if (result == null) {
+                            this.terminalSignalPending = false;
+                        }
+                        error = this.terminalError;
+                    }
+
+                    if (result == null) {
+                        this.signalTerminal(error);
+                        break;
+                    }
+                    try {
+                        this.handler.onNext(result);
+                    } catch (RuntimeException e) {
+                        // End the batch with the handler's error, then cancel the operations still running.
+                        this.terminate(e);
+                        this.token.cancel();
+                        continue;
+                    }
+                    final boolean completed;
+                    synchronized (this) {
+                        this.signaledCount++;
+                        completed = this.signaledCount == chatThreadIds.size();
+                    }
+                    if (completed) {
+                        this.terminate(null);
+                    }
+                }
+                missed = this.drainRequests.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void terminate(Throwable error) {
+            synchronized (this) {
+                this.terminateLocked(error);
+            }
+            this.drain();
+        }
+
+        /**
+         * Ends the batch, dropping the results not signaled yet; the terminal signal is delivered by the next
+         * drain.
+         */
+        private void terminateLocked(Throwable error) {
+            if (this.terminated) {
+                return;
+            }
+            this.terminated = true;
+            this.terminalSignalPending = true;
+            this.terminalError = error;
+            this.results.clear();
+        }
+
+        private void signalTerminal(Throwable error) {
+            if (error == null) {
+                this.handler.onComplete();
+            } else {
+                if (!(error instanceof CancellationException)) {
+                    logger.logThrowableAsError(error);
+                }
+                this.handler.onError(error);
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            return throwable.getCause();
+        }
+        return throwable;
+    }
+}
@@ -0,0 +1,124 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat.implementation;
+
+import com.azure.android.core.logging.ClientLogger;
+import com.azure.android.core.rest.util.paging.PagedResponse;
+import com.azure.android.core.util.Function;
+import com.azure.android.core.util.Predicate;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+
+import java9.util.concurrent.CompletableFuture;
+
+/**
+ * A synchronous page retriever, backing a {@link com.azure.android.core.rest.util.paging.PagedIterable},
+ * that retrieves up to {@code readAheadPageCount} pages ahead of the page returned last.
+ *
+ * <p>
+ * The pages ahead are retrieved through the asynchronous page retriever, one after the other since the
+ * continuation token of a page identifies the next one, while the caller processes the page returned last.
+ * An error retrieving a page ahead is thrown once that page is requested. Requesting a page other than the
+ * one following the page returned last discards the pages retrieved ahead.
+ * </p>
+ *
+ * @param <T> The type of page elements.
+ */
+public final class ReadAheadPageRetriever<T> implements Function<String, PagedResponse<T>> {
+    private final Function<String, CompletableFuture<PagedResponse<T>>> asyncPageRetriever;
+    private final Predicate<String> continuationPredicate;
+    private final int readAheadPageCount;
+    private final ClientLogger logger;
+    // The retrievals of the pages following the page returned last, in page order.
+    private final Deque<CompletableFuture<PagedResponse<T>>> pagesAhead = new ArrayDeque<>();
+    private String nextPageId;
+
+    /**
+     * Creates a ReadAheadPageRetriever.
+     *
+     * @param asyncPageRetriever The function to retrieve a page asynchronously given its id.
+     * @param continuationPredicate A predicate which determines if paging should continue.
+     * @param readAheadPageCount The maximum number of pages to retrieve ahead of the page returned last.
+     * @param logger The logger to log.
+     * @throws IllegalArgumentException if {@code readAheadPageCount} is not positive.
+     */
+    public ReadAheadPageRetriever(Function<String, CompletableFuture<PagedResponse<T>>> asyncPageRetriever,
+                                  Predicate<String> continuationPredicate,
+                                  int readAheadPageCount,
+                                  ClientLogger logger) {
+        if (readAheadPageCount <= 0) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'readAheadPageCount' must be positive, provided: "
+                    + readAheadPageCount));
+        }
+        this.asyncPageRetriever = asyncPageRetriever;
+        this.continuationPredicate = continuationPredicate;
+        this.readAheadPageCount = readAheadPageCount;
+        this.logger = logger;
+    }
+
+    @Override
+    public PagedResponse<T> call(String pageId) {
+        CompletableFuture<PagedResponse<T>> page;
+        synchronized (this) {
+            page = this.pagesAhead.isEmpty() || !equals(pageId, this.nextPageId)
+                ? null
+                : this.pagesAhead.poll();
+            if (page == null) {
+                for (CompletableFuture<PagedResponse<T>> pageAhead : this.pagesAhead) {
+                    pageAhead.cancel(true);
+                }
+                this.pagesAhead.clear();
+            }
+        }
+        if (page == null) {
+            page = this.asyncPageRetriever.call(pageId);
+        }
+
+        final PagedResponse<T> response;
+        try {
+            response = page.get();
+        } catch (InterruptedException e) {
+            throw logger.logExceptionAsError(new RuntimeException(e));
+        } catch (ExecutionException e) {
+            throw logger.logExceptionAsError(new RuntimeException(e));
+        }
+
+        synchronized (this) {
+            this.nextPageId = response.getContinuationToken();
+            if (this.continuationPredicate.test(this.nextPageId)) {
+                this.readAhead(response);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Chains the retrievals of the pages following the given page, up to {@code readAheadPageCount} pages.
+     *
+     * @param response The page returned last.
+     */
+    private void readAhead(PagedResponse<T> response) {
+        CompletableFuture<PagedResponse<T>> previous = this.pagesAhead.isEmpty()
+            ? CompletableFuture.completedFuture(response)
+            : this.pagesAhead.peekLast();
+        while (this.pagesAhead.size() < this.readAheadPageCount) {
+            final CompletableFuture<PagedResponse<T>> next = previous.thenCompose(previousPage -> {
+                // A null page follows the last page, it is never requested.
+                if (previousPage == null || !this.continuationPredicate.test(previousPage.getContinuationToken())) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                return this.asyncPageRetriever.call(previousPage.getContinuationToken());
+            });
+            this.pagesAhead.add(next);
+            previous = next;
+        }
+    }
+
+    private static boolean equals(String pageId1, String pageId2) {
+        return pageId1 == null ? pageId2 == null : pageId1.equals(pageId2);
+    }
+}
@@ -0,0 +1,203 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat.implementation;
+
+import com.azure.android.communication.common.CommunicationTokenCredential;
+import com.azure.android.core.http.HttpClient;
+import com.azure.android.core.http.okhttp.OkHttpAsyncHttpClientBuilder;
+import com.azure.android.core.serde.jackson.JacksonSerder;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * The resources shared by the chat clients built for the same endpoint and credential: the HTTP client, with its
+ * dispatcher, thread pool and connection pool, and the serializer.
+ *
+ * <p>
+ * The resources are reference-counted, each client built on them acquires a reference and releases it when
+ * closed. The thread pool and the connections are released once the last client is closed, a client built later
+ * for the same endpoint and credential gets new resources.
+ * </p>
+ *
+ * <p>
+ * Closing the clients is optional: the registry holds the credential weakly, and the resources of a credential
+ * that is no longer reachable, and so no longer used by any client, are released on the next acquire or release.
+ * </p>
+ */
+public final class SharedChatResources {
+    private static final Map<Key, SharedChatResources> REGISTRY = new HashMap<>();
+    // The keys of the credentials collected, guarded by REGISTRY.
+    private static final ReferenceQueue<CommunicationTokenCredential> COLLECTED_CREDENTIALS = new ReferenceQueue<>();
+
+    private final Key key;
+    private final OkHttpClient okHttpClient;
+    private final HttpClient httpClient;
+    private final JacksonSerder jacksonSerder;
+    // Guarded by REGISTRY.
+    private int referenceCount;
+
+    private SharedChatResources(Key key) {
+        this.key = key;
+        this.okHttpClient = new OkHttpClient();
+        this.httpClient = new OkHttpAsyncHttpClientBuilder(this.okHttpClient).build();
+        this.jacksonSerder = JacksonSerder.createDefault();
+    }
+
+    /**
+     * Acquires a reference to the resources shared by the clients of an endpoint and a credential, creating
+     * the resources if no client holds them.
+     *
+     * @param endpoint The endpoint of the chat service.
+     * @param credential The credential of the clients.
+     * @return The shared resources, to release when the client holding them is closed.
+     */
+    public static SharedChatResources acquire(String endpoint, CommunicationTokenCredential credential) {
+        final List<SharedChatResources> unreachable;
+        final SharedChatResources resources;
+        synchronized (REGISTRY) {
+            unreachable = expungeCollectedCredentials();
+            final Key lookupKey = new Key(endpoint, credential, null);
+            SharedChatResources registered = REGISTRY.get(lookupKey);
+            if (registered == null) {
+                registered = new SharedChatResources(new Key(endpoint, credential, COLLECTED_CREDENTIALS));
+                REGISTRY.put(registered.key, registered);
+            }
+            registered.referenceCount++;
+            resources = registered;
+        }
+        shutdown(unreachable);
+        return resources;
+    }
+
+    /**
+     * Acquires another reference to these resources, for a client created from a client holding a reference.
+     *
+     * @return Whether the reference was acquired, false if the resources were released already.
+     */
+    public boolean retain() {
+        synchronized (REGISTRY) {
+            if (this.referenceCount == 0) {
+                return false;
+            }
+            this.referenceCount++;
+            return true;
+        }
+    }
+
+    /**
+     * Releases a reference acquired with {@link #acquire(String, CommunicationTokenCredential)}, closing
+     * the resources when it is the last reference.
+     */
+    public void release() {
+        final List<SharedChatResources> unreachable;
+        synchronized (REGISTRY) {
+            unreachable = expungeCollectedCredentials();
+            if (this.referenceCount > 0) {
+                this.referenceCount--;
+                if (this.referenceCount == 0) {
+                    REGISTRY.remove(this.key);
+                    unreachable.add(this);
+                }
+            }
+        }
+        shutdown(unreachable);
+    }
+
+    /**
+     * Gets the shared HTTP client.
+     *
+     * @return The HTTP client.
+     */
+    public HttpClient getHttpClient() {
+        return this.httpClient;
+    }
+
+    /**
+     * Gets the shared serializer.
+     *
+     * @return The serializer.
+     */
+    public JacksonSerder getJacksonSerder() {
+        return this.jacksonSerder;
+    }
+
+    /**
+     * package-private.
+     *
+     * Gets the number of references held on the resources.
+     *
+     * @return The reference count.
+     */
+    int getReferenceCount() {
+        synchronized (REGISTRY) {
+            return this.referenceCount;
+        }
+    }
+
+    /**
+     * Removes the resources of the credentials collected from the registry, must be called holding REGISTRY.
+     *
+     * @return The resources removed, to shut down once REGISTRY is released.
+     */
+    private static List<SharedChatResources> expungeCollectedCredentials() {
+        final List<SharedChatResources> unreachable = new ArrayList<>();
+        Key key;
+        while ((key = (Key) COLLECTED_CREDENTIALS.poll()) != null) {
+            final SharedChatResources resources = REGISTRY.remove(key);
+            if (resources != null) {
+                resources.referenceCount = 0;
+                unreachable.add(resources);
+            }
+        }
+        return unreachable;
+    }
+
+    private static void shutdown(List<SharedChatResources> unreachable) {
+        for (SharedChatResources resources : unreachable) {
+            // The calls already running complete, the idle threads and connections are released.
+            resources.okHttpClient.dispatcher().executorService().shutdown();
+            resources.okHttpClient.connectionPool().evictAll();
+        }
+    }
+
+    /**
+     * The key of the shared resources, an endpoint and a weakly held credential compared by identity.
+     */
+    private static final class Key extends WeakReference<CommunicationTokenCredential> {
+        private final String endpoint;
+        private final int hashCode;
+
+        Key(String endpoint, CommunicationTokenCredential credential,
+            ReferenceQueue<CommunicationTokenCredential> queue) {
+            super(credential, queue);
+            this.endpoint = endpoint;
+            this.hashCode = 31 * endpoint.hashCode() + System.identityHashCode(credential);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            final CommunicationTokenCredential credential = this.get();
+            return credential != null && credential == other.get() && this.endpoint.equals(other.endpoint);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+}
@@ -46,6 +46,37 @@ public final class ChatMessageContentConverter {
         return chatMessageContent;
     }
 
+    /**
+     * Maps from {@link ChatMessageContent} to {com.azure.android.communication.chat.implementation.models.ChatMessageContent}.
+     */
+    public static com.azure.android.communication.chat.implementation.models.ChatMessageContent convert(
+        ChatMessageContent obj,
+        ClientLogger logger) {
+        if (obj == null) {
+            return null;
+        }
+
+        com.azure.android.communication.chat.implementation.models.ChatMessageContent chatMessageContent
+            = new com.azure.android.communication.chat.implementation.models.ChatMessageContent()
+            .setMessage(obj.getMessage())
+            .setTopic(obj.getTopic());
+
+        if (obj.getInitiatorCommunicationIdentifier() != null) {
+            chatMessageContent.setInitiatorCommunicationIdentifier(
+                CommunicationIdentifierConverter.convert(obj.getInitiatorCommunicationIdentifier(), logger));
+        }
+
+        if (obj.getParticipants() != null) {
+            List<ChatParticipant> participants = new ArrayList<>(obj.getParticipants().size());
+            for (com.azure.android.communication.chat.models.ChatParticipant participant : obj.getParticipants()) {
+                participants.add(ChatParticipantConverter.convert(participant, logger));
+            }
+            chatMessageContent.setParticipants(participants);
+        }
+
+        return chatMessageContent;
+    }
+
     private ChatMessageContentConverter() {
     }
 }
@@ -39,6 +39,36 @@ public final class ChatMessageConverter {
         return chatMessage;
     }
 
+    /**
+     * Maps from {@link ChatMessage} to {com.azure.android.communication.chat.implementation.models.ChatMessage}.
+     */
+    public static com.azure.android.communication.chat.implementation.models.ChatMessage convert(
+        ChatMessage obj,
+        ClientLogger logger) {
+        if (obj == null) {
+            return null;
+        }
+
+        com.azure.android.communication.chat.implementation.models.ChatMessage chatMessage
+            = new com.azure.android.communication.chat.implementation.models.ChatMessage()
+            .setId(obj.getId())
+            .setType(obj.getType())
+            .setVersion(obj.getVersion())
+            .setContent(ChatMessageContentConverter.convert(obj.getContent(), logger))
+            .setCreatedOn(obj.getCreatedOn())
+            .setDeletedOn(obj.getDeletedOn())
+            .setEditedOn(obj.getEditedOn())
+            .setSenderDisplayName(obj.getSenderDisplayName())
+            .setMetadata(obj.getMetadata());
+
+        if (obj.getSenderCommunicationIdentifier() != null) {
+            chatMessage.setSenderCommunicationIdentifier(
+                CommunicationIdentifierConverter.convert(obj.getSenderCommunicationIdentifier(), logger));
+        }
+
+        return chatMessage;
+    }
+
     private ChatMessageConverter() {
     }
 }
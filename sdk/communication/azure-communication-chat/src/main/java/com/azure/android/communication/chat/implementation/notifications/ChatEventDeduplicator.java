@@ -0,0 +1,197 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat.implementation.notifications;
+
+import com.azure.android.communication.chat.models.ChatEvent;
+import com.azure.android.communication.chat.models.ChatMessageDeletedEvent;
+import com.azure.android.communication.chat.models.ChatMessageEditedEvent;
+import com.azure.android.communication.chat.models.ChatMessageReceivedEvent;
+import com.azure.android.communication.chat.models.ChatThreadEvent;
+import com.azure.android.communication.chat.models.ReadReceiptReceivedEvent;
+import com.azure.android.communication.chat.models.TypingIndicatorReceivedEvent;
+import com.azure.android.communication.common.CommunicationIdentifier;
+import com.azure.android.core.logging.ClientLogger;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drops the events received from one notification channel that were already delivered from the other, when both
+ * the realtime and the push notifications are started.
+ *
+ * <p>
+ * An event is identified by its type and the id and version of its message or thread. The first channel to deliver
+ * an event claims it: the event is delivered again to the other handlers of that channel, but not to the handlers
+ * of the other channel. The events are remembered for a time window, and at most a given number of them, the
+ * oldest being forgotten first.
+ * </p>
+ */
+public final class ChatEventDeduplicator {
+    /**
+     * The default maximum number of events remembered.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The default time an event is remembered for, in milliseconds, longer than a push notification takes to be
+     * delivered.
+     */
+    public static final long DEFAULT_WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * The channels the events are received from.
+     */
+    public enum Channel {
+        /**
+         * The realtime notifications.
+         */
+        REALTIME,
+
+        /**
+         * The push notifications.
+         */
+        PUSH
+    }
+
+    private final ClientLogger logger = new ClientLogger(ChatEventDeduplicator.class);
+    private final int capacity;
+    private final long windowNanos;
+    // The events delivered in the order they were first seen, guarded by 'this'.
+    private final LinkedHashMap<String, Seen> seenEvents = new LinkedHashMap<>();
+    private long duplicateCount;
+
+    /**
+     * Creates a deduplicator with the default capacity and time window.
+     */
+    public ChatEventDeduplicator() {
+        this(DEFAULT_CAPACITY, DEFAULT_WINDOW_MILLIS);
+    }
+
+    /**
+     * Creates a deduplicator.
+     *
+     * @param capacity The maximum number of events remembered.
+     * @param windowMillis The time an event is remembered for, in milliseconds.
+     * @throws IllegalArgumentException if capacity or windowMillis is not positive.
+     */
+    public ChatEventDeduplicator(int capacity, long windowMillis) {
+        if (capacity <= 0) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'capacity' must be positive, provided: " + capacity));
+        }
+        if (windowMillis <= 0) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'windowMillis' must be positive, provided: " + windowMillis));
+        }
+        this.capacity = capacity;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+    }
+
+    /**
+     * Checks whether an event received from a channel was already delivered from the other one, remembering it
+     * otherwise.
+     *
+     * @param chatEvent The event received.
+     * @param channel The channel the event was received from.
+     * @return whether the event is a duplicate to drop.
+     */
+    public synchronized boolean isDuplicate(ChatEvent chatEvent, Channel channel) {
+        final String key = chatEvent == null ? null : toKey(chatEvent);
+        if (key == null) {
+            return false;
+        }
+        final long now = System.nanoTime();
+        this.expire(now);
+        final Seen seen = this.seenEvents.get(key);
+        if (seen == null) {
+            if (this.seenEvents.size() >= this.capacity) {
+                final Iterator<Seen> oldest = this.seenEvents.values().iterator();
+                oldest.next();
+                oldest.remove();
+            }
+            this.seenEvents.put(key, new Seen(channel, now));
+            return false;
+        }
+        if (seen.channel == channel) {
+            return false;
+        }
+        this.duplicateCount++;
+        logger.verbose("Dropped the " + key + " event received from " + channel + ", delivered from " + seen.channel);
+        return true;
+    }
+
+    /**
+     * Gets the number of duplicate events dropped.
+     *
+     * @return the number of duplicate events dropped.
+     */
+    public synchronized long getDuplicateCount() {
+        return this.duplicateCount;
+    }
+
+    private void expire(long now) {
+        final Iterator<Seen> iterator = this.seenEvents.values().iterator();
+        while (iterator.hasNext() && now - iterator.next().seenAtNanos >= this.windowNanos) {
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Gets the identity of an event, or null if it has none and cannot be told apart from another one.
+     */
+    private static String toKey(ChatEvent chatEvent) {
+        final String type = chatEvent.getClass().getSimpleName();
+        if (chatEvent instanceof ChatMessageReceivedEvent) {
+            final ChatMessageReceivedEvent event = (ChatMessageReceivedEvent) chatEvent;
+            return toKey(type, event.getChatThreadId(), event.getId(), event.getVersion());
+        } else if (chatEvent instanceof ChatMessageEditedEvent) {
+            final ChatMessageEditedEvent event = (ChatMessageEditedEvent) chatEvent;
+            return toKey(type, event.getChatThreadId(), event.getId(), event.getVersion());
+        } else if (chatEvent instanceof ChatMessageDeletedEvent) {
+            final ChatMessageDeletedEvent event = (ChatMessageDeletedEvent) chatEvent;
+            return toKey(type, event.getChatThreadId(), event.getId(), event.getVersion());
+        } else if (chatEvent instanceof ReadReceiptReceivedEvent) {
+            final ReadReceiptReceivedEvent event = (ReadReceiptReceivedEvent) chatEvent;
+            return toKey(type, event.getChatThreadId(), event.getChatMessageId(), getSenderRawId(event.getSender()));
+        } else if (chatEvent instanceof TypingIndicatorReceivedEvent) {
+            final TypingIndicatorReceivedEvent event = (TypingIndicatorReceivedEvent) chatEvent;
+            final String senderRawId = getSenderRawId(event.getSender());
+            return senderRawId == null || event.getReceivedOn() == null
+                ? null
+                : toKey(type, event.getChatThreadId(), event.getReceivedOn(), senderRawId);
+        } else if (chatEvent instanceof ChatThreadEvent) {
+            final ChatThreadEvent event = (ChatThreadEvent) chatEvent;
+            return toKey(type, event.getChatThreadId(), event.getVersion(), null);
+        }
+        return null;
+    }
+
+    /**
+     * Gets the raw id of the sender of an event, its identity across both channels, or null if it has none.
+     */
+    private static String getSenderRawId(CommunicationIdentifier sender) {
+        return sender == null ? null : NotificationUtils.getRawId(sender);
+    }
+
+    private static String toKey(String type, String chatThreadId, Object id, Object version) {
+        if (chatThreadId == null || id == null) {
+            return null;
+        }
+        return type + "|" + chatThreadId + "|" + id + "|" + version;
+    }
+
+    /**
+     * The channel an event was first delivered from, and when.
+     */
+    private static final class Seen {
+        private final Channel channel;
+        private final long seenAtNanos;
+
+        Seen(Channel channel, long seenAtNanos) {
+            this.channel = channel;
+            this.seenAtNanos = seenAtNanos;
+        }
+    }
+}
@@ -29,13 +29,14 @@ import com.azure.android.communication.common.UnknownIdentifier;
 import com.azure.android.core.logging.ClientLogger;
 import com.azure.android.core.serde.jackson.JacksonSerder;
 import com.azure.android.core.serde.jackson.SerdeEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
-import org.json.JSONException;
-import org.json.JSONObject;
 import org.threeten.bp.Instant;
 import org.threeten.bp.OffsetDateTime;
 import org.threeten.bp.ZoneId;
@@ -44,9 +45,11 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.crypto.Cipher;
@@ -68,6 +71,7 @@ public final class NotificationUtils {
     private static final ClientLogger CLIENT_LOGGER = new ClientLogger(NotificationUtils.class);
     private static final JacksonSerder JACKSON_SERDER = JacksonSerder.createDefault();
     private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final JsonFactory JSON_FACTORY = JSON_MAPPER.getFactory();
 
     public static final int MAX_TOKEN_FETCH_RETRY_COUNT = 3;
     public static final int MAX_REGISTRATION_RETRY_COUNT = 3;
@@ -131,21 +135,18 @@ public final class NotificationUtils {
     }};
 
     public static ChatEvent parseTrouterNotificationPayload(ChatEventType chatEventType, String body) {
-        int eventId = 0;
-        JSONObject genericPayload = null;
+        Integer eventId = null;
         try {
-            eventId = EVENT_IDS_MAPPING.get(chatEventType);
-            genericPayload = new JSONObject(body);
+            eventId = readEventId(body);
         } catch (Exception e) {
             CLIENT_LOGGER.error(e.getMessage());
+            return null;
         }
 
-        try {
-            if (genericPayload == null || genericPayload.getInt("eventId") != eventId) {
-                return null;
-            }
-        } catch (JSONException e) {
-            CLIENT_LOGGER.error(e.getMessage());
+        if (eventId == null) {
+            CLIENT_LOGGER.error("No value for eventId.");
+        } else if (!eventId.equals(EVENT_IDS_MAPPING.get(chatEventType))) {
+            return null;
         }
 
         return toEventPayload(chatEventType, body);
@@ -202,6 +203,39 @@ public final class NotificationUtils {
         }
     }
 
+    /**
+     * Gets the raw id of a communication identifier, the inverse of {@link #getCommunicationIdentifier(String)}.
+     *
+     * @param identifier The communication identifier.
+     * @return the raw id, null if the identifier is of an unknown class.
+     */
+    public static String getRawId(CommunicationIdentifier identifier) {
+        if (identifier instanceof CommunicationUserIdentifier) {
+            return ((CommunicationUserIdentifier) identifier).getId();
+        } else if (identifier instanceof UnknownIdentifier) {
+            return ((UnknownIdentifier) identifier).getId();
+        } else if (identifier instanceof PhoneNumberIdentifier) {
+            final PhoneNumberIdentifier phoneNumber = (PhoneNumberIdentifier) identifier;
+            return phoneNumber.getRawId() != null
+                ? phoneNumber.getRawId()
+                : PHONE_NUMBER_PREFIX + phoneNumber.getPhoneNumber();
+        } else if (identifier instanceof MicrosoftTeamsUserIdentifier) {
+            final MicrosoftTeamsUserIdentifier teamsUser = (MicrosoftTeamsUserIdentifier) identifier;
+            if (teamsUser.getRawId() != null) {
+                return teamsUser.getRawId();
+            }
+            if (teamsUser.isAnonymous()) {
+                return TEAMS_VISITOR_USER_PREFIX + teamsUser.getUserId();
+            } else if (CommunicationCloudEnvironment.DOD.equals(teamsUser.getCloudEnvironment())) {
+                return TEAMS_DOD_USER_PREFIX + teamsUser.getUserId();
+            } else if (CommunicationCloudEnvironment.GCCH.equals(teamsUser.getCloudEnvironment())) {
+                return TEAMS_GCCH_USER_PREFIX + teamsUser.getUserId();
+            }
+            return TEAMS_PUBLIC_USER_PREFIX + teamsUser.getUserId();
+        }
+        return null;
+    }
+
     public static boolean isValidEventId(int eventId) {
         return EVENT_TYPE_MAPPING.containsKey(eventId);
     }
@@ -239,14 +273,60 @@ public final class NotificationUtils {
             return metadata;
         }
 
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            metadata = mapper.readValue(rawMetadata, new TypeReference<HashMap<String, String>>() { });
-        } catch (Exception e) {
+        final Map<String, String> fields = parseJsonObjectFields(rawMetadata);
+        return fields == null ? metadata : fields;
+    }
+
+    /**
+     * Reads the string, number and boolean fields of a serialized JSON object in a single pass, skipping its nested
+     * objects and arrays and its null fields.
+     *
+     * @param json The serialized JSON object.
+     * @return the fields by name, or null if the JSON is not an object or is malformed.
+     */
+    public static Map<String, String> parseJsonObjectFields(String json) {
+        if (json == null) {
+            return null;
+        }
+
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return readObjectFields(parser, parser.nextToken());
+        } catch (IOException e) {
             CLIENT_LOGGER.error(e.getMessage());
+            return null;
         }
+    }
 
-        return metadata;
+    /**
+     * Reads the fields of the objects of a serialized JSON array in a single pass, as
+     * {@link #parseJsonObjectFields(String)} does for one object.
+     *
+     * @param json The serialized JSON array of objects.
+     * @return the fields of each object, or null if the JSON is not an array of objects or is malformed.
+     */
+    public static List<Map<String, String>> parseJsonObjectArrayFields(String json) {
+        if (json == null) {
+            return null;
+        }
+
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return null;
+            }
+            final List<Map<String, String>> objects = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                final Map<String, String> fields = readObjectFields(parser, token);
+                if (fields == null) {
+                    return null;
+                }
+                objects.add(fields);
+            }
+            return objects;
+        } catch (IOException e) {
+            CLIENT_LOGGER.error(e.getMessage());
+            return null;
+        }
     }
 
     public static OffsetDateTime parseEpochTime(Long epochMilli) {
@@ -255,6 +335,46 @@ public final class NotificationUtils {
             ZoneId.of("UTC"));
     }
 
+    /**
+     * Reads the top level eventId of a notification payload, skipping the other fields without materializing them.
+     *
+     * @return the eventId, or null if the payload has none.
+     */
+    private static Integer readEventId(String body) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "The notification payload is not a JSON object.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                parser.nextToken();
+                if ("eventId".equals(name)) {
+                    return parser.getValueAsInt();
+                }
+                parser.skipChildren();
+            }
+            return null;
+        }
+    }
+
+    private static Map<String, String> readObjectFields(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            return null;
+        }
+
+        final Map<String, String> fields = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.getCurrentName();
+            final JsonToken value = parser.nextToken();
+            if (value.isScalarValue() && value != JsonToken.VALUE_NULL) {
+                fields.put(name, parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return fields;
+    }
+
     public static CloudType getUserCloudTypeFromSkypeToken(String skypeToken) {
         String skypeId = decodeSkypeIdFromJwtToken(skypeToken);
         String prefix = skypeId.substring(0, skypeId.indexOf(":"));
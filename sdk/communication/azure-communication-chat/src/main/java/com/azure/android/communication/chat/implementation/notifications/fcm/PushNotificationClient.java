@@ -3,6 +3,7 @@
 
 package com.azure.android.communication.chat.implementation.notifications.fcm;
 
+import com.azure.android.communication.chat.implementation.notifications.ChatEventDeduplicator;
 import com.azure.android.communication.chat.implementation.notifications.NotificationUtils;
 import com.azure.android.communication.chat.models.ChatEvent;
 import com.azure.android.communication.chat.models.ChatEventType;
@@ -35,6 +36,7 @@ public class PushNotificationClient {
     private final ClientLogger logger = new ClientLogger(PushNotificationClient.class);
     private final CommunicationTokenCredential communicationTokenCredential;
     private final RegistrarClient registrarClient;
+    private final ChatEventDeduplicator deduplicator;
     private final Map<ChatEventType, Set<Consumer<ChatEvent>>> pushNotificationListeners;
     private boolean isPushNotificationsStarted;
     private String deviceRegistrationToken;
@@ -51,7 +53,18 @@ public class PushNotificationClient {
     private static final long KEY_ROTATE_GRACE_PERIOD_MILLIS = 3600000;
 
     public PushNotificationClient(CommunicationTokenCredential communicationTokenCredential) {
+        this(communicationTokenCredential, new ChatEventDeduplicator());
+    }
+
+    /**
+     * Creates a push notification client dropping the events already delivered by the realtime notifications.
+     * @param communicationTokenCredential the credential of the user
+     * @param deduplicator the deduplicator shared with the signaling client
+     */
+    public PushNotificationClient(CommunicationTokenCredential communicationTokenCredential,
+                                  ChatEventDeduplicator deduplicator) {
         this.communicationTokenCredential = communicationTokenCredential;
+        this.deduplicator = deduplicator;
         this.pushNotificationListeners = new HashMap<>();
         this.isPushNotificationsStarted = false;
         this.registrarClient = new RegistrarClient();
@@ -160,6 +173,10 @@ public class PushNotificationClient {
 
         if (this.pushNotificationListeners.containsKey(chatEventType)) {
             ChatEvent event = this.parsePushNotificationEvent(chatEventType, pushNotification);
+            if (this.deduplicator.isDuplicate(event, ChatEventDeduplicator.Channel.PUSH)) {
+                this.logger.info(" " + chatEventType + " already delivered by realtime notifications.");
+                return true;
+            }
             Set<Consumer<ChatEvent>> callbacks = this.pushNotificationListeners.get(chatEventType);
             for (Consumer<ChatEvent> callback: callbacks) {
                 this.logger.info(" invoke callback " + callback + " for " + chatEventType);
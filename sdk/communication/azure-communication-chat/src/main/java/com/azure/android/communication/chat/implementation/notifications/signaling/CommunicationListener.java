@@ -5,6 +5,7 @@ package com.azure.android.communication.chat.implementation.notifications.signal
 
 import android.text.TextUtils;
 
+import com.azure.android.communication.chat.implementation.notifications.ChatEventDeduplicator;
 import com.azure.android.communication.chat.implementation.notifications.NotificationUtils;
 import com.azure.android.communication.chat.models.ChatEvent;
 import com.azure.android.communication.chat.models.ChatEventType;
@@ -22,10 +23,14 @@ final class CommunicationListener implements ITrouterListener {
     private final ClientLogger logger;
     private final ChatEventType chatEventType;
     private final RealTimeNotificationCallback listenerFromConsumer;
+    private final ChatEventDeduplicator deduplicator;
 
-    CommunicationListener(ChatEventType chatEventType, RealTimeNotificationCallback listener) {
+    CommunicationListener(ChatEventType chatEventType,
+                          RealTimeNotificationCallback listener,
+                          ChatEventDeduplicator deduplicator) {
         this.chatEventType = chatEventType;
         this.listenerFromConsumer = listener;
+        this.deduplicator = deduplicator;
         this.logger = new ClientLogger(this.getClass());
     }
 
@@ -50,7 +55,8 @@ final class CommunicationListener implements ITrouterListener {
         logger.info(msg);
         // convert payload to chat event here
         ChatEvent chatEvent = NotificationUtils.parseTrouterNotificationPayload(chatEventType, iTrouterRequest.getBody());
-        if (chatEvent != null) {
+        // Already delivered if the push notification of the event was received first.
+        if (chatEvent != null && !deduplicator.isDuplicate(chatEvent, ChatEventDeduplicator.Channel.REALTIME)) {
             listenerFromConsumer.onChatEvent(chatEvent);
         }
     }
@@ -5,6 +5,7 @@ package com.azure.android.communication.chat.implementation.notifications.signal
 
 import android.content.Context;
 
+import com.azure.android.communication.chat.implementation.notifications.ChatEventDeduplicator;
 import com.azure.android.communication.chat.implementation.notifications.NotificationUtils;
 import com.azure.android.communication.chat.implementation.notifications.NotificationUtils.CloudType;
 import com.azure.android.communication.chat.models.ChatEventType;
@@ -49,12 +50,24 @@ public class CommunicationSignalingClient implements SignalingClient {
     private ISelfHostedTrouterClient trouter;
     private String userToken;
     private final CommunicationTokenCredential communicationTokenCredential;
+    private final ChatEventDeduplicator deduplicator;
     private final Map<RealTimeNotificationCallback, CommunicationListener> trouterListeners;
     private boolean isRealtimeNotificationsStarted;
     private int tokenFetchRetries;
 
     public CommunicationSignalingClient(CommunicationTokenCredential communicationTokenCredential) {
+        this(communicationTokenCredential, new ChatEventDeduplicator());
+    }
+
+    /**
+     * Creates a signaling client dropping the events already delivered by the push notifications.
+     * @param communicationTokenCredential the credential of the user
+     * @param deduplicator the deduplicator shared with the push notification client
+     */
+    public CommunicationSignalingClient(CommunicationTokenCredential communicationTokenCredential,
+                                        ChatEventDeduplicator deduplicator) {
         this.communicationTokenCredential = communicationTokenCredential;
+        this.deduplicator = deduplicator;
         this.logger = new ClientLogger(this.getClass());
         isRealtimeNotificationsStarted = false;
         trouterListeners = new HashMap<>();
@@ -163,7 +176,7 @@ public class CommunicationSignalingClient implements SignalingClient {
 
     @Override
     public void on(ChatEventType chatEventType, RealTimeNotificationCallback listener) {
-        CommunicationListener communicationListener = new CommunicationListener(chatEventType, listener);
+        CommunicationListener communicationListener = new CommunicationListener(chatEventType, listener, deduplicator);
         String loggingName = CommunicationSignalingClient.class.getName();
         if (!trouterListeners.containsKey(listener)) {
             if (ChatEventType.CHAT_MESSAGE_RECEIVED.equals(chatEventType)) {
@@ -0,0 +1,523 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat.implementation.store;
+
+import com.azure.android.core.logging.ClientLogger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of the messages of one chat thread, stored in segment files of a directory.
+ *
+ * <p>
+ * Each record holds a message id, its creation time and the serialized message. Storing a message again appends a
+ * new record that supersedes the previous one, removing a message appends a record without content that marks the
+ * previous one as superseded. The index, from message id to the position of its latest record and ordered by
+ * creation time, is kept in memory and rebuilt by scanning the segments when the log is opened. A record torn by a
+ * crash while being appended fails its checksum and is truncated away on open.
+ * </p>
+ *
+ * <p>
+ * Once the active segment reaches the maximum segment size, a new segment is started. Once the superseded records
+ * take more space than the live ones, the live records are rewritten into new segments and the old segments are
+ * deleted.
+ * </p>
+ *
+ * <p>
+ * At most two files are open at once: the active segment, and the last older segment read. They are opened on
+ * demand, and {@link #close()} releases them without invalidating the log. The operations are synchronized on the
+ * log, holding its monitor makes a sequence of operations atomic.
+ * </p>
+ */
+public final class SegmentedMessageLog implements Closeable {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    // The record header: the length of the record body and its CRC32.
+    private static final int HEADER_SIZE = 8;
+    // The creation time of the records marking a message as removed.
+    private static final long REMOVED = Long.MIN_VALUE;
+
+    private final File directory;
+    private final long maxSegmentBytes;
+    private final ClientLogger logger;
+    // The numbers of the segments, the highest one is the active segment.
+    private final TreeSet<Long> segmentNumbers = new TreeSet<>();
+    private final Map<String, Location> locationsById = new HashMap<>();
+    private final TreeMap<IndexKey, Location> locationsByCreationTime = new TreeMap<>();
+    private long liveBytes;
+    private long totalBytes;
+    // The file of the active segment, and of the last older segment read, opened on demand.
+    private RandomAccessFile activeFile;
+    private RandomAccessFile readerFile;
+    private long readerSegmentNumber;
+
+    /**
+     * Opens the log stored in the given directory, creating the directory if it does not exist.
+     *
+     * @param directory The directory of the segment files.
+     * @param maxSegmentBytes The size at which a segment is closed and a new one started.
+     * @param logger The logger to log.
+     * @throws IOException if the segments cannot be read.
+     */
+    public SegmentedMessageLog(File directory, long maxSegmentBytes, ClientLogger logger) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create the directory " + directory);
+        }
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.logger = logger;
+
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                final Long segmentNumber = parseSegmentNumber(file.getName());
+                if (segmentNumber != null) {
+                    this.segmentNumbers.add(segmentNumber);
+                }
+            }
+        }
+        for (Long segmentNumber : this.segmentNumbers) {
+            try (RandomAccessFile file = new RandomAccessFile(this.segmentFile(segmentNumber), "rw")) {
+                this.scanSegment(segmentNumber, file);
+            }
+        }
+        if (this.segmentNumbers.isEmpty()) {
+            this.startSegment(0);
+        }
+    }
+
+    /**
+     * Appends a record for a message, superseding the previous record of the message if any.
+     *
+     * @param messageId The id of the message.
+     * @param createdOnMillis The creation time of the message, in milliseconds since the epoch.
+     * @param payload The serialized message.
+     * @throws IOException if the record cannot be written.
+     */
+    public synchronized void append(String messageId, long createdOnMillis, byte[] payload) throws IOException {
+        if (createdOnMillis == REMOVED) {
+            throw new IllegalArgumentException("'createdOnMillis' is out of range.");
+        }
+        this.index(messageId, this.write(messageId, createdOnMillis, payload));
+        this.compactIfMostlySuperseded();
+    }
+
+    /**
+     * Removes a message, appending a record that marks its previous records as superseded.
+     *
+     * @param messageId The id of the message.
+     * @throws IOException if the record cannot be written.
+     */
+    public synchronized void remove(String messageId) throws IOException {
+        if (!this.locationsById.containsKey(messageId)) {
+            return;
+        }
+        this.unindex(messageId, this.write(messageId, REMOVED, new byte[0]));
+        this.compactIfMostlySuperseded();
+    }
+
+    private Location write(String messageId, long createdOnMillis, byte[] payload) throws IOException {
+        final byte[] id = messageId.getBytes(UTF_8);
+        final int bodyLength = 8 + 2 + id.length + payload.length;
+        final byte[] record = new byte[HEADER_SIZE + bodyLength];
+        int position = HEADER_SIZE;
+        position = putLong(record, position, createdOnMillis);
+        record[position++] = (byte) (id.length >>> 8);
+        record[position++] = (byte) id.length;
+        System.arraycopy(id, 0, record, position, id.length);
+        position += id.length;
+        System.arraycopy(payload, 0, record, position, payload.length);
+        final CRC32 crc = new CRC32();
+        crc.update(record, HEADER_SIZE, bodyLength);
+        putInt(record, 0, bodyLength);
+        putInt(record, 4, (int) crc.getValue());
+
+        final long offset = this.appendRecord(record);
+        return new Location(this.segmentNumbers.last(), offset, record.length, createdOnMillis);
+    }
+
+    /**
+     * Appends a record to the active segment, starting a new segment first if the record does not fit.
+     *
+     * @return The offset of the record in the active segment.
+     */
+    private long appendRecord(byte[] record) throws IOException {
+        RandomAccessFile file = this.getActiveFile();
+        if (file.length() > 0 && file.length() + record.length > this.maxSegmentBytes) {
+            this.startSegment(this.segmentNumbers.last() + 1);
+            file = this.getActiveFile();
+        }
+        final long offset = file.length();
+        file.seek(offset);
+        file.write(record);
+        return offset;
+    }
+
+    private void compactIfMostlySuperseded() throws IOException {
+        if (this.totalBytes > this.maxSegmentBytes && this.totalBytes - this.liveBytes > this.liveBytes) {
+            this.compact();
+        }
+    }
+
+    /**
+     * Reads the latest record of a message.
+     *
+     * @param messageId The id of the message.
+     * @return The serialized message, null if the log has no record of the message.
+     * @throws IOException if the record cannot be read.
+     */
+    public synchronized byte[] read(String messageId) throws IOException {
+        final Location location = this.locationsById.get(messageId);
+        return location == null ? null : this.readPayload(location);
+    }
+
+    /**
+     * Reads the latest record of every message, ordered from the most recently created message to the oldest.
+     *
+     * @return The serialized messages.
+     * @throws IOException if a record cannot be read.
+     */
+    public synchronized List<byte[]> readAllNewestFirst() throws IOException {
+        final List<byte[]> payloads = new ArrayList<>(this.locationsByCreationTime.size());
+        for (Location location : this.locationsByCreationTime.descendingMap().values()) {
+            payloads.add(this.readPayload(location));
+        }
+        return payloads;
+    }
+
+    /**
+     * Reads the latest record of every message, ordered from the oldest message to the most recently created.
+     *
+     * @return The serialized messages.
+     * @throws IOException if a record cannot be read.
+     */
+    public synchronized List<byte[]> readAllOldestFirst() throws IOException {
+        final List<byte[]> payloads = new ArrayList<>(this.locationsByCreationTime.size());
+        for (Location location : this.locationsByCreationTime.values()) {
+            payloads.add(this.readPayload(location));
+        }
+        return payloads;
+    }
+
+    /**
+     * Gets the creation time of the most recently created message.
+     *
+     * @return The creation time in milliseconds since the epoch, null if the log is empty.
+     */
+    public synchronized Long getLatestCreatedOnMillis() {
+        return this.locationsByCreationTime.isEmpty()
+            ? null
+            : this.locationsByCreationTime.lastKey().createdOnMillis;
+    }
+
+    /**
+     * Gets the number of messages in the log.
+     *
+     * @return The number of messages.
+     */
+    public synchronized int size() {
+        return this.locationsById.size();
+    }
+
+    /**
+     * Gets the number of segment files of the log.
+     *
+     * @return The number of segments.
+     */
+    public synchronized int getSegmentCount() {
+        return this.segmentNumbers.size();
+    }
+
+    /**
+     * Gets the number of segment files the log holds open.
+     *
+     * @return The number of open files.
+     */
+    public synchronized int getOpenFileCount() {
+        return (this.activeFile == null ? 0 : 1) + (this.readerFile == null ? 0 : 1);
+    }
+
+    /**
+     * Rewrites the live records into new segments and deletes the old segments.
+     *
+     * @throws IOException if the records cannot be rewritten.
+     */
+    public synchronized void compact() throws IOException {
+        final List<String> messageIds = new ArrayList<>(this.locationsById.size());
+        final List<Location> locations = new ArrayList<>(this.locationsById.size());
+        for (Map.Entry<String, Location> entry : this.locationsById.entrySet()) {
+            messageIds.add(entry.getKey());
+            locations.add(entry.getValue());
+        }
+        final List<byte[]> records = new ArrayList<>(locations.size());
+        for (Location location : locations) {
+            records.add(this.readRecord(location));
+        }
+
+        final List<Long> oldSegmentNumbers = new ArrayList<>(this.segmentNumbers);
+        this.startSegment(this.segmentNumbers.last() + 1);
+        this.locationsById.clear();
+        this.locationsByCreationTime.clear();
+        this.liveBytes = 0;
+        this.totalBytes = 0;
+        for (int i = 0; i < records.size(); i++) {
+            final byte[] record = records.get(i);
+            final long offset = this.appendRecord(record);
+            this.index(messageIds.get(i), new Location(this.segmentNumbers.last(), offset, record.length,
+                locations.get(i).createdOnMillis));
+        }
+        // The old segments are deleted only once their live records are written to the new ones, a crash before
+        // this point leaves both copies, the latest of which wins when the log is opened again.
+        this.closeReaderFile();
+        for (Long segmentNumber : oldSegmentNumbers) {
+            this.segmentNumbers.remove(segmentNumber);
+            final File file = this.segmentFile(segmentNumber);
+            if (!file.delete()) {
+                this.logger.warning("Cannot delete the compacted segment " + file);
+            }
+        }
+    }
+
+    /**
+     * Closes the open segment files. The log remains usable, it opens the files it needs again on demand.
+     *
+     * @throws IOException if a file cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        IOException error = null;
+        try {
+            this.closeReaderFile();
+        } catch (IOException e) {
+            error = e;
+        }
+        if (this.activeFile != null) {
+            try {
+                this.activeFile.close();
+            } catch (IOException e) {
+                error = e;
+            }
+            this.activeFile = null;
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private void scanSegment(long segmentNumber, RandomAccessFile file) throws IOException {
+        final long length = file.length();
+        long offset = 0;
+        final byte[] header = new byte[HEADER_SIZE];
+        while (offset + HEADER_SIZE <= length) {
+            file.seek(offset);
+            file.readFully(header);
+            final int bodyLength = getInt(header, 0);
+            if (bodyLength < 10 || offset + HEADER_SIZE + bodyLength > length) {
+                break;
+            }
+            final byte[] body = new byte[bodyLength];
+            file.readFully(body);
+            final CRC32 crc = new CRC32();
+            crc.update(body, 0, bodyLength);
+            if ((int) crc.getValue() != getInt(header, 4)) {
+                break;
+            }
+            final long createdOnMillis = getLong(body, 0);
+            final int idLength = ((body[8] & 0xFF) << 8) | (body[9] & 0xFF);
+            if (10 + idLength > bodyLength) {
+                break;
+            }
+            final String messageId = new String(body, 10, idLength, UTF_8);
+            final Location location = new Location(segmentNumber, offset, HEADER_SIZE + bodyLength, createdOnMillis);
+            if (createdOnMillis == REMOVED) {
+                this.unindex(messageId, location);
+            } else {
+                this.index(messageId, location);
+            }
+            offset += HEADER_SIZE + bodyLength;
+        }
+        if (offset < length) {
+            // A record torn by a crash while being appended, drop it and anything after it.
+            this.logger.warning("Truncating the torn tail of the segment " + this.segmentFile(segmentNumber)
+                + " at offset " + offset);
+            file.setLength(offset);
+        }
+    }
+
+    private void index(String messageId, Location location) {
+        final Location previous = this.locationsById.put(messageId, location);
+        if (previous != null) {
+            this.locationsByCreationTime.remove(new IndexKey(previous.createdOnMillis, messageId));
+            this.liveBytes -= previous.length;
+        }
+        this.locationsByCreationTime.put(new IndexKey(location.createdOnMillis, messageId), location);
+        this.liveBytes += location.length;
+        this.totalBytes += location.length;
+    }
+
+    private void unindex(String messageId, Location removal) {
+        final Location previous = this.locationsById.remove(messageId);
+        if (previous != null) {
+            this.locationsByCreationTime.remove(new IndexKey(previous.createdOnMillis, messageId));
+            this.liveBytes -= previous.length;
+        }
+        this.totalBytes += removal.length;
+    }
+
+    private byte[] readRecord(Location location) throws IOException {
+        final RandomAccessFile file = this.getFile(location.segmentNumber);
+        final byte[] record = new byte[location.length];
+        file.seek(location.offset);
+        file.readFully(record);
+        return record;
+    }
+
+    private byte[] readPayload(Location location) throws IOException {
+        final byte[] record = this.readRecord(location);
+        final int idLength = ((record[HEADER_SIZE + 8] & 0xFF) << 8) | (record[HEADER_SIZE + 9] & 0xFF);
+        return Arrays.copyOfRange(record, HEADER_SIZE + 10 + idLength, record.length);
+    }
+
+    private void startSegment(long segmentNumber) throws IOException {
+        final RandomAccessFile file = new RandomAccessFile(this.segmentFile(segmentNumber), "rw");
+        if (this.activeFile != null) {
+            this.activeFile.close();
+        }
+        this.activeFile = file;
+        this.segmentNumbers.add(segmentNumber);
+    }
+
+    private RandomAccessFile getActiveFile() throws IOException {
+        if (this.activeFile == null) {
+            this.activeFile = new RandomAccessFile(this.segmentFile(this.segmentNumbers.last()), "rw");
+        }
+        return this.activeFile;
+    }
+
+    /**
+     * Gets the file of a segment to read, the active one or an older one replacing the older one open if any.
+     */
+    private RandomAccessFile getFile(long segmentNumber) throws IOException {
+        if (segmentNumber == this.segmentNumbers.last()) {
+            return this.getActiveFile();
+        }
+        if (this.readerFile == null || this.readerSegmentNumber != segmentNumber) {
+            this.closeReaderFile();
+            this.readerFile = new RandomAccessFile(this.segmentFile(segmentNumber), "r");
+            this.readerSegmentNumber = segmentNumber;
+        }
+        return this.readerFile;
+    }
+
+    private void closeReaderFile() throws IOException {
+        if (this.readerFile != null) {
+            final RandomAccessFile file = this.readerFile;
+            this.readerFile = null;
+            file.close();
+        }
+    }
+
+    private File segmentFile(long segmentNumber) {
+        return new File(this.directory,
+            String.format(Locale.ROOT, "%s%016d%s", SEGMENT_PREFIX, segmentNumber, SEGMENT_SUFFIX));
+    }
+
+    private static Long parseSegmentNumber(String fileName) {
+        if (!fileName.startsWith(SEGMENT_PREFIX) || !fileName.endsWith(SEGMENT_SUFFIX)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(),
+                fileName.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int putInt(byte[] buffer, int position, int value) {
+        buffer[position] = (byte) (value >>> 24);
+        buffer[position + 1] = (byte) (value >>> 16);
+        buffer[position + 2] = (byte) (value >>> 8);
+        buffer[position + 3] = (byte) value;
+        return position + 4;
+    }
+
+    private static int putLong(byte[] buffer, int position, long value) {
+        putInt(buffer, position, (int) (value >>> 32));
+        return putInt(buffer, position + 4, (int) value);
+    }
+
+    private static int getInt(byte[] buffer, int position) {
+        return ((buffer[position] & 0xFF) << 24)
+            | ((buffer[position + 1] & 0xFF) << 16)
+            | ((buffer[position + 2] & 0xFF) << 8)
+            | (buffer[position + 3] & 0xFF);
+    }
+
+    private static long getLong(byte[] buffer, int position) {
+        return ((long) getInt(buffer, position) << 32) | (getInt(buffer, position + 4) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The position of a record in the segments.
+     */
+    private static final class Location {
+        private final long segmentNumber;
+        private final long offset;
+        private final int length;
+        private final long createdOnMillis;
+
+        Location(long segmentNumber, long offset, int length, long createdOnMillis) {
+            this.segmentNumber = segmentNumber;
+            this.offset = offset;
+            this.length = length;
+            this.createdOnMillis = createdOnMillis;
+        }
+    }
+
+    /**
+     * The key ordering the messages by creation time, then by id for the messages created at the same time.
+     */
+    private static final class IndexKey implements Comparable<IndexKey> {
+        private final long createdOnMillis;
+        private final String messageId;
+
+        IndexKey(long createdOnMillis, String messageId) {
+            this.createdOnMillis = createdOnMillis;
+            this.messageId = messageId;
+        }
+
+        @Override
+        public int compareTo(IndexKey other) {
+            if (this.createdOnMillis != other.createdOnMillis) {
+                return this.createdOnMillis < other.createdOnMillis ? -1 : 1;
+            }
+            return this.messageId.compareTo(other.messageId);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof IndexKey && this.compareTo((IndexKey) obj) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (int) (this.createdOnMillis ^ (this.createdOnMillis >>> 32)) + this.messageId.hashCode();
+        }
+    }
+}
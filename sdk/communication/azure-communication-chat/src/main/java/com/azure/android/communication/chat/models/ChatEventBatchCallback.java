@@ -0,0 +1,20 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat.models;
+
+import java.util.List;
+
+/**
+ *  Functional interface of the callback receiving the realtime notifications of a chat thread in batches
+ */
+@FunctionalInterface
+public interface ChatEventBatchCallback {
+
+    /**
+     * the call back method
+     * @param chatEvents the chat events of a thread, in the order they were received
+     */
+    void onChatEvents(List<ChatEvent> chatEvents);
+
+}
@@ -8,13 +8,11 @@ import com.azure.android.communication.chat.implementation.notifications.Notific
 import com.azure.android.communication.common.CommunicationIdentifier;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
 import org.threeten.bp.OffsetDateTime;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Event for a created chat thread.
@@ -116,17 +114,17 @@ public class ChatThreadCreatedEvent extends ChatThreadEvent {
     ChatThreadCreatedEvent setProperties() {
         this.properties = new ChatThreadProperties();
 
-        try {
-            JSONObject propertiesJsonObject = new JSONObject(this.propertiesJsonString);
-            this.properties
-                .setId(this.getChatThreadId())
-                .setTopic(propertiesJsonObject.getString("topic"))
-                .setCreatedByCommunicationIdentifier(this.createdBy.getCommunicationIdentifier())
-                .setCreatedOn(this.createdOn);
-        } catch (JSONException e) {
+        Map<String, String> propertiesFields = NotificationUtils.parseJsonObjectFields(this.propertiesJsonString);
+        if (propertiesFields == null || propertiesFields.get("topic") == null) {
             return this;
         }
 
+        this.properties
+            .setId(this.getChatThreadId())
+            .setTopic(propertiesFields.get("topic"))
+            .setCreatedByCommunicationIdentifier(this.createdBy.getCommunicationIdentifier())
+            .setCreatedOn(this.createdOn);
+
         return this;
     }
 
@@ -136,18 +134,18 @@ public class ChatThreadCreatedEvent extends ChatThreadEvent {
     ChatThreadCreatedEvent setCreatedBy() {
         this.createdBy = new ChatParticipant();
 
-        try {
-            JSONObject createdByJsonObject = new JSONObject(this.createdByJsonString);
-            CommunicationIdentifier createdByCommunicationIdentifier = NotificationUtils.getCommunicationIdentifier(
-                createdByJsonObject.getString("participantId"));
-
-            this.createdBy
-                .setCommunicationIdentifier(createdByCommunicationIdentifier)
-                .setDisplayName(createdByJsonObject.getString("displayName"));
-        } catch (JSONException e) {
+        Map<String, String> createdByFields = NotificationUtils.parseJsonObjectFields(this.createdByJsonString);
+        if (createdByFields == null || createdByFields.get("participantId") == null) {
             return this;
         }
 
+        CommunicationIdentifier createdByCommunicationIdentifier = NotificationUtils.getCommunicationIdentifier(
+            createdByFields.get("participantId"));
+
+        this.createdBy
+            .setCommunicationIdentifier(createdByCommunicationIdentifier)
+            .setDisplayName(createdByFields.get("displayName"));
+
         return this;
     }
 
@@ -157,21 +155,24 @@ public class ChatThreadCreatedEvent extends ChatThreadEvent {
     ChatThreadCreatedEvent setParticipants() {
         this.participants = new ArrayList<>();
 
-        try {
-            JSONArray participantsJsonArray = new JSONArray(this.participantsJsonString);
-            for (int i = 0; i < participantsJsonArray.length(); i++) {
-                JSONObject participant = participantsJsonArray.getJSONObject(i);
-                CommunicationIdentifier communicationUser = NotificationUtils.getCommunicationIdentifier(
-                    participant.getString("participantId"));
-
-                ChatParticipant chatParticipant = new ChatParticipant();
-                chatParticipant.setCommunicationIdentifier(communicationUser);
-                chatParticipant.setDisplayName(participant.getString("displayName"));
+        List<Map<String, String>> participantsFields =
+            NotificationUtils.parseJsonObjectArrayFields(this.participantsJsonString);
+        if (participantsFields == null) {
+            return this;
+        }
 
-                this.participants.add(chatParticipant);
+        for (Map<String, String> participant : participantsFields) {
+            if (participant.get("participantId") == null) {
+                return this;
             }
-        } catch (JSONException e) {
-            return this;
+            CommunicationIdentifier communicationUser = NotificationUtils.getCommunicationIdentifier(
+                participant.get("participantId"));
+
+            ChatParticipant chatParticipant = new ChatParticipant();
+            chatParticipant.setCommunicationIdentifier(communicationUser);
+            chatParticipant.setDisplayName(participant.get("displayName"));
+
+            this.participants.add(chatParticipant);
         }
 
         return this;
@@ -8,10 +8,10 @@ import com.azure.android.communication.chat.implementation.notifications.Notific
 import com.azure.android.communication.common.CommunicationIdentifier;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-import org.json.JSONException;
-import org.json.JSONObject;
 import org.threeten.bp.OffsetDateTime;
 
+import java.util.Map;
+
 /**
  * Event for an updated chat thread.
  * All chat participants receive this event, including the original sender.
@@ -68,18 +68,18 @@ public class ChatThreadDeletedEvent extends ChatThreadEvent {
     ChatThreadDeletedEvent setDeletedBy() {
         this.deletedBy = new ChatParticipant();
 
-        try {
-            JSONObject deletedByJsonObject = new JSONObject(this.deletedByJsonString);
-            CommunicationIdentifier deletedByCommunicationIdentifier = NotificationUtils.getCommunicationIdentifier(
-                deletedByJsonObject.getString("participantId"));
-
-            this.deletedBy
-                .setCommunicationIdentifier(deletedByCommunicationIdentifier)
-                .setDisplayName(deletedByJsonObject.getString("displayName"));
-        } catch (JSONException e) {
+        Map<String, String> deletedByFields = NotificationUtils.parseJsonObjectFields(this.deletedByJsonString);
+        if (deletedByFields == null || deletedByFields.get("participantId") == null) {
             return this;
         }
 
+        CommunicationIdentifier deletedByCommunicationIdentifier = NotificationUtils.getCommunicationIdentifier(
+            deletedByFields.get("participantId"));
+
+        this.deletedBy
+            .setCommunicationIdentifier(deletedByCommunicationIdentifier)
+            .setDisplayName(deletedByFields.get("displayName"));
+
         return this;
     }
 }
@@ -0,0 +1,68 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat.models;
+
+import com.azure.android.core.rest.annotation.Immutable;
+
+/**
+ * The outcome of an operation run on one chat thread of a batch, either the value the operation produced or
+ * the error it failed with.
+ *
+ * @param <T> The type of the value the operation produces.
+ */
+@Immutable
+public final class ChatThreadOperationResult<T> {
+    private final String chatThreadId;
+    private final T value;
+    private final Throwable error;
+
+    /**
+     * Initializes a new instance of the ChatThreadOperationResult class.
+     *
+     * @param chatThreadId The id of the chat thread the operation ran on.
+     * @param value The value the operation produced, null if the operation failed.
+     * @param error The error the operation failed with, null if the operation succeeded.
+     */
+    public ChatThreadOperationResult(String chatThreadId, T value, Throwable error) {
+        this.chatThreadId = chatThreadId;
+        this.value = value;
+        this.error = error;
+    }
+
+    /**
+     * Gets the id of the chat thread the operation ran on.
+     *
+     * @return the chat thread id.
+     */
+    public String getChatThreadId() {
+        return this.chatThreadId;
+    }
+
+    /**
+     * Gets the value the operation produced.
+     *
+     * @return the value, null if the operation failed.
+     */
+    public T getValue() {
+        return this.value;
+    }
+
+    /**
+     * Gets the error the operation failed with.
+     *
+     * @return the error, null if the operation succeeded.
+     */
+    public Throwable getError() {
+        return this.error;
+    }
+
+    /**
+     * Gets whether the operation succeeded.
+     *
+     * @return true if the operation succeeded, false if it failed.
+     */
+    public boolean isSuccessful() {
+        return this.error == null;
+    }
+}
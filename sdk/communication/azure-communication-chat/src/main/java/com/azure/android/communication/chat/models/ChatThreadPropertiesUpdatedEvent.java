@@ -8,10 +8,10 @@ import com.azure.android.communication.chat.implementation.notifications.Notific
 import com.azure.android.communication.common.CommunicationIdentifier;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-import org.json.JSONException;
-import org.json.JSONObject;
 import org.threeten.bp.OffsetDateTime;
 
+import java.util.Map;
+
 /**
  * Event for an updated chat thread.
  * All chat participants receive this event, including the original sender.
@@ -91,18 +91,18 @@ public class ChatThreadPropertiesUpdatedEvent extends ChatThreadEvent {
     ChatThreadPropertiesUpdatedEvent setUpdatedBy() {
         this.updatedBy = new ChatParticipant();
 
-        try {
-            JSONObject updatedByJsonObject = new JSONObject(this.updatedByJsonString);
-            CommunicationIdentifier updatedByCommunicationIdentifier = NotificationUtils.getCommunicationIdentifier(
-                updatedByJsonObject.getString("participantId"));
-
-            this.updatedBy
-                .setCommunicationIdentifier(updatedByCommunicationIdentifier)
-                .setDisplayName(updatedByJsonObject.getString("displayName"));
-        } catch (JSONException e) {
+        Map<String, String> updatedByFields = NotificationUtils.parseJsonObjectFields(this.updatedByJsonString);
+        if (updatedByFields == null || updatedByFields.get("participantId") == null) {
             return this;
         }
 
+        CommunicationIdentifier updatedByCommunicationIdentifier = NotificationUtils.getCommunicationIdentifier(
+            updatedByFields.get("participantId"));
+
+        this.updatedBy
+            .setCommunicationIdentifier(updatedByCommunicationIdentifier)
+            .setDisplayName(updatedByFields.get("displayName"));
+
         return this;
     }
 
@@ -112,15 +112,15 @@ public class ChatThreadPropertiesUpdatedEvent extends ChatThreadEvent {
     ChatThreadPropertiesUpdatedEvent setProperties() {
         this.properties = new ChatThreadProperties();
 
-        try {
-            JSONObject propertiesJsonObject = new JSONObject(this.propertiesJsonString);
-            this.properties
-                .setId(this.getChatThreadId())
-                .setTopic(propertiesJsonObject.getString("topic"));
-        } catch (JSONException e) {
+        Map<String, String> propertiesFields = NotificationUtils.parseJsonObjectFields(this.propertiesJsonString);
+        if (propertiesFields == null || propertiesFields.get("topic") == null) {
             return this;
         }
 
+        this.properties
+            .setId(this.getChatThreadId())
+            .setTopic(propertiesFields.get("topic"));
+
         return this;
     }
 }
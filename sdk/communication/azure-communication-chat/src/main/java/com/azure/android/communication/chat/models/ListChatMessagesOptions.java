@@ -15,6 +15,7 @@ import org.threeten.bp.OffsetDateTime;
 public final class ListChatMessagesOptions {
     private Integer maxPageSize;
     private OffsetDateTime startTime;
+    private int prefetchPageCount;
 
     /**
      * Gets the maximum page size. It represents the number of messages being requested.
@@ -55,4 +56,31 @@ public final class ListChatMessagesOptions {
         this.startTime = startTime;
         return this;
     }
+
+    /**
+     * Gets the number of pages to retrieve ahead of the page being enumerated.
+     *
+     * @return The number of pages to prefetch.
+     */
+    public int getPrefetchPageCount() {
+        return prefetchPageCount;
+    }
+
+    /**
+     * Sets the number of pages to retrieve ahead of the page being enumerated, so that retrieving the next
+     * pages overlaps with processing the current one. The default, 0, retrieves a page only once the
+     * previous page is processed. Prefetching speeds up enumerating a long message history, at the cost
+     * of retrieving pages that are not processed if the enumeration stops early.
+     *
+     * @param prefetchPageCount The number of pages to prefetch.
+     * @return The {@link ListChatMessagesOptions} object itself.
+     * @throws IllegalArgumentException if {@code prefetchPageCount} is negative.
+     */
+    public ListChatMessagesOptions setPrefetchPageCount(int prefetchPageCount) {
+        if (prefetchPageCount < 0) {
+            throw new IllegalArgumentException("'prefetchPageCount' cannot be negative.");
+        }
+        this.prefetchPageCount = prefetchPageCount;
+        return this;
+    }
 }
@@ -8,13 +8,11 @@ import com.azure.android.communication.chat.implementation.notifications.Notific
 import com.azure.android.communication.common.CommunicationIdentifier;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
 import org.threeten.bp.OffsetDateTime;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Event for participants added to a chat thread.
@@ -94,18 +92,18 @@ public class ParticipantsAddedEvent extends ChatThreadEvent {
     ParticipantsAddedEvent setAddedBy() {
         this.addedBy = new ChatParticipant();
 
-        try {
-            JSONObject addedByJsonObject = new JSONObject(this.addedByJsonString);
-            CommunicationIdentifier addedByCommunicationIdentifier = NotificationUtils.getCommunicationIdentifier(
-                addedByJsonObject.getString("participantId"));
-
-            this.addedBy
-                .setCommunicationIdentifier(addedByCommunicationIdentifier)
-                .setDisplayName(addedByJsonObject.getString("displayName"));
-        } catch (JSONException e) {
+        Map<String, String> addedByFields = NotificationUtils.parseJsonObjectFields(this.addedByJsonString);
+        if (addedByFields == null || addedByFields.get("participantId") == null) {
             return this;
         }
 
+        CommunicationIdentifier addedByCommunicationIdentifier = NotificationUtils.getCommunicationIdentifier(
+            addedByFields.get("participantId"));
+
+        this.addedBy
+            .setCommunicationIdentifier(addedByCommunicationIdentifier)
+            .setDisplayName(addedByFields.get("displayName"));
+
         return this;
     }
 
@@ -115,23 +113,30 @@ public class ParticipantsAddedEvent extends ChatThreadEvent {
     ParticipantsAddedEvent setParticipantsAdded() {
         this.participantsAdded = new ArrayList<>();
 
-        try {
-            JSONArray participantsAddedJsonArray = new JSONArray(this.participantsAddedJsonString);
-            for (int i = 0; i < participantsAddedJsonArray.length(); i++) {
-                JSONObject participant = participantsAddedJsonArray.getJSONObject(i);
-                CommunicationIdentifier communicationUser = NotificationUtils.getCommunicationIdentifier(
-                    participant.getString("participantId"));
+        List<Map<String, String>> participantsAddedFields =
+            NotificationUtils.parseJsonObjectArrayFields(this.participantsAddedJsonString);
+        if (participantsAddedFields == null) {
+            return this;
+        }
+
+        for (Map<String, String> participant : participantsAddedFields) {
+            if (participant.get("participantId") == null || participant.get("shareHistoryTime") == null) {
+                return this;
+            }
+            CommunicationIdentifier communicationUser = NotificationUtils.getCommunicationIdentifier(
+                participant.get("participantId"));
 
-                ChatParticipant chatParticipant = new ChatParticipant();
-                chatParticipant.setCommunicationIdentifier(communicationUser);
-                chatParticipant.setDisplayName(participant.getString("displayName"));
+            ChatParticipant chatParticipant = new ChatParticipant();
+            chatParticipant.setCommunicationIdentifier(communicationUser);
+            chatParticipant.setDisplayName(participant.get("displayName"));
+            try {
                 chatParticipant.setShareHistoryTime(
-                    NotificationUtils.parseEpochTime(participant.getLong("shareHistoryTime")));
-
-                this.participantsAdded.add(chatParticipant);
+                    NotificationUtils.parseEpochTime(Long.parseLong(participant.get("shareHistoryTime"))));
+            } catch (NumberFormatException e) {
+                return this;
             }
-        } catch (JSONException e) {
-            return this;
+
+            this.participantsAdded.add(chatParticipant);
         }
 
         return this;
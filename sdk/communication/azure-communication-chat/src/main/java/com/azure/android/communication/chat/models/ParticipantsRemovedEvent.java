@@ -8,13 +8,11 @@ import com.azure.android.communication.chat.implementation.notifications.Notific
 import com.azure.android.communication.common.CommunicationIdentifier;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
 import org.threeten.bp.OffsetDateTime;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Event for a participant added to a chat thread.
@@ -94,18 +92,18 @@ public class ParticipantsRemovedEvent extends ChatThreadEvent {
     ParticipantsRemovedEvent setRemovedBy() {
         this.removedBy = new ChatParticipant();
 
-        try {
-            JSONObject removedByJsonObject = new JSONObject(this.removedByJsonString);
-            CommunicationIdentifier removedByCommunicationIdentifier = NotificationUtils.getCommunicationIdentifier(
-                removedByJsonObject.getString("participantId"));
-
-            this.removedBy
-                .setCommunicationIdentifier(removedByCommunicationIdentifier)
-                .setDisplayName(removedByJsonObject.getString("displayName"));
-        } catch (JSONException e) {
+        Map<String, String> removedByFields = NotificationUtils.parseJsonObjectFields(this.removedByJsonString);
+        if (removedByFields == null || removedByFields.get("participantId") == null) {
             return this;
         }
 
+        CommunicationIdentifier removedByCommunicationIdentifier = NotificationUtils.getCommunicationIdentifier(
+            removedByFields.get("participantId"));
+
+        this.removedBy
+            .setCommunicationIdentifier(removedByCommunicationIdentifier)
+            .setDisplayName(removedByFields.get("displayName"));
+
         return this;
     }
 
@@ -115,23 +113,30 @@ public class ParticipantsRemovedEvent extends ChatThreadEvent {
     ParticipantsRemovedEvent setParticipantsRemoved() {
         this.participantsRemoved = new ArrayList<>();
 
-        try {
-            JSONArray participantsRemovedJsonArray = new JSONArray(this.participantsRemovedJsonString);
-            for (int i = 0; i < participantsRemovedJsonArray.length(); i++) {
-                JSONObject participant = participantsRemovedJsonArray.getJSONObject(i);
-                CommunicationIdentifier communicationUser = NotificationUtils.getCommunicationIdentifier(
-                    participant.getString("participantId"));
+        List<Map<String, String>> participantsRemovedFields =
+            NotificationUtils.parseJsonObjectArrayFields(this.participantsRemovedJsonString);
+        if (participantsRemovedFields == null) {
+            return this;
+        }
+
+        for (Map<String, String> participant : participantsRemovedFields) {
+            if (participant.get("participantId") == null || participant.get("shareHistoryTime") == null) {
+                return this;
+            }
+            CommunicationIdentifier communicationUser = NotificationUtils.getCommunicationIdentifier(
+                participant.get("participantId"));
 
-                ChatParticipant chatParticipant = new ChatParticipant();
-                chatParticipant.setCommunicationIdentifier(communicationUser);
-                chatParticipant.setDisplayName(participant.getString("displayName"));
+            ChatParticipant chatParticipant = new ChatParticipant();
+            chatParticipant.setCommunicationIdentifier(communicationUser);
+            chatParticipant.setDisplayName(participant.get("displayName"));
+            try {
                 chatParticipant.setShareHistoryTime(
-                    NotificationUtils.parseEpochTime(participant.getLong("shareHistoryTime")));
-
-                this.participantsRemoved.add(chatParticipant);
+                    NotificationUtils.parseEpochTime(Long.parseLong(participant.get("shareHistoryTime"))));
+            } catch (NumberFormatException e) {
+                return this;
             }
-        } catch (JSONException e) {
-            return this;
+
+            this.participantsRemoved.add(chatParticipant);
         }
 
         return this;
@@ -7,10 +7,10 @@ import com.azure.android.communication.chat.implementation.notifications.signali
 import com.azure.android.communication.chat.implementation.notifications.NotificationUtils;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-import org.json.JSONException;
-import org.json.JSONObject;
 import org.threeten.bp.OffsetDateTime;
 
+import java.util.Map;
+
 /**
  * Event for a received read receipt.
  */
@@ -68,15 +68,14 @@ public final class ReadReceiptReceivedEvent extends ChatUserEvent {
      * Sets the timestamp when the message was read.
      */
     ReadReceiptReceivedEvent setReadOn() {
-        try {
-            JSONObject messageBodyJsonObject = new JSONObject(this.messageBody);
-            this.readOn = NotificationUtils.extractReadTimeFromConsumptionHorizon(
-                messageBodyJsonObject.getString("consumptionhorizon"));
-
-        } catch (JSONException e) {
+        Map<String, String> messageBodyFields = NotificationUtils.parseJsonObjectFields(this.messageBody);
+        if (messageBodyFields == null || messageBodyFields.get("consumptionhorizon") == null) {
             return this;
         }
 
+        this.readOn = NotificationUtils.extractReadTimeFromConsumptionHorizon(
+            messageBodyFields.get("consumptionhorizon"));
+
         return this;
     }
 }
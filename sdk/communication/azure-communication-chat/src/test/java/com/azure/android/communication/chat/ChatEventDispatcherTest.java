@@ -0,0 +1,197 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat;
+
+import com.azure.android.communication.chat.implementation.notifications.NotificationUtils;
+import com.azure.android.communication.chat.models.ChatEvent;
+import com.azure.android.communication.chat.models.ChatEventType;
+import com.azure.android.communication.chat.models.ChatMessageReceivedEvent;
+import com.azure.android.communication.chat.models.TypingIndicatorReceivedEvent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChatEventDispatcherTest {
+    private static final String THREAD_ID = "19:4b72178530934b7790135dd9359205e0@thread.v2";
+    private static final String OTHER_THREAD_ID = "19:9b665d5381644923ad5d5e983b07d2e7@thread.v2";
+    private static final String FIRST_USER_ID =
+        "8:acs:9b665d53-8164-4923-ad5d-5e983b07d2e7_00000005-334f-e4af-b274-5a3a0d0002f9";
+    private static final String SECOND_USER_ID =
+        "8:acs:9b665d53-8164-4923-ad5d-5e983b07d2e7_00000005-334f-e4af-b274-5a3a0d0002fa";
+
+    // The batches delivered, each event described by its type and content.
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private final List<Runnable> pendingTasks = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService scheduler;
+
+    @BeforeEach
+    public void setupTest() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    public void tearDownTest() {
+        this.scheduler.shutdownNow();
+    }
+
+    @Test
+    public void deliversEventsReceivedWithinWindowInOneBatch() throws Exception {
+        final ChatEventDispatcher dispatcher = new ChatEventDispatcher(this::record, Runnable::run, 100, 16,
+            this.scheduler, false);
+
+        dispatcher.onChatEvent(message(THREAD_ID, "first"));
+        dispatcher.onChatEvent(message(OTHER_THREAD_ID, "other"));
+        dispatcher.onChatEvent(message(THREAD_ID, "second"));
+        dispatcher.onChatEvent(message(THREAD_ID, "third"));
+        assertEquals(4, dispatcher.getQueuedEventCount());
+        assertEquals(3, dispatcher.getQueuedEventCount(THREAD_ID));
+
+        this.awaitBatches(2);
+        assertTrue(this.batches.contains(Arrays.asList("message/first", "message/second", "message/third")));
+        assertTrue(this.batches.contains(Arrays.asList("message/other")));
+        assertEquals(0, dispatcher.getQueuedEventCount());
+        assertEquals(4, dispatcher.getMaxQueuedEventCount());
+    }
+
+    @Test
+    public void deliversEventsAfterExecutorRejectedScheduledDelivery() throws Exception {
+        final AtomicInteger executions = new AtomicInteger();
+        final ChatEventDispatcher dispatcher = new ChatEventDispatcher(this::record, command -> {
+            if (executions.incrementAndGet() == 1) {
+                throw new RejectedExecutionException("busy");
+            }
+            command.run();
+        }, 10, 16, this.scheduler, false);
+
+        dispatcher.onChatEvent(message(THREAD_ID, "first"));
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executions.get() == 0) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException("The delivery was not scheduled.");
+            }
+            Thread.sleep(5);
+        }
+        Thread.sleep(20);
+        dispatcher.onChatEvent(message(THREAD_ID, "second"));
+
+        this.awaitBatches(1);
+        assertEquals(Arrays.asList(Arrays.asList("message/first", "message/second")), this.batches);
+    }
+
+    @Test
+    public void batchesEventsReceivedWhileDelivering() {
+        final List<ChatEventDispatcher> dispatchers = new ArrayList<>();
+        final ChatEventDispatcher dispatcher = new ChatEventDispatcher(events -> {
+            this.record(events);
+            if (this.batches.size() == 1) {
+                dispatchers.get(0).onChatEvent(message(THREAD_ID, "second"));
+                dispatchers.get(0).onChatEvent(message(THREAD_ID, "third"));
+            }
+        }, this.pendingTasks::add);
+        dispatchers.add(dispatcher);
+
+        dispatcher.onChatEvent(message(THREAD_ID, "first"));
+        this.runPendingTasks();
+
+        assertEquals(Arrays.asList(Arrays.asList("message/first"), Arrays.asList("message/second", "message/third")),
+            this.batches);
+    }
+
+    @Test
+    public void replacesQueuedTypingIndicatorOfSameSender() {
+        final ChatEventDispatcher dispatcher = new ChatEventDispatcher(this::record, this.pendingTasks::add);
+
+        dispatcher.onChatEvent(message(THREAD_ID, "first"));
+        dispatcher.onChatEvent(typing(FIRST_USER_ID, "First"));
+        dispatcher.onChatEvent(typing(SECOND_USER_ID, "Second"));
+        dispatcher.onChatEvent(typing(FIRST_USER_ID, "First again"));
+        dispatcher.onChatEvent(message(THREAD_ID, "second"));
+        this.runPendingTasks();
+
+        assertEquals(Arrays.asList(Arrays.asList("message/first", "typing/Second", "typing/First again",
+            "message/second")), this.batches);
+        assertEquals(1, dispatcher.getMergedEventCount());
+    }
+
+    @Test
+    public void dropsTypingIndicatorsFirstWhenQueueIsFull() {
+        final ChatEventDispatcher dispatcher = new ChatEventDispatcher(this::record, this.pendingTasks::add, 0, 3);
+
+        dispatcher.onChatEvent(message(THREAD_ID, "first"));
+        dispatcher.onChatEvent(typing(FIRST_USER_ID, "First"));
+        dispatcher.onChatEvent(message(THREAD_ID, "second"));
+        dispatcher.onChatEvent(message(THREAD_ID, "third"));
+        dispatcher.onChatEvent(message(THREAD_ID, "fourth"));
+        assertEquals(3, dispatcher.getQueuedEventCount(THREAD_ID));
+        this.runPendingTasks();
+
+        assertEquals(Arrays.asList(Arrays.asList("message/second", "message/third", "message/fourth")), this.batches);
+        assertEquals(2, dispatcher.getDroppedEventCount());
+    }
+
+    @Test
+    public void cannotCreateDispatcherWithInvalidArguments() {
+        assertThrows(NullPointerException.class, () -> new ChatEventDispatcher(null, Runnable::run));
+        assertThrows(IllegalArgumentException.class, () -> new ChatEventDispatcher(this::record, Runnable::run, 0, 0));
+    }
+
+    private void record(List<ChatEvent> events) {
+        final List<String> batch = new ArrayList<>();
+        for (ChatEvent event : events) {
+            if (event instanceof ChatMessageReceivedEvent) {
+                batch.add("message/" + ((ChatMessageReceivedEvent) event).getContent());
+            } else {
+                batch.add("typing/" + ((TypingIndicatorReceivedEvent) event).getSenderDisplayName());
+            }
+        }
+        this.batches.add(batch);
+    }
+
+    private void runPendingTasks() {
+        while (!this.pendingTasks.isEmpty()) {
+            this.pendingTasks.remove(0).run();
+        }
+    }
+
+    private void awaitBatches(int count) throws InterruptedException, TimeoutException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (this.batches.size() < count) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException("Expected " + count + " batches, got " + this.batches.size());
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static ChatEvent message(String chatThreadId, String content) {
+        return NotificationUtils.toEventPayload(ChatEventType.CHAT_MESSAGE_RECEIVED, "{"
+            + "\"groupId\":\"" + chatThreadId + "\",\"senderId\":\"" + FIRST_USER_ID + "\","
+            + "\"recipientId\":\"" + FIRST_USER_ID + "\",\"messageId\":\"1\",\"messageType\":\"Text\","
+            + "\"messageBody\":\"" + content + "\",\"senderDisplayName\":\"Sender\","
+            + "\"originalArrivalTime\":\"2021-01-01T00:00:01Z\",\"version\":\"1\"}");
+    }
+
+    private static ChatEvent typing(String senderId, String senderDisplayName) {
+        return NotificationUtils.toEventPayload(ChatEventType.TYPING_INDICATOR_RECEIVED, "{"
+            + "\"groupId\":\"" + THREAD_ID + "\",\"senderId\":\"" + senderId + "\","
+            + "\"recipientId\":\"" + FIRST_USER_ID + "\",\"senderDisplayName\":\"" + senderDisplayName + "\","
+            + "\"originalArrivalTime\":\"2021-01-01T00:00:01Z\",\"version\":\"1\"}");
+    }
+}
@@ -0,0 +1,302 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat;
+
+import com.azure.android.communication.chat.implementation.AzureCommunicationChatServiceImplBuilder;
+import com.azure.android.communication.chat.models.SendChatMessageOptions;
+import com.azure.android.communication.chat.models.SendChatMessageResult;
+import com.azure.android.core.http.HttpCallback;
+import com.azure.android.core.http.HttpMethod;
+import com.azure.android.core.http.HttpRequest;
+import com.azure.android.core.http.policy.RetryPolicy;
+import com.azure.android.core.test.http.NoOpHttpClient;
+import com.azure.android.core.util.CancellationToken;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.threeten.bp.Duration;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import java9.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChatMessageOutboxTest {
+    private static final String THREAD_ID = "19:4b72178530934b7790135dd9359205e0@thread.v2";
+    private static final String OTHER_THREAD_ID = "19:9b665d5381644923ad5d5e983b07d2e7@thread.v2";
+
+    @TempDir
+    File directory;
+
+    // The contents of the messages sent, prefixed with the id of their thread.
+    private final List<String> sentMessages = new CopyOnWriteArrayList<>();
+    private final List<String> sentClientMessageIds = new CopyOnWriteArrayList<>();
+    private final List<Runnable> pendingResponses = new CopyOnWriteArrayList<>();
+    private final Queue<Integer> sendStatusCodes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger listRequests = new AtomicInteger();
+    private final AtomicInteger nextMessageId = new AtomicInteger(1);
+    private volatile boolean holdResponses;
+    private volatile String listedClientMessageId;
+    private ChatMessageOutbox outbox;
+
+    @BeforeEach
+    public void setupTest() {
+        this.outbox = this.openOutbox(1000);
+    }
+
+    @AfterEach
+    public void tearDownTest() {
+        this.outbox.close();
+    }
+
+    @Test
+    public void sendsMessagesOfThreadInOrderAndThreadsInParallel() throws Exception {
+        this.holdResponses = true;
+
+        final CompletableFuture<SendChatMessageResult> first = this.outbox.enqueue(THREAD_ID, message("first"));
+        final CompletableFuture<SendChatMessageResult> second = this.outbox.enqueue(THREAD_ID, message("second"));
+        final CompletableFuture<SendChatMessageResult> other = this.outbox.enqueue(OTHER_THREAD_ID, message("other"));
+        this.awaitRequests(2);
+        assertTrue(this.sentMessages.contains(THREAD_ID + "/first"));
+        assertTrue(this.sentMessages.contains(OTHER_THREAD_ID + "/other"));
+        assertEquals(3, this.outbox.getBacklogCount());
+        assertEquals(2, this.outbox.getBacklogCount(THREAD_ID));
+
+        this.respondAll();
+        first.get(5, TimeUnit.SECONDS);
+        other.get(5, TimeUnit.SECONDS);
+        this.awaitRequests(3);
+        assertEquals(THREAD_ID + "/second", this.sentMessages.get(2));
+        assertFalse(second.isDone());
+
+        this.respondAll();
+        assertFalse(second.get(5, TimeUnit.SECONDS).getId().equals(first.get().getId()));
+        assertEquals(0, this.outbox.getBacklogCount());
+        assertEquals(0, this.listRequests.get());
+    }
+
+    @Test
+    public void sendsMessagesLeftByPreviousProcessOnce() throws Exception {
+        this.holdResponses = true;
+        this.outbox.enqueue(THREAD_ID, message("delivered"));
+        this.outbox.enqueue(THREAD_ID, message("lost"));
+        this.awaitRequests(1);
+        this.outbox.close();
+
+        // The service got the first message, but the process died before its acknowledgment.
+        this.listedClientMessageId = this.sentClientMessageIds.get(0);
+        this.pendingResponses.clear();
+        this.sentMessages.clear();
+        this.holdResponses = false;
+        this.outbox = this.openOutbox(1000);
+        assertEquals(2, this.outbox.getBacklogCount());
+
+        this.awaitBacklog(0);
+        assertEquals(Arrays.asList(THREAD_ID + "/lost"), this.sentMessages);
+        assertTrue(this.listRequests.get() >= 1);
+
+        this.outbox.close();
+        this.outbox = this.openOutbox(1000);
+        assertEquals(0, this.outbox.getBacklogCount());
+    }
+
+    @Test
+    public void closeFailsFuturesOfMessagesNotAcknowledged() throws Exception {
+        this.holdResponses = true;
+        final CompletableFuture<SendChatMessageResult> sending = this.outbox.enqueue(THREAD_ID, message("sending"));
+        final CompletableFuture<SendChatMessageResult> waiting = this.outbox.enqueue(THREAD_ID, message("waiting"));
+        this.awaitRequests(1);
+
+        this.outbox.close();
+        final ExecutionException exception = assertThrows(ExecutionException.class,
+            () -> sending.get(5, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof CancellationException, String.valueOf(exception.getCause()));
+        assertThrows(ExecutionException.class, () -> waiting.get(5, TimeUnit.SECONDS));
+
+        // The acknowledgment arriving after close leaves the message in the outbox.
+        this.respondAll();
+        this.pendingResponses.clear();
+        this.holdResponses = false;
+        this.outbox = this.openOutbox(1000);
+        assertEquals(2, this.outbox.getBacklogCount());
+    }
+
+    @Test
+    public void resendsMessageAfterTransientFailure() throws Exception {
+        this.sendStatusCodes.add(503);
+
+        final SendChatMessageResult result = this.outbox.enqueue(THREAD_ID, message("retried"))
+            .get(5, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList(THREAD_ID + "/retried", THREAD_ID + "/retried"), this.sentMessages);
+        assertEquals(this.sentClientMessageIds.get(0), this.sentClientMessageIds.get(1));
+        assertEquals(1, this.listRequests.get());
+        assertEquals(String.valueOf(this.nextMessageId.get() - 1), result.getId());
+    }
+
+    @Test
+    public void resendsMessageAfterAuthenticationFailure() throws Exception {
+        this.sendStatusCodes.add(401);
+        this.sendStatusCodes.add(403);
+
+        this.outbox.enqueue(THREAD_ID, message("unauthorized")).get(5, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList(THREAD_ID + "/unauthorized", THREAD_ID + "/unauthorized",
+            THREAD_ID + "/unauthorized"), this.sentMessages);
+        assertEquals(0, this.outbox.getBacklogCount());
+    }
+
+    @Test
+    public void setsMessageAsideAfterMaxAttempts() throws Exception {
+        this.outbox.close();
+        this.outbox = this.openOutbox(1000, 2);
+        this.sendStatusCodes.add(503);
+        this.sendStatusCodes.add(503);
+
+        final CompletableFuture<SendChatMessageResult> stuck = this.outbox.enqueue(THREAD_ID, message("stuck"));
+        final CompletableFuture<SendChatMessageResult> next = this.outbox.enqueue(THREAD_ID, message("next"));
+
+        assertThrows(ExecutionException.class, () -> stuck.get(5, TimeUnit.SECONDS));
+        next.get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList(THREAD_ID + "/stuck", THREAD_ID + "/stuck", THREAD_ID + "/next"),
+            this.sentMessages);
+        assertEquals(0, this.outbox.getBacklogCount());
+
+        // The message set aside stays in the outbox, and is sent once it is opened again.
+        this.outbox.close();
+        this.sentMessages.clear();
+        this.outbox = this.openOutbox(1000);
+        this.awaitBacklog(0);
+        assertEquals(Arrays.asList(THREAD_ID + "/stuck"), this.sentMessages);
+    }
+
+    @Test
+    public void dropsMessageRejectedByService() throws Exception {
+        this.sendStatusCodes.add(400);
+
+        final CompletableFuture<SendChatMessageResult> rejected = this.outbox.enqueue(THREAD_ID, message("rejected"));
+        final CompletableFuture<SendChatMessageResult> next = this.outbox.enqueue(THREAD_ID, message("next"));
+
+        assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        next.get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList(THREAD_ID + "/rejected", THREAD_ID + "/next"), this.sentMessages);
+        assertEquals(0, this.outbox.getBacklogCount());
+    }
+
+    @Test
+    public void rejectsMessagesBeyondMaxBacklog() throws Exception {
+        this.outbox.close();
+        this.outbox = this.openOutbox(2);
+        this.holdResponses = true;
+
+        this.outbox.enqueue(THREAD_ID, message("first"));
+        this.outbox.enqueue(THREAD_ID, message("second"));
+        final CompletableFuture<SendChatMessageResult> third = this.outbox.enqueue(THREAD_ID, message("third"));
+
+        final ExecutionException exception = assertThrows(ExecutionException.class,
+            () -> third.get(5, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+        assertEquals(2, this.outbox.getBacklogCount());
+    }
+
+    private ChatMessageOutbox openOutbox(int maxBacklog) {
+        return this.openOutbox(maxBacklog, ChatMessageOutbox.DEFAULT_MAX_ATTEMPTS);
+    }
+
+    private ChatMessageOutbox openOutbox(int maxBacklog, int maxAttempts) {
+        final NoOpHttpClient httpClient = new NoOpHttpClient() {
+            @Override
+            public void send(HttpRequest httpRequest,
+                             CancellationToken cancellationToken,
+                             HttpCallback httpCallback) {
+                if (httpRequest.getHttpMethod() == HttpMethod.GET) {
+                    listRequests.incrementAndGet();
+                    final String body = listedClientMessageId == null
+                        ? "{\"value\":[]}"
+                        : "{\"value\":[{\"id\":\"1600201311640\",\"type\":\"text\",\"sequenceId\":\"1\","
+                        + "\"version\":\"1\",\"createdOn\":\"2021-01-01T00:00:00Z\","
+                        + "\"metadata\":{\"" + ChatMessageOutbox.CLIENT_MESSAGE_ID_METADATA_KEY + "\":\""
+                        + listedClientMessageId + "\"}}]}";
+                    httpCallback.onSuccess(ChatResponseMocker.generateMockResponse(body, httpRequest, 200));
+                    return;
+                }
+                final String chatThreadId = httpRequest.getUrl().getPath().contains(THREAD_ID)
+                    ? THREAD_ID
+                    : OTHER_THREAD_ID;
+                final String body = new String(httpRequest.getBody(), StandardCharsets.UTF_8);
+                sentMessages.add(chatThreadId + "/" + body.replaceAll(".*\"content\":\"([^\"]*)\".*", "$1"));
+                sentClientMessageIds.add(body.replaceAll(".*\"clientMessageId\":\"([^\"]*)\".*", "$1"));
+                final Integer statusCode = sendStatusCodes.poll();
+                final Runnable response = () -> httpCallback.onSuccess(ChatResponseMocker.generateMockResponse(
+                    "{\"id\":\"" + nextMessageId.getAndIncrement() + "\"}",
+                    httpRequest,
+                    statusCode == null ? 201 : statusCode));
+                if (holdResponses) {
+                    pendingResponses.add(response);
+                } else {
+                    response.run();
+                }
+            }
+        };
+        final AzureCommunicationChatServiceImplBuilder serviceBuilder = new AzureCommunicationChatServiceImplBuilder()
+            .endpoint("https://contoso.communication.azure.com")
+            .retryPolicy(RetryPolicy.withFixedDelay(0, Duration.ofMillis(1)))
+            .httpClient(httpClient);
+        return new ChatMessageOutbox(this.directory,
+            chatThreadId -> new ChatThreadAsyncClient(serviceBuilder.buildClient(), chatThreadId, null),
+            maxBacklog,
+            10,
+            maxAttempts);
+    }
+
+    private static SendChatMessageOptions message(String content) {
+        return new SendChatMessageOptions().setContent(content);
+    }
+
+    private void awaitRequests(int count) throws InterruptedException, TimeoutException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (this.sentMessages.size() < count) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException("Expected " + count + " requests, got " + this.sentMessages.size());
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitBacklog(int count) throws InterruptedException, TimeoutException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (this.outbox.getBacklogCount() > count) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException("Expected " + count + " messages, got " + this.outbox.getBacklogCount());
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private void respondAll() {
+        final List<Runnable> responses = new ArrayList<>(this.pendingResponses);
+        this.pendingResponses.removeAll(responses);
+        for (Runnable response : responses) {
+            response.run();
+        }
+    }
+}
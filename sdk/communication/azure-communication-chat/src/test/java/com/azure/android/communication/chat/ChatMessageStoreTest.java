@@ -0,0 +1,268 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat;
+
+import com.azure.android.communication.chat.implementation.AzureCommunicationChatServiceImplBuilder;
+import com.azure.android.communication.chat.implementation.notifications.NotificationUtils;
+import com.azure.android.communication.chat.models.ChatEventType;
+import com.azure.android.communication.chat.models.ChatMessage;
+import com.azure.android.communication.chat.models.ChatMessageContent;
+import com.azure.android.communication.chat.models.ChatMessageType;
+import com.azure.android.communication.common.CommunicationUserIdentifier;
+import com.azure.android.core.http.HttpCallback;
+import com.azure.android.core.http.HttpRequest;
+import com.azure.android.core.test.http.NoOpHttpClient;
+import com.azure.android.core.util.CancellationToken;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.threeten.bp.OffsetDateTime;
+import org.threeten.bp.ZoneOffset;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChatMessageStoreTest {
+    private static final String THREAD_ID = "19:4b72178530934b7790135dd9359205e0@thread.v2";
+    private static final String SENDER_ID =
+        "8:acs:9b665d53-8164-4923-ad5d-5e983b07d2e7_00000005-334f-e4af-b274-5a3a0d0002f9";
+    private static final String EVENT_ADDRESSING =
+        "\"groupId\":\"" + THREAD_ID + "\",\"senderId\":\"" + SENDER_ID + "\",\"recipientId\":\"" + SENDER_ID + "\",";
+
+    @TempDir
+    File directory;
+
+    private ChatMessageStore store;
+
+    @BeforeEach
+    public void setupTest() {
+        this.store = new ChatMessageStore(this.directory);
+    }
+
+    @AfterEach
+    public void tearDownTest() {
+        this.store.close();
+    }
+
+    @Test
+    public void canPutAndGetMessage() {
+        this.store.putMessage(THREAD_ID, message("1", 1, "Hello"));
+
+        final ChatMessage message = this.store.getMessage(THREAD_ID, "1");
+        assertEquals("1", message.getId());
+        assertEquals(ChatMessageType.TEXT, message.getType());
+        assertEquals("Hello", message.getContent().getMessage());
+        assertEquals(time(1), message.getCreatedOn());
+        assertEquals(SENDER_ID,
+            ((CommunicationUserIdentifier) message.getSenderCommunicationIdentifier()).getId());
+        assertNull(this.store.getMessage(THREAD_ID, "2"));
+        assertNull(this.store.getMessage("19:other@thread.v2", "1"));
+    }
+
+    @Test
+    public void listsMessagesNewestFirstAfterReopening() {
+        this.store.putMessage(THREAD_ID, message("1", 1, "First"));
+        this.store.putMessage(THREAD_ID, message("3", 3, "Third"));
+        this.store.putMessage(THREAD_ID, message("2", 2, "Second"));
+        this.store.close();
+
+        this.store = new ChatMessageStore(this.directory);
+        assertEquals(time(3), this.store.getLatestCreatedOn(THREAD_ID));
+        final List<String> contents = new ArrayList<>();
+        for (ChatMessage message : this.store.getMessages(THREAD_ID)) {
+            contents.add(message.getContent().getMessage());
+        }
+        assertEquals(3, contents.size());
+        assertEquals("Third", contents.get(0));
+        assertEquals("Second", contents.get(1));
+        assertEquals("First", contents.get(2));
+    }
+
+    @Test
+    public void appliesMessageEvents() {
+        this.store.onChatEvent(NotificationUtils.toEventPayload(ChatEventType.CHAT_MESSAGE_RECEIVED, "{"
+            + EVENT_ADDRESSING
+            + "\"messageId\":\"1\",\"messageType\":\"Text\",\"messageBody\":\"Hello\","
+            + "\"senderDisplayName\":\"Sender\",\"originalArrivalTime\":\"2021-01-01T00:00:01Z\","
+            + "\"version\":\"1\"}"));
+        assertEquals("Hello", this.store.getMessage(THREAD_ID, "1").getContent().getMessage());
+
+        this.store.onChatEvent(NotificationUtils.toEventPayload(ChatEventType.CHAT_MESSAGE_EDITED, "{"
+            + EVENT_ADDRESSING
+            + "\"messageId\":\"1\",\"messageBody\":\"Hello again\",\"senderDisplayName\":\"Sender\","
+            + "\"originalArrivalTime\":\"2021-01-01T00:00:01Z\",\"edittime\":\"2021-01-01T00:00:05Z\","
+            + "\"version\":\"2\"}"));
+        final ChatMessage edited = this.store.getMessage(THREAD_ID, "1");
+        assertEquals("Hello again", edited.getContent().getMessage());
+        assertEquals("2", edited.getVersion());
+        assertEquals(time(5), edited.getEditedOn());
+        assertEquals(ChatMessageType.TEXT, edited.getType());
+
+        this.store.onChatEvent(NotificationUtils.toEventPayload(ChatEventType.CHAT_MESSAGE_DELETED, "{"
+            + EVENT_ADDRESSING
+            + "\"messageId\":\"1\",\"senderDisplayName\":\"Sender\","
+            + "\"originalArrivalTime\":\"2021-01-01T00:00:01Z\",\"deletetime\":\"2021-01-01T00:00:09Z\","
+            + "\"version\":\"3\"}"));
+        final ChatMessage deleted = this.store.getMessage(THREAD_ID, "1");
+        assertEquals(time(9), deleted.getDeletedOn());
+        assertEquals("3", deleted.getVersion());
+        assertEquals(1, this.store.getMessages(THREAD_ID).size());
+    }
+
+    @Test
+    public void skipsEventOlderThanStoredMessage() {
+        this.store.putMessage(THREAD_ID, message("1", 5, "Hello again"));
+
+        this.store.onChatEvent(NotificationUtils.toEventPayload(ChatEventType.CHAT_MESSAGE_EDITED, "{"
+            + EVENT_ADDRESSING
+            + "\"messageId\":\"1\",\"messageBody\":\"Hello\",\"senderDisplayName\":\"Sender\","
+            + "\"originalArrivalTime\":\"2021-01-01T00:00:05Z\",\"edittime\":\"2021-01-01T00:00:02Z\","
+            + "\"version\":\"2\"}"));
+        final ChatMessage message = this.store.getMessage(THREAD_ID, "1");
+        assertEquals("Hello again", message.getContent().getMessage());
+        assertEquals("5", message.getVersion());
+        assertNull(message.getEditedOn());
+    }
+
+    @Test
+    public void closesFilesOfLeastRecentlyUsedThreads() {
+        this.store.close();
+        this.store = new ChatMessageStore(this.directory, ChatMessageStore.DEFAULT_MAX_SEGMENT_BYTES, 2);
+        for (int i = 0; i < 5; i++) {
+            this.store.putMessage("19:thread" + i + "@thread.v2", message("1", i, "Hello " + i));
+        }
+        assertEquals(2, this.store.getOpenLogCount());
+
+        // The threads whose files were closed remain readable.
+        for (int i = 0; i < 5; i++) {
+            assertEquals("Hello " + i, this.store.getMessage("19:thread" + i + "@thread.v2", "1")
+                .getContent().getMessage());
+        }
+        assertEquals(2, this.store.getOpenLogCount());
+    }
+
+    @Test
+    public void syncRetrievesMessagesSinceLatestStored() throws ExecutionException, InterruptedException {
+        final List<String> requestUrls = new ArrayList<>();
+        final List<String> responseBodies = new ArrayList<>();
+        responseBodies.add("{\"value\":[" + messageJson("2", 2, "Second") + "," + messageJson("1", 1, "First")
+            + "]}");
+        responseBodies.add("{\"value\":[" + messageJson("3", 3, "Third") + "," + messageJson("2", 2, "Second")
+            + "]}");
+        final ChatThreadAsyncClient client = this.createClient(requestUrls, responseBodies);
+
+        assertEquals(2, (int) this.store.sync(client).get());
+        assertFalse(requestUrls.get(0).contains("startTime"), requestUrls.get(0));
+
+        assertEquals(2, (int) this.store.sync(client).get());
+        assertTrue(requestUrls.get(1).contains("startTime"), requestUrls.get(1));
+        assertEquals(3, this.store.getMessages(THREAD_ID).size());
+        assertEquals(time(3), this.store.getLatestCreatedOn(THREAD_ID));
+    }
+
+    @Test
+    public void syncAfterOfflineGapRetrievesMessagesCreatedBeforeLatestEvent() throws Exception {
+        final List<String> requestUrls = new ArrayList<>();
+        final List<String> responseBodies = new ArrayList<>();
+        responseBodies.add("{\"value\":[" + messageJson("2", 2, "Second") + "," + messageJson("1", 1, "First")
+            + "]}");
+        responseBodies.add("{\"value\":[" + messageJson("5", 5, "Fifth") + "," + messageJson("4", 4, "Fourth")
+            + "," + messageJson("3", 3, "Third") + "]}");
+        final ChatThreadAsyncClient client = this.createClient(requestUrls, responseBodies);
+        assertEquals(2, (int) this.store.sync(client).get());
+
+        // Messages 3 and 4 are created while offline, then the notification of message 5 is received.
+        this.store.onChatEvent(NotificationUtils.toEventPayload(ChatEventType.CHAT_MESSAGE_RECEIVED, "{"
+            + EVENT_ADDRESSING
+            + "\"messageId\":\"5\",\"messageType\":\"Text\",\"messageBody\":\"Fifth\","
+            + "\"senderDisplayName\":\"Sender\",\"originalArrivalTime\":\"2021-01-01T00:00:05Z\","
+            + "\"version\":\"5\"}"));
+        assertEquals(time(5), this.store.getLatestCreatedOn(THREAD_ID));
+
+        assertEquals(3, (int) this.store.sync(client).get());
+        assertTrue(requestUrls.get(1).contains("00%3A00%3A02") || requestUrls.get(1).contains("00:00:02"),
+            requestUrls.get(1));
+        assertEquals("Third", this.store.getMessage(THREAD_ID, "3").getContent().getMessage());
+        assertEquals("Fourth", this.store.getMessage(THREAD_ID, "4").getContent().getMessage());
+        assertEquals(5, this.store.getMessages(THREAD_ID).size());
+
+        // The watermark survives reopening the store.
+        this.store.close();
+        this.store = new ChatMessageStore(this.directory);
+        responseBodies.add("{\"value\":[]}");
+        assertEquals(0, (int) this.store.sync(client).get());
+        assertTrue(requestUrls.get(2).contains("00%3A00%3A05") || requestUrls.get(2).contains("00:00:05"),
+            requestUrls.get(2));
+    }
+
+    @Test
+    public void receivedEventDoesNotOverwriteEditedMessage() {
+        final ChatMessage edited = message("1", 1, "Hello again").setVersion("5");
+        this.store.putMessage(THREAD_ID, edited);
+
+        this.store.onChatEvent(NotificationUtils.toEventPayload(ChatEventType.CHAT_MESSAGE_RECEIVED, "{"
+            + EVENT_ADDRESSING
+            + "\"messageId\":\"1\",\"messageType\":\"Text\",\"messageBody\":\"Hello\","
+            + "\"senderDisplayName\":\"Sender\",\"originalArrivalTime\":\"2021-01-01T00:00:01Z\","
+            + "\"version\":\"1\"}"));
+        assertEquals("Hello again", this.store.getMessage(THREAD_ID, "1").getContent().getMessage());
+    }
+
+    @Test
+    public void cannotPutMessageWithoutId() {
+        assertThrows(IllegalArgumentException.class,
+            () -> this.store.putMessage(THREAD_ID, message(null, 1, "Hello")));
+        assertThrows(NullPointerException.class, () -> this.store.putMessage(null, message("1", 1, "Hello")));
+    }
+
+    private ChatThreadAsyncClient createClient(List<String> requestUrls, List<String> responseBodies) {
+        final NoOpHttpClient httpClient = new NoOpHttpClient() {
+            @Override
+            public void send(HttpRequest httpRequest,
+                             CancellationToken cancellationToken,
+                             HttpCallback httpCallback) {
+                requestUrls.add(httpRequest.getUrl().toString());
+                httpCallback.onSuccess(
+                    ChatResponseMocker.generateMockResponse(responseBodies.remove(0), httpRequest, 200));
+            }
+        };
+        return new ChatThreadAsyncClient(new AzureCommunicationChatServiceImplBuilder()
+            .endpoint("https://contoso.communication.azure.com")
+            .httpClient(httpClient)
+            .buildClient(), THREAD_ID, null);
+    }
+
+    private static ChatMessage message(String id, int second, String content) {
+        return new ChatMessage()
+            .setId(id)
+            .setType(ChatMessageType.TEXT)
+            .setVersion(String.valueOf(second))
+            .setContent(new ChatMessageContent().setMessage(content))
+            .setSenderDisplayName("Sender")
+            .setSenderCommunicationIdentifier(new CommunicationUserIdentifier(SENDER_ID))
+            .setCreatedOn(time(second));
+    }
+
+    private static String messageJson(String id, int second, String content) {
+        return "{\"id\":\"" + id + "\",\"type\":\"text\",\"sequenceId\":\"" + second + "\","
+            + "\"version\":\"" + second + "\",\"content\":{\"message\":\"" + content + "\"},"
+            + "\"senderDisplayName\":\"Sender\",\"createdOn\":\"" + time(second) + "\","
+            + "\"senderCommunicationIdentifier\":{\"rawId\":\"" + SENDER_ID + "\","
+            + "\"communicationUser\":{\"id\":\"" + SENDER_ID + "\"}}}";
+    }
+
+    private static OffsetDateTime time(int second) {
+        return OffsetDateTime.of(2021, 1, 1, 0, 0, second, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,175 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat;
+
+import com.azure.android.communication.chat.implementation.AzureCommunicationChatServiceImplBuilder;
+import com.azure.android.communication.chat.implementation.notifications.NotificationUtils;
+import com.azure.android.communication.chat.models.ChatEventType;
+import com.azure.android.communication.chat.models.ChatParticipant;
+import com.azure.android.communication.common.CommunicationUserIdentifier;
+import com.azure.android.core.http.HttpCallback;
+import com.azure.android.core.http.HttpRequest;
+import com.azure.android.core.test.http.NoOpHttpClient;
+import com.azure.android.core.util.CancellationToken;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ChatThreadCacheTest {
+    private static final String THREAD_ID = "19:4b72178530934b7790135dd9359205e0@thread.v2";
+    private static final String FIRST_USER_ID =
+        "8:acs:9b665d53-8164-4923-ad5d-5e983b07d2e7_00000005-334f-e4af-b274-5a3a0d0002f9";
+    private static final String SECOND_USER_ID =
+        "8:acs:9b665d53-8164-4923-ad5d-5e983b07d2e7_00000005-334f-e4af-b274-5a3a0d0002fa";
+    private static final String EVENT_ADDRESSING = "\"threadId\":\"" + THREAD_ID + "\",\"version\":\"1\",";
+
+    private final AtomicInteger propertiesRequests = new AtomicInteger();
+    private final AtomicInteger participantsRequests = new AtomicInteger();
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    public void servesRepeatedCallsFromCache() throws ExecutionException, InterruptedException {
+        final ChatThreadCache cache = new ChatThreadCache(10, 60000, this.nanoTime::get);
+        final ChatThreadAsyncClient client = this.createClient(THREAD_ID);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("Topic", cache.getProperties(client).get().getTopic());
+            assertEquals(1, cache.getParticipants(client).get().size());
+        }
+
+        assertEquals(1, this.propertiesRequests.get());
+        assertEquals(1, this.participantsRequests.get());
+        assertEquals(6, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0.75, cache.getHitRate());
+    }
+
+    @Test
+    public void retrievesEntriesAgainAfterTimeToLive() throws ExecutionException, InterruptedException {
+        final ChatThreadCache cache = new ChatThreadCache(10, 60000, this.nanoTime::get);
+        final ChatThreadAsyncClient client = this.createClient(THREAD_ID);
+
+        cache.getProperties(client).get();
+        this.nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        cache.getProperties(client).get();
+        assertEquals(1, this.propertiesRequests.get());
+
+        this.nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        cache.getProperties(client).get();
+        assertEquals(2, this.propertiesRequests.get());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedThread() throws ExecutionException, InterruptedException {
+        final ChatThreadCache cache = new ChatThreadCache(2, 60000, this.nanoTime::get);
+        final ChatThreadAsyncClient first = this.createClient("19:first@thread.v2");
+        final ChatThreadAsyncClient second = this.createClient("19:second@thread.v2");
+        final ChatThreadAsyncClient third = this.createClient("19:third@thread.v2");
+
+        cache.getProperties(first).get();
+        cache.getProperties(second).get();
+        cache.getProperties(first).get();
+        cache.getProperties(third).get();
+        assertEquals(3, this.propertiesRequests.get());
+        assertEquals(1, cache.getEvictionCount());
+
+        cache.getProperties(first).get();
+        assertEquals(3, this.propertiesRequests.get());
+        cache.getProperties(second).get();
+        assertEquals(4, this.propertiesRequests.get());
+    }
+
+    @Test
+    public void patchesEntriesFromEvents() throws ExecutionException, InterruptedException {
+        final ChatThreadCache cache = new ChatThreadCache(10, 60000, this.nanoTime::get);
+        final ChatThreadAsyncClient client = this.createClient(THREAD_ID);
+        cache.getProperties(client).get();
+        cache.getParticipants(client).get();
+
+        cache.onChatEvent(NotificationUtils.toEventPayload(ChatEventType.CHAT_THREAD_PROPERTIES_UPDATED, "{"
+            + EVENT_ADDRESSING + "\"properties\":\"{\\\"topic\\\":\\\"New topic\\\"}\"}"));
+        assertEquals("New topic", cache.getProperties(client).get().getTopic());
+        assertEquals(THREAD_ID, cache.getProperties(client).get().getId());
+
+        cache.onChatEvent(NotificationUtils.toEventPayload(ChatEventType.PARTICIPANTS_ADDED, "{"
+            + EVENT_ADDRESSING + "\"participantsAdded\":\"[" + participantJson(SECOND_USER_ID, "Second") + "]\"}"));
+        List<ChatParticipant> participants = cache.getParticipants(client).get();
+        assertEquals(2, participants.size());
+        assertEquals("Second", participants.get(1).getDisplayName());
+
+        cache.onChatEvent(NotificationUtils.toEventPayload(ChatEventType.PARTICIPANTS_REMOVED, "{"
+            + EVENT_ADDRESSING + "\"participantsRemoved\":\"[" + participantJson(FIRST_USER_ID, "First") + "]\"}"));
+        participants = cache.getParticipants(client).get();
+        assertEquals(1, participants.size());
+        assertEquals(new CommunicationUserIdentifier(SECOND_USER_ID),
+            participants.get(0).getCommunicationIdentifier());
+
+        assertEquals(1, this.propertiesRequests.get());
+        assertEquals(1, this.participantsRequests.get());
+
+        cache.onChatEvent(NotificationUtils.toEventPayload(ChatEventType.CHAT_THREAD_DELETED, "{"
+            + EVENT_ADDRESSING + "\"deleteTime\":\"2021-01-01T00:00:00Z\"}"));
+        cache.getProperties(client).get();
+        assertEquals(2, this.propertiesRequests.get());
+    }
+
+    @Test
+    public void doesNotCacheFailures() throws InterruptedException, ExecutionException {
+        final ChatThreadCache cache = new ChatThreadCache(10, 60000, this.nanoTime::get);
+        final ChatThreadAsyncClient failing = this.createClient(THREAD_ID, 404);
+        assertThrows(ExecutionException.class, () -> cache.getProperties(failing).get());
+
+        assertEquals("Topic", cache.getProperties(this.createClient(THREAD_ID)).get().getTopic());
+        assertEquals(2, this.propertiesRequests.get());
+    }
+
+    @Test
+    public void cannotCreateCacheWithInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new ChatThreadCache(0, 60000));
+        assertThrows(IllegalArgumentException.class, () -> new ChatThreadCache(10, 0));
+    }
+
+    private ChatThreadAsyncClient createClient(String chatThreadId) {
+        return this.createClient(chatThreadId, 200);
+    }
+
+    private ChatThreadAsyncClient createClient(String chatThreadId, int statusCode) {
+        final NoOpHttpClient httpClient = new NoOpHttpClient() {
+            @Override
+            public void send(HttpRequest httpRequest,
+                             CancellationToken cancellationToken,
+                             HttpCallback httpCallback) {
+                final String body;
+                if (httpRequest.getUrl().getPath().endsWith("/participants")) {
+                    participantsRequests.incrementAndGet();
+                    body = "{\"value\":[{\"communicationIdentifier\":{\"rawId\":\"" + FIRST_USER_ID + "\","
+                        + "\"communicationUser\":{\"id\":\"" + FIRST_USER_ID + "\"}},\"displayName\":\"First\"}]}";
+                } else {
+                    propertiesRequests.incrementAndGet();
+                    body = statusCode == 200
+                        ? "{\"id\":\"" + chatThreadId + "\",\"topic\":\"Topic\",\"createdOn\":\"2021-01-01T00:00:00Z\"}"
+                        : "{\"error\":{\"code\":\"NotFound\",\"message\":\"Not found.\"}}";
+                }
+                httpCallback.onSuccess(ChatResponseMocker.generateMockResponse(body, httpRequest, statusCode));
+            }
+        };
+        return new ChatThreadAsyncClient(new AzureCommunicationChatServiceImplBuilder()
+            .endpoint("https://contoso.communication.azure.com")
+            .httpClient(httpClient)
+            .buildClient(), chatThreadId, null);
+    }
+
+    private static String participantJson(String rawId, String displayName) {
+        return "{\\\"participantId\\\":\\\"" + rawId + "\\\",\\\"displayName\\\":\\\"" + displayName + "\\\","
+            + "\\\"shareHistoryTime\\\":0}";
+    }
+}
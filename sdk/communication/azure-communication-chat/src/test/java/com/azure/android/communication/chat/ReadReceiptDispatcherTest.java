@@ -0,0 +1,168 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat;
+
+import com.azure.android.communication.chat.implementation.AzureCommunicationChatServiceImplBuilder;
+import com.azure.android.core.http.HttpCallback;
+import com.azure.android.core.http.HttpRequest;
+import com.azure.android.core.test.http.NoOpHttpClient;
+import com.azure.android.core.util.CancellationToken;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import java9.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReadReceiptDispatcherTest {
+    private static final String THREAD_ID = "19:4b72178530934b7790135dd9359205e0@thread.v2";
+
+    private final List<String> sentMessageIds = new CopyOnWriteArrayList<>();
+    private final List<Runnable> pendingResponses = new CopyOnWriteArrayList<>();
+    private volatile int respondedCount;
+    private ScheduledExecutorService scheduler;
+    private ChatThreadAsyncClient client;
+
+    @BeforeEach
+    public void setupTest() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        final NoOpHttpClient httpClient = new NoOpHttpClient() {
+            @Override
+            public void send(HttpRequest httpRequest,
+                             CancellationToken cancellationToken,
+                             HttpCallback httpCallback) {
+                final String body = new String(httpRequest.getBody(), StandardCharsets.UTF_8);
+                sentMessageIds.add(body.replaceAll(".*\"chatMessageId\":\"([^\"]*)\".*", "$1"));
+                final int statusCode = body.contains("\"failing\"") ? 400 : 200;
+                pendingResponses.add(() -> httpCallback.onSuccess(
+                    ChatResponseMocker.generateMockResponse("", httpRequest, statusCode)));
+            }
+        };
+        this.client = new ChatThreadAsyncClient(new AzureCommunicationChatServiceImplBuilder()
+            .endpoint("https://contoso.communication.azure.com")
+            .httpClient(httpClient)
+            .buildClient(), THREAD_ID, null);
+    }
+
+    @AfterEach
+    public void tearDownTest() {
+        this.scheduler.shutdownNow();
+    }
+
+    @Test
+    public void coalescesReceiptsToMostRecentMessage() throws Exception {
+        final ReadReceiptDispatcher dispatcher = new ReadReceiptDispatcher(60000, this.scheduler, false);
+
+        final CompletableFuture<Void> first = dispatcher.sendReadReceipt(this.client, "1600201311647");
+        final CompletableFuture<Void> third = dispatcher.sendReadReceipt(this.client, "1600201311649");
+        final CompletableFuture<Void> second = dispatcher.sendReadReceipt(this.client, "1600201311648");
+        assertTrue(this.sentMessageIds.isEmpty());
+
+        dispatcher.flush();
+        this.awaitRequests(1);
+        assertEquals(Arrays.asList("1600201311649"), this.sentMessageIds);
+        assertFalse(first.isDone());
+
+        this.respond();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        third.get(5, TimeUnit.SECONDS);
+
+        // A receipt for a message older than the one sent completes without a request.
+        dispatcher.sendReadReceipt(this.client, "1600201311640").get(5, TimeUnit.SECONDS);
+        assertEquals(1, this.sentMessageIds.size());
+    }
+
+    @Test
+    public void sendsOneReceiptAtATimeWithOnePending() throws Exception {
+        final ReadReceiptDispatcher dispatcher = new ReadReceiptDispatcher(60000, this.scheduler, false);
+
+        final CompletableFuture<Void> inFlight = dispatcher.sendReadReceipt(this.client, "1600201311647");
+        dispatcher.flush();
+        final CompletableFuture<Void> coveredByInFlight = dispatcher.sendReadReceipt(this.client, "1600201311646");
+        final CompletableFuture<Void> pending = dispatcher.sendReadReceipt(this.client, "1600201311648");
+        final CompletableFuture<Void> latest = dispatcher.sendReadReceipt(this.client, "1600201311650");
+        dispatcher.flush();
+        this.awaitRequests(1);
+        assertEquals(Arrays.asList("1600201311647"), this.sentMessageIds);
+
+        this.respond();
+        inFlight.get(5, TimeUnit.SECONDS);
+        coveredByInFlight.get(5, TimeUnit.SECONDS);
+        assertFalse(pending.isDone());
+        this.awaitRequests(2);
+        assertEquals(Arrays.asList("1600201311647", "1600201311650"), this.sentMessageIds);
+
+        this.respond();
+        pending.get(5, TimeUnit.SECONDS);
+        latest.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void sendsPendingReceiptAfterDebounceWindow() throws Exception {
+        final ReadReceiptDispatcher dispatcher = new ReadReceiptDispatcher(50, this.scheduler, false);
+
+        final CompletableFuture<Void> receipt = dispatcher.sendReadReceipt(this.client, "1600201311647");
+        this.awaitRequests(1);
+        assertEquals(Arrays.asList("1600201311647"), this.sentMessageIds);
+
+        this.respond();
+        receipt.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void failsReceiptsCoveredByFailedRequest() throws Exception {
+        final ReadReceiptDispatcher dispatcher = new ReadReceiptDispatcher(60000, this.scheduler, false);
+
+        final CompletableFuture<Void> receipt = dispatcher.sendReadReceipt(this.client, "failing");
+        dispatcher.flush();
+        this.respond();
+        assertThrows(ExecutionException.class, () -> receipt.get(5, TimeUnit.SECONDS));
+
+        // The next receipt is sent again.
+        final CompletableFuture<Void> retried = dispatcher.sendReadReceipt(this.client, "1600201311647");
+        dispatcher.close();
+        this.respond();
+        retried.get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("failing", "1600201311647"), this.sentMessageIds);
+        assertThrows(ExecutionException.class,
+            () -> dispatcher.sendReadReceipt(this.client, "1600201311648").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void cannotCreateDispatcherWithNegativeWindow() {
+        assertThrows(IllegalArgumentException.class, () -> new ReadReceiptDispatcher(-1));
+    }
+
+    private void awaitRequests(int count) throws InterruptedException, TimeoutException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (this.pendingResponses.size() + this.respondedCount < count) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException("Expected " + count + " requests, got " + this.sentMessageIds.size());
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private void respond() throws InterruptedException, TimeoutException {
+        this.awaitRequests(this.respondedCount + 1);
+        this.respondedCount++;
+        this.pendingResponses.remove(0).run();
+    }
+}
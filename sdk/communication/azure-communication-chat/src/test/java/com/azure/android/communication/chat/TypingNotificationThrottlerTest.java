@@ -0,0 +1,135 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat;
+
+import com.azure.android.communication.chat.implementation.AzureCommunicationChatServiceImplBuilder;
+import com.azure.android.communication.chat.models.SendChatMessageOptions;
+import com.azure.android.core.http.HttpCallback;
+import com.azure.android.core.http.HttpRequest;
+import com.azure.android.core.test.http.NoOpHttpClient;
+import com.azure.android.core.util.CancellationToken;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TypingNotificationThrottlerTest {
+    private static final String THREAD_ID = "19:4b72178530934b7790135dd9359205e0@thread.v2";
+
+    private final AtomicInteger typingRequests = new AtomicInteger();
+    private ScheduledExecutorService scheduler;
+    private ChatThreadAsyncClient client;
+
+    @BeforeEach
+    public void setupTest() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        final NoOpHttpClient httpClient = new NoOpHttpClient() {
+            @Override
+            public void send(HttpRequest httpRequest,
+                             CancellationToken cancellationToken,
+                             HttpCallback httpCallback) {
+                if (httpRequest.getUrl().getPath().endsWith("/messages")) {
+                    httpCallback.onSuccess(ChatResponseMocker.generateMockResponse("{\"id\":\"1\"}", httpRequest,
+                        201));
+                    return;
+                }
+                typingRequests.incrementAndGet();
+                httpCallback.onSuccess(ChatResponseMocker.generateMockResponse("", httpRequest, 200));
+            }
+        };
+        this.client = new ChatThreadAsyncClient(new AzureCommunicationChatServiceImplBuilder()
+            .endpoint("https://contoso.communication.azure.com")
+            .httpClient(httpClient)
+            .buildClient(), THREAD_ID, null);
+    }
+
+    @AfterEach
+    public void tearDownTest() {
+        this.scheduler.shutdownNow();
+    }
+
+    @Test
+    public void sendsLeadingAndSingleTrailingNotification() throws Exception {
+        final TypingNotificationThrottler throttler = new TypingNotificationThrottler(300, this.scheduler);
+
+        for (int i = 0; i < 20; i++) {
+            throttler.onTyping(this.client);
+        }
+        this.awaitRequests(1);
+
+        Thread.sleep(600);
+        assertEquals(2, this.typingRequests.get());
+    }
+
+    @Test
+    public void messageSentCancelsPendingNotification() throws Exception {
+        final TypingNotificationThrottler throttler = new TypingNotificationThrottler(300, this.scheduler);
+
+        throttler.onTyping(this.client);
+        throttler.onTyping(this.client);
+        throttler.onMessageSent(THREAD_ID);
+        this.awaitRequests(1);
+
+        Thread.sleep(600);
+        assertEquals(1, this.typingRequests.get());
+
+        // The window is reset by the message, the next keystroke is sent right away.
+        throttler.onTyping(this.client);
+        this.awaitRequests(2);
+    }
+
+    @Test
+    public void messageSentThroughThrottlerCancelsPendingNotification() throws Exception {
+        final TypingNotificationThrottler throttler = new TypingNotificationThrottler(300, this.scheduler);
+
+        throttler.onTyping(this.client);
+        throttler.onTyping(this.client);
+        assertEquals("1", throttler.sendMessage(this.client, new SendChatMessageOptions().setContent("Hello"))
+            .get().getId());
+        this.awaitRequests(1);
+
+        Thread.sleep(600);
+        assertEquals(1, this.typingRequests.get());
+    }
+
+    @Test
+    public void dropsKeystrokesWhileInactive() throws Exception {
+        final TypingNotificationThrottler throttler = new TypingNotificationThrottler(300, this.scheduler);
+
+        throttler.onTyping(this.client);
+        throttler.onTyping(this.client);
+        throttler.setActive(false);
+        throttler.onTyping(this.client);
+        Thread.sleep(600);
+        assertEquals(1, this.typingRequests.get());
+
+        throttler.setActive(true);
+        throttler.onTyping(this.client);
+        this.awaitRequests(2);
+    }
+
+    @Test
+    public void cannotCreateThrottlerWithInvalidInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new TypingNotificationThrottler(0));
+    }
+
+    private void awaitRequests(int count) throws InterruptedException, TimeoutException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (this.typingRequests.get() < count) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException("Expected " + count + " requests, got " + this.typingRequests.get());
+            }
+            Thread.sleep(5);
+        }
+    }
+}
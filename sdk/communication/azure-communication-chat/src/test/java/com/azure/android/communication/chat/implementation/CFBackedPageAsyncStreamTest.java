@@ -0,0 +1,223 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat.implementation;
+
+import com.azure.android.core.logging.ClientLogger;
+import com.azure.android.core.rest.util.paging.PagedResponse;
+import com.azure.android.core.rest.util.paging.PagedResponseBase;
+import com.azure.android.core.util.AsyncStreamHandler;
+import com.azure.android.core.util.CancellationToken;
+import com.azure.android.core.util.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import java9.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CFBackedPageAsyncStreamTest {
+    private static final int PAGE_COUNT = 6;
+
+    private final ClientLogger logger = new ClientLogger(CFBackedPageAsyncStreamTest.class);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    public void shutdownScheduler() {
+        this.scheduler.shutdownNow();
+    }
+
+    @Test
+    public void retrievesNextPageWhileHandlerProcessesCurrentOne() throws InterruptedException {
+        final PageRetriever pageRetriever = new PageRetriever(-1);
+        final RecordingHandler handler = new RecordingHandler() {
+            @Override
+            public void onNext(PagedResponse<Integer> page) {
+                super.onNext(page);
+                final int pageIndex = page.getElements().get(0);
+                if (pageIndex + 1 < PAGE_COUNT) {
+                    // The next page is being retrieved while this page is processed.
+                    assertTrue(awaitCallCount(pageRetriever, pageIndex + 2), "page " + pageIndex);
+                }
+            }
+        };
+
+        newStream(pageRetriever, 1).forEach(handler);
+
+        assertTrue(handler.terminated.await(30, TimeUnit.SECONDS));
+        handler.assertNoError();
+        assertEquals(PAGE_COUNT, pageRetriever.callCount.get());
+    }
+
+    @Test
+    public void deliversPagesInOrderAndBoundsPrefetch() throws InterruptedException {
+        final PageRetriever pageRetriever = new PageRetriever(-1);
+        final int prefetchDepth = 2;
+        final List<Integer> callCountsOnDelivery = new CopyOnWriteArrayList<>();
+        final RecordingHandler handler = new RecordingHandler() {
+            @Override
+            public void onNext(PagedResponse<Integer> page) {
+                // A slow handler, the retrievals run ahead as far as they are allowed to.
+                sleep(60);
+                callCountsOnDelivery.add(pageRetriever.callCount.get());
+                super.onNext(page);
+            }
+        };
+
+        newStream(pageRetriever, prefetchDepth).forEach(handler);
+
+        assertTrue(handler.terminated.await(30, TimeUnit.SECONDS));
+        handler.assertNoError();
+        assertEquals(PAGE_COUNT, handler.pages.size());
+        for (int i = 0; i < PAGE_COUNT; i++) {
+            assertEquals(i, (int) handler.pages.get(i));
+            // The page being delivered and 'prefetchDepth' pages ahead of it are retrieved, no more and no less.
+            assertTrue(callCountsOnDelivery.get(i) <= Math.min(PAGE_COUNT, i + 1 + prefetchDepth),
+                callCountsOnDelivery.toString());
+            assertTrue(callCountsOnDelivery.get(i) >= Math.min(PAGE_COUNT, i + 1 + prefetchDepth),
+                callCountsOnDelivery.toString());
+        }
+    }
+
+    @Test
+    public void signalsErrorAfterPagesBeforeIt() throws InterruptedException {
+        final PageRetriever pageRetriever = new PageRetriever(3);
+        final RecordingHandler handler = new RecordingHandler();
+
+        newStream(pageRetriever, 2).forEach(handler);
+
+        assertTrue(handler.terminated.await(30, TimeUnit.SECONDS));
+        assertEquals(3, handler.pages.size());
+        assertTrue(handler.error instanceof RuntimeException);
+        assertTrue(handler.error.getCause() instanceof IOException, String.valueOf(handler.error));
+        // No page is retrieved past the failed one.
+        assertEquals(4, pageRetriever.callCount.get());
+    }
+
+    @Test
+    public void cancellationStopsEnumeration() throws InterruptedException {
+        final PageRetriever pageRetriever = new PageRetriever(-1);
+        final RecordingHandler handler = new RecordingHandler() {
+            @Override
+            public void onNext(PagedResponse<Integer> page) {
+                super.onNext(page);
+                if (this.pages.size() == 2) {
+                    this.token.cancel();
+                }
+            }
+        };
+
+        newStream(pageRetriever, 1).forEach(handler);
+
+        assertTrue(handler.terminated.await(30, TimeUnit.SECONDS));
+        assertTrue(handler.error instanceof CancellationException, String.valueOf(handler.error));
+        assertEquals(2, handler.pages.size());
+        sleep(50);
+        assertTrue(pageRetriever.callCount.get() <= 3, String.valueOf(pageRetriever.callCount.get()));
+    }
+
+    @Test
+    public void rejectsNegativePrefetchDepth() {
+        assertThrows(IllegalArgumentException.class, () -> newStream(new PageRetriever(-1), -1));
+    }
+
+    private CFBackedPageAsyncStream<Integer> newStream(PageRetriever pageRetriever, int prefetchDepth) {
+        return new CFBackedPageAsyncStream<>(pageRetriever, id -> id != null, null, this.logger, prefetchDepth);
+    }
+
+    private static boolean awaitCallCount(PageRetriever pageRetriever, int count) {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pageRetriever.callCount.get() < count) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            sleep(5);
+        }
+        return true;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Retrieves pages holding their index, each after a network-like delay.
+     */
+    private final class PageRetriever implements Function<String, CompletableFuture<PagedResponse<Integer>>> {
+        private final AtomicInteger callCount = new AtomicInteger();
+        private final int failingPage;
+
+        PageRetriever(int failingPage) {
+            this.failingPage = failingPage;
+        }
+
+        @Override
+        public CompletableFuture<PagedResponse<Integer>> call(String pageId) {
+            this.callCount.incrementAndGet();
+            final int pageIndex = pageId == null ? 0 : Integer.parseInt(pageId);
+            final CompletableFuture<PagedResponse<Integer>> future = new CompletableFuture<>();
+            scheduler.schedule(() -> {
+                if (pageIndex == this.failingPage) {
+                    future.completeExceptionally(new IOException("IO error on page retrieval."));
+                } else {
+                    final String nextPageId = pageIndex + 1 < PAGE_COUNT ? String.valueOf(pageIndex + 1) : null;
+                    future.complete(new PagedResponseBase<Void, Integer>(null, 200, null,
+                        Collections.singletonList(pageIndex), nextPageId, null));
+                }
+            }, 10, TimeUnit.MILLISECONDS);
+            return future;
+        }
+    }
+
+    private static class RecordingHandler implements AsyncStreamHandler<PagedResponse<Integer>> {
+        final List<Integer> pages = new CopyOnWriteArrayList<>();
+        final CountDownLatch terminated = new CountDownLatch(1);
+        volatile CancellationToken token;
+        volatile Throwable error;
+
+        @Override
+        public void onInit(CancellationToken cancellationToken) {
+            this.token = cancellationToken;
+        }
+
+        @Override
+        public void onNext(PagedResponse<Integer> page) {
+            this.pages.add(page.getElements().get(0));
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+            this.terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            this.terminated.countDown();
+        }
+
+        void assertNoError() {
+            if (this.error != null) {
+                throw new AssertionError(this.error);
+            }
+        }
+    }
+}
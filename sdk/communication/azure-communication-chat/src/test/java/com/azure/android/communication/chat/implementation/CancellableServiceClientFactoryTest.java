@@ -0,0 +1,97 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat.implementation;
+
+import com.azure.android.communication.chat.implementation.models.ChatThreadProperties;
+import com.azure.android.core.http.HttpCallback;
+import com.azure.android.core.http.HttpPipelineBuilder;
+import com.azure.android.core.http.HttpRequest;
+import com.azure.android.core.test.http.NoOpHttpClient;
+import com.azure.android.core.util.CancellationToken;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import java9.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CancellableServiceClientFactoryTest {
+    private static final String THREAD_ID = "19:4b72178530934b7790135dd9359205e0@thread.v2";
+
+    private final List<HttpRequest> requests = new CopyOnWriteArrayList<>();
+    private final List<CancellationToken> requestTokens = new CopyOnWriteArrayList<>();
+    private final List<HttpCallback> callbacks = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void cancellingTokenCancelsCallsInFlight() throws Exception {
+        final CancellationToken operationToken = new CancellationToken();
+        final AzureCommunicationChatServiceImpl serviceClient = this.createFactory().create(operationToken);
+
+        serviceClient.getChatThreadClient().getChatThreadPropertiesAsync(THREAD_ID);
+        this.awaitRequests(1);
+        // The policies of the shared pipeline still apply.
+        assertEquals("applied", this.requests.get(0).getHeaders().getValue("x-policy"));
+        assertFalse(this.requestTokens.get(0).isCancellationRequested());
+
+        operationToken.cancel();
+        assertTrue(this.requestTokens.get(0).isCancellationRequested());
+        this.callbacks.get(0).onError(new IOException("Canceled."));
+
+        // The calls made once the token is cancelled do not reach the HTTP client.
+        final CompletableFuture<ChatThreadProperties> cancelled = serviceClient.getChatThreadClient()
+            .getChatThreadPropertiesAsync(THREAD_ID);
+        assertThrows(ExecutionException.class, () -> cancelled.get(5, TimeUnit.SECONDS));
+        assertEquals(1, this.requests.size());
+    }
+
+    @Test
+    public void noneTokenReturnsSharedServiceClient() {
+        final CancellableServiceClientFactory factory = this.createFactory();
+        assertSame(factory.create(CancellationToken.NONE), factory.create(CancellationToken.NONE));
+    }
+
+    private void awaitRequests(int count) throws InterruptedException, TimeoutException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (this.requests.size() < count) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException("Expected " + count + " requests, got " + this.requests.size());
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private CancellableServiceClientFactory createFactory() {
+        final NoOpHttpClient httpClient = new NoOpHttpClient() {
+            @Override
+            public void send(HttpRequest httpRequest,
+                             CancellationToken cancellationToken,
+                             HttpCallback httpCallback) {
+                requests.add(httpRequest);
+                requestTokens.add(cancellationToken);
+                callbacks.add(httpCallback);
+            }
+        };
+        return new CancellableServiceClientFactory(new AzureCommunicationChatServiceImplBuilder()
+            .endpoint("https://contoso.communication.azure.com")
+            .pipeline(new HttpPipelineBuilder()
+                .policies(chain -> {
+                    chain.getRequest().getHeaders().put("x-policy", "applied");
+                    chain.processNextPolicy(chain.getRequest());
+                })
+                .httpClient(httpClient)
+                .build())
+            .buildClient());
+    }
+}
@@ -0,0 +1,242 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat.implementation;
+
+import com.azure.android.communication.chat.models.ChatThreadOperationResult;
+import com.azure.android.core.logging.ClientLogger;
+import com.azure.android.core.util.AsyncStreamHandler;
+import com.azure.android.core.util.CancellationToken;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import java9.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FanOutAsyncStreamTest {
+    private final ClientLogger logger = new ClientLogger(FanOutAsyncStreamTest.class);
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+
+    @AfterEach
+    public void shutdownScheduler() {
+        this.scheduler.shutdownNow();
+    }
+
+    @Test
+    public void runsOperationsWithBoundedConcurrency() throws InterruptedException {
+        final List<String> chatThreadIds = threadIds(20);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final RecordingHandler handler = new RecordingHandler();
+
+        new FanOutAsyncStream<>(chatThreadIds, (chatThreadId, cancellationToken) -> {
+            final int nowRunning = running.incrementAndGet();
+            maxRunning.accumulateAndGet(nowRunning, Math::max);
+            final CompletableFuture<String> future = new CompletableFuture<>();
+            this.scheduler.schedule(() -> {
+                running.decrementAndGet();
+                future.complete("properties of " + chatThreadId);
+            }, 5, TimeUnit.MILLISECONDS);
+            return future;
+        }, 3, this.logger).forEach(handler);
+
+        assertTrue(handler.terminated.await(30, TimeUnit.SECONDS));
+        assertNull(handler.error);
+        assertTrue(handler.completed);
+        assertTrue(maxRunning.get() <= 3, String.valueOf(maxRunning.get()));
+        assertEquals(20, handler.results.size());
+        final List<String> resultIds = new ArrayList<>();
+        for (ChatThreadOperationResult<String> result : handler.results) {
+            assertTrue(result.isSuccessful());
+            assertEquals("properties of " + result.getChatThreadId(), result.getValue());
+            resultIds.add(result.getChatThreadId());
+        }
+        assertEquals(new HashSet<>(chatThreadIds), new HashSet<>(resultIds));
+    }
+
+    @Test
+    public void reportsFailedOperationsWithoutEndingBatch() throws InterruptedException {
+        final IOException error = new IOException("Connection reset.");
+        final RecordingHandler handler = new RecordingHandler();
+
+        new FanOutAsyncStream<>(Arrays.asList("1", "2", "3"), (chatThreadId, cancellationToken) -> {
+            if (chatThreadId.equals("2")) {
+                return CompletableFuture.failedFuture(error);
+            }
+            return CompletableFuture.supplyAsync(() -> chatThreadId);
+        }, 2, this.logger).forEach(handler);
+
+        assertTrue(handler.terminated.await(30, TimeUnit.SECONDS));
+        assertTrue(handler.completed);
+        assertEquals(3, handler.results.size());
+        for (ChatThreadOperationResult<String> result : handler.results) {
+            if (result.getChatThreadId().equals("2")) {
+                assertFalse(result.isSuccessful());
+                assertNull(result.getValue());
+                assertEquals(error, result.getError());
+            } else {
+                assertTrue(result.isSuccessful());
+                assertEquals(result.getChatThreadId(), result.getValue());
+            }
+        }
+    }
+
+    @Test
+    public void cancellationCancelsTheBatch() throws InterruptedException {
+        final List<CompletableFuture<String>> started = new CopyOnWriteArrayList<>();
+        final List<CancellationToken> operationTokens = new CopyOnWriteArrayList<>();
+        final RecordingHandler handler = new RecordingHandler();
+
+        final CancellationToken token = new FanOutAsyncStream<>(threadIds(10), (chatThreadId, cancellationToken) -> {
+            final CompletableFuture<String> future = new CompletableFuture<>();
+            started.add(future);
+            operationTokens.add(cancellationToken);
+            return future;
+        }, 4, this.logger).forEach(handler);
+
+        assertEquals(4, started.size());
+        started.get(0).complete("done");
+        assertEquals(5, started.size());
+
+        token.cancel();
+
+        assertTrue(handler.terminated.await(30, TimeUnit.SECONDS));
+        assertTrue(handler.error instanceof CancellationException, String.valueOf(handler.error));
+        assertEquals(1, handler.results.size());
+        assertEquals(5, started.size());
+        for (CompletableFuture<String> future : started.subList(1, started.size())) {
+            assertTrue(future.isCancelled());
+        }
+        // The service calls of the operations running are cancelled through their tokens.
+        assertFalse(operationTokens.get(0).isCancellationRequested());
+        for (CancellationToken operationToken : operationTokens.subList(1, operationTokens.size())) {
+            assertTrue(operationToken.isCancellationRequested());
+        }
+    }
+
+    @Test
+    public void slowHandlerDoesNotBlockOtherCompletions() throws InterruptedException {
+        final List<CompletableFuture<String>> started = new CopyOnWriteArrayList<>();
+        final CountDownLatch handlerEntered = new CountDownLatch(1);
+        final CountDownLatch releaseHandler = new CountDownLatch(1);
+        final RecordingHandler handler = new RecordingHandler() {
+            @Override
+            public void onNext(ChatThreadOperationResult<String> result) {
+                handlerEntered.countDown();
+                try {
+                    releaseHandler.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.onNext(result);
+            }
+        };
+
+        new FanOutAsyncStream<>(threadIds(2), (chatThreadId, cancellationToken) -> {
+            final CompletableFuture<String> future = new CompletableFuture<>();
+            started.add(future);
+            return future;
+        }, 2, this.logger).forEach(handler);
+
+        this.scheduler.execute(() -> started.get(0).complete("first"));
+        assertTrue(handlerEntered.await(30, TimeUnit.SECONDS));
+
+        // Completing another operation while the handler is busy returns without waiting for the handler.
+        started.get(1).complete("second");
+        assertEquals(0, handler.results.size());
+
+        releaseHandler.countDown();
+        assertTrue(handler.terminated.await(30, TimeUnit.SECONDS));
+        assertTrue(handler.completed);
+        assertEquals("first", handler.results.get(0).getValue());
+        assertEquals("second", handler.results.get(1).getValue());
+    }
+
+    @Test
+    public void synchronouslyCompletingOperationsDoNotRecurse() throws InterruptedException {
+        final RecordingHandler handler = new RecordingHandler();
+
+        new FanOutAsyncStream<>(threadIds(20000), FanOutAsyncStreamTest::completed, 2, this.logger)
+            .forEach(handler);
+
+        assertTrue(handler.terminated.await(30, TimeUnit.SECONDS));
+        assertTrue(handler.completed);
+        assertEquals(20000, handler.results.size());
+    }
+
+    @Test
+    public void completesEmptyBatch() throws InterruptedException {
+        final RecordingHandler handler = new RecordingHandler();
+
+        new FanOutAsyncStream<String>(Collections.emptyList(), FanOutAsyncStreamTest::completed, 2, this.logger)
+            .forEach(handler);
+
+        assertTrue(handler.terminated.await(30, TimeUnit.SECONDS));
+        assertTrue(handler.completed);
+    }
+
+    @Test
+    public void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new FanOutAsyncStream<>(threadIds(1), FanOutAsyncStreamTest::completed, 0, this.logger));
+        assertThrows(NullPointerException.class,
+            () -> new FanOutAsyncStream<>(Arrays.asList("1", null), FanOutAsyncStreamTest::completed, 1,
+                this.logger));
+    }
+
+    private static CompletableFuture<String> completed(String chatThreadId, CancellationToken cancellationToken) {
+        return CompletableFuture.completedFuture(chatThreadId);
+    }
+
+    private static List<String> threadIds(int count) {
+        final List<String> chatThreadIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            chatThreadIds.add("19:thread" + i + "@thread.v2");
+        }
+        return chatThreadIds;
+    }
+
+    private static class RecordingHandler implements AsyncStreamHandler<ChatThreadOperationResult<String>> {
+        final List<ChatThreadOperationResult<String>> results = new CopyOnWriteArrayList<>();
+        final CountDownLatch terminated = new CountDownLatch(1);
+        volatile boolean completed;
+        volatile Throwable error;
+
+        @Override
+        public void onNext(ChatThreadOperationResult<String> result) {
+            this.results.add(result);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+            this.terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            this.completed = true;
+            this.terminated.countDown();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat.implementation;
+
+import com.azure.android.core.logging.ClientLogger;
+import com.azure.android.core.rest.util.paging.PagedIterable;
+import com.azure.android.core.rest.util.paging.PagedResponse;
+import com.azure.android.core.rest.util.paging.PagedResponseBase;
+import com.azure.android.core.util.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import java9.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReadAheadPageRetrieverTest {
+    private static final int PAGE_COUNT = 5;
+    private static final int PAGE_SIZE = 2;
+
+    private final ClientLogger logger = new ClientLogger(ReadAheadPageRetrieverTest.class);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    public void shutdownScheduler() {
+        this.scheduler.shutdownNow();
+    }
+
+    @Test
+    public void enumeratesAllElementsInOrder() {
+        final AsyncPageRetriever asyncPageRetriever = new AsyncPageRetriever(-1);
+        final List<Integer> elements = new ArrayList<>();
+
+        for (Integer element : newIterable(asyncPageRetriever, 2)) {
+            elements.add(element);
+        }
+
+        assertEquals(PAGE_COUNT * PAGE_SIZE, elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            assertEquals(i, (int) elements.get(i));
+        }
+        assertEquals(PAGE_COUNT, asyncPageRetriever.callCount.get());
+    }
+
+    @Test
+    public void retrievesPagesAheadWhileElementsAreIterated() throws InterruptedException {
+        final AsyncPageRetriever asyncPageRetriever = new AsyncPageRetriever(-1);
+
+        for (Integer element : newIterable(asyncPageRetriever, 2)) {
+            // The first page and the two pages ahead of it.
+            assertTrue(awaitCallCount(asyncPageRetriever, 3));
+            Thread.sleep(50);
+            assertEquals(3, asyncPageRetriever.callCount.get());
+            break;
+        }
+    }
+
+    @Test
+    public void throwsErrorAtFailedPage() {
+        final AsyncPageRetriever asyncPageRetriever = new AsyncPageRetriever(2);
+        final List<Integer> elements = new ArrayList<>();
+
+        final RuntimeException error = assertThrows(RuntimeException.class, () -> {
+            for (Integer element : newIterable(asyncPageRetriever, 2)) {
+                elements.add(element);
+            }
+        });
+
+        assertEquals(Arrays.asList(0, 1, 2, 3), elements);
+        assertTrue(error.getCause().getCause() instanceof IOException, String.valueOf(error));
+    }
+
+    @Test
+    public void discardsPagesAheadWhenAnotherPageIsRequested() {
+        final AsyncPageRetriever asyncPageRetriever = new AsyncPageRetriever(-1);
+        final ReadAheadPageRetriever<Integer> pageRetriever =
+            new ReadAheadPageRetriever<>(asyncPageRetriever, id -> id != null, 2, this.logger);
+
+        assertEquals(Arrays.asList(0, 1), pageRetriever.call(null).getValue());
+        assertEquals(Arrays.asList(2, 3), pageRetriever.call("1").getValue());
+        assertEquals(Arrays.asList(0, 1), pageRetriever.call(null).getValue());
+    }
+
+    @Test
+    public void rejectsNonPositiveReadAheadPageCount() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new ReadAheadPageRetriever<>(new AsyncPageRetriever(-1), id -> id != null, 0, this.logger));
+    }
+
+    private PagedIterable<Integer> newIterable(AsyncPageRetriever asyncPageRetriever, int readAheadPageCount) {
+        return new PagedIterable<>(
+            new ReadAheadPageRetriever<>(asyncPageRetriever, id -> id != null, readAheadPageCount, this.logger),
+            id -> id != null,
+            this.logger);
+    }
+
+    private static boolean awaitCallCount(AsyncPageRetriever asyncPageRetriever, int count)
+        throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (asyncPageRetriever.callCount.get() < count) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves pages of consecutive integers, each after a network-like delay.
+     */
+    private final class AsyncPageRetriever implements Function<String, CompletableFuture<PagedResponse<Integer>>> {
+        private final AtomicInteger callCount = new AtomicInteger();
+        private final int failingPage;
+
+        AsyncPageRetriever(int failingPage) {
+            this.failingPage = failingPage;
+        }
+
+        @Override
+        public CompletableFuture<PagedResponse<Integer>> call(String pageId) {
+            this.callCount.incrementAndGet();
+            final int pageIndex = pageId == null ? 0 : Integer.parseInt(pageId);
+            final CompletableFuture<PagedResponse<Integer>> future = new CompletableFuture<>();
+            scheduler.schedule(() -> {
+                if (pageIndex == this.failingPage) {
+                    future.completeExceptionally(new IOException("IO error on page retrieval."));
+                } else {
+                    final List<Integer> items = new ArrayList<>();
+                    for (int i = 0; i < PAGE_SIZE; i++) {
+                        items.add(pageIndex * PAGE_SIZE + i);
+                    }
+                    final String nextPageId = pageIndex + 1 < PAGE_COUNT ? String.valueOf(pageIndex + 1) : null;
+                    future.complete(new PagedResponseBase<Void, Integer>(null, 200, null, items, nextPageId, null));
+                }
+            }, 10, TimeUnit.MILLISECONDS);
+            return future;
+        }
+    }
+}
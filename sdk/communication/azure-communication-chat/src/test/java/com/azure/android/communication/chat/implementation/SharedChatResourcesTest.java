@@ -0,0 +1,117 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat.implementation;
+
+import com.azure.android.communication.common.CommunicationTokenCredential;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SharedChatResourcesTest {
+    private static final String ENDPOINT = "https://chat.communication.azure.com";
+
+    @Test
+    public void clientsOfSameEndpointAndCredentialShareResources() {
+        final CommunicationTokenCredential credential = newCredential();
+        final SharedChatResources first = SharedChatResources.acquire(ENDPOINT, credential);
+        final SharedChatResources second = SharedChatResources.acquire(ENDPOINT, credential);
+
+        assertSame(first, second);
+        assertSame(first.getHttpClient(), second.getHttpClient());
+        assertSame(first.getJacksonSerder(), second.getJacksonSerder());
+        assertEquals(2, first.getReferenceCount());
+
+        // Another credential or another endpoint gets resources of its own.
+        final SharedChatResources otherCredential = SharedChatResources.acquire(ENDPOINT, newCredential());
+        final SharedChatResources otherEndpoint = SharedChatResources.acquire(ENDPOINT + "/other", credential);
+        assertNotSame(first, otherCredential);
+        assertNotSame(first, otherEndpoint);
+
+        first.release();
+        second.release();
+        otherCredential.release();
+        otherEndpoint.release();
+    }
+
+    @Test
+    public void resourcesAreRecreatedOnceLastReferenceIsReleased() {
+        final CommunicationTokenCredential credential = newCredential();
+        final SharedChatResources resources = SharedChatResources.acquire(ENDPOINT, credential);
+        SharedChatResources.acquire(ENDPOINT, credential);
+
+        resources.release();
+        assertEquals(1, resources.getReferenceCount());
+        assertSame(resources, SharedChatResources.acquire(ENDPOINT, credential));
+        resources.release();
+        resources.release();
+        assertEquals(0, resources.getReferenceCount());
+
+        // An extra release is ignored.
+        resources.release();
+        assertEquals(0, resources.getReferenceCount());
+
+        final SharedChatResources recreated = SharedChatResources.acquire(ENDPOINT, credential);
+        assertNotSame(resources, recreated);
+        assertNotSame(resources.getHttpClient(), recreated.getHttpClient());
+        recreated.release();
+    }
+
+    @Test
+    public void derivedClientRetainsResources() {
+        final CommunicationTokenCredential credential = newCredential();
+        final SharedChatResources resources = SharedChatResources.acquire(ENDPOINT, credential);
+
+        assertTrue(resources.retain());
+        resources.release();
+        assertEquals(1, resources.getReferenceCount());
+        assertSame(resources, SharedChatResources.acquire(ENDPOINT, credential));
+        resources.release();
+        resources.release();
+
+        // The resources released cannot be retained anymore.
+        assertFalse(resources.retain());
+        assertEquals(0, resources.getReferenceCount());
+    }
+
+    @Test
+    public void resourcesOfCollectedCredentialAreReleased() throws InterruptedException, TimeoutException {
+        CommunicationTokenCredential credential = newCredential();
+        final WeakReference<CommunicationTokenCredential> credentialReference = new WeakReference<>(credential);
+        final SharedChatResources resources = SharedChatResources.acquire(ENDPOINT, credential);
+        credential = null;
+
+        // The client holding the resources is never closed.
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (credentialReference.get() != null) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException("The credential was not collected.");
+            }
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        final SharedChatResources other = SharedChatResources.acquire(ENDPOINT, newCredential());
+        assertEquals(0, resources.getReferenceCount());
+        other.release();
+    }
+
+    private static CommunicationTokenCredential newCredential() {
+        final JWTClaimsSet claims = new JWTClaimsSet.Builder()
+            .claim("id", "communication:resourceId.userIdentity")
+            .claim("exp", System.currentTimeMillis() / 1000 + 100)
+            .build();
+        return new CommunicationTokenCredential(new PlainJWT(claims).serialize());
+    }
+}
@@ -0,0 +1,97 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat.implementation.notification;
+
+import com.azure.android.communication.chat.implementation.notifications.ChatEventDeduplicator;
+import com.azure.android.communication.chat.implementation.notifications.ChatEventDeduplicator.Channel;
+import com.azure.android.communication.chat.implementation.notifications.NotificationUtils;
+import com.azure.android.communication.chat.models.ChatEvent;
+import com.azure.android.communication.chat.models.ChatEventType;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChatEventDeduplicatorTest {
+    private static final String THREAD_ID = "19:4b72178530934b7790135dd9359205e0@thread.v2";
+    private static final String USER_ID =
+        "8:acs:9b665d53-8164-4923-ad5d-5e983b07d2e7_00000005-334f-e4af-b274-5a3a0d0002f9";
+
+    @Test
+    public void dropsEventAlreadyDeliveredFromOtherChannel() {
+        final ChatEventDeduplicator deduplicator = new ChatEventDeduplicator();
+
+        assertFalse(deduplicator.isDuplicate(message("1", "1"), Channel.REALTIME));
+        // Another handler of the same channel receives the event too.
+        assertFalse(deduplicator.isDuplicate(message("1", "1"), Channel.REALTIME));
+        assertTrue(deduplicator.isDuplicate(message("1", "1"), Channel.PUSH));
+
+        assertFalse(deduplicator.isDuplicate(message("2", "2"), Channel.PUSH));
+        assertTrue(deduplicator.isDuplicate(message("2", "2"), Channel.REALTIME));
+        assertEquals(2, deduplicator.getDuplicateCount());
+    }
+
+    @Test
+    public void deliversOtherVersionsAndTypesOfMessage() {
+        final ChatEventDeduplicator deduplicator = new ChatEventDeduplicator();
+
+        assertFalse(deduplicator.isDuplicate(message("1", "1"), Channel.REALTIME));
+        assertFalse(deduplicator.isDuplicate(message("1", "2"), Channel.PUSH));
+        assertFalse(deduplicator.isDuplicate(NotificationUtils.toEventPayload(ChatEventType.CHAT_MESSAGE_EDITED, "{"
+            + "\"groupId\":\"" + THREAD_ID + "\",\"senderId\":\"" + USER_ID + "\",\"recipientId\":\"" + USER_ID + "\","
+            + "\"messageId\":\"1\",\"messageBody\":\"Hello again\",\"senderDisplayName\":\"Sender\","
+            + "\"originalArrivalTime\":\"2021-01-01T00:00:01Z\",\"edittime\":\"2021-01-01T00:00:05Z\","
+            + "\"version\":\"1\"}"), Channel.PUSH));
+        assertEquals(0, deduplicator.getDuplicateCount());
+    }
+
+    @Test
+    public void forgetsOldestEventsBeyondCapacityAndWindow() throws Exception {
+        final ChatEventDeduplicator deduplicator = new ChatEventDeduplicator(2, 200);
+
+        deduplicator.isDuplicate(message("1", "1"), Channel.REALTIME);
+        deduplicator.isDuplicate(message("2", "2"), Channel.REALTIME);
+        deduplicator.isDuplicate(message("3", "3"), Channel.REALTIME);
+        assertFalse(deduplicator.isDuplicate(message("1", "1"), Channel.PUSH));
+        assertTrue(deduplicator.isDuplicate(message("3", "3"), Channel.PUSH));
+
+        Thread.sleep(300);
+        assertFalse(deduplicator.isDuplicate(message("3", "3"), Channel.PUSH));
+        assertEquals(1, deduplicator.getDuplicateCount());
+    }
+
+    @Test
+    public void tellsSendersApartByRawId() {
+        final ChatEventDeduplicator deduplicator = new ChatEventDeduplicator();
+        // The ids of the two senders have the same hash code.
+        assertEquals("8:acs:Aa".hashCode(), "8:acs:BB".hashCode());
+
+        assertFalse(deduplicator.isDuplicate(typing("8:acs:Aa"), Channel.REALTIME));
+        assertFalse(deduplicator.isDuplicate(typing("8:acs:BB"), Channel.PUSH));
+        assertTrue(deduplicator.isDuplicate(typing("8:acs:Aa"), Channel.PUSH));
+        assertEquals(1, deduplicator.getDuplicateCount());
+    }
+
+    @Test
+    public void cannotCreateDeduplicatorWithInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new ChatEventDeduplicator(0, 1000));
+    }
+
+    private static ChatEvent typing(String senderId) {
+        return NotificationUtils.toEventPayload(ChatEventType.TYPING_INDICATOR_RECEIVED, "{"
+            + "\"groupId\":\"" + THREAD_ID + "\",\"senderId\":\"" + senderId + "\",\"recipientId\":\"" + USER_ID + "\","
+            + "\"senderDisplayName\":\"Sender\",\"originalArrivalTime\":\"2021-01-01T00:00:01Z\",\"version\":\"1\"}");
+    }
+
+    private static ChatEvent message(String id, String version) {
+        return NotificationUtils.toEventPayload(ChatEventType.CHAT_MESSAGE_RECEIVED, "{"
+            + "\"groupId\":\"" + THREAD_ID + "\",\"senderId\":\"" + USER_ID + "\",\"recipientId\":\"" + USER_ID + "\","
+            + "\"messageId\":\"" + id + "\",\"messageType\":\"Text\",\"messageBody\":\"Hello\","
+            + "\"senderDisplayName\":\"Sender\",\"originalArrivalTime\":\"2021-01-01T00:00:01Z\","
+            + "\"version\":\"" + version + "\"}");
+    }
+}
@@ -0,0 +1,208 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat.implementation.notification;
+
+import com.azure.android.communication.chat.implementation.notifications.NotificationUtils;
+import com.azure.android.communication.chat.models.ChatEvent;
+import com.azure.android.communication.chat.models.ChatEventType;
+import com.azure.android.communication.chat.models.ChatMessageReceivedEvent;
+import com.azure.android.communication.chat.models.ChatThreadCreatedEvent;
+import com.azure.android.communication.chat.models.ChatThreadPropertiesUpdatedEvent;
+import com.azure.android.communication.chat.models.ParticipantsAddedEvent;
+import com.azure.android.communication.chat.models.ParticipantsRemovedEvent;
+import com.azure.android.communication.chat.models.ReadReceiptReceivedEvent;
+import com.azure.android.communication.common.CommunicationUserIdentifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Benchmark of the parsing of the realtime notification payloads, one recorded payload per event type.
+ *
+ * <p>
+ * The "before" loop builds a tree of the whole payload to check its eventId, as the eventId check did with an
+ * org.json object, then builds the event. The "after" loop parses the payload with
+ * {@link NotificationUtils#parseTrouterNotificationPayload(ChatEventType, String)}, which reads the eventId with a
+ * streaming parser skipping the other fields, and reads the serialized JSON strings nested in the payload the same
+ * way. On the host org.json is a stub, so the tree is built with Jackson; the timings are indicative.
+ * </p>
+ */
+public class NotificationPayloadParsingBenchmark {
+    private static final String THREAD_ID = "19:4b72178530934b7790135dd9359205e0@thread.v2";
+    private static final String SENDER_ID =
+        "8:acs:9b665d53-8164-4923-ad5d-5e983b07d2e7_00000005-334f-e4af-b274-5a3a0d0002f9";
+    private static final String RECIPIENT_ID =
+        "8:acs:9b665d53-8164-4923-ad5d-5e983b07d2e7_00000005-334f-e4af-b274-5a3a0d0002fa";
+    private static final String ADDRESSING = "\"groupId\":\"" + THREAD_ID + "\",\"threadId\":\"" + THREAD_ID + "\","
+        + "\"senderId\":\"" + SENDER_ID + "\",\"recipientId\":\"" + RECIPIENT_ID + "\","
+        + "\"recipientMri\":\"" + RECIPIENT_ID + "\",\"transactionId\":\"c1Yf3b0DSUWpUTyCkMkrHQ.1.1.1.1.1\",";
+    private static final String SENDER_JSON = "{\\\"participantId\\\":\\\"" + SENDER_ID + "\\\","
+        + "\\\"displayName\\\":\\\"Sender\\\"}";
+    private static final String RECIPIENT_JSON = "{\\\"participantId\\\":\\\"" + RECIPIENT_ID + "\\\","
+        + "\\\"displayName\\\":\\\"Recipient\\\",\\\"shareHistoryTime\\\":1609459200000}";
+    private static final int WARM_UP_PARSES = 2_000;
+    private static final int PARSES = 20_000;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void parsesPayloadsInSinglePass() throws IOException {
+        final Map<ChatEventType, String> payloads = recordedPayloads();
+
+        for (Map.Entry<ChatEventType, String> payload : payloads.entrySet()) {
+            parseBefore(payload.getKey(), payload.getValue(), WARM_UP_PARSES);
+            parseAfter(payload.getKey(), payload.getValue(), WARM_UP_PARSES);
+        }
+
+        for (Map.Entry<ChatEventType, String> payload : payloads.entrySet()) {
+            long startNanos = System.nanoTime();
+            final int parsedBefore = parseBefore(payload.getKey(), payload.getValue(), PARSES);
+            final long beforeNanos = System.nanoTime() - startNanos;
+
+            startNanos = System.nanoTime();
+            final int parsedAfter = parseAfter(payload.getKey(), payload.getValue(), PARSES);
+            final long afterNanos = System.nanoTime() - startNanos;
+
+            System.out.println(payload.getKey() + " before: " + (beforeNanos / PARSES) + " ns/parse, after: "
+                + (afterNanos / PARSES) + " ns/parse");
+
+            assertEquals(PARSES, parsedBefore);
+            assertEquals(PARSES, parsedAfter);
+        }
+
+        // A payload of another event type is not parsed.
+        assertNull(NotificationUtils.parseTrouterNotificationPayload(ChatEventType.CHAT_MESSAGE_RECEIVED,
+            payloads.get(ChatEventType.TYPING_INDICATOR_RECEIVED)));
+        assertNull(NotificationUtils.parseTrouterNotificationPayload(ChatEventType.CHAT_MESSAGE_RECEIVED, "[200]"));
+    }
+
+    @Test
+    public void readsNestedPayloadFields() {
+        final Map<ChatEventType, String> payloads = recordedPayloads();
+
+        final ChatMessageReceivedEvent message = (ChatMessageReceivedEvent) parse(payloads,
+            ChatEventType.CHAT_MESSAGE_RECEIVED);
+        assertEquals("Hello", message.getContent());
+        assertEquals("tag1", message.getMetadata().get("tags"));
+
+        final ReadReceiptReceivedEvent readReceipt = (ReadReceiptReceivedEvent) parse(payloads,
+            ChatEventType.READ_RECEIPT_RECEIVED);
+        assertEquals(1609459200000L, readReceipt.getReadOn().toInstant().toEpochMilli());
+
+        final ChatThreadCreatedEvent created = (ChatThreadCreatedEvent) parse(payloads,
+            ChatEventType.CHAT_THREAD_CREATED);
+        assertEquals("Topic", created.getProperties().getTopic());
+        assertEquals(new CommunicationUserIdentifier(SENDER_ID), created.getCreatedBy().getCommunicationIdentifier());
+        assertEquals(2, created.getParticipants().size());
+        assertEquals("Recipient", created.getParticipants().get(1).getDisplayName());
+
+        final ChatThreadPropertiesUpdatedEvent updated = (ChatThreadPropertiesUpdatedEvent) parse(payloads,
+            ChatEventType.CHAT_THREAD_PROPERTIES_UPDATED);
+        assertEquals("New topic", updated.getProperties().getTopic());
+        assertEquals("Sender", updated.getUpdatedBy().getDisplayName());
+
+        final ParticipantsAddedEvent added = (ParticipantsAddedEvent) parse(payloads,
+            ChatEventType.PARTICIPANTS_ADDED);
+        assertEquals(1, added.getParticipantsAdded().size());
+        assertEquals(1609459200000L,
+            added.getParticipantsAdded().get(0).getShareHistoryTime().toInstant().toEpochMilli());
+
+        final ParticipantsRemovedEvent removed = (ParticipantsRemovedEvent) parse(payloads,
+            ChatEventType.PARTICIPANTS_REMOVED);
+        assertEquals(new CommunicationUserIdentifier(RECIPIENT_ID),
+            removed.getParticipantsRemoved().get(0).getCommunicationIdentifier());
+    }
+
+    private static ChatEvent parse(Map<ChatEventType, String> payloads, ChatEventType chatEventType) {
+        final ChatEvent event = NotificationUtils.parseTrouterNotificationPayload(chatEventType,
+            payloads.get(chatEventType));
+        assertNotNull(event);
+        assertEquals(THREAD_ID, event.getChatThreadId());
+        return event;
+    }
+
+    private static int parseBefore(ChatEventType chatEventType, String body, int count) throws IOException {
+        final int eventId = eventId(chatEventType);
+        int parsed = 0;
+        for (int i = 0; i < count; i++) {
+            if (MAPPER.readTree(body).get("eventId").asInt() == eventId
+                && NotificationUtils.toEventPayload(chatEventType, body) != null) {
+                parsed++;
+            }
+        }
+        return parsed;
+    }
+
+    private static int parseAfter(ChatEventType chatEventType, String body, int count) {
+        int parsed = 0;
+        for (int i = 0; i < count; i++) {
+            if (NotificationUtils.parseTrouterNotificationPayload(chatEventType, body) != null) {
+                parsed++;
+            }
+        }
+        return parsed;
+    }
+
+    private static int eventId(ChatEventType chatEventType) {
+        for (int eventId = 200; eventId < 300; eventId++) {
+            if (chatEventType.equals(NotificationUtils.getChatEventTypeByEventId(eventId))) {
+                return eventId;
+            }
+        }
+        throw new IllegalArgumentException("Unknown event type " + chatEventType);
+    }
+
+    private static Map<ChatEventType, String> recordedPayloads() {
+        final Map<ChatEventType, String> payloads = new LinkedHashMap<>();
+        payloads.put(ChatEventType.CHAT_MESSAGE_RECEIVED, "{\"eventId\":200," + ADDRESSING
+            + "\"messageId\":\"1609459200000\",\"clientMessageId\":\"5764361284547225810\","
+            + "\"collapseKey\":\"4b72178530934b7790135dd9359205e0\",\"messageType\":\"Text\","
+            + "\"messageBody\":\"Hello\",\"senderDisplayName\":\"Sender\",\"priority\":\"normal\","
+            + "\"originalArrivalTime\":\"2021-01-01T00:00:00.000Z\",\"version\":\"1609459200000\","
+            + "\"acsChatMessageMetadata\":\"{\\\"deliveryMode\\\":\\\"deliveryMode value\\\","
+            + "\\\"tags\\\":\\\"tag1\\\"}\"}");
+        payloads.put(ChatEventType.TYPING_INDICATOR_RECEIVED, "{\"eventId\":245," + ADDRESSING
+            + "\"senderDisplayName\":\"Sender\",\"originalArrivalTime\":\"2021-01-01T00:00:00.000Z\","
+            + "\"version\":\"1609459200000\"}");
+        payloads.put(ChatEventType.READ_RECEIPT_RECEIVED, "{\"eventId\":246," + ADDRESSING
+            + "\"messageId\":\"1609459200000\",\"clientMessageId\":\"\",\"messageBody\":"
+            + "\"{\\\"user\\\":\\\"" + RECIPIENT_ID + "\\\",\\\"consumptionhorizon\\\":"
+            + "\\\"1609459200000;1609459200000;0\\\",\\\"messageVisibilityTime\\\":1609459200000,"
+            + "\\\"version\\\":\\\"1609459200000\\\"}\",\"originalArrivalTime\":\"2021-01-01T00:00:00.000Z\"}");
+        payloads.put(ChatEventType.CHAT_MESSAGE_EDITED, "{\"eventId\":247," + ADDRESSING
+            + "\"messageId\":\"1609459200000\",\"clientMessageId\":\"5764361284547225810\","
+            + "\"messageBody\":\"Hello again\",\"senderDisplayName\":\"Sender\","
+            + "\"originalArrivalTime\":\"2021-01-01T00:00:00.000Z\",\"version\":\"1609459205000\","
+            + "\"edittime\":\"2021-01-01T00:00:05.000Z\"}");
+        payloads.put(ChatEventType.CHAT_MESSAGE_DELETED, "{\"eventId\":248," + ADDRESSING
+            + "\"messageId\":\"1609459200000\",\"clientMessageId\":\"5764361284547225810\","
+            + "\"senderDisplayName\":\"Sender\",\"originalArrivalTime\":\"2021-01-01T00:00:00.000Z\","
+            + "\"version\":\"1609459210000\",\"deletetime\":\"2021-01-01T00:00:10.000Z\"}");
+        payloads.put(ChatEventType.CHAT_THREAD_CREATED, "{\"eventId\":257," + ADDRESSING
+            + "\"createTime\":\"2021-01-01T00:00:00.000Z\",\"version\":\"1609459200000\","
+            + "\"createdBy\":\"" + SENDER_JSON + "\",\"members\":\"[" + SENDER_JSON + "," + RECIPIENT_JSON + "]\","
+            + "\"properties\":\"{\\\"topic\\\":\\\"Topic\\\"}\"}");
+        payloads.put(ChatEventType.CHAT_THREAD_PROPERTIES_UPDATED, "{\"eventId\":258," + ADDRESSING
+            + "\"editTime\":\"2021-01-01T00:00:05.000Z\",\"version\":\"1609459205000\","
+            + "\"editedBy\":\"" + SENDER_JSON + "\",\"properties\":\"{\\\"topic\\\":\\\"New topic\\\"}\"}");
+        payloads.put(ChatEventType.CHAT_THREAD_DELETED, "{\"eventId\":259," + ADDRESSING
+            + "\"deleteTime\":\"2021-01-01T00:00:10.000Z\",\"version\":\"1609459210000\","
+            + "\"deletedBy\":\"" + SENDER_JSON + "\"}");
+        payloads.put(ChatEventType.PARTICIPANTS_ADDED, "{\"eventId\":260," + ADDRESSING
+            + "\"time\":\"2021-01-01T00:00:05.000Z\",\"version\":\"1609459205000\","
+            + "\"addedBy\":\"" + SENDER_JSON + "\",\"participantsAdded\":\"[" + RECIPIENT_JSON + "]\"}");
+        payloads.put(ChatEventType.PARTICIPANTS_REMOVED, "{\"eventId\":261," + ADDRESSING
+            + "\"time\":\"2021-01-01T00:00:10.000Z\",\"version\":\"1609459210000\","
+            + "\"removedBy\":\"" + SENDER_JSON + "\",\"participantsRemoved\":\"[" + RECIPIENT_JSON + "]\"}");
+        return payloads;
+    }
+}
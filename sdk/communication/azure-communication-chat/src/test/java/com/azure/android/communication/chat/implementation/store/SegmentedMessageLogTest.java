@@ -0,0 +1,176 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.communication.chat.implementation.store;
+
+import com.azure.android.core.logging.ClientLogger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SegmentedMessageLogTest {
+    private final ClientLogger logger = new ClientLogger(SegmentedMessageLogTest.class);
+
+    @TempDir
+    File directory;
+
+    @Test
+    public void readsRecordsBackAfterReopening() throws IOException {
+        try (SegmentedMessageLog log = new SegmentedMessageLog(this.directory, 1024, this.logger)) {
+            log.append("1", 1000, bytes("first"));
+            log.append("2", 3000, bytes("second"));
+            log.append("3", 2000, bytes("third"));
+        }
+
+        try (SegmentedMessageLog log = new SegmentedMessageLog(this.directory, 1024, this.logger)) {
+            assertEquals(3, log.size());
+            assertEquals("second", string(log.read("2")));
+            assertNull(log.read("4"));
+            assertEquals(Arrays.asList("second", "third", "first"), strings(log.readAllNewestFirst()));
+            assertEquals(3000L, (long) log.getLatestCreatedOnMillis());
+        }
+    }
+
+    @Test
+    public void latestRecordOfMessageWins() throws IOException {
+        try (SegmentedMessageLog log = new SegmentedMessageLog(this.directory, 1024, this.logger)) {
+            log.append("1", 1000, bytes("original"));
+            log.append("1", 1000, bytes("edited"));
+            assertEquals(1, log.size());
+            assertEquals("edited", string(log.read("1")));
+        }
+
+        try (SegmentedMessageLog log = new SegmentedMessageLog(this.directory, 1024, this.logger)) {
+            assertEquals(Arrays.asList("edited"), strings(log.readAllNewestFirst()));
+        }
+    }
+
+    @Test
+    public void removedRecordsStayRemovedAfterReopening() throws IOException {
+        try (SegmentedMessageLog log = new SegmentedMessageLog(this.directory, 1024, this.logger)) {
+            log.append("1", 1000, bytes("first"));
+            log.append("2", 2000, bytes("second"));
+            log.remove("1");
+            log.remove("3");
+            assertEquals(1, log.size());
+            assertNull(log.read("1"));
+        }
+
+        try (SegmentedMessageLog log = new SegmentedMessageLog(this.directory, 1024, this.logger)) {
+            assertEquals(Arrays.asList("second"), strings(log.readAllOldestFirst()));
+            log.append("1", 3000, bytes("appended again"));
+            assertEquals(Arrays.asList("second", "appended again"), strings(log.readAllOldestFirst()));
+        }
+    }
+
+    @Test
+    public void truncatesTornRecordOnOpen() throws IOException {
+        try (SegmentedMessageLog log = new SegmentedMessageLog(this.directory, 1024, this.logger)) {
+            log.append("1", 1000, bytes("kept"));
+            log.append("2", 2000, bytes("torn"));
+        }
+        final File segment = this.directory.listFiles()[0];
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.setLength(file.length() - 2);
+        }
+
+        try (SegmentedMessageLog log = new SegmentedMessageLog(this.directory, 1024, this.logger)) {
+            assertEquals(1, log.size());
+            assertEquals("kept", string(log.read("1")));
+            // Appending after the truncated tail keeps the log readable.
+            log.append("3", 3000, bytes("appended"));
+        }
+
+        try (SegmentedMessageLog log = new SegmentedMessageLog(this.directory, 1024, this.logger)) {
+            assertEquals(Arrays.asList("appended", "kept"), strings(log.readAllNewestFirst()));
+        }
+    }
+
+    @Test
+    public void rollsSegmentsAndCompactsSupersededRecords() throws IOException {
+        final String body = new String(new char[100]).replace('\0', 'x');
+        try (SegmentedMessageLog log = new SegmentedMessageLog(this.directory, 512, this.logger)) {
+            for (int i = 0; i < 10; i++) {
+                log.append(String.valueOf(i), i, bytes(body + i));
+            }
+            assertTrue(log.getSegmentCount() > 1, String.valueOf(log.getSegmentCount()));
+
+            // Editing every message many times leaves mostly superseded records, which compaction drops.
+            for (int round = 0; round < 20; round++) {
+                for (int i = 0; i < 10; i++) {
+                    log.append(String.valueOf(i), i, bytes(body + i + "-" + round));
+                }
+            }
+            assertTrue(this.directorySize() < 3 * 10 * 128, String.valueOf(this.directorySize()));
+            assertEquals(10, log.size());
+            assertEquals(body + "4-19", string(log.read("4")));
+        }
+
+        try (SegmentedMessageLog log = new SegmentedMessageLog(this.directory, 512, this.logger)) {
+            assertEquals(10, log.size());
+            assertEquals(body + "9-19", string(log.readAllNewestFirst().get(0)));
+        }
+    }
+
+    @Test
+    public void keepsActiveAndLastReadSegmentsOpen() throws IOException {
+        final String body = new String(new char[100]).replace('\0', 'x');
+        try (SegmentedMessageLog log = new SegmentedMessageLog(this.directory, 256, this.logger)) {
+            for (int i = 0; i < 10; i++) {
+                log.append(String.valueOf(i), i, bytes(body + i));
+            }
+            assertTrue(log.getSegmentCount() > 2, String.valueOf(log.getSegmentCount()));
+            assertEquals(10, log.readAllOldestFirst().size());
+            assertEquals(2, log.getOpenFileCount());
+
+            // Closing releases the files, the log opens them again on demand.
+            log.close();
+            assertEquals(0, log.getOpenFileCount());
+            assertEquals(body + 0, string(log.read("0")));
+            log.append("10", 10, bytes(body + 10));
+            assertEquals(body + 10, string(log.read("10")));
+            assertEquals(11, log.size());
+        }
+
+        try (SegmentedMessageLog log = new SegmentedMessageLog(this.directory, 256, this.logger)) {
+            assertEquals(0, log.getOpenFileCount());
+            assertEquals(11, log.size());
+        }
+    }
+
+    private long directorySize() {
+        long size = 0;
+        for (File file : this.directory.listFiles()) {
+            size += file.length();
+        }
+        return size;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> strings(List<byte[]> values) {
+        final List<String> strings = new ArrayList<>();
+        for (byte[] value : values) {
+            strings.add(string(value));
+        }
+        return strings;
+    }
+}
@@ -61,6 +61,11 @@ class HttpUrlConnectionAsyncHttpClient implements HttpClient {
         }
     }
 
+    @Override
+    public void sendSync(HttpRequest httpRequest, CancellationToken cancellationToken, HttpCallback httpCallback) {
+        this.sendIntern(httpRequest, cancellationToken, httpCallback);
+    }
+
     private void sendIntern(HttpRequest httpRequest, CancellationToken cancellationToken, HttpCallback httpCallback) {
         if (cancellationToken.isCancellationRequested()) {
             httpCallback.onError(new IOException("Canceled."));
@@ -0,0 +1,241 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.okhttp;
+
+import com.azure.android.core.http.HttpCallTimings;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * package-private.
+ *
+ * An OkHttp EventListener that measures the phases of a single call, forwarding the events to the listener
+ * of the OkHttpClient the call is made with, if any.
+ *
+ * <p>
+ * The {@link OkHttpAsyncHttpClient} creates an instance per call and attaches it as a tag of the OkHttp request,
+ * the {@link Factory} installed on the OkHttpClient picks it up when OkHttp asks for the listener of the call.
+ * </p>
+ */
+final class CallTimingEventListener extends EventListener {
+    private EventListener delegate = EventListener.NONE;
+    // The events are delivered by the thread running the call, the timings are read by other threads.
+    private volatile long dnsStartNanos;
+    private volatile long dnsNanos = HttpCallTimings.NOT_MEASURED;
+    private volatile long connectStartNanos;
+    private volatile long connectNanos = HttpCallTimings.NOT_MEASURED;
+    private volatile long tlsStartNanos;
+    private volatile long tlsHandshakeNanos = HttpCallTimings.NOT_MEASURED;
+    private volatile long requestStartNanos;
+    private volatile long requestEndNanos;
+    private volatile long timeToFirstByteNanos = HttpCallTimings.NOT_MEASURED;
+    private volatile long bodyStartNanos;
+    private volatile long bodyReadNanos = HttpCallTimings.NOT_MEASURED;
+    private volatile boolean connectionReused;
+
+    /**
+     * Takes a snapshot of the timings of the call.
+     *
+     * @return The timings of the call.
+     */
+    HttpCallTimings getTimings() {
+        final long requestStartNanos = this.requestStartNanos;
+        final long requestEndNanos = this.requestEndNanos;
+        return new HttpCallTimings(this.dnsNanos,
+            this.connectNanos,
+            this.tlsHandshakeNanos,
+            requestStartNanos != 0 && requestEndNanos != 0
+                ? requestEndNanos - requestStartNanos
+                : HttpCallTimings.NOT_MEASURED,
+            this.timeToFirstByteNanos,
+            this.bodyReadNanos,
+            this.connectionReused);
+    }
+
+    @Override
+    public void callStart(Call call) {
+        this.delegate.callStart(call);
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        this.dnsStartNanos = System.nanoTime();
+        this.delegate.dnsStart(call, domainName);
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        this.dnsNanos = System.nanoTime() - this.dnsStartNanos;
+        this.delegate.dnsEnd(call, domainName, inetAddressList);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        this.connectStartNanos = System.nanoTime();
+        this.delegate.connectStart(call, inetSocketAddress, proxy);
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        this.tlsStartNanos = System.nanoTime();
+        this.delegate.secureConnectStart(call);
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        this.tlsHandshakeNanos = System.nanoTime() - this.tlsStartNanos;
+        this.delegate.secureConnectEnd(call, handshake);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        this.recordConnect();
+        this.delegate.connectEnd(call, inetSocketAddress, proxy, protocol);
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+                              IOException ioe) {
+        this.recordConnect();
+        this.delegate.connectFailed(call, inetSocketAddress, proxy, protocol, ioe);
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        // A connection acquired without connecting is a pooled connection.
+        this.connectionReused = this.connectStartNanos == 0;
+        this.delegate.connectionAcquired(call, connection);
+    }
+
+    @Override
+    public void connectionReleased(Call call, Connection connection) {
+        this.delegate.connectionReleased(call, connection);
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        this.requestStartNanos = System.nanoTime();
+        this.requestEndNanos = 0;
+        this.delegate.requestHeadersStart(call);
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        this.requestEndNanos = System.nanoTime();
+        this.delegate.requestHeadersEnd(call, request);
+    }
+
+    @Override
+    public void requestBodyStart(Call call) {
+        this.delegate.requestBodyStart(call);
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        this.requestEndNanos = System.nanoTime();
+        this.delegate.requestBodyEnd(call, byteCount);
+    }
+
+    @Override
+    public void requestFailed(Call call, IOException ioe) {
+        this.delegate.requestFailed(call, ioe);
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        this.delegate.responseHeadersStart(call);
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        // OkHttp signals the start before it blocks reading the headers, the end is when they arrived.
+        final long requestEndNanos = this.requestEndNanos;
+        if (requestEndNanos != 0) {
+            this.timeToFirstByteNanos = System.nanoTime() - requestEndNanos;
+        }
+        this.delegate.responseHeadersEnd(call, response);
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        this.bodyStartNanos = System.nanoTime();
+        this.delegate.responseBodyStart(call);
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        this.bodyReadNanos = System.nanoTime() - this.bodyStartNanos;
+        this.delegate.responseBodyEnd(call, byteCount);
+    }
+
+    @Override
+    public void responseFailed(Call call, IOException ioe) {
+        this.delegate.responseFailed(call, ioe);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        this.delegate.callEnd(call);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        this.delegate.callFailed(call, ioe);
+    }
+
+    /**
+     * Records the time taken to connect, excluding the TLS handshake.
+     */
+    private void recordConnect() {
+        long connectNanos = System.nanoTime() - this.connectStartNanos;
+        final long tlsHandshakeNanos = this.tlsHandshakeNanos;
+        if (tlsHandshakeNanos != HttpCallTimings.NOT_MEASURED) {
+            connectNanos -= tlsHandshakeNanos;
+        }
+        this.connectNanos = connectNanos;
+    }
+
+    /**
+     * The EventListener.Factory that hands over the CallTimingEventListener attached to the request of a call,
+     * and the listener of the base factory otherwise.
+     */
+    static final class Factory implements EventListener.Factory {
+        private final EventListener.Factory baseFactory;
+
+        /**
+         * Creates a Factory.
+         *
+         * @param baseFactory The factory of the OkHttpClient the timing listeners forward the events to,
+         *     null if the OkHttpClient has no listener.
+         */
+        Factory(EventListener.Factory baseFactory) {
+            this.baseFactory = baseFactory;
+        }
+
+        @Override
+        public EventListener create(Call call) {
+            final EventListener baseListener = this.baseFactory == null
+                ? EventListener.NONE
+                : this.baseFactory.create(call);
+            final CallTimingEventListener timingListener = call.request().tag(CallTimingEventListener.class);
+            if (timingListener == null) {
+                return baseListener;
+            }
+            timingListener.delegate = baseListener;
+            return timingListener;
+        }
+    }
+}
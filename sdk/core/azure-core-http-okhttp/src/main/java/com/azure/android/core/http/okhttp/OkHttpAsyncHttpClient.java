@@ -4,6 +4,7 @@
 package com.azure.android.core.http.okhttp;
 
 import com.azure.android.core.http.HttpCallDispatcher;
+import com.azure.android.core.http.HttpCallTimings;
 import com.azure.android.core.http.HttpCallback;
 import com.azure.android.core.http.HttpClient;
 import com.azure.android.core.http.HttpHeaders;
@@ -23,7 +24,6 @@ import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -53,8 +53,76 @@ class OkHttpAsyncHttpClient implements HttpClient {
         return this.httpCallDispatcher;
     }
 
+    /**
+     * package-private.
+     *
+     * Gets the OkHttpClient backing this client.
+     *
+     * @return The OkHttpClient.
+     */
+    OkHttpClient getOkHttpClient() {
+        return this.httpClient;
+    }
+
     @Override
     public void send(HttpRequest httpRequest, CancellationToken cancellationToken, HttpCallback httpCallback) {
+        final CallTimingEventListener timingListener = new CallTimingEventListener();
+        final okhttp3.Call call = httpClient.newCall(this.toOkHttpRequest(httpRequest, timingListener));
+
+        // Register a Runnable to run on cancellationToken.cancel().
+        //
+        // This Runnable unregistered once the 'call' completes.
+        //
+        // We don't want a cancel on cancellationToken to call call.cancel()
+        // after the call completion (though call.cancel() after it's completion is nop).
+        //
+        final CancellationToken.Registration onCancelRegistration
+            = cancellationToken.registerOnCancel(() -> call.cancel());
+
+        call.enqueue(new okhttp3.Callback() {
+            @Override
+            public void onFailure(okhttp3.Call call, IOException error) {
+                onCancelRegistration.dispose();
+                httpCallback.onError(error);
+            }
+
+            @Override
+            public void onResponse(okhttp3.Call call, Response response) {
+                onCancelRegistration.dispose();
+                httpCallback.onSuccess(toHttpResponse(httpRequest, response, timingListener));
+            }
+        });
+    }
+
+    @Override
+    public void sendSync(HttpRequest httpRequest, CancellationToken cancellationToken, HttpCallback httpCallback) {
+        final CallTimingEventListener timingListener = new CallTimingEventListener();
+        final okhttp3.Call call = httpClient.newCall(this.toOkHttpRequest(httpRequest, timingListener));
+
+        final CancellationToken.Registration onCancelRegistration
+            = cancellationToken.registerOnCancel(() -> call.cancel());
+
+        // Execute the call in the calling thread, bypassing the OkHttp dispatcher and its executor.
+        final Response response;
+        try {
+            response = call.execute();
+        } catch (IOException error) {
+            httpCallback.onError(error);
+            return;
+        } finally {
+            onCancelRegistration.dispose();
+        }
+        httpCallback.onSuccess(this.toHttpResponse(httpRequest, response, timingListener));
+    }
+
+    /**
+     * Converts the azure-core request to an OkHttp request.
+     *
+     * @param httpRequest The azure-core request.
+     * @param timingListener The listener to measure the phases of the call with.
+     * @return The OkHttp request.
+     */
+    private okhttp3.Request toOkHttpRequest(HttpRequest httpRequest, CallTimingEventListener timingListener) {
         okhttp3.Request.Builder okhttpRequestBuilder = new okhttp3.Request.Builder();
 
         okhttpRequestBuilder.url(httpRequest.getUrl());
@@ -89,104 +157,96 @@ class OkHttpAsyncHttpClient implements HttpClient {
             }
         }
 
-        final okhttp3.Request okHttpRequest = okhttpRequestBuilder.build();
-        final okhttp3.Call call = httpClient.newCall(okHttpRequest);
-
-        final String onCancelId = (cancellationToken == CancellationToken.NONE) ? null : UUID.randomUUID().toString();
-        if (onCancelId != null) {
-            // Register an identifiable Runnable to run on cancellationToken.cancel().
-            //
-            // This Runnable unregistered once the 'call' completes.
-            //
-            // We don't want a cancel on cancellationToken to call call.cancel()
-            // after the call completion (though call.cancel() after it's completion is nop).
-            //
-            cancellationToken.registerOnCancel(onCancelId, () -> call.cancel());
-        }
+        // The listener measuring the phases of the call, picked up by the CallTimingEventListener.Factory
+        // installed on the OkHttpClient.
+        okhttpRequestBuilder.tag(CallTimingEventListener.class, timingListener);
+
+        return okhttpRequestBuilder.build();
+    }
+
+    /**
+     * Converts the OkHttp response to an azure-core response.
+     *
+     * @param httpRequest The azure-core request the response is for.
+     * @param response The OkHttp response.
+     * @param timingListener The listener measuring the phases of the call.
+     * @return The azure-core response.
+     */
+    private HttpResponse toHttpResponse(HttpRequest httpRequest,
+                                        Response response,
+                                        CallTimingEventListener timingListener) {
+        return new HttpResponse(httpRequest) {
+            private final HttpHeaders headers = fromOkHttpHeaders(response.headers());
+            private final ResponseBody responseBody = response.body();
 
-        call.enqueue(new okhttp3.Callback() {
             @Override
-            public void onFailure(okhttp3.Call call, IOException error) {
-                if (onCancelId != null) {
-                    cancellationToken.unregisterOnCancel(onCancelId);
-                }
-                httpCallback.onError(error);
+            public int getStatusCode() {
+                return response.code();
             }
 
             @Override
-            public void onResponse(okhttp3.Call call, Response response) {
-                if (onCancelId != null) {
-                    cancellationToken.unregisterOnCancel(onCancelId);
-                }
-                httpCallback.onSuccess(new HttpResponse(httpRequest) {
-                    private final HttpHeaders headers = fromOkHttpHeaders(response.headers());
-                    private final ResponseBody responseBody = response.body();
-
-                    @Override
-                    public int getStatusCode() {
-                        return response.code();
-                    }
+            public String getHeaderValue(String name) {
+                return this.headers.getValue(name);
+            }
 
-                    @Override
-                    public String getHeaderValue(String name) {
-                        return this.headers.getValue(name);
-                    }
+            @Override
+            public HttpHeaders getHeaders() {
+                return this.headers;
+            }
 
-                    @Override
-                    public HttpHeaders getHeaders() {
-                        return this.headers;
-                    }
+            @Override
+            public HttpCallTimings getTimings() {
+                return timingListener.getTimings();
+            }
 
-                    @Override
-                    public InputStream getBody() {
-                        if (this.responseBody == null) {
-                            return new ByteArrayInputStream(new byte[0]);
-                        } else {
-                            return this.responseBody.byteStream();
-                        }
-                    }
+            @Override
+            public InputStream getBody() {
+                if (this.responseBody == null) {
+                    return new ByteArrayInputStream(new byte[0]);
+                } else {
+                    return this.responseBody.byteStream();
+                }
+            }
 
-                    @Override
-                    public byte[] getBodyAsByteArray() {
-                        if (this.responseBody == null) {
-                            return new byte[0];
-                        } else {
-                            try {
-                                return this.responseBody.bytes();
-                            } catch (IOException e) {
-                                throw logger.logExceptionAsError(new RuntimeException(e));
-                            }
-                        }
+            @Override
+            public byte[] getBodyAsByteArray() {
+                if (this.responseBody == null) {
+                    return new byte[0];
+                } else {
+                    try {
+                        return this.responseBody.bytes();
+                    } catch (IOException e) {
+                        throw logger.logExceptionAsError(new RuntimeException(e));
                     }
+                }
+            }
 
-                    @Override
-                    public String getBodyAsString() {
-                        return bomAwareToString(this.getBodyAsByteArray(),
-                            headers.getValue("Content-Type"));
-                    }
+            @Override
+            public String getBodyAsString() {
+                return bomAwareToString(this.getBodyAsByteArray(),
+                    headers.getValue("Content-Type"));
+            }
 
-                    @Override
-                    public void close() {
-                        if (this.responseBody != null) {
-                            this.responseBody.close();
-                        }
-                    }
+            @Override
+            public void close() {
+                if (this.responseBody != null) {
+                    this.responseBody.close();
+                }
+            }
 
-                    @Override
-                    public String getBodyAsString(Charset charset) {
-                        return new String(this.getBodyAsByteArray(), charset);
-                    }
+            @Override
+            public String getBodyAsString(Charset charset) {
+                return new String(this.getBodyAsByteArray(), charset);
+            }
 
-                    private HttpHeaders fromOkHttpHeaders(Headers headers) {
-                        HttpHeaders httpHeaders = new HttpHeaders();
-                        for (String headerName : headers.names()) {
-                            httpHeaders.put(headerName, headers.get(headerName));
-                        }
-                        return httpHeaders;
-                    }
-                });
+            private HttpHeaders fromOkHttpHeaders(Headers headers) {
+                HttpHeaders httpHeaders = new HttpHeaders();
+                for (String headerName : headers.names()) {
+                    httpHeaders.put(headerName, headers.get(headerName));
+                }
+                return httpHeaders;
             }
-        });
+        };
     }
 
     /**
@@ -5,16 +5,60 @@ package com.azure.android.core.http.okhttp;
 
 import com.azure.android.core.http.HttpCallDispatcher;
 import com.azure.android.core.http.HttpClient;
+import com.azure.android.core.logging.ClientLogger;
 
+import org.threeten.bp.Duration;
+
+import java.io.File;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
 
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 
 /**
  * Builder class responsible for creating instances of {@link com.azure.android.core.http.HttpClient} backed by OkHttp.
+ *
+ * <p>
+ * The connection management options configure both OkHttp and the {@link HttpCallDispatcher} of the built
+ * client consistently: the maximum number of concurrent requests is applied to OkHttp's {@link Dispatcher} and
+ * to the maximum running calls of the {@link HttpCallDispatcher}, the maximum concurrent requests per host never
+ * exceeds the maximum concurrent requests, and unless a connection pool is configured, the pool keeps enough idle
+ * connections to serve the maximum concurrent requests per host without reconnecting.
+ * </p>
  */
 public class OkHttpAsyncHttpClientBuilder {
+    // The defaults of OkHttp's ConnectionPool.
+    private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+    private static final long DEFAULT_KEEP_ALIVE_MINUTES = 5;
+
+    private final ClientLogger logger = new ClientLogger(OkHttpAsyncHttpClientBuilder.class);
     private final okhttp3.OkHttpClient okHttpClient;
+    private ConnectionPool connectionPool;
+    private Boolean http2Enabled;
+    private Integer maxRequests;
+    private Integer maxRequestsPerHost;
+    private Cache cache;
+    private int tlsSessionCacheSize = -1;
+    private Duration tlsSessionTimeout;
+    // Reused across the clients built so that they share the TLS session cache.
+    private SSLSocketFactory sslSocketFactory;
+    private X509TrustManager trustManager;
 
     /**
      * Creates OkHttpAsyncHttpClientBuilder.
@@ -32,6 +76,142 @@ public class OkHttpAsyncHttpClientBuilder {
         this.okHttpClient = Objects.requireNonNull(okHttpClient, "'okHttpClient' cannot be null.");
     }
 
+    /**
+     * Sets the connection pool of the clients.
+     *
+     * <p>
+     * The pool is shared by all the clients created by this builder, so the connections opened by one
+     * client can be reused by another.
+     * </p>
+     *
+     * @param maxIdleConnections The maximum number of idle connections to keep in the pool.
+     * @param keepAliveDuration The time to keep an idle connection in the pool before closing it.
+     * @return The updated OkHttpAsyncHttpClientBuilder object.
+     * @throws NullPointerException if {@code keepAliveDuration} is null.
+     * @throws IllegalArgumentException if {@code maxIdleConnections} is negative or {@code keepAliveDuration}
+     *     is not positive.
+     */
+    public OkHttpAsyncHttpClientBuilder connectionPool(int maxIdleConnections, Duration keepAliveDuration) {
+        Objects.requireNonNull(keepAliveDuration, "'keepAliveDuration' cannot be null.");
+        if (maxIdleConnections < 0) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'maxIdleConnections' cannot be negative."));
+        }
+        if (keepAliveDuration.isNegative() || keepAliveDuration.isZero()) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'keepAliveDuration' must be positive."));
+        }
+        this.connectionPool = new ConnectionPool(maxIdleConnections,
+            keepAliveDuration.toMillis(),
+            TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * Sets whether the clients may use HTTP/2.
+     *
+     * <p>
+     * When enabled (the default), the clients prefer HTTP/2 if the server supports it, multiplexing the
+     * concurrent requests to a host over a single connection. When disabled, the clients use HTTP/1.1 and
+     * open a connection per concurrent request to a host.
+     * </p>
+     *
+     * @param http2Enabled true to allow HTTP/2, false to use HTTP/1.1 only.
+     * @return The updated OkHttpAsyncHttpClientBuilder object.
+     */
+    public OkHttpAsyncHttpClientBuilder http2Enabled(boolean http2Enabled) {
+        this.http2Enabled = http2Enabled;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of requests to execute concurrently, which is also the maximum number of
+     * pipeline runs the {@link HttpCallDispatcher} of the client runs concurrently.
+     *
+     * @param maxRequests The maximum number of concurrent requests.
+     * @return The updated OkHttpAsyncHttpClientBuilder object.
+     * @throws IllegalArgumentException if {@code maxRequests} is less than 1.
+     */
+    public OkHttpAsyncHttpClientBuilder maxRequests(int maxRequests) {
+        if (maxRequests < 1) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'maxRequests' must be greater than 0, provided:" + maxRequests));
+        }
+        this.maxRequests = maxRequests;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of requests for each host to execute concurrently. The value is capped
+     * by the maximum number of concurrent requests.
+     *
+     * @param maxRequestsPerHost The maximum number of concurrent requests per host.
+     * @return The updated OkHttpAsyncHttpClientBuilder object.
+     * @throws IllegalArgumentException if {@code maxRequestsPerHost} is less than 1.
+     */
+    public OkHttpAsyncHttpClientBuilder maxRequestsPerHost(int maxRequestsPerHost) {
+        if (maxRequestsPerHost < 1) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'maxRequestsPerHost' must be greater than 0, provided:"
+                    + maxRequestsPerHost));
+        }
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        return this;
+    }
+
+    /**
+     * Sets the directory to cache the cacheable responses in.
+     *
+     * <p>
+     * The cache is shared by all the clients created by this builder, an application should not
+     * configure more than one cache on the same directory.
+     * </p>
+     *
+     * @param directory The cache directory, private to the application.
+     * @param maxSizeBytes The maximum size of the cache in bytes.
+     * @return The updated OkHttpAsyncHttpClientBuilder object.
+     * @throws NullPointerException if {@code directory} is null.
+     * @throws IllegalArgumentException if {@code maxSizeBytes} is not positive.
+     */
+    public OkHttpAsyncHttpClientBuilder cache(File directory, long maxSizeBytes) {
+        Objects.requireNonNull(directory, "'directory' cannot be null.");
+        if (maxSizeBytes <= 0) {
+            throw logger.logExceptionAsError(new IllegalArgumentException("'maxSizeBytes' must be positive."));
+        }
+        this.cache = new Cache(directory, maxSizeBytes);
+        return this;
+    }
+
+    /**
+     * Sets the size and the timeout of the TLS session cache, so that new connections to a host resume
+     * an earlier TLS session and skip the full handshake.
+     *
+     * <p>
+     * The clients created by this builder share one TLS session cache, which uses the platform default
+     * trust store. This replaces the SSL socket factory of the OkHttpClient the builder is created from.
+     * </p>
+     *
+     * @param cacheSize The maximum number of TLS sessions to cache, 0 for no limit.
+     * @param sessionTimeout The time a cached TLS session can be resumed within.
+     * @return The updated OkHttpAsyncHttpClientBuilder object.
+     * @throws NullPointerException if {@code sessionTimeout} is null.
+     * @throws IllegalArgumentException if {@code cacheSize} is negative or {@code sessionTimeout} is negative.
+     */
+    public OkHttpAsyncHttpClientBuilder tlsSessionCache(int cacheSize, Duration sessionTimeout) {
+        Objects.requireNonNull(sessionTimeout, "'sessionTimeout' cannot be null.");
+        if (cacheSize < 0) {
+            throw logger.logExceptionAsError(new IllegalArgumentException("'cacheSize' cannot be negative."));
+        }
+        if (sessionTimeout.isNegative()) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'sessionTimeout' cannot be negative."));
+        }
+        this.tlsSessionCacheSize = cacheSize;
+        this.tlsSessionTimeout = sessionTimeout;
+        this.sslSocketFactory = null;
+        return this;
+    }
+
     /**
      * Creates a new OkHttp-backed {@link com.azure.android.core.http.HttpClient} instance on every call, using the
      * configuration set in the builder at the time of the build method call.
@@ -43,6 +223,58 @@ public class OkHttpAsyncHttpClientBuilder {
             ? new OkHttpClient.Builder()
             : this.okHttpClient.newBuilder();
 
+        ConnectionPool connectionPool = this.connectionPool;
+        if (this.maxRequests != null || this.maxRequestsPerHost != null) {
+            // Use a dispatcher of our own rather than changing the limits of a dispatcher
+            // shared with the OkHttpClient the builder is created from.
+            final Dispatcher dispatcher = this.okHttpClient == null
+                ? new Dispatcher()
+                : new Dispatcher(this.okHttpClient.dispatcher().executorService());
+            final Dispatcher baseDispatcher = this.okHttpClient == null ? dispatcher : this.okHttpClient.dispatcher();
+            final int effectiveMaxRequests = this.maxRequests != null
+                ? this.maxRequests
+                : baseDispatcher.getMaxRequests();
+            final int effectiveMaxRequestsPerHost = this.maxRequestsPerHost != null
+                ? this.maxRequestsPerHost
+                : baseDispatcher.getMaxRequestsPerHost();
+            dispatcher.setMaxRequests(effectiveMaxRequests);
+            dispatcher.setMaxRequestsPerHost(Math.min(effectiveMaxRequestsPerHost, effectiveMaxRequests));
+            httpClientBuilder.dispatcher(dispatcher);
+
+            if (connectionPool == null
+                && this.okHttpClient == null
+                && dispatcher.getMaxRequestsPerHost() > DEFAULT_MAX_IDLE_CONNECTIONS) {
+                // Keep enough idle connections to serve the concurrent requests to a host without reconnecting.
+                connectionPool = new ConnectionPool(dispatcher.getMaxRequestsPerHost(),
+                    DEFAULT_KEEP_ALIVE_MINUTES,
+                    TimeUnit.MINUTES);
+            }
+        }
+        if (connectionPool != null) {
+            httpClientBuilder.connectionPool(connectionPool);
+        }
+        if (this.http2Enabled != null) {
+            httpClientBuilder.protocols(this.http2Enabled
+                ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                : Collections.singletonList(Protocol.HTTP_1_1));
+        }
+        if (this.cache != null) {
+            httpClientBuilder.cache(this.cache);
+        }
+        if (this.tlsSessionTimeout != null) {
+            this.ensureSslSocketFactory();
+            httpClientBuilder.sslSocketFactory(this.sslSocketFactory, this.trustManager);
+        }
+
+        // Measure the phases of each call, see HttpResponse::getTimings(), forwarding the events to
+        // the listeners of the OkHttpClient the builder is created from.
+        final EventListener.Factory baseEventListenerFactory = this.okHttpClient == null
+            ? null
+            : this.okHttpClient.eventListenerFactory();
+        if (!(baseEventListenerFactory instanceof CallTimingEventListener.Factory)) {
+            httpClientBuilder.eventListenerFactory(new CallTimingEventListener.Factory(baseEventListenerFactory));
+        }
+
         final OkHttpClient okHttpClient = httpClientBuilder.build();
         final HttpCallDispatcher httpCallDispatcher
             = new HttpCallDispatcher(okHttpClient.dispatcher().executorService());
@@ -50,4 +282,37 @@ public class OkHttpAsyncHttpClientBuilder {
 
         return new OkHttpAsyncHttpClient(okHttpClient, httpCallDispatcher);
     }
+
+    /**
+     * Creates the SSL socket factory with the configured TLS session cache, if not created already.
+     */
+    private void ensureSslSocketFactory() {
+        if (this.sslSocketFactory != null) {
+            return;
+        }
+        try {
+            final TrustManagerFactory trustManagerFactory
+                = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            trustManagerFactory.init((KeyStore) null);
+            X509TrustManager x509TrustManager = null;
+            for (TrustManager trustManager : trustManagerFactory.getTrustManagers()) {
+                if (trustManager instanceof X509TrustManager) {
+                    x509TrustManager = (X509TrustManager) trustManager;
+                    break;
+                }
+            }
+            if (x509TrustManager == null) {
+                throw logger.logExceptionAsError(new IllegalStateException("No X509TrustManager found."));
+            }
+            final SSLContext context = SSLContext.getInstance("TLS");
+            context.init(null, new TrustManager[] { x509TrustManager }, null);
+            final SSLSessionContext sessionContext = context.getClientSessionContext();
+            sessionContext.setSessionCacheSize(this.tlsSessionCacheSize);
+            sessionContext.setSessionTimeout((int) Math.min(Integer.MAX_VALUE, this.tlsSessionTimeout.getSeconds()));
+            this.trustManager = x509TrustManager;
+            this.sslSocketFactory = context.getSocketFactory();
+        } catch (GeneralSecurityException e) {
+            throw logger.logExceptionAsError(new IllegalStateException("Unable to create the SSLContext.", e));
+        }
+    }
 }
@@ -0,0 +1,199 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.okhttp;
+
+import com.azure.android.core.http.HttpCallTimings;
+import com.azure.android.core.http.HttpCallback;
+import com.azure.android.core.http.HttpClient;
+import com.azure.android.core.http.HttpMethod;
+import com.azure.android.core.http.HttpPipeline;
+import com.azure.android.core.http.HttpPipelineBuilder;
+import com.azure.android.core.http.HttpRequest;
+import com.azure.android.core.http.HttpResponse;
+import com.azure.android.core.http.metrics.HistogramSnapshot;
+import com.azure.android.core.http.metrics.InMemoryMetricsSink;
+import com.azure.android.core.http.metrics.MetricsSink;
+import com.azure.android.core.util.CancellationToken;
+import com.azure.android.core.util.RequestContext;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CallTimingTests {
+    private static final int SERVER_DELAY_MILLIS = 50;
+
+    private static WireMockServer server;
+
+    @BeforeAll
+    public static void startServer() {
+        server = new WireMockServer(WireMockConfiguration.options().dynamicPort().disableRequestJournal());
+        server.stubFor(WireMock.get("/messages")
+            .willReturn(WireMock.aResponse()
+                .withStatus(200)
+                .withBody("{\"value\":[]}")
+                .withFixedDelay(SERVER_DELAY_MILLIS)));
+        server.start();
+    }
+
+    @AfterAll
+    public static void shutdownServer() {
+        if (server != null) {
+            server.shutdown();
+        }
+    }
+
+    @Test
+    public void measuresPhasesOfCalls() {
+        final HttpClient httpClient = new OkHttpAsyncHttpClientBuilder().build();
+
+        final HttpResponse first = send(httpClient);
+        HttpCallTimings timings = first.getTimings();
+        assertNotNull(timings);
+        assertFalse(timings.isConnectionReused());
+        assertTrue(timings.getConnectNanos() >= 0, timings.toString());
+        assertEquals(HttpCallTimings.NOT_MEASURED, timings.getTlsHandshakeNanos());
+        assertTrue(timings.getRequestWriteNanos() >= 0, timings.toString());
+        assertTrue(timings.getTimeToFirstByteNanos() >= TimeUnit.MILLISECONDS.toNanos(SERVER_DELAY_MILLIS),
+            timings.toString());
+        // The body is not read yet.
+        assertEquals(HttpCallTimings.NOT_MEASURED, timings.getBodyReadNanos());
+        assertEquals("{\"value\":[]}", first.getBodyAsString());
+        assertTrue(first.getTimings().getBodyReadNanos() >= 0);
+
+        // The second call reuses the pooled connection.
+        final HttpResponse second = send(httpClient);
+        second.close();
+        timings = second.getTimings();
+        assertTrue(timings.isConnectionReused(), timings.toString());
+        assertEquals(HttpCallTimings.NOT_MEASURED, timings.getDnsNanos());
+        assertEquals(HttpCallTimings.NOT_MEASURED, timings.getConnectNanos());
+        assertTrue(timings.getTimeToFirstByteNanos() >= TimeUnit.MILLISECONDS.toNanos(SERVER_DELAY_MILLIS));
+    }
+
+    @Test
+    public void forwardsEventsToListenerOfBaseClient() {
+        final AtomicInteger connectStarts = new AtomicInteger();
+        final OkHttpClient okHttpClient = new OkHttpClient.Builder()
+            .eventListener(new EventListener() {
+                @Override
+                public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+                    connectStarts.incrementAndGet();
+                }
+            })
+            .build();
+        final OkHttpAsyncHttpClient httpClient
+            = (OkHttpAsyncHttpClient) new OkHttpAsyncHttpClientBuilder(okHttpClient).build();
+
+        final HttpResponse response = send(httpClient);
+        response.close();
+
+        assertEquals(1, connectStarts.get());
+        assertNotNull(response.getTimings());
+        // Building from a client with the timing listener installed does not install it twice.
+        final OkHttpAsyncHttpClient rebuilt
+            = (OkHttpAsyncHttpClient) new OkHttpAsyncHttpClientBuilder(httpClient.getOkHttpClient()).build();
+        final HttpResponse rebuiltResponse = send(rebuilt);
+        rebuiltResponse.close();
+        assertNotNull(rebuiltResponse.getTimings());
+    }
+
+    @Test
+    public void measuresPhasesOfSynchronousCalls() {
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new OkHttpAsyncHttpClientBuilder().build())
+            .build();
+
+        final HttpResponse response = pipeline.sendSync(new HttpRequest(HttpMethod.GET, server.baseUrl() + "/messages"),
+            RequestContext.NONE,
+            CancellationToken.NONE);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals("{\"value\":[]}", response.getBodyAsString());
+        final HttpCallTimings timings = response.getTimings();
+        assertNotNull(timings);
+        assertTrue(timings.getTimeToFirstByteNanos() >= TimeUnit.MILLISECONDS.toNanos(SERVER_DELAY_MILLIS),
+            timings.toString());
+    }
+
+    @Test
+    public void pipelineRecordsNetworkPhases() throws InterruptedException {
+        final InMemoryMetricsSink metricsSink = new InMemoryMetricsSink();
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new OkHttpAsyncHttpClientBuilder().build())
+            .metricsSink(metricsSink)
+            .build();
+
+        for (int i = 0; i < 2; i++) {
+            final CountDownLatch latch = new CountDownLatch(1);
+            pipeline.send(new HttpRequest(HttpMethod.GET, server.baseUrl() + "/messages"), RequestContext.NONE,
+                CancellationToken.NONE, new HttpCallback() {
+                    @Override
+                    public void onSuccess(HttpResponse response) {
+                        response.close();
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        latch.countDown();
+                    }
+                });
+            assertTrue(latch.await(30, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1, metricsSink.getSnapshot("GET", MetricsSink.CONNECT_TIME).getCount());
+        assertEquals(2, metricsSink.getSnapshot("GET", MetricsSink.TIME_TO_FIRST_BYTE).getCount());
+        final HistogramSnapshot connectionReused = metricsSink.getSnapshot("GET", MetricsSink.CONNECTION_REUSED);
+        assertEquals(2, connectionReused.getCount());
+        assertEquals(0.5, connectionReused.getMean(), 0.001);
+    }
+
+    private static HttpResponse send(HttpClient httpClient) {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final HttpResponse[] response = new HttpResponse[1];
+        final Throwable[] error = new Throwable[1];
+        httpClient.send(new HttpRequest(HttpMethod.GET, server.baseUrl() + "/messages"), CancellationToken.NONE,
+            new HttpCallback() {
+                @Override
+                public void onSuccess(HttpResponse httpResponse) {
+                    response[0] = httpResponse;
+                    latch.countDown();
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    error[0] = throwable;
+                    latch.countDown();
+                }
+            });
+        try {
+            assertTrue(latch.await(30, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        if (error[0] != null) {
+            throw new RuntimeException(error[0]);
+        }
+        return response[0];
+    }
+}
@@ -0,0 +1,171 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.okhttp;
+
+import com.azure.android.core.http.HttpCallback;
+import com.azure.android.core.http.HttpClient;
+import com.azure.android.core.http.HttpMethod;
+import com.azure.android.core.http.HttpPipeline;
+import com.azure.android.core.http.HttpPipelineBuilder;
+import com.azure.android.core.http.HttpRequest;
+import com.azure.android.core.http.HttpResponse;
+import com.azure.android.core.util.CancellationToken;
+import com.azure.android.core.util.RequestContext;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.threeten.bp.Duration;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark of the connection reuse under concurrent chat traffic, sent to a local mock server.
+ *
+ * <p>
+ * Each simulated chat thread sends messages and lists the messages of the thread concurrently. The benchmark
+ * compares the connections opened and the elapsed time with a connection pool sized for the concurrent
+ * requests per host against a pool that keeps no idle connection.
+ * </p>
+ */
+public class ConnectionReuseBenchmark {
+    private static final int CHAT_THREADS = 8;
+    private static final int REQUESTS_PER_CHAT_THREAD = 50;
+    private static final int MAX_REQUESTS_PER_HOST = 8;
+
+    private static WireMockServer server;
+
+    @BeforeAll
+    public static void startServer() {
+        server = new WireMockServer(WireMockConfiguration.options()
+            .dynamicPort()
+            .disableRequestJournal()
+            .gzipDisabled(true));
+        server.stubFor(WireMock.post(WireMock.urlPathMatching("/chat/threads/.*/messages"))
+            .willReturn(WireMock.aResponse().withStatus(201).withBody("{\"id\":\"1\"}")));
+        server.stubFor(WireMock.get(WireMock.urlPathMatching("/chat/threads/.*/messages"))
+            .willReturn(WireMock.aResponse().withStatus(200).withBody("{\"value\":[]}")));
+        server.start();
+    }
+
+    @AfterAll
+    public static void shutdownServer() {
+        if (server != null) {
+            server.shutdown();
+        }
+    }
+
+    @Test
+    public void connectionReuse() throws InterruptedException {
+        // Warm up the server and the client code paths before measuring.
+        run(new OkHttpAsyncHttpClientBuilder(newCountingClient()).maxRequestsPerHost(MAX_REQUESTS_PER_HOST));
+
+        final Result pooled = run(new OkHttpAsyncHttpClientBuilder(newCountingClient())
+            .connectionPool(MAX_REQUESTS_PER_HOST, Duration.ofMinutes(1))
+            .maxRequestsPerHost(MAX_REQUESTS_PER_HOST));
+        final Result notPooled = run(new OkHttpAsyncHttpClientBuilder(newCountingClient())
+            .connectionPool(0, Duration.ofMinutes(1))
+            .maxRequestsPerHost(MAX_REQUESTS_PER_HOST));
+
+        System.out.println("pooled:     " + pooled);
+        System.out.println("not-pooled: " + notPooled);
+
+        assertEquals(0, pooled.failures);
+        assertEquals(0, notPooled.failures);
+        assertTrue(pooled.connections <= MAX_REQUESTS_PER_HOST, pooled.toString());
+        assertTrue(pooled.connections < notPooled.connections, pooled + " vs " + notPooled);
+    }
+
+    private static OkHttpClient newCountingClient() {
+        return new OkHttpClient.Builder()
+            .eventListenerFactory(call -> new ConnectionCounter())
+            .build();
+    }
+
+    private static Result run(OkHttpAsyncHttpClientBuilder builder) throws InterruptedException {
+        final HttpClient httpClient = builder.build();
+        final HttpPipeline pipeline = new HttpPipelineBuilder().httpClient(httpClient).build();
+        final int requestCount = CHAT_THREADS * REQUESTS_PER_CHAT_THREAD;
+        final CountDownLatch latch = new CountDownLatch(requestCount);
+        final AtomicInteger failures = new AtomicInteger();
+        ConnectionCounter.CONNECTIONS.set(0);
+
+        final long startNanos = System.nanoTime();
+        for (int i = 0; i < REQUESTS_PER_CHAT_THREAD; i++) {
+            for (int t = 0; t < CHAT_THREADS; t++) {
+                final String url = "http://localhost:" + server.port() + "/chat/threads/" + t + "/messages";
+                final HttpRequest httpRequest;
+                if (i % 2 == 0) {
+                    httpRequest = new HttpRequest(HttpMethod.POST, url);
+                    httpRequest.setHeader("Content-Type", "application/json");
+                    httpRequest.setBody("{\"content\":\"message " + i + "\"}".getBytes(StandardCharsets.UTF_8));
+                } else {
+                    httpRequest = new HttpRequest(HttpMethod.GET, url);
+                }
+                pipeline.send(httpRequest, RequestContext.NONE, CancellationToken.NONE, new HttpCallback() {
+                    @Override
+                    public void onSuccess(HttpResponse response) {
+                        // Reading the body releases the connection to the pool.
+                        response.getBodyAsByteArray();
+                        response.close();
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        failures.incrementAndGet();
+                        latch.countDown();
+                    }
+                });
+            }
+        }
+        assertTrue(latch.await(60, TimeUnit.SECONDS));
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        return new Result(requestCount, ConnectionCounter.CONNECTIONS.get(), failures.get(), elapsedMillis);
+    }
+
+    private static final class ConnectionCounter extends EventListener {
+        static final AtomicInteger CONNECTIONS = new AtomicInteger();
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            CONNECTIONS.incrementAndGet();
+        }
+    }
+
+    private static final class Result {
+        private final int requests;
+        private final int connections;
+        private final int failures;
+        private final long elapsedMillis;
+
+        Result(int requests, int connections, int failures, long elapsedMillis) {
+            this.requests = requests;
+            this.connections = connections;
+            this.failures = failures;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return requests + " requests, " + connections + " connections, " + failures + " failures, "
+                + elapsedMillis + " ms";
+        }
+    }
+}
@@ -0,0 +1,97 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.okhttp;
+
+import org.junit.jupiter.api.Test;
+import org.threeten.bp.Duration;
+
+import java.util.Collections;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OkHttpAsyncHttpClientBuilderTests {
+    @Test
+    public void maxRequestsAppliesToBothDispatchers() {
+        final OkHttpAsyncHttpClient httpClient = (OkHttpAsyncHttpClient) new OkHttpAsyncHttpClientBuilder()
+            .maxRequests(10)
+            .maxRequestsPerHost(20)
+            .build();
+
+        assertEquals(10, httpClient.getOkHttpClient().dispatcher().getMaxRequests());
+        // The per host limit is capped by the overall limit.
+        assertEquals(10, httpClient.getOkHttpClient().dispatcher().getMaxRequestsPerHost());
+        assertEquals(10, httpClient.getHttpCallDispatcher().getMaxRunningCalls());
+    }
+
+    @Test
+    public void connectionPoolKeepsIdleConnectionsForEachHostRequest() {
+        final OkHttpAsyncHttpClient httpClient = (OkHttpAsyncHttpClient) new OkHttpAsyncHttpClientBuilder()
+            .maxRequestsPerHost(16)
+            .build();
+
+        assertEquals(16, httpClient.getOkHttpClient().dispatcher().getMaxRequestsPerHost());
+        assertEquals(64, httpClient.getHttpCallDispatcher().getMaxRunningCalls());
+    }
+
+    @Test
+    public void connectionPoolIsSharedByBuiltClients() {
+        final OkHttpAsyncHttpClientBuilder builder = new OkHttpAsyncHttpClientBuilder()
+            .connectionPool(8, Duration.ofMinutes(1));
+        final OkHttpAsyncHttpClient first = (OkHttpAsyncHttpClient) builder.build();
+        final OkHttpAsyncHttpClient second = (OkHttpAsyncHttpClient) builder.build();
+
+        assertSame(first.getOkHttpClient().connectionPool(), second.getOkHttpClient().connectionPool());
+    }
+
+    @Test
+    public void limitsDoNotChangeDispatcherOfExistingClient() {
+        final OkHttpClient okHttpClient = new OkHttpClient();
+        final OkHttpAsyncHttpClient httpClient = (OkHttpAsyncHttpClient) new OkHttpAsyncHttpClientBuilder(okHttpClient)
+            .maxRequests(4)
+            .build();
+
+        assertNotSame(okHttpClient.dispatcher(), httpClient.getOkHttpClient().dispatcher());
+        assertSame(okHttpClient.dispatcher().executorService(),
+            httpClient.getOkHttpClient().dispatcher().executorService());
+        assertEquals(64, okHttpClient.dispatcher().getMaxRequests());
+        assertEquals(4, httpClient.getOkHttpClient().dispatcher().getMaxRequests());
+        assertEquals(4, httpClient.getHttpCallDispatcher().getMaxRunningCalls());
+    }
+
+    @Test
+    public void http2CanBeDisabled() {
+        final OkHttpAsyncHttpClient httpClient = (OkHttpAsyncHttpClient) new OkHttpAsyncHttpClientBuilder()
+            .http2Enabled(false)
+            .build();
+
+        assertEquals(Collections.singletonList(Protocol.HTTP_1_1), httpClient.getOkHttpClient().protocols());
+    }
+
+    @Test
+    public void tlsSessionCacheIsSharedByBuiltClients() {
+        final OkHttpAsyncHttpClientBuilder builder = new OkHttpAsyncHttpClientBuilder()
+            .tlsSessionCache(100, Duration.ofHours(1));
+        final OkHttpAsyncHttpClient first = (OkHttpAsyncHttpClient) builder.build();
+        final OkHttpAsyncHttpClient second = (OkHttpAsyncHttpClient) builder.build();
+
+        assertSame(first.getOkHttpClient().sslSocketFactory(), second.getOkHttpClient().sslSocketFactory());
+    }
+
+    @Test
+    public void invalidArguments() {
+        final OkHttpAsyncHttpClientBuilder builder = new OkHttpAsyncHttpClientBuilder();
+        assertThrows(IllegalArgumentException.class, () -> builder.maxRequests(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.maxRequestsPerHost(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.connectionPool(-1, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> builder.connectionPool(5, Duration.ZERO));
+        assertThrows(NullPointerException.class, () -> builder.connectionPool(5, null));
+        assertThrows(IllegalArgumentException.class, () -> builder.tlsSessionCache(-1, Duration.ofHours(1)));
+    }
+}
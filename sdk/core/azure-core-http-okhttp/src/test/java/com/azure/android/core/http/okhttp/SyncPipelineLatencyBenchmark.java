@@ -0,0 +1,159 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.okhttp;
+
+import com.azure.android.core.http.HttpCallback;
+import com.azure.android.core.http.HttpMethod;
+import com.azure.android.core.http.HttpPipeline;
+import com.azure.android.core.http.HttpPipelineBuilder;
+import com.azure.android.core.http.HttpRequest;
+import com.azure.android.core.http.HttpResponse;
+import com.azure.android.core.http.policy.RetryPolicy;
+import com.azure.android.core.util.CancellationToken;
+import com.azure.android.core.util.RequestContext;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark of the latency of a blocking call, sent to a local mock server, through the asynchronous pipeline
+ * with the caller waiting on the callback against the synchronous pipeline.
+ *
+ * <p>
+ * The asynchronous path hands the call over to the dispatcher's executor and then to the OkHttp dispatcher,
+ * the synchronous path runs the policies and the OkHttp call in the calling thread.
+ * </p>
+ */
+public class SyncPipelineLatencyBenchmark {
+    private static final int WARMUP_CALLS = 200;
+    private static final int MEASURED_CALLS = 1000;
+
+    private static WireMockServer server;
+
+    @BeforeAll
+    public static void startServer() {
+        server = new WireMockServer(WireMockConfiguration.options()
+            .dynamicPort()
+            .disableRequestJournal()
+            .gzipDisabled(true));
+        server.stubFor(WireMock.get("/chat/threads/1/messages")
+            .willReturn(WireMock.aResponse().withStatus(200).withBody("{\"value\":[]}")));
+        server.start();
+    }
+
+    @AfterAll
+    public static void shutdownServer() {
+        if (server != null) {
+            server.shutdown();
+        }
+    }
+
+    @Test
+    public void syncPipelineLatency() throws InterruptedException {
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new OkHttpAsyncHttpClientBuilder().build())
+            .policies(RetryPolicy.withExponentialBackoff())
+            .build();
+
+        // Warm up the server, the connection pool and both code paths before measuring.
+        measureAsync(pipeline, WARMUP_CALLS);
+        measureSync(pipeline, WARMUP_CALLS);
+
+        final Result async = measureAsync(pipeline, MEASURED_CALLS);
+        final Result sync = measureSync(pipeline, MEASURED_CALLS);
+
+        System.out.println("async: " + async);
+        System.out.println("sync:  " + sync);
+
+        assertEquals(0, async.failures);
+        assertEquals(0, sync.failures);
+    }
+
+    private static Result measureAsync(HttpPipeline pipeline, int calls) throws InterruptedException {
+        final long[] latencies = new long[calls];
+        final int[] failures = new int[1];
+        for (int i = 0; i < calls; i++) {
+            final CountDownLatch latch = new CountDownLatch(1);
+            final long startNanos = System.nanoTime();
+            pipeline.send(newRequest(), RequestContext.NONE, CancellationToken.NONE, new HttpCallback() {
+                @Override
+                public void onSuccess(HttpResponse response) {
+                    response.getBodyAsByteArray();
+                    response.close();
+                    latch.countDown();
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    failures[0]++;
+                    latch.countDown();
+                }
+            });
+            assertTrue(latch.await(30, TimeUnit.SECONDS));
+            latencies[i] = System.nanoTime() - startNanos;
+        }
+        return new Result(latencies, failures[0]);
+    }
+
+    private static Result measureSync(HttpPipeline pipeline, int calls) {
+        final long[] latencies = new long[calls];
+        int failures = 0;
+        for (int i = 0; i < calls; i++) {
+            final long startNanos = System.nanoTime();
+            try {
+                final HttpResponse response = pipeline.sendSync(newRequest(),
+                    RequestContext.NONE,
+                    CancellationToken.NONE);
+                response.getBodyAsByteArray();
+                response.close();
+            } catch (RuntimeException e) {
+                failures++;
+            }
+            latencies[i] = System.nanoTime() - startNanos;
+        }
+        return new Result(latencies, failures);
+    }
+
+    private static HttpRequest newRequest() {
+        return new HttpRequest(HttpMethod.GET, "http://localhost:" + server.port() + "/chat/threads/1/messages");
+    }
+
+    private static final class Result {
+        private final long[] latencies;
+        private final int failures;
+
+        Result(long[] latencies, int failures) {
+            this.latencies = latencies.clone();
+            Arrays.sort(this.latencies);
+            this.failures = failures;
+        }
+
+        private long percentileMicros(double percentile) {
+            final int index = (int) Math.ceil(percentile / 100 * this.latencies.length) - 1;
+            return TimeUnit.NANOSECONDS.toMicros(this.latencies[Math.max(0, index)]);
+        }
+
+        @Override
+        public String toString() {
+            long totalNanos = 0;
+            for (long latency : this.latencies) {
+                totalNanos += latency;
+            }
+            return this.latencies.length + " calls, " + failures + " failures, mean "
+                + TimeUnit.NANOSECONDS.toMicros(totalNanos / this.latencies.length) + " us, p50 "
+                + this.percentileMicros(50) + " us, p99 " + this.percentileMicros(99) + " us";
+        }
+    }
+}
@@ -0,0 +1,267 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http;
+
+import com.azure.android.core.logging.ClientLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * package-private.
+ *
+ * A hashed timer wheel to hand over items to an {@link ExpiryHandler} once their delay elapses.
+ *
+ * <p>
+ * The wheel is an array of buckets, each bucket is a doubly linked list of timeouts that expire
+ * within the same tick (modulo the number of buckets), hence scheduling and cancelling a timeout
+ * is O(1). The timeouts expiring in a tick are handed over to the {@link ExpiryHandler} as one batch.
+ *
+ * The wheel uses a single worker thread to advance the ticks, the thread is started when a timeout is
+ * scheduled on an empty wheel and it exits once the wheel is empty, so no thread is held while there
+ * is nothing scheduled. The timeouts never expire early; they expire within one tick after their delay.
+ * </p>
+ *
+ * @param <T> The type of item scheduled on the wheel.
+ */
+final class HashedTimerWheel<T> {
+    private final ClientLogger logger = new ClientLogger(HashedTimerWheel.class);
+
+    private final String threadName;
+    private final long tickNanos;
+    private final Timeout<T>[] buckets;
+    private final int mask;
+    private final ExpiryHandler<T> expiryHandler;
+    // The following fields are guarded by 'this'.
+    private long startNanos;
+    private long currentTick;
+    private int pendingTimeouts;
+    private Thread worker;
+
+    /**
+     * Creates HashedTimerWheel.
+     *
+     * @param threadName The name of the worker thread.
+     * @param tickDuration The duration of a tick.
+     * @param tickUnit The time unit of the {@code tickDuration}.
+     * @param ticksPerWheel The number of buckets in the wheel, rounded up to a power of two.
+     * @param expiryHandler The handler to receive the expired items.
+     */
+    @SuppressWarnings("unchecked")
+    HashedTimerWheel(String threadName,
+                     long tickDuration,
+                     TimeUnit tickUnit,
+                     int ticksPerWheel,
+                     ExpiryHandler<T> expiryHandler) {
+        if (tickDuration <= 0) {
+            throw logger.logExceptionAsError(new IllegalArgumentException("'tickDuration' must be positive."));
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > (1 << 30)) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'ticksPerWheel' must be in the range (0, 2^30]."));
+        }
+        int size = 1;
+        while (size < ticksPerWheel) {
+            size <<= 1;
+        }
+        this.threadName = threadName;
+        this.tickNanos = tickUnit.toNanos(tickDuration);
+        this.buckets = (Timeout<T>[]) new Timeout[size];
+        this.mask = size - 1;
+        this.expiryHandler = expiryHandler;
+    }
+
+    /**
+     * Schedule the {@code item} to be handed over to the {@link ExpiryHandler} after the given delay.
+     *
+     * @param item The item.
+     * @param delay The time from now to delay the hand over.
+     * @param timeUnit The time unit of the {@code delay}.
+     * @return The timeout that can be used to cancel the hand over.
+     */
+    Timeout<T> schedule(T item, long delay, TimeUnit timeUnit) {
+        final long delayNanos = Math.max(0, timeUnit.toNanos(delay));
+        final Timeout<T> timeout = new Timeout<>(this, item);
+        synchronized (this) {
+            final long nowNanos = System.nanoTime();
+            if (this.worker == null && this.pendingTimeouts == 0) {
+                // The wheel was idle, restart the ticks from now.
+                this.startNanos = nowNanos;
+                this.currentTick = 0;
+            }
+            // The bucket of tick 'k' is processed once 'startNanos + (k + 1) * tickNanos' is reached,
+            // which is never before the deadline.
+            final long deadlineTick = Math.max(this.currentTick,
+                (nowNanos - this.startNanos + delayNanos) / this.tickNanos);
+            timeout.remainingRounds = (deadlineTick - this.currentTick) / this.buckets.length;
+            this.link(timeout, (int) (deadlineTick & this.mask));
+            this.pendingTimeouts++;
+            if (this.worker == null) {
+                this.worker = new Thread(new Worker(), this.threadName);
+                this.worker.setDaemon(true);
+                this.worker.start();
+            }
+        }
+        return timeout;
+    }
+
+    /**
+     * Gets the number of timeouts waiting to expire.
+     *
+     * @return The number of pending timeouts.
+     */
+    synchronized int getPendingTimeouts() {
+        return this.pendingTimeouts;
+    }
+
+    /**
+     * Check whether the worker thread is running.
+     *
+     * @return true if the worker thread is running, false otherwise.
+     */
+    synchronized boolean isWorkerRunning() {
+        return this.worker != null;
+    }
+
+    private void link(Timeout<T> timeout, int bucketIndex) {
+        final Timeout<T> head = this.buckets[bucketIndex];
+        timeout.bucketIndex = bucketIndex;
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        this.buckets[bucketIndex] = timeout;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            this.buckets[timeout.bucketIndex] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucketIndex = -1;
+    }
+
+    /**
+     * Collect the items expiring in the current tick and advance the tick.
+     *
+     * @return The expired items, an empty list if none expired.
+     */
+    private List<T> expireCurrentTick() {
+        List<T> expired = null;
+        Timeout<T> timeout = this.buckets[(int) (this.currentTick & this.mask)];
+        while (timeout != null) {
+            final Timeout<T> next = timeout.next;
+            if (timeout.remainingRounds <= 0) {
+                this.unlink(timeout);
+                this.pendingTimeouts--;
+                if (expired == null) {
+                    expired = new ArrayList<>();
+                }
+                expired.add(timeout.item);
+            } else {
+                timeout.remainingRounds--;
+            }
+            timeout = next;
+        }
+        this.currentTick++;
+        return expired;
+    }
+
+    /**
+     * The worker advancing the ticks of the wheel.
+     */
+    private final class Worker implements Runnable {
+        @Override
+        public void run() {
+            final HashedTimerWheel<T> wheel = HashedTimerWheel.this;
+            while (true) {
+                final List<T> expired;
+                synchronized (wheel) {
+                    if (wheel.pendingTimeouts == 0) {
+                        wheel.worker = null;
+                        return;
+                    }
+                    final long tickDeadlineNanos = wheel.startNanos + (wheel.currentTick + 1) * wheel.tickNanos;
+                    final long waitNanos = tickDeadlineNanos - System.nanoTime();
+                    if (waitNanos > 0) {
+                        try {
+                            TimeUnit.NANOSECONDS.timedWait(wheel, waitNanos);
+                        } catch (InterruptedException e) {
+                            // The worker is private to the wheel, keep going until the wheel is empty.
+                        }
+                        continue;
+                    }
+                    expired = wheel.expireCurrentTick();
+                }
+                if (expired != null) {
+                    // Hand over outside the sync-block since calling into user-code while holding
+                    // lock is prohibited.
+                    try {
+                        wheel.expiryHandler.onExpired(expired);
+                    } catch (Throwable t) {
+                        logger.logThrowableAsError(t);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The handler to receive the items whose delay elapsed.
+     *
+     * @param <T> The type of item scheduled on the wheel.
+     */
+    interface ExpiryHandler<T> {
+        /**
+         * Called with the items expired in a tick.
+         *
+         * @param items The expired items.
+         */
+        void onExpired(List<T> items);
+    }
+
+    /**
+     * A handle to an item scheduled on the wheel.
+     *
+     * @param <T> The type of item scheduled on the wheel.
+     */
+    static final class Timeout<T> {
+        private final HashedTimerWheel<T> wheel;
+        private final T item;
+        // The following fields are guarded by the wheel.
+        private long remainingRounds;
+        private int bucketIndex = -1;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        Timeout(HashedTimerWheel<T> wheel, T item) {
+            this.wheel = wheel;
+            this.item = item;
+        }
+
+        /**
+         * Cancel the hand over of the item.
+         *
+         * @return true if the timeout was removed from the wheel before it expires, false if the item
+         *     is already handed over or the timeout is already cancelled.
+         */
+        boolean cancel() {
+            synchronized (this.wheel) {
+                if (this.bucketIndex == -1) {
+                    return false;
+                }
+                this.wheel.unlink(this);
+                this.wheel.pendingTimeouts--;
+                return true;
+            }
+        }
+    }
+}
@@ -4,18 +4,27 @@
 package com.azure.android.core.http;
 
 import com.azure.android.core.http.implementation.Util;
+import com.azure.android.core.http.metrics.LogLinearHistogram;
 import com.azure.android.core.util.CancellationToken;
+import com.azure.android.core.util.Predicate;
 import com.azure.android.core.util.RequestContext;
 import com.azure.android.core.logging.ClientLogger;
 
 import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -26,14 +35,43 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * that does not have native async support can also use the dispatcher to enable async HTTP calls.
  */
 public final class HttpCallDispatcher {
+    /**
+     * The key of the request tag holding a {@link CancellationToken} scoped to a single attempt of
+     * the request, such as one of the attempts made by the hedging policy. When present, the tag
+     * token is used in place of the pipeline run's token to cancel the attempt on the wire.
+     */
+    public static final String ATTEMPT_CANCELLATION_TOKEN_TAG = "attempt-cancellation-token";
+
+    private static final long TIMER_TICK_MILLIS = 10;
+    private static final int TIMER_TICKS_PER_WHEEL = 512;
+
     private final ClientLogger logger = new ClientLogger(HttpCallDispatcher.class);
 
     private int maxRunningCalls = 64;
     private final ExecutorService executorService;
-    private ScheduledExecutorService scheduledExecutorService;
-    private final Deque<RootDispatchableCall> waitingRootDispatchableCalls = new ArrayDeque<>();
+    private final ScheduledExecutorService scheduledExecutorService;
+    // Used to schedule HTTP calls when the user doesn't provide a ScheduledExecutorService.
+    private final HashedTimerWheel<NestedDispatchableCall> timerWheel;
+    // The waiting calls are kept in insertion order sets, so that a cancelled call can be removed
+    // in O(1) while the calls are still dispatched in FIFO order.
+    private final LinkedHashSet<RootDispatchableCall> waitingRootDispatchableCalls = new LinkedHashSet<>();
     private final Deque<RootDispatchableCall> runningRootDispatchableCalls = new ArrayDeque<>();
-    private final Deque<NestedDispatchableCall> waitingNestedDispatchableCalls = new ArrayDeque<>();
+    private final LinkedHashSet<NestedDispatchableCall> waitingNestedDispatchableCalls = new LinkedHashSet<>();
+    // The calls waiting for their delay to elapse.
+    private final Set<NestedDispatchableCall> scheduledNestedDispatchableCalls = new HashSet<>();
+    // The number of forked attempts (e.g. hedged attempts) running, each holds a slot.
+    private int runningForkedCalls;
+    // The statistics, guarded by the dispatcher except the lock-free queueWaitTime histogram.
+    private int peakRunningCalls;
+    private long dispatchedCalls;
+    private long rejectedExecutions;
+    private final LogLinearHistogram queueWaitTime = new LogLinearHistogram();
+    // The time the current saturation began, valid while 'saturated' is true.
+    private boolean saturated;
+    private long saturatedSinceNanos;
+    private boolean saturationNotified;
+    private SaturationListener saturationListener;
+    private long saturationThresholdNanos;
 
     /**
      * Creates an HttpCallDispatcher with an ExecutorService with default settings to execute HTTP calls.
@@ -44,6 +82,7 @@ public final class HttpCallDispatcher {
         this.executorService = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
             new SynchronousQueue<>());
         this.scheduledExecutorService = null;
+        this.timerWheel = this.createTimerWheel();
     }
 
     /**
@@ -54,6 +93,7 @@ public final class HttpCallDispatcher {
     public HttpCallDispatcher(ExecutorService executorService) {
         this.executorService = Util.requireNonNull(executorService, "'executorService' is required.");
         this.scheduledExecutorService = null;
+        this.timerWheel = this.createTimerWheel();
     }
 
     /**
@@ -69,6 +109,7 @@ public final class HttpCallDispatcher {
         this.executorService = Util.requireNonNull(executorService, "'executorService' is required.");
         this.scheduledExecutorService = Util.requireNonNull(scheduledExecutorService,
             "'scheduledExecutorService' is required.");
+        this.timerWheel = null;
     }
 
     /**
@@ -104,6 +145,60 @@ public final class HttpCallDispatcher {
         }
     }
 
+    /**
+     * Takes a snapshot of the statistics of the dispatcher.
+     *
+     * <p>
+     * The counters are read under the same lock used to dispatch the calls, taking a snapshot is cheap and
+     * can be done periodically (e.g. to feed a dashboard or a log line).
+     * </p>
+     *
+     * @return The statistics of the dispatcher.
+     */
+    public HttpCallDispatcherStats getStats() {
+        synchronized (this) {
+            return new HttpCallDispatcherStats(this.maxRunningCalls,
+                this.runningRootDispatchableCalls.size() + this.runningForkedCalls,
+                this.peakRunningCalls,
+                this.waitingRootDispatchableCalls.size(),
+                this.waitingNestedDispatchableCalls.size(),
+                this.scheduledNestedDispatchableCalls.size(),
+                this.dispatchedCalls,
+                this.rejectedExecutions,
+                this.saturated ? System.nanoTime() - this.saturatedSinceNanos : 0,
+                this.queueWaitTime.getSnapshot());
+        }
+    }
+
+    /**
+     * Sets the listener to notify when the dispatcher stays saturated, that is all its slots are taken
+     * and calls are waiting for a slot, for longer than the given threshold.
+     *
+     * <p>
+     * The listener is notified at most once per saturation episode. The saturation is checked as the calls
+     * are enqueued and completed, hence the listener is notified on the first such event after the threshold
+     * elapsed, on the thread triggering the event. The listener should not block.
+     * </p>
+     *
+     * @param threshold The time the dispatcher should stay saturated before notifying the listener.
+     * @param timeUnit The time unit of the {@code threshold}.
+     * @param listener The listener, null to remove the current listener.
+     * @throws IllegalArgumentException if value of {@code threshold} parameter is negative.
+     */
+    public void setSaturationListener(long threshold, TimeUnit timeUnit, SaturationListener listener) {
+        Util.requireNonNull(timeUnit, "'timeUnit' is required.");
+        if (threshold < 0) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("The saturation threshold must not be negative, provided:"
+                + threshold));
+        }
+        synchronized (this) {
+            this.saturationListener = listener;
+            this.saturationThresholdNanos = timeUnit.toNanos(threshold);
+            this.saturationNotified = false;
+        }
+    }
+
     /**
      * Enqueue a function to perform the HTTP call on the dispatcher thread.
      *
@@ -140,13 +235,80 @@ public final class HttpCallDispatcher {
             cancellationToken,
             httpCallback);
 
+        if (cancellationToken != CancellationToken.NONE) {
+            // Remove the call from the waiting queue as soon as it is cancelled, rather than holding
+            // it until a slot frees up. Registering before enqueuing so that the registration is in
+            // place by the time the call is dispatched and the registration is disposed.
+            rootDispatchableCall.cancellationRegistration = cancellationToken.registerOnCancel(() -> {
+                if (this.removeWaitingCall(rootDispatchableCall)) {
+                    rootDispatchableCall.completeNotRunning(new IOException("Canceled."));
+                }
+            });
+        }
+
         // Enqueue the 'RootDispatchableCall' for this.executorService to execute.
+        rootDispatchableCall.enqueuedNanos = System.nanoTime();
         synchronized (this) {
             this.waitingRootDispatchableCalls.add(rootDispatchableCall);
         }
         this.dispatchCalls();
     }
 
+    /**
+     * Cancels the HTTP calls waiting in the dispatcher whose request matches the given predicate.
+     *
+     * <p>
+     * A matching call waiting for a slot to run, or a matching pipeline run paused on a call scheduled
+     * to run after a delay, is removed from the dispatcher and its callback is notified immediately with
+     * an error. The calls that are already running are not affected, such calls can be cancelled using
+     * the {@link CancellationToken} used to send the request. Note that cancellation is best effort,
+     * a matching call that is being dispatched concurrently may still run.
+     * </p>
+     *
+     * <p>
+     * This can be used to tear down the requests belongs to a scope, for example the requests
+     * tagged with a thread id when the screen showing that thread is closed.
+     * </p>
+     *
+     * @param predicate The predicate to test the requests of the waiting calls.
+     * @return The number of calls cancelled.
+     */
+    public int cancelAll(Predicate<HttpRequest> predicate) {
+        Util.requireNonNull(predicate, "'predicate' is required.");
+
+        final List<RootDispatchableCall> rootCalls;
+        final List<NestedDispatchableCall> nestedCalls;
+        synchronized (this) {
+            rootCalls = new ArrayList<>(this.waitingRootDispatchableCalls);
+            nestedCalls = new ArrayList<>(this.waitingNestedDispatchableCalls);
+            nestedCalls.addAll(this.scheduledNestedDispatchableCalls);
+        }
+
+        // Test the requests outside sync-block since calling into user-code while holding lock is prohibited.
+        int cancelledCount = 0;
+        for (RootDispatchableCall rootCall : rootCalls) {
+            if (predicate.test(rootCall.httpRequest) && this.removeWaitingCall(rootCall)) {
+                rootCall.disposeCancellationRegistration();
+                rootCall.completeNotRunning(new IOException("Canceled."));
+                cancelledCount++;
+            }
+        }
+        for (NestedDispatchableCall nestedCall : nestedCalls) {
+            if (predicate.test(nestedCall.httpRequest) && this.removeNestedCall(nestedCall)) {
+                nestedCall.disposeCancellationRegistration();
+                if (nestedCall.isForked()) {
+                    // The branch that forked the attempt is running, let it receive the error.
+                    nestedCall.onError(new IOException("Canceled."));
+                } else {
+                    // The pipeline run is in "pause-mode", end the run by notifying its caller.
+                    nestedCall.rootDispatchableCall.completeNotRunning(new IOException("Canceled."));
+                }
+                cancelledCount++;
+            }
+        }
+        return cancelledCount;
+    }
+
     /**
      * package-private.
      *
@@ -170,6 +332,13 @@ public final class HttpCallDispatcher {
      *
      * Since chain.processNextPolicy() call is scheduled from a running call, we refer such scheduled
      * call as Nested-call.
+     *
+     * If the {@code httpRequest} carries an attempt cancellation token (tag "attempt-cancellation-token"),
+     * the scheduled call is an additional attempt forked from a branch of the pipeline run that keeps
+     * running (e.g. a hedged attempt), hence the pipeline does not switch to "pause-mode". Such a forked
+     * Nested-call takes its own dispatcher slot from the time it runs until its result reaches the policy
+     * that forked it, and it completes with an error instead of running if its attempt token is cancelled
+     * by the time it is dispatched.
      * </p>
      *
      * @param chain The chain to invoke {@code processNextPolicy} call on.
@@ -192,92 +361,264 @@ public final class HttpCallDispatcher {
         Util.requireNonNull(timeUnit, "'timeUnit' is required.");
 
         final RootDispatchableCall rootDispatchableCall = this.getRootDispatchableCall(chain);
+        final CancellationToken attemptCancellationToken = getAttemptCancellationToken(httpRequest);
         final NestedDispatchableCall nestedDispatchableCall = new NestedDispatchableCall(rootDispatchableCall,
             chain,
             httpRequest,
+            attemptCancellationToken,
             callback);
+
+        // Remove the scheduled call from the timer (or from the waiting queue once its delay elapsed)
+        // as soon as its pipeline run (or the attempt) is cancelled, rather than holding it until
+        // the delay elapses and a slot frees up.
+        final CancellationToken cancellationToken = attemptCancellationToken != null
+            ? attemptCancellationToken
+            : chain.getCancellationToken();
+        if (cancellationToken != CancellationToken.NONE) {
+            nestedDispatchableCall.cancellationRegistration = cancellationToken.registerOnCancel(() -> {
+                if (this.removeNestedCall(nestedDispatchableCall)) {
+                    this.completeCancelledNestedCall(nestedDispatchableCall);
+                }
+            });
+        }
+
         boolean scheduled = false;
         try {
-            this.getScheduledExecutorService().schedule(() -> {
-                synchronized (HttpCallDispatcher.this) {
-                    // The HttpCallDispatcher::executorService executes both 'RootDispatchableCall'
-                    // and 'NestedDispatchableCall' calls.
-                    // Using HttpCallDispatcher::scheduledExecutorService to hand over
-                    // the 'NestedDispatchableCall' to HttpCallDispatcher::executorService.
-                    HttpCallDispatcher.this.waitingNestedDispatchableCalls.add(nestedDispatchableCall);
-                }
-                HttpCallDispatcher.this.dispatchCalls();
-            }, delay, timeUnit);
+            // The HttpCallDispatcher::executorService executes both 'RootDispatchableCall'
+            // and 'NestedDispatchableCall' calls.
+            // Using HttpCallDispatcher::timerWheel (or the user provided scheduledExecutorService)
+            // to hand over the 'NestedDispatchableCall' to HttpCallDispatcher::executorService.
+            synchronized (this) {
+                this.scheduledNestedDispatchableCalls.add(nestedDispatchableCall);
+            }
+            if (this.timerWheel != null) {
+                nestedDispatchableCall.timeout = this.timerWheel.schedule(nestedDispatchableCall, delay, timeUnit);
+            } else {
+                nestedDispatchableCall.scheduledFuture = this.scheduledExecutorService.schedule(() -> {
+                    this.onScheduledCallsExpired(Collections.singletonList(nestedDispatchableCall));
+                }, delay, timeUnit);
+            }
             scheduled = true;
         } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                this.scheduledNestedDispatchableCalls.remove(nestedDispatchableCall);
+                this.rejectedExecutions++;
+            }
+            nestedDispatchableCall.disposeCancellationRegistration();
             nestedDispatchableCall
                 .onError(new InterruptedIOException("scheduled executor rejected").initCause(e));
         } catch (Throwable t) {
             // The ScheduledExecutorService::execute() is not supposed to throw any exception
             // other than RejectedExecutionException, but if it ever throws other exceptions,
             // let's do the cleanup and then rethrow.
+            synchronized (this) {
+                this.scheduledNestedDispatchableCalls.remove(nestedDispatchableCall);
+            }
+            nestedDispatchableCall.disposeCancellationRegistration();
             rootDispatchableCall.markNotRunning(1);
             throw logger.logExceptionAsError(new RuntimeException("ScheduledExecutorService::schedule failed.", t));
         }
 
-        if (scheduled) {
+        if (scheduled && attemptCancellationToken == null) {
             // Once scheduled successfully, pipeline is in "pause-mode", yield the thread to other
-            // executable calls waiting to run.
+            // executable calls waiting to run. A forked attempt leaves the scheduling branch running.
             rootDispatchableCall.markNotRunning(2);
         }
+
+        if (scheduled && cancellationToken.isCancellationRequested()
+            && this.removeNestedCall(nestedDispatchableCall)) {
+            // The token got cancelled before the schedule handle was set for the registration to use.
+            this.completeCancelledNestedCall(nestedDispatchableCall);
+        }
     }
 
     /**
-     * Gets the ScheduledExecutorService to schedule HTTP calls to execute on {@code executorService}
-     * after a specific delay.
+     * Hand over the scheduled calls whose delay elapsed to the executor service.
      *
-     * @return The ScheduledExecutorService for HTTP calls with delay.
+     * @param nestedCalls The scheduled calls.
      */
-    private ScheduledExecutorService getScheduledExecutorService() {
-        // DCL + volatile probably works on modern java's memory model but since we want to target
-        // very lower api levels (L14) we prefer 'synchronized' to avoid any race surprise.
-        //
+    private void onScheduledCallsExpired(List<NestedDispatchableCall> nestedCalls) {
         synchronized (this) {
-            if (this.scheduledExecutorService == null) {
-                // If the user doesn't provide a ScheduledExecutorService, we create one with one thread.
-                // We use scheduledExecutorService only to handover a scheduled call for execution to
-                // executorService when the time is up. [https://stackoverflow.com/a/2336879/1473510].
-                //
-                // Thought: We could do some heuristic such as if the pipeline doesn't use
-                // the scheduledExecutorService for a certain period, we can shut down and
-                // release the one pooled thread, then recreate when needed and repeat the
-                // heuristic.
-                //
-                this.scheduledExecutorService = new ScheduledThreadPoolExecutor(1);
+            for (NestedDispatchableCall nestedCall : nestedCalls) {
+                this.scheduledNestedDispatchableCalls.remove(nestedCall);
+                this.waitingNestedDispatchableCalls.add(nestedCall);
+            }
+        }
+        this.dispatchCalls();
+    }
+
+    /**
+     * Remove a RootDispatchableCall from the waiting queue.
+     *
+     * @param rootCall The call to remove.
+     * @return true if the call was waiting and got removed, false if it is already dispatched or removed.
+     */
+    private synchronized boolean removeWaitingCall(RootDispatchableCall rootCall) {
+        return this.waitingRootDispatchableCalls.remove(rootCall);
+    }
+
+    /**
+     * Remove a NestedDispatchableCall that is waiting for its delay to elapse or for a slot to run.
+     *
+     * @param nestedCall The call to remove.
+     * @return true if the call was waiting and got removed, false if it is already dispatched or removed.
+     */
+    private boolean removeNestedCall(NestedDispatchableCall nestedCall) {
+        if (nestedCall.cancelSchedule()) {
+            synchronized (this) {
+                this.scheduledNestedDispatchableCalls.remove(nestedCall);
             }
-            return this.scheduledExecutorService;
+            return true;
+        }
+        synchronized (this) {
+            return this.waitingNestedDispatchableCalls.remove(nestedCall);
         }
     }
 
+    /**
+     * Complete a NestedDispatchableCall that got cancelled before it runs.
+     *
+     * <p>
+     * The call is handed over to the executor service like a call whose delay elapsed, so that the
+     * pipeline switches back to "running-mode" only once a slot is free, and the error flows through
+     * the pipeline on a dispatcher thread rather than on the thread that cancelled the call.
+     * </p>
+     *
+     * @param nestedCall The cancelled call.
+     */
+    private void completeCancelledNestedCall(NestedDispatchableCall nestedCall) {
+        nestedCall.cancelled = true;
+        synchronized (this) {
+            this.waitingNestedDispatchableCalls.add(nestedCall);
+        }
+        this.dispatchCalls();
+    }
+
+    /**
+     * package-private.
+     *
+     * Gets the cancellation token scoped to a single attempt of the request, if any.
+     *
+     * @param httpRequest The HTTP request.
+     * @return The attempt cancellation token, null if the request does not carry one.
+     */
+    static CancellationToken getAttemptCancellationToken(HttpRequest httpRequest) {
+        final Object token = httpRequest.getTags().get(ATTEMPT_CANCELLATION_TOKEN_TAG);
+        return token instanceof CancellationToken ? (CancellationToken) token : null;
+    }
+
+    /**
+     * Creates the timer wheel to schedule HTTP calls to execute on {@code executorService}
+     * after a specific delay.
+     *
+     * @return The timer wheel for HTTP calls with delay.
+     */
+    private HashedTimerWheel<NestedDispatchableCall> createTimerWheel() {
+        // The wheel only hands over a scheduled call for execution to executorService when the time
+        // is up. Its thread is started when the first call is scheduled and exits once no call is
+        // waiting, so an idle dispatcher doesn't hold a thread for delayed calls.
+        return new HashedTimerWheel<>("azure-http-call-timer",
+            TIMER_TICK_MILLIS,
+            TimeUnit.MILLISECONDS,
+            TIMER_TICKS_PER_WHEEL,
+            this::onScheduledCallsExpired);
+    }
+
     /**
      * Attempt to dispatch calls on the dispatcher threads.
      */
     private void dispatchCalls() {
         Deque<DispatchableCall> executableCalls = new ArrayDeque<>();
+        Deque<DispatchableCall> cancelledCalls = null;
+        SaturationListener listenerToNotify = null;
+        HttpCallDispatcherStats saturationStats = null;
         synchronized (this) {
             // Collects the calls to dispatch.
 
             // 1. Collects the executable NestedDispatchableCall calls.
             //    Note: Collecting NestedDispatchableCall calls first to have them in front of executable queue.
-            while (this.runningRootDispatchableCalls.size() < this.maxRunningCalls
+            while (this.runningRootDispatchableCalls.size() + this.runningForkedCalls < this.maxRunningCalls
                 && !this.waitingNestedDispatchableCalls.isEmpty()) {
-                final NestedDispatchableCall nestedCall = this.waitingNestedDispatchableCalls.poll();
-                this.runningRootDispatchableCalls.add(nestedCall.rootDispatchableCall);
+                final NestedDispatchableCall nestedCall = pollFirst(this.waitingNestedDispatchableCalls);
+                if (nestedCall.isForked()) {
+                    if (nestedCall.isAttemptCancelled()) {
+                        // A forked attempt that is no longer needed, complete it without taking a slot.
+                        if (cancelledCalls == null) {
+                            cancelledCalls = new ArrayDeque<>();
+                        }
+                        cancelledCalls.add(nestedCall);
+                        continue;
+                    }
+                    // The branch that forked the attempt keeps running and holds the slot of
+                    // the RootDispatchableCall, the forked attempt takes a slot of its own.
+                    this.runningForkedCalls++;
+                    nestedCall.holdsForkedSlot = true;
+                } else {
+                    this.runningRootDispatchableCalls.add(nestedCall.rootDispatchableCall);
+                }
                 executableCalls.add(nestedCall);
             }
 
             // 2. Collects the executable RootDispatchableCall calls.
-            while (this.runningRootDispatchableCalls.size() < this.maxRunningCalls
+            while (this.runningRootDispatchableCalls.size() + this.runningForkedCalls < this.maxRunningCalls
                 && !this.waitingRootDispatchableCalls.isEmpty()) {
-                final RootDispatchableCall rootCall = this.waitingRootDispatchableCalls.poll();
+                final RootDispatchableCall rootCall = pollFirst(this.waitingRootDispatchableCalls);
                 this.runningRootDispatchableCalls.add(rootCall);
                 executableCalls.add(rootCall);
             }
+
+            // 3. Update the statistics.
+            final long nowNanos = System.nanoTime();
+            this.dispatchedCalls += executableCalls.size();
+            final int runningCalls = this.runningRootDispatchableCalls.size() + this.runningForkedCalls;
+            if (runningCalls > this.peakRunningCalls) {
+                this.peakRunningCalls = runningCalls;
+            }
+            if (this.waitingRootDispatchableCalls.isEmpty() && this.waitingNestedDispatchableCalls.isEmpty()) {
+                this.saturated = false;
+            } else if (!this.saturated) {
+                this.saturated = true;
+                this.saturatedSinceNanos = nowNanos;
+                this.saturationNotified = false;
+            }
+            if (this.saturated
+                && !this.saturationNotified
+                && this.saturationListener != null
+                && nowNanos - this.saturatedSinceNanos >= this.saturationThresholdNanos) {
+                this.saturationNotified = true;
+                listenerToNotify = this.saturationListener;
+                saturationStats = this.getStats();
+            }
+        }
+
+        for (DispatchableCall call : executableCalls) {
+            if (call instanceof RootDispatchableCall) {
+                final RootDispatchableCall rootCall = (RootDispatchableCall) call;
+                this.queueWaitTime.record(System.nanoTime() - rootCall.enqueuedNanos);
+            }
+        }
+
+        // Notify the saturation listener outside sync-block since it calls into user-code.
+        if (listenerToNotify != null) {
+            try {
+                listenerToNotify.onSaturated(saturationStats);
+            } catch (RuntimeException e) {
+                logger.warning("The dispatcher saturation listener failed.", e);
+            }
+        }
+
+        // The dispatched calls are no longer removable, dispose their cancellation registrations.
+        for (DispatchableCall call : executableCalls) {
+            call.disposeCancellationRegistration();
+        }
+
+        // Notify the cancelled attempts outside sync-block since it calls into user-code.
+        if (cancelledCalls != null) {
+            while (!cancelledCalls.isEmpty()) {
+                final DispatchableCall cancelledCall = cancelledCalls.poll();
+                cancelledCall.disposeCancellationRegistration();
+                cancelledCall.onError(new IOException("Canceled."));
+            }
         }
 
         // Dispatch the collected calls on dispatcher threads.
@@ -289,6 +630,9 @@ public final class HttpCallDispatcher {
             try {
                 this.executorService.execute(call);
             } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    this.rejectedExecutions++;
+                }
                 call.onError(new InterruptedIOException("executor rejected").initCause(e));
             } catch (Throwable t) {
                 // The ExecutorService::execute() is not supposed to throw any exception other than
@@ -300,6 +644,20 @@ public final class HttpCallDispatcher {
         }
     }
 
+    /**
+     * Retrieves and removes the first element of an insertion order set.
+     *
+     * @param set The set.
+     * @param <E> The type of the elements.
+     * @return The first element.
+     */
+    private static <E> E pollFirst(LinkedHashSet<E> set) {
+        final Iterator<E> iterator = set.iterator();
+        final E first = iterator.next();
+        iterator.remove();
+        return first;
+    }
+
     /**
      * Given a chain instance of a pipeline run, return the RootDispatchableCall for the same pipeline run.
      *
@@ -334,6 +692,21 @@ public final class HttpCallDispatcher {
     }
 
 
+    /**
+     * The listener notified when the dispatcher stays saturated beyond a threshold.
+     *
+     * @see #setSaturationListener(long, TimeUnit, SaturationListener)
+     */
+    @FunctionalInterface
+    public interface SaturationListener {
+        /**
+         * Called when the dispatcher stayed saturated beyond the threshold.
+         *
+         * @param stats The statistics of the dispatcher when the threshold elapsed.
+         */
+        void onSaturated(HttpCallDispatcherStats stats);
+    }
+
     /**
      * The internal type represents work for a dispatcher thread to execute (therefore extends Runnable)
      * and enables the dispatching system to hook into onSuccess|onError callbacks methods for housekeeping
@@ -358,6 +731,11 @@ public final class HttpCallDispatcher {
          * </ul>
          */
         void markNotRunning(int callerId);
+
+        /**
+         * Dispose the registration to remove this call from the dispatcher on cancellation, if any.
+         */
+        void disposeCancellationRegistration();
     }
 
     /**
@@ -377,6 +755,10 @@ public final class HttpCallDispatcher {
         private final CancellationToken cancellationToken;
         private final HttpCallback httpCallback;
         private String callerIdTrace = "Code:";
+        // The time the call entered the waiting queue.
+        long enqueuedNanos;
+        // The registration to remove this call from the waiting queue on cancellation.
+        CancellationToken.Registration cancellationRegistration;
 
         RootDispatchableCall(HttpCallDispatcher httpCallDispatcher,
                              HttpCallFunction httpCallFunction,
@@ -433,6 +815,25 @@ public final class HttpCallDispatcher {
             }
         }
 
+        /**
+         * Notify the caller with the error for a pipeline run that ended while not running,
+         * i.e. cancelled while waiting to run or while in "pause-mode".
+         *
+         * @param error The error.
+         */
+        void completeNotRunning(Throwable error) {
+            if (this.compareAndSet(false, true)) {
+                this.httpCallback.onError(error);
+            }
+        }
+
+        @Override
+        public void disposeCancellationRegistration() {
+            if (this.cancellationRegistration != null) {
+                this.cancellationRegistration.dispose();
+            }
+        }
+
         @Override
         public void markNotRunning(int callerId) {
             synchronized (this.httpCallDispatcher) {
@@ -457,7 +858,17 @@ public final class HttpCallDispatcher {
         private final RootDispatchableCall rootDispatchableCall;
         private final HttpPipelinePolicyChainImpl chain;
         private final HttpRequest httpRequest;
+        private final CancellationToken attemptCancellationToken;
         private final NextPolicyCallback callback;
+        // Guarded by the dispatcher; true while this forked attempt holds a dispatcher slot.
+        boolean holdsForkedSlot;
+        // The handle to the schedule of this call, one of them is set once the call is scheduled.
+        volatile HashedTimerWheel.Timeout<NestedDispatchableCall> timeout;
+        volatile ScheduledFuture<?> scheduledFuture;
+        // The registration to remove the call on cancellation, if the call is cancellable.
+        CancellationToken.Registration cancellationRegistration;
+        // True if the call got cancelled before it runs, it then completes with an error when it runs.
+        volatile boolean cancelled;
 
         /**
          * Creates a NestedDispatchableCall, a DispatchableCall that when executes invokes
@@ -473,36 +884,116 @@ public final class HttpCallDispatcher {
          *     nested call belongs to.
          * @param chain The chain to invoke {@code processNextPolicy} call on.
          * @param httpRequest The HTTP request parameter for the scheduled {@code processNextPolicy} call.
+         * @param attemptCancellationToken The cancellation token of the attempt if the call is a forked
+         *     attempt, null otherwise.
          * @param callback The callback parameter for the scheduled {@code processNextPolicy} call.
          */
         NestedDispatchableCall(RootDispatchableCall rootDispatchableCall,
                                HttpPipelinePolicyChainImpl chain,
                                HttpRequest httpRequest,
+                               CancellationToken attemptCancellationToken,
                                NextPolicyCallback callback) {
             this.rootDispatchableCall = rootDispatchableCall;
             this.chain = chain;
             this.httpRequest = httpRequest;
+            this.attemptCancellationToken = attemptCancellationToken;
             this.callback = callback;
         }
 
+        /**
+         * Remove this call from the timer if its delay is not yet elapsed.
+         *
+         * @return true if the call was removed before its delay elapsed, false otherwise.
+         */
+        boolean cancelSchedule() {
+            if (this.timeout != null) {
+                return this.timeout.cancel();
+            }
+            return this.scheduledFuture != null && this.scheduledFuture.cancel(false);
+        }
+
+        /**
+         * Check whether this call is an attempt forked from a running branch of the pipeline run.
+         *
+         * @return true if the call is a forked attempt, false otherwise.
+         */
+        boolean isForked() {
+            return this.attemptCancellationToken != null;
+        }
+
+        /**
+         * Check whether this call is a forked attempt that got cancelled before it runs.
+         *
+         * @return true if the attempt is cancelled, false otherwise.
+         */
+        boolean isAttemptCancelled() {
+            return this.attemptCancellationToken != null
+                && this.attemptCancellationToken.isCancellationRequested();
+        }
+
         @Override
         public void run() {
-            this.chain.processNextPolicy(this.httpRequest, this.callback);
+            if (this.cancelled) {
+                this.onError(new IOException("Canceled."));
+                return;
+            }
+            if (!this.isForked()) {
+                this.chain.processNextPolicy(this.httpRequest, this.callback);
+                return;
+            }
+            // The forked attempt holds its slot until its result reaches the policy that forked it.
+            this.chain.processNextPolicy(this.httpRequest, new NextPolicyCallback() {
+                @Override
+                public PolicyCompleter.CompletionState onSuccess(HttpResponse response, PolicyCompleter completer) {
+                    releaseForkedSlot();
+                    return callback.onSuccess(response, completer);
+                }
+
+                @Override
+                public PolicyCompleter.CompletionState onError(Throwable error, PolicyCompleter completer) {
+                    releaseForkedSlot();
+                    return callback.onError(error, completer);
+                }
+            });
         }
 
         @Override
         public void onSuccess(HttpResponse response) {
-            this.callback.onSuccess(response, new PolicyCompleter(this.chain.prevChain));
+            this.releaseForkedSlot();
+            this.callback.onSuccess(response, new PolicyCompleter(this.chain));
         }
 
         @Override
         public void onError(Throwable error) {
-            this.callback.onError(error, new PolicyCompleter(this.chain.prevChain));
+            this.releaseForkedSlot();
+            this.callback.onError(error, new PolicyCompleter(this.chain));
         }
 
         @Override
         public void markNotRunning(int i) {
-            // NOP
+            this.releaseForkedSlot();
+        }
+
+        @Override
+        public void disposeCancellationRegistration() {
+            if (this.cancellationRegistration != null) {
+                this.cancellationRegistration.dispose();
+            }
+        }
+
+        /**
+         * Release the dispatcher slot if this call is a forked attempt holding one.
+         */
+        private void releaseForkedSlot() {
+            final HttpCallDispatcher httpCallDispatcher = this.rootDispatchableCall.httpCallDispatcher;
+            synchronized (httpCallDispatcher) {
+                if (!this.holdsForkedSlot) {
+                    return;
+                }
+                this.holdsForkedSlot = false;
+                httpCallDispatcher.runningForkedCalls--;
+            }
+            httpCallDispatcher.dispatchCalls();
         }
     }
 }
@@ -0,0 +1,155 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http;
+
+import com.azure.android.core.http.metrics.HistogramSnapshot;
+
+/**
+ * A snapshot of the statistics of an {@link HttpCallDispatcher}.
+ *
+ * @see HttpCallDispatcher#getStats()
+ */
+public final class HttpCallDispatcherStats {
+    private final int maxRunningCalls;
+    private final int runningCalls;
+    private final int peakRunningCalls;
+    private final int waitingCalls;
+    private final int waitingNestedCalls;
+    private final int scheduledCalls;
+    private final long dispatchedCalls;
+    private final long rejectedExecutions;
+    private final long saturatedNanos;
+    private final HistogramSnapshot queueWaitTime;
+
+    /**
+     * package-private.
+     *
+     * Creates an HttpCallDispatcherStats.
+     */
+    HttpCallDispatcherStats(int maxRunningCalls,
+                            int runningCalls,
+                            int peakRunningCalls,
+                            int waitingCalls,
+                            int waitingNestedCalls,
+                            int scheduledCalls,
+                            long dispatchedCalls,
+                            long rejectedExecutions,
+                            long saturatedNanos,
+                            HistogramSnapshot queueWaitTime) {
+        this.maxRunningCalls = maxRunningCalls;
+        this.runningCalls = runningCalls;
+        this.peakRunningCalls = peakRunningCalls;
+        this.waitingCalls = waitingCalls;
+        this.waitingNestedCalls = waitingNestedCalls;
+        this.scheduledCalls = scheduledCalls;
+        this.dispatchedCalls = dispatchedCalls;
+        this.rejectedExecutions = rejectedExecutions;
+        this.saturatedNanos = saturatedNanos;
+        this.queueWaitTime = queueWaitTime;
+    }
+
+    /**
+     * Gets the maximum number of calls the dispatcher runs concurrently.
+     *
+     * @return The maximum number of running calls.
+     */
+    public int getMaxRunningCalls() {
+        return this.maxRunningCalls;
+    }
+
+    /**
+     * Gets the number of calls running, each holding a slot of the dispatcher.
+     *
+     * @return The number of running calls.
+     */
+    public int getRunningCalls() {
+        return this.runningCalls;
+    }
+
+    /**
+     * Gets the highest number of calls that ran concurrently since the dispatcher was created.
+     *
+     * @return The peak number of running calls.
+     */
+    public int getPeakRunningCalls() {
+        return this.peakRunningCalls;
+    }
+
+    /**
+     * Gets the number of calls waiting in the queue for a slot to start their pipeline run.
+     *
+     * @return The number of waiting calls.
+     */
+    public int getWaitingCalls() {
+        return this.waitingCalls;
+    }
+
+    /**
+     * Gets the number of paused pipeline runs (e.g. a retry) whose delay elapsed, waiting for a slot to resume.
+     *
+     * @return The number of waiting nested calls.
+     */
+    public int getWaitingNestedCalls() {
+        return this.waitingNestedCalls;
+    }
+
+    /**
+     * Gets the number of paused pipeline runs waiting for their delay to elapse, such as the scheduled retries.
+     *
+     * @return The number of scheduled calls.
+     */
+    public int getScheduledCalls() {
+        return this.scheduledCalls;
+    }
+
+    /**
+     * Gets the total number of calls handed over to the executor service.
+     *
+     * @return The number of dispatched calls.
+     */
+    public long getDispatchedCalls() {
+        return this.dispatchedCalls;
+    }
+
+    /**
+     * Gets the total number of calls the executor service (or the scheduled executor service) rejected.
+     *
+     * @return The number of rejected executions.
+     */
+    public long getRejectedExecutions() {
+        return this.rejectedExecutions;
+    }
+
+    /**
+     * Gets how long the dispatcher has been saturated, that is all its slots are taken and calls are waiting
+     * for a slot.
+     *
+     * @return The duration in nanoseconds of the current saturation, 0 if the dispatcher is not saturated.
+     */
+    public long getSaturatedNanos() {
+        return this.saturatedNanos;
+    }
+
+    /**
+     * Gets the distribution of the time, in nanoseconds, the calls waited in the queue before being dispatched.
+     *
+     * @return The queue wait time distribution.
+     */
+    public HistogramSnapshot getQueueWaitTime() {
+        return this.queueWaitTime;
+    }
+
+    @Override
+    public String toString() {
+        return "running=" + this.runningCalls + "/" + this.maxRunningCalls
+            + ", peakRunning=" + this.peakRunningCalls
+            + ", waiting=" + this.waitingCalls
+            + ", waitingNested=" + this.waitingNestedCalls
+            + ", scheduled=" + this.scheduledCalls
+            + ", dispatched=" + this.dispatchedCalls
+            + ", rejected=" + this.rejectedExecutions
+            + ", saturatedNanos=" + this.saturatedNanos
+            + ", queueWaitNanos=[" + this.queueWaitTime + "]";
+    }
+}
@@ -0,0 +1,132 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http;
+
+/**
+ * The time spent in each phase of an HTTP call, as measured by the {@link HttpClient} that made the call.
+ *
+ * <p>
+ * The durations are in nanoseconds. A phase that did not happen, e.g. the DNS lookup, the connect and the TLS
+ * handshake when the call reused a pooled connection, or that is not yet complete, e.g. reading a response body
+ * not yet consumed, is reported as {@link #NOT_MEASURED}.
+ * </p>
+ *
+ * @see HttpResponse#getTimings()
+ */
+public final class HttpCallTimings {
+    /**
+     * The duration reported for a phase that did not happen or is not yet complete.
+     */
+    public static final long NOT_MEASURED = -1;
+
+    private final long dnsNanos;
+    private final long connectNanos;
+    private final long tlsHandshakeNanos;
+    private final long requestWriteNanos;
+    private final long timeToFirstByteNanos;
+    private final long bodyReadNanos;
+    private final boolean connectionReused;
+
+    /**
+     * Creates an HttpCallTimings.
+     *
+     * @param dnsNanos The time taken to resolve the host name.
+     * @param connectNanos The time taken to open the connection, excluding the TLS handshake.
+     * @param tlsHandshakeNanos The time taken by the TLS handshake.
+     * @param requestWriteNanos The time taken to write the request headers and body.
+     * @param timeToFirstByteNanos The time from the request being written to the response headers being received,
+     *     i.e. the time the server took to respond plus a network round trip.
+     * @param bodyReadNanos The time taken to read the response body.
+     * @param connectionReused Whether the call reused a pooled connection.
+     */
+    public HttpCallTimings(long dnsNanos,
+                           long connectNanos,
+                           long tlsHandshakeNanos,
+                           long requestWriteNanos,
+                           long timeToFirstByteNanos,
+                           long bodyReadNanos,
+                           boolean connectionReused) {
+        this.dnsNanos = dnsNanos;
+        this.connectNanos = connectNanos;
+        this.tlsHandshakeNanos = tlsHandshakeNanos;
+        this.requestWriteNanos = requestWriteNanos;
+        this.timeToFirstByteNanos = timeToFirstByteNanos;
+        this.bodyReadNanos = bodyReadNanos;
+        this.connectionReused = connectionReused;
+    }
+
+    /**
+     * Gets the time taken to resolve the host name.
+     *
+     * @return The DNS lookup time in nanoseconds, or {@link #NOT_MEASURED}.
+     */
+    public long getDnsNanos() {
+        return this.dnsNanos;
+    }
+
+    /**
+     * Gets the time taken to open the connection, excluding the TLS handshake.
+     *
+     * @return The connect time in nanoseconds, or {@link #NOT_MEASURED}.
+     */
+    public long getConnectNanos() {
+        return this.connectNanos;
+    }
+
+    /**
+     * Gets the time taken by the TLS handshake.
+     *
+     * @return The TLS handshake time in nanoseconds, or {@link #NOT_MEASURED}.
+     */
+    public long getTlsHandshakeNanos() {
+        return this.tlsHandshakeNanos;
+    }
+
+    /**
+     * Gets the time taken to write the request headers and body.
+     *
+     * @return The request write time in nanoseconds, or {@link #NOT_MEASURED}.
+     */
+    public long getRequestWriteNanos() {
+        return this.requestWriteNanos;
+    }
+
+    /**
+     * Gets the time from the request being written to the response headers being received.
+     *
+     * @return The time to first byte in nanoseconds, or {@link #NOT_MEASURED}.
+     */
+    public long getTimeToFirstByteNanos() {
+        return this.timeToFirstByteNanos;
+    }
+
+    /**
+     * Gets the time taken to read the response body.
+     *
+     * @return The body read time in nanoseconds, or {@link #NOT_MEASURED} if the body is not yet fully read.
+     */
+    public long getBodyReadNanos() {
+        return this.bodyReadNanos;
+    }
+
+    /**
+     * Gets whether the call reused a pooled connection, skipping the DNS lookup, the connect and the TLS handshake.
+     *
+     * @return true if the connection was reused, false otherwise.
+     */
+    public boolean isConnectionReused() {
+        return this.connectionReused;
+    }
+
+    @Override
+    public String toString() {
+        return "dns=" + this.dnsNanos
+            + ", connect=" + this.connectNanos
+            + ", tls=" + this.tlsHandshakeNanos
+            + ", requestWrite=" + this.requestWriteNanos
+            + ", timeToFirstByte=" + this.timeToFirstByteNanos
+            + ", bodyRead=" + this.bodyReadNanos
+            + ", connectionReused=" + this.connectionReused;
+    }
+}
@@ -34,6 +34,30 @@ public interface HttpClient {
               CancellationToken cancellationToken,
               HttpCallback httpCallback);
 
+    /**
+     * Send the provided request in the calling thread, notifying the result to {@code httpCallback}
+     * before returning.
+     *
+     * <p>
+     * The default implementation hints {@link #send(HttpRequest, CancellationToken, HttpCallback)}
+     * to prefer the calling thread; the implementations that can always make the call in the calling
+     * thread override it. A client without such support may notify the result from another thread,
+     * the synchronous pipeline waits for it in that case.
+     * </p>
+     *
+     * @param httpRequest The HTTP request to send.
+     * @param cancellationToken The cancellation token for the HTTP call, on which
+     *     the caller may request cancellation of the {@code request} execution.
+     *     Note that honoring cancellation request is best effort.
+     * @param httpCallback The HTTP callback to notify the result.
+     */
+    default void sendSync(HttpRequest httpRequest,
+                          CancellationToken cancellationToken,
+                          HttpCallback httpCallback) {
+        httpRequest.getTags().put("prefer-running-http-in-calling-thread", null);
+        this.send(httpRequest, cancellationToken, httpCallback);
+    }
+
     /**
      * Create default {@link HttpClient} instance.
      *
@@ -4,9 +4,11 @@
 package com.azure.android.core.http;
 
 import com.azure.android.core.http.implementation.Util;
+import com.azure.android.core.http.metrics.MetricsSink;
 import com.azure.android.core.util.CancellationToken;
 import com.azure.android.core.util.RequestContext;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -18,12 +20,18 @@ import java.util.List;
  * @see HttpPipelinePolicy
  */
 public final class HttpPipeline {
+    private static final String LAMBDA_CLASS_MARKER = "$$Lambda";
+
     private final HttpClient httpClient;
     private final HttpPipelinePolicy[] pipelinePolicies;
     // package-private final vars
     final HttpPipelinePolicy networkPolicy;
+    final HttpPipelinePolicy syncNetworkPolicy;
     final HttpCallDispatcher httpCallDispatcher;
     final int size;
+    final MetricsSink metricsSink;
+    // The name of the metric recording the time spent in each policy, null if metricsSink is null.
+    final String[] policyMetricNames;
 
     /**
      * Creates a HttpPipeline holding array of policies that gets applied to all request initiated through {@link
@@ -34,30 +42,104 @@ public final class HttpPipeline {
      * hence changing the original array after the creation of pipeline will not  mutate the pipeline
      */
     HttpPipeline(HttpClient httpClient, List<HttpPipelinePolicy> pipelinePolicies) {
+        this(httpClient, pipelinePolicies, null);
+    }
+
+    /**
+     * Creates a HttpPipeline holding array of policies that gets applied to all request initiated through {@link
+     * HttpPipeline#send(HttpRequest, RequestContext, CancellationToken, HttpCallback)} and it's response.
+     *
+     * @param httpClient the http client to write request to wire and receive response from wire.
+     * @param pipelinePolicies pipeline policies in the order they need to applied, a copy of this array will be made
+     * hence changing the original array after the creation of pipeline will not  mutate the pipeline
+     * @param metricsSink the sink to record the metrics of the pipeline runs to, null to not record metrics.
+     */
+    HttpPipeline(HttpClient httpClient, List<HttpPipelinePolicy> pipelinePolicies, MetricsSink metricsSink) {
         Util.requireNonNull(httpClient, "'httpClient' cannot be null.");
         Util.requireNonNull(pipelinePolicies, "'pipelinePolicies' cannot be null.");
         this.httpClient = httpClient;
         this.httpCallDispatcher = this.httpClient.getHttpCallDispatcher();
         this.pipelinePolicies = pipelinePolicies.toArray(new HttpPipelinePolicy[0]);
         this.size = this.pipelinePolicies.length;
-        this.networkPolicy = new HttpPipelinePolicy() {
+        this.metricsSink = metricsSink;
+        if (metricsSink == null) {
+            this.policyMetricNames = null;
+        } else {
+            this.policyMetricNames = new String[this.size];
+            for (int i = 0; i < this.size; i++) {
+                this.policyMetricNames[i] = MetricsSink.POLICY_TIME_PREFIX + getPolicyName(this.pipelinePolicies[i], i);
+            }
+        }
+        this.networkPolicy = this.createNetworkPolicy(false);
+        this.syncNetworkPolicy = this.createNetworkPolicy(true);
+    }
+
+    /**
+     * Gets the name a policy's metrics are recorded under: its simple class name, or for a lambda or anonymous
+     * policy, which has none, its class name qualified with its index in the pipeline so that the policies do not
+     * share a metric.
+     *
+     * @param policy The policy.
+     * @param index The index of the policy in the pipeline.
+     * @return The name of the policy.
+     */
+    private static String getPolicyName(HttpPipelinePolicy policy, int index) {
+        final Class<?> policyClass = policy.getClass();
+        final String simpleName = policyClass.getSimpleName();
+        if (!simpleName.isEmpty() && !policyClass.isSynthetic()) {
+            return simpleName;
+        }
+        String name = policyClass.getName();
+        // The name of a lambda class ends with an id that differs from one run to the other.
+        final int lambdaIndex = name.indexOf(LAMBDA_CLASS_MARKER);
+        if (lambdaIndex >= 0) {
+            name = name.substring(0, lambdaIndex + LAMBDA_CLASS_MARKER.length());
+        }
+        return name + "#" + index;
+    }
+
+    /**
+     * Creates the policy that hands the request over to the HTTP client, the last policy of any pipeline run.
+     *
+     * @param synchronous true to create the policy for the synchronous pipeline runs, sending the request through
+     *     {@link HttpClient#sendSync(HttpRequest, CancellationToken, HttpCallback)}, false to create the policy for
+     *     the pipeline runs of the dispatcher.
+     * @return The network policy.
+     */
+    private HttpPipelinePolicy createNetworkPolicy(boolean synchronous) {
+        return new HttpPipelinePolicy() {
             @Override
             public void process(HttpPipelinePolicyChain chain) {
-                // Indicate the HttpClient to prefer the calling thread for sending request.
-                chain.getRequest().getTags().put("prefer-running-http-in-calling-thread", null);
-
-                HttpPipeline.this.httpClient.send(chain.getRequest(), chain.getCancellationToken(),
-                    new HttpCallback() {
-                        @Override
-                        public void onSuccess(HttpResponse response) {
-                            chain.completed(response);
-                        }
-
-                        @Override
-                        public void onError(Throwable error) {
-                            chain.completedError(error);
-                        }
-                    });
+                // An attempt of the request (e.g. a hedged attempt) may carry its own cancellation token.
+                final CancellationToken attemptCancellationToken
+                    = HttpCallDispatcher.getAttemptCancellationToken(chain.getRequest());
+                final CancellationToken cancellationToken = attemptCancellationToken != null
+                    ? attemptCancellationToken
+                    : chain.getCancellationToken();
+                if (cancellationToken.isCancellationRequested()) {
+                    chain.completedError(new IOException("Canceled."));
+                    return;
+                }
+
+                final HttpCallback httpCallback = new HttpCallback() {
+                    @Override
+                    public void onSuccess(HttpResponse response) {
+                        chain.completed(response);
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        chain.completedError(error);
+                    }
+                };
+
+                if (synchronous) {
+                    HttpPipeline.this.httpClient.sendSync(chain.getRequest(), cancellationToken, httpCallback);
+                } else {
+                    // Indicate the HttpClient to prefer the calling thread for sending request.
+                    chain.getRequest().getTags().put("prefer-running-http-in-calling-thread", null);
+                    HttpPipeline.this.httpClient.send(chain.getRequest(), cancellationToken, httpCallback);
+                }
             }
         };
     }
@@ -86,6 +168,36 @@ public final class HttpPipeline {
             httpCallback);
     }
 
+    /**
+     * Execute an HTTP call synchronously by sending the {@code request} through the HTTP pipeline
+     * in the calling thread.
+     *
+     * <p>
+     * The policies and the HTTP call run in the calling thread, without the thread hand-offs of
+     * {@link #send(HttpRequest, RequestContext, CancellationToken, HttpCallback)}. The call does not
+     * go through the {@link HttpCallDispatcher}, hence it is not queued and does not count towards
+     * the dispatcher's maximum running calls, and a policy delaying the request (e.g. the retry backoff)
+     * blocks the calling thread for the delay. This method must not be called from the main thread.
+     * </p>
+     *
+     * @param httpRequest The HTTP request to send.
+     * @param requestContext The context that is passed through the HTTP pipeline.
+     * @param cancellationToken The cancellation token for the HTTP call, on which the caller
+     *     may request cancellation of this HTTP call execution. Note that cancellation is best
+     *     effort hence not guaranteed.
+     * @return The HTTP response.
+     * @throws RuntimeException if the HTTP call failed, the error itself if it is a RuntimeException,
+     *     or wrapping it otherwise.
+     */
+    public HttpResponse sendSync(HttpRequest httpRequest,
+                                 RequestContext requestContext,
+                                 CancellationToken cancellationToken) {
+        return HttpPipelinePolicyChainImpl.executePipelineSync(this,
+            httpRequest,
+            requestContext,
+            cancellationToken);
+    }
+
     /**
      * Get the policy at the provided index in the pipeline.
      *
@@ -96,6 +208,15 @@ public final class HttpPipeline {
         return this.pipelinePolicies[index];
     }
 
+    /**
+     * Get the {@link MetricsSink} the pipeline records its metrics to.
+     *
+     * @return the {@link MetricsSink} associated with the pipeline, null if the pipeline doesn't record metrics.
+     */
+    public MetricsSink getMetricsSink() {
+        return this.metricsSink;
+    }
+
     /**
      * Get the {@link HttpClient} associated with the pipeline.
      *
@@ -3,6 +3,8 @@
 
 package com.azure.android.core.http;
 
+import com.azure.android.core.http.metrics.MetricsSink;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -36,6 +38,7 @@ import java.util.List;
 public class HttpPipelineBuilder {
     private HttpClient httpClient;
     private List<HttpPipelinePolicy> pipelinePolicies;
+    private MetricsSink metricsSink;
 
     /**
      *  Creates a new instance of HttpPipelineBuilder that can configure options for
@@ -58,7 +61,7 @@ public class HttpPipelineBuilder {
         com.azure.android.core.http.HttpClient client = (httpClient == null)
             ? HttpClient.createDefault() : httpClient;
 
-        return new HttpPipeline(client, policies);
+        return new HttpPipeline(client, policies, metricsSink);
     }
 
     /**
@@ -87,4 +90,21 @@ public class HttpPipelineBuilder {
         this.pipelinePolicies.addAll(Arrays.asList(policies));
         return this;
     }
+
+    /**
+     * Sets the {@link MetricsSink} the pipeline records its metrics to.
+     *
+     * <p>
+     * For each call sent through the pipeline, the pipeline records the time the call waited in the dispatcher
+     * queue, the time spent in each policy, the time spent by the HTTP client for each attempt, the number of
+     * retried attempts and the total time of the call. No metric is recorded if the sink is not set.
+     * </p>
+     *
+     * @param metricsSink The sink to record the metrics to, null to not record metrics.
+     * @return The updated HttpPipelineBuilder object.
+     */
+    public HttpPipelineBuilder metricsSink(MetricsSink metricsSink) {
+        this.metricsSink = metricsSink;
+        return this;
+    }
 }
@@ -6,18 +6,24 @@ package com.azure.android.core.http;
 import android.util.Log;
 
 import com.azure.android.core.http.implementation.Util;
+import com.azure.android.core.http.metrics.MetricsSink;
 import com.azure.android.core.util.CancellationToken;
+import com.azure.android.core.util.Option;
 import com.azure.android.core.util.RequestContext;
 import com.azure.android.core.logging.ClientLogger;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Default implementation of {@link HttpPipelinePolicyChain}.
  */
 final class HttpPipelinePolicyChainImpl implements HttpPipelinePolicyChain {
     private static final String TAG = HttpPipelinePolicyChainImpl.class.getName();
-    private final ClientLogger logger = new ClientLogger(HttpPipelinePolicyChainImpl.class);
+    private static final ClientLogger LOGGER = ClientLogger.getLogger(HttpPipelinePolicyChainImpl.class);
 
     private final int index;
     private final HttpPipeline httpPipeline;
@@ -25,6 +31,12 @@ final class HttpPipelinePolicyChainImpl implements HttpPipelinePolicyChain {
     private final RequestContext context;
     private final CancellationToken cancellationToken;
     private final NextPolicyCallback prevPolicyCallback;
+    // The metrics of the pipeline run, null if the pipeline doesn't record metrics.
+    private final CallMetrics callMetrics;
+    // The start of the current period the policy spends processing the request or the response, 0 if none.
+    private long policyTimeStartNanos;
+    // The time the policy spent so far processing the request and the response.
+    private long policyTimeNanos;
     private volatile boolean reportedBypassedError;
     // package private final var.
     final HttpCallback rootHttpCallback;
@@ -52,28 +64,23 @@ final class HttpPipelinePolicyChainImpl implements HttpPipelinePolicyChain {
         Util.requireNonNull(cancellationToken, "'cancellationToken' is required.");
         Util.requireNonNull(pipelineSendCallback, "'pipelineSendCallback' is required.");
 
+        final CallMetrics callMetrics = httpPipeline.metricsSink == null
+            ? null
+            : new CallMetrics(httpPipeline.metricsSink, getOperationName(requestContext, httpRequest));
+
         final HttpCallDispatcher.HttpCallFunction httpCallFunction = (request, rootHttpCallback) -> {
+            if (callMetrics != null) {
+                callMetrics.record(MetricsSink.QUEUE_WAIT, System.nanoTime() - callMetrics.sendNanos);
+            }
             final HttpPipelinePolicyChainImpl rootChain = new HttpPipelinePolicyChainImpl(-1,
                 httpPipeline,
                 request,
                 rootHttpCallback,
                 requestContext,
                 cancellationToken,
+                callMetrics,
                 null,
-                new NextPolicyCallback() {
-                    @Override
-                    public PolicyCompleter.CompletionState onSuccess(HttpResponse response, PolicyCompleter completer) {
-                        rootHttpCallback.onSuccess(response);
-                        return PolicyCompleter.CompletionState.INSTANCE;
-
-                    }
-
-                    @Override
-                    public PolicyCompleter.CompletionState onError(Throwable error, PolicyCompleter completer) {
-                        rootHttpCallback.onError(error);
-                        return PolicyCompleter.CompletionState.INSTANCE;
-                    }
-                });
+                newRootPolicyCallback(rootHttpCallback, callMetrics));
 
             rootChain.processNextPolicyIntern(rootChain.httpRequest,
                 rootChain.context,
@@ -86,6 +93,88 @@ final class HttpPipelinePolicyChainImpl implements HttpPipelinePolicyChain {
             pipelineSendCallback);
     }
 
+    /**
+     * package-private.
+     *
+     * Execute the pipeline synchronously, running the policies and the HTTP call in the calling thread.
+     *
+     * <p>
+     * The execution bypasses the {@link HttpCallDispatcher}: the call is not queued and does not count
+     * towards the dispatcher's maximum running calls. A policy that delays the next policy (e.g. a retry
+     * backoff) blocks the calling thread for the delay. Should a policy hand the execution over to another
+     * thread, the calling thread waits for the execution to complete.
+     * </p>
+     *
+     * @param httpPipeline The HTTP pipeline.
+     * @param httpRequest The HTTP request to flow through the pipeline.
+     * @param requestContext The context to flow through the pipeline.
+     * @param cancellationToken The cancellation token for the pipeline execution.
+     * @return The HTTP response.
+     * @throws RuntimeException if the pipeline execution completed with an error, the error itself if it is
+     *     a RuntimeException, or wrapping it otherwise.
+     */
+    static HttpResponse executePipelineSync(HttpPipeline httpPipeline,
+                                            HttpRequest httpRequest,
+                                            RequestContext requestContext,
+                                            CancellationToken cancellationToken) {
+        Util.requireNonNull(httpPipeline, "'httpPipeline' is required.");
+        Util.requireNonNull(httpRequest, "'httpRequest' is required.");
+        Util.requireNonNull(requestContext, "'requestContext' is required.");
+        Util.requireNonNull(cancellationToken, "'cancellationToken' is required.");
+
+        final CallMetrics callMetrics = httpPipeline.metricsSink == null
+            ? null
+            : new CallMetrics(httpPipeline.metricsSink, getOperationName(requestContext, httpRequest));
+
+        final SyncHttpCallback syncHttpCallback = new SyncHttpCallback();
+        final HttpPipelinePolicyChainImpl rootChain = new HttpPipelinePolicyChainImpl(-1,
+            httpPipeline,
+            httpRequest,
+            syncHttpCallback,
+            requestContext,
+            cancellationToken,
+            callMetrics,
+            null,
+            newRootPolicyCallback(syncHttpCallback, callMetrics));
+
+        rootChain.processNextPolicyIntern(rootChain.httpRequest,
+            rootChain.context,
+            rootChain.prevPolicyCallback);
+
+        return syncHttpCallback.await();
+    }
+
+    /**
+     * Creates the callback that receives the result of the first policy and notifies it to the root callback.
+     *
+     * @param rootHttpCallback The root callback of the pipeline run.
+     * @param callMetrics The metrics of the pipeline run, null if metrics are not recorded.
+     * @return The callback for the root chain.
+     */
+    private static NextPolicyCallback newRootPolicyCallback(HttpCallback rootHttpCallback,
+                                                            CallMetrics callMetrics) {
+        return new NextPolicyCallback() {
+            @Override
+            public PolicyCompleter.CompletionState onSuccess(HttpResponse response, PolicyCompleter completer) {
+                if (callMetrics != null) {
+                    callMetrics.recordCompletion();
+                }
+                rootHttpCallback.onSuccess(response);
+                return PolicyCompleter.CompletionState.INSTANCE;
+
+            }
+
+            @Override
+            public PolicyCompleter.CompletionState onError(Throwable error, PolicyCompleter completer) {
+                if (callMetrics != null) {
+                    callMetrics.recordCompletion();
+                }
+                rootHttpCallback.onError(error);
+                return PolicyCompleter.CompletionState.INSTANCE;
+            }
+        };
+    }
+
     /**
      * Creates a chain for the policy at {@code index}.
      *
@@ -102,6 +191,7 @@ final class HttpPipelinePolicyChainImpl implements HttpPipelinePolicyChain {
      * @param rootHttpCallback The Root HttpCallback from the dispatcher.
      * @param requestContext The context to flow through the pipeline.
      * @param cancellationToken cancellationToken for the pipeline run this chain belongs to.
+     * @param callMetrics The metrics of the pipeline run this chain belongs to, null if metrics are not recorded.
      * @param prevChain The reference to previous chain (chain for the policy at {@code index - 1}).
      * @param prevPolicyCallback The reference to the callback provided to the {@code proceed(..)} method
      *     of the previous policy.
@@ -112,6 +202,7 @@ final class HttpPipelinePolicyChainImpl implements HttpPipelinePolicyChain {
                                         HttpCallback rootHttpCallback,
                                         RequestContext requestContext,
                                         CancellationToken cancellationToken,
+                                        CallMetrics callMetrics,
                                         HttpPipelinePolicyChainImpl prevChain,
                                         NextPolicyCallback prevPolicyCallback) {
         // Private Ctr, hence simple assertion.
@@ -128,6 +219,7 @@ final class HttpPipelinePolicyChainImpl implements HttpPipelinePolicyChain {
         this.rootHttpCallback = rootHttpCallback;
         this.context = requestContext;
         this.cancellationToken = cancellationToken;
+        this.callMetrics = callMetrics;
         this.prevChain = prevChain;
         this.prevPolicyCallback = prevPolicyCallback;
     }
@@ -166,6 +258,13 @@ final class HttpPipelinePolicyChainImpl implements HttpPipelinePolicyChain {
         Util.requireNonNull(httpRequest, "'httpRequest' is required.");
         Util.requireNonNull(callback, "'callback' is required.");
         Util.requireNonNull(timeUnit, "'timeUnit' is required.");
+        if (this.callMetrics != null) {
+            this.stopPolicyTime();
+        }
+        if (this.isSynchronous()) {
+            this.processNextPolicyAfterDelay(httpRequest, callback, delay, timeUnit);
+            return;
+        }
         this.httpPipeline.httpCallDispatcher.scheduleProcessNextPolicy(this,
             httpRequest,
             this.context,
@@ -178,7 +277,16 @@ final class HttpPipelinePolicyChainImpl implements HttpPipelinePolicyChain {
     public void completed(HttpResponse httpResponse) {
         Util.requireNonNull(httpResponse, "'httpResponse' is required.");
         assert (this.prevChain != null);
+        if (this.callMetrics != null) {
+            this.recordPolicyTime();
+            if (this.index == this.httpPipeline.size) {
+                this.callMetrics.recordTimings(httpResponse.getTimings());
+            }
+        }
         if (this.prevPolicyCallback != null) {
+            if (this.callMetrics != null) {
+                this.prevChain.startPolicyTime();
+            }
             try {
                 this.prevPolicyCallback.onSuccess(httpResponse,
                     new PolicyCompleter(this.prevChain));
@@ -197,7 +305,13 @@ final class HttpPipelinePolicyChainImpl implements HttpPipelinePolicyChain {
     @Override
     public void completedError(Throwable error) {
         Util.requireNonNull(error, "'throwable' is required.");
+        if (this.callMetrics != null) {
+            this.recordPolicyTime();
+        }
         if (this.prevPolicyCallback != null) {
+            if (this.callMetrics != null) {
+                this.prevChain.startPolicyTime();
+            }
             try {
                 this.prevPolicyCallback.onError(error,
                     new PolicyCompleter(this.prevChain));
@@ -233,13 +347,26 @@ final class HttpPipelinePolicyChainImpl implements HttpPipelinePolicyChain {
             this.rootHttpCallback,
             requestContext,
             this.cancellationToken,
+            this.callMetrics,
             this,
             proceedCallback);
 
+        if (this.callMetrics != null) {
+            this.stopPolicyTime();
+            if (nextIndex == this.httpPipeline.size) {
+                this.callMetrics.networkAttempts.incrementAndGet();
+            }
+            nextChain.startPolicyTime();
+        }
+
         if (nextIndex == this.httpPipeline.size) {
             try {
                 // No more policies, invoke the network-policy to write the request to the wire.
-                this.httpPipeline.networkPolicy.process(nextChain);
+                if (this.isSynchronous()) {
+                    this.httpPipeline.syncNetworkPolicy.process(nextChain);
+                } else {
+                    this.httpPipeline.networkPolicy.process(nextChain);
+                }
             } catch (Throwable t) {
                 this.reportBypassedError(t, false);
             }
@@ -253,6 +380,62 @@ final class HttpPipelinePolicyChainImpl implements HttpPipelinePolicyChain {
         }
     }
 
+    /**
+     * Proceed with execution of policy at {@code index + 1} in the calling thread once the delay elapses,
+     * the synchronous counterpart of scheduling the call through the {@link HttpCallDispatcher}.
+     *
+     * <p>
+     * If the pipeline run (or the attempt the request belongs to) is cancelled during the delay, the
+     * cancellation error flows to {@code callback} as if the next policy ran.
+     * </p>
+     *
+     * @param httpRequest The HTTP request for the next policy.
+     * @param callback The current policy's callback that next policy notify results to.
+     * @param delay The delay.
+     * @param timeUnit The time unit of the delay.
+     */
+    private void processNextPolicyAfterDelay(HttpRequest httpRequest, NextPolicyCallback callback,
+                                             long delay, TimeUnit timeUnit) {
+        final CancellationToken attemptCancellationToken = HttpCallDispatcher.getAttemptCancellationToken(httpRequest);
+        final CancellationToken cancellationToken = attemptCancellationToken != null
+            ? attemptCancellationToken
+            : this.cancellationToken;
+
+        final CountDownLatch cancelledLatch = new CountDownLatch(1);
+        final CancellationToken.Registration registration = cancellationToken.registerOnCancel(
+            cancelledLatch::countDown);
+        Throwable error = null;
+        try {
+            if (cancelledLatch.await(delay, timeUnit)) {
+                error = new IOException("Canceled.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = new InterruptedIOException("Interrupted while waiting for the delay.");
+        } finally {
+            registration.dispose();
+        }
+
+        if (error == null) {
+            this.processNextPolicyIntern(httpRequest, this.context, callback);
+        } else {
+            try {
+                callback.onError(error, new PolicyCompleter(this));
+            } catch (Throwable t) {
+                this.reportBypassedError(t, true);
+            }
+        }
+    }
+
+    /**
+     * Check whether this chain belongs to a synchronous pipeline run.
+     *
+     * @return true if the pipeline run is synchronous, false if the dispatcher runs it.
+     */
+    private boolean isSynchronous() {
+        return this.rootHttpCallback instanceof SyncHttpCallback;
+    }
+
     /**
      * Report the given bypassed error.
      *
@@ -287,7 +470,7 @@ final class HttpPipelinePolicyChainImpl implements HttpPipelinePolicyChain {
             // We processed escaped error once; after that, any more escaped errors will be rethrown.
             //
             Log.e(TAG, "Error escaped.", bypassedError);
-            throw logger.logExceptionAsError(new RuntimeException(bypassedError.getMessage(), bypassedError));
+            throw LOGGER.logExceptionAsError(new RuntimeException(bypassedError.getMessage(), bypassedError));
         } else {
             rootChain.reportedBypassedError = true;
             if (isErrorFromProceedCallback) {
@@ -297,7 +480,7 @@ final class HttpPipelinePolicyChainImpl implements HttpPipelinePolicyChain {
                     } catch (Throwable t) {
                         // :( an error bypassed from the rootCallback.onError(e)
                         Log.e(TAG, "Error escaped from RootCallback::onError(e).", t);
-                        throw logger.logExceptionAsError(
+                        throw LOGGER.logExceptionAsError(
                             new RuntimeException("Error escaped from RootCallback::onError(e).", t));
                     }
                 } else {
@@ -305,20 +488,161 @@ final class HttpPipelinePolicyChainImpl implements HttpPipelinePolicyChain {
                     // :( an error bypassed from the rootCallback.onError(e)|onSuccess(r)
                     Log.e(TAG, "Error escaped from RootCallback::onError(e)|onSuccess(r).",
                         bypassedError);
-                    throw logger.logExceptionAsError(new RuntimeException(bypassedError.getMessage(), bypassedError));
+                    throw LOGGER.logExceptionAsError(new RuntimeException(bypassedError.getMessage(), bypassedError));
                 }
             } else {
                 try {
                     this.rootHttpCallback.onError(bypassedError);
                 } catch (Throwable t) {
                     Log.e(TAG, "Error escaped from RootCallback::onError(e).", t);
-                    throw logger.logExceptionAsError(
+                    throw LOGGER.logExceptionAsError(
                         new RuntimeException("Error escaped from RootCallback::onError(e).", t));
                 }
             }
         }
     }
 
+    /**
+     * Starts a period of the policy processing the request or the response.
+     */
+    private void startPolicyTime() {
+        this.policyTimeStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Ends the current period of the policy processing the request or the response, if any.
+     */
+    private void stopPolicyTime() {
+        final long startNanos = this.policyTimeStartNanos;
+        if (startNanos != 0) {
+            this.policyTimeNanos += System.nanoTime() - startNanos;
+            this.policyTimeStartNanos = 0;
+        }
+    }
+
+    /**
+     * Records the time spent in the policy once the policy completed, the network time for the chain of the
+     * network policy.
+     */
+    private void recordPolicyTime() {
+        this.stopPolicyTime();
+        if (this.index == this.httpPipeline.size) {
+            this.callMetrics.record(MetricsSink.NETWORK_TIME, this.policyTimeNanos);
+        } else if (this.index >= 0) {
+            this.callMetrics.record(this.httpPipeline.policyMetricNames[this.index], this.policyTimeNanos);
+        }
+        this.policyTimeNanos = 0;
+    }
+
+    /**
+     * Gets the name of the operation to record the metrics of a pipeline run for.
+     *
+     * @param requestContext The context of the pipeline run.
+     * @param httpRequest The HTTP request.
+     * @return The operation name.
+     */
+    private static String getOperationName(RequestContext requestContext, HttpRequest httpRequest) {
+        final Option<Object> operationName = requestContext.getData(MetricsSink.OPERATION_NAME_CONTEXT_KEY);
+        if (operationName.isInitialized() && operationName.getValue() != null) {
+            return operationName.getValue().toString();
+        }
+        return httpRequest.getHttpMethod().toString();
+    }
+
+    /**
+     * The metrics of a pipeline run.
+     */
+    private static final class CallMetrics {
+        private final MetricsSink metricsSink;
+        private final String operationName;
+        private final long sendNanos;
+        private final AtomicInteger networkAttempts = new AtomicInteger();
+
+        CallMetrics(MetricsSink metricsSink, String operationName) {
+            this.metricsSink = metricsSink;
+            this.operationName = operationName;
+            this.sendNanos = System.nanoTime();
+        }
+
+        void record(String metricName, long value) {
+            try {
+                this.metricsSink.record(this.operationName, metricName, value);
+            } catch (RuntimeException e) {
+                LOGGER.warning("The metrics sink failed to record the metric " + metricName + ".", e);
+            }
+        }
+
+        void recordTimings(HttpCallTimings timings) {
+            if (timings == null) {
+                return;
+            }
+            this.recordIfMeasured(MetricsSink.DNS_TIME, timings.getDnsNanos());
+            this.recordIfMeasured(MetricsSink.CONNECT_TIME, timings.getConnectNanos());
+            this.recordIfMeasured(MetricsSink.TLS_HANDSHAKE_TIME, timings.getTlsHandshakeNanos());
+            this.recordIfMeasured(MetricsSink.REQUEST_WRITE_TIME, timings.getRequestWriteNanos());
+            this.recordIfMeasured(MetricsSink.TIME_TO_FIRST_BYTE, timings.getTimeToFirstByteNanos());
+            this.record(MetricsSink.CONNECTION_REUSED, timings.isConnectionReused() ? 1 : 0);
+        }
+
+        private void recordIfMeasured(String metricName, long value) {
+            if (value != HttpCallTimings.NOT_MEASURED) {
+                this.record(metricName, value);
+            }
+        }
+
+        void recordCompletion() {
+            this.record(MetricsSink.TOTAL_TIME, System.nanoTime() - this.sendNanos);
+            this.record(MetricsSink.RETRY_COUNT, Math.max(0, this.networkAttempts.get() - 1));
+        }
+    }
+
+    /**
+     * The root callback of a synchronous pipeline run, that the calling thread waits on for the result.
+     */
+    private static final class SyncHttpCallback implements HttpCallback {
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile HttpResponse response;
+        private volatile Throwable error;
+
+        @Override
+        public void onSuccess(HttpResponse response) {
+            this.response = response;
+            this.latch.countDown();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+            this.latch.countDown();
+        }
+
+        /**
+         * Wait for the pipeline run to complete, which it already did unless a policy handed the execution
+         * over to another thread.
+         *
+         * @return The HTTP response.
+         */
+        HttpResponse await() {
+            try {
+                this.latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw LOGGER.logExceptionAsError(new RuntimeException(e));
+            }
+            final Throwable error = this.error;
+            if (error == null) {
+                return this.response;
+            }
+            if (error instanceof RuntimeException) {
+                throw LOGGER.logExceptionAsError((RuntimeException) error);
+            }
+            if (error instanceof Error) {
+                throw (Error) error;
+            }
+            throw LOGGER.logExceptionAsError(new RuntimeException(error.getMessage(), error));
+        }
+    }
+
     /**
      * Retrieve the root chain with index -1.
      *
@@ -17,7 +17,7 @@ import java.util.Map;
  * {@code url}, {@link HttpHeader} and request body.
  */
 public class HttpRequest {
-    private final ClientLogger logger = new ClientLogger(HttpRequest.class);
+    private static final ClientLogger LOGGER = ClientLogger.getLogger(HttpRequest.class);
 
     private HttpMethod httpMethod;
     private URL url;
@@ -39,7 +39,7 @@ public class HttpRequest {
         try {
             this.url = new URL(url);
         } catch (MalformedURLException ex) {
-            throw logger.logExceptionAsWarning(new IllegalArgumentException("'url' must be a valid URL", ex));
+            throw LOGGER.logExceptionAsWarning(new IllegalArgumentException("'url' must be a valid URL", ex));
         }
         this.headers = new HttpHeaders();
         this.tags = new HashMap<>(0);
@@ -63,7 +63,7 @@ public class HttpRequest {
         try {
             this.url = new URL(url);
         } catch (MalformedURLException ex) {
-            throw logger.logExceptionAsWarning(new IllegalArgumentException("'url' must be a valid URL", ex));
+            throw LOGGER.logExceptionAsWarning(new IllegalArgumentException("'url' must be a valid URL", ex));
         }
         this.headers = Util.requireNonNull(headers, "'headers' is required.");
         this.body = Util.requireNonNull(body, "'body' is required.");
@@ -110,7 +110,7 @@ public class HttpRequest {
         try {
             this.url = new URL(url);
         } catch (MalformedURLException ex) {
-            throw logger.logExceptionAsWarning(new IllegalArgumentException("'url' must be a valid URL", ex));
+            throw LOGGER.logExceptionAsWarning(new IllegalArgumentException("'url' must be a valid URL", ex));
         }
         return this;
     }
@@ -206,10 +206,10 @@ public class HttpRequest {
      * @return a new HTTP request instance with cloned instances of all mutable properties.
      */
     public HttpRequest copy() {
-        HttpRequest requestCopy = new HttpRequest(this.httpMethod,
-            this.url.toString(),
-            new HttpHeaders(this.headers),
-            this.body);
+        HttpRequest requestCopy = new HttpRequest(this.httpMethod, this.url.toString());
+        requestCopy.headers = new HttpHeaders(this.headers);
+        // The body is absent for requests such as GET.
+        requestCopy.body = this.body;
         // shallow-copy the tags.
         requestCopy.tags = new HashMap<>(this.tags);
         return requestCopy;
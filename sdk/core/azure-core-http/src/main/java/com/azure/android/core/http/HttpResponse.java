@@ -100,6 +100,20 @@ public abstract class HttpResponse implements Closeable {
         return request;
     }
 
+    /**
+     * Get the time spent in each phase of the HTTP call that resulted in this response.
+     *
+     * <p>
+     * The timings are taken when this method is called, the body read time is measured only once the body
+     * is fully read.
+     * </p>
+     *
+     * @return The timings of the HTTP call, or null if the {@link HttpClient} does not measure them.
+     */
+    public HttpCallTimings getTimings() {
+        return null;
+    }
+
     /**
      * Get a new Response object wrapping this response with it's content
      * buffered into memory.
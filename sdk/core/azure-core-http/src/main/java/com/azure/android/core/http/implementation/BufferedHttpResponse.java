@@ -3,6 +3,7 @@
 
 package com.azure.android.core.http.implementation;
 
+import com.azure.android.core.http.HttpCallTimings;
 import com.azure.android.core.http.HttpHeaders;
 import com.azure.android.core.http.HttpResponse;
 import com.azure.android.core.logging.ClientLogger;
@@ -21,7 +22,7 @@ import java.util.regex.Pattern;
  * HTTP response which will buffer the response's body.
  */
 public final class BufferedHttpResponse extends HttpResponse {
-    private final ClientLogger logger = new ClientLogger(BufferedHttpResponse.class);
+    private static final ClientLogger LOGGER = ClientLogger.getLogger(BufferedHttpResponse.class);
 
     private static final Pattern CHARSET_PATTERN
         = Pattern.compile("charset=([\\S]+)\\b", Pattern.CASE_INSENSITIVE);
@@ -56,6 +57,11 @@ public final class BufferedHttpResponse extends HttpResponse {
         return this.innerHttpResponse.getHeaders();
     }
 
+    @Override
+    public HttpCallTimings getTimings() {
+        return this.innerHttpResponse.getTimings();
+    }
+
     @Override
     public InputStream getBody() {
         return new ByteArrayInputStream(this.getBodyAsByteArray());
@@ -74,7 +80,7 @@ public final class BufferedHttpResponse extends HttpResponse {
                 }
                 this.bufferedContent = outStream.toByteArray();
             } catch (IOException ioe) {
-                throw logger.logExceptionAsError(new RuntimeException(ioe));
+                throw LOGGER.logExceptionAsError(new RuntimeException(ioe));
             }
         }
         return this.bufferedContent;
@@ -0,0 +1,116 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.metrics;
+
+/**
+ * An immutable snapshot of the values recorded in a {@link LogLinearHistogram}.
+ */
+public final class HistogramSnapshot {
+    private final long[] bucketCounts;
+    private final long count;
+    private final long sum;
+    private final long min;
+    private final long max;
+
+    /**
+     * package-private.
+     *
+     * Creates a HistogramSnapshot.
+     *
+     * @param bucketCounts The copy of the bucket counts.
+     * @param count The number of recorded values.
+     * @param sum The sum of the recorded values.
+     * @param min The lowest recorded value.
+     * @param max The highest recorded value.
+     */
+    HistogramSnapshot(long[] bucketCounts, long count, long sum, long min, long max) {
+        this.bucketCounts = bucketCounts;
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return The number of recorded values.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Gets the sum of the recorded values.
+     *
+     * @return The sum of the recorded values.
+     */
+    public long getSum() {
+        return this.sum;
+    }
+
+    /**
+     * Gets the lowest recorded value.
+     *
+     * @return The lowest recorded value, 0 if no value is recorded.
+     */
+    public long getMin() {
+        return this.min;
+    }
+
+    /**
+     * Gets the highest recorded value.
+     *
+     * @return The highest recorded value, 0 if no value is recorded.
+     */
+    public long getMax() {
+        return this.max;
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     *
+     * @return The mean of the recorded values, 0 if no value is recorded.
+     */
+    public double getMean() {
+        return this.count == 0 ? 0 : (double) this.sum / this.count;
+    }
+
+    /**
+     * Gets the value at a percentile of the recorded values, that is the highest value of the bucket holding the
+     * percentile, bounded by the lowest and highest recorded values.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The value at the percentile, 0 if no value is recorded.
+     * @throws IllegalArgumentException If {@code percentile} is not between 0 and 100.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("'percentile' must be between 0 and 100.");
+        }
+        if (this.count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * this.count));
+        long cumulativeCount = 0;
+        for (int i = 0; i < this.bucketCounts.length; i++) {
+            cumulativeCount += this.bucketCounts[i];
+            if (cumulativeCount >= rank) {
+                return Math.max(this.min, Math.min(this.max, LogLinearHistogram.getBucketHighestValue(i)));
+            }
+        }
+        return this.max;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + this.count
+            + ", min=" + this.min
+            + ", mean=" + (long) getMean()
+            + ", p50=" + getValueAtPercentile(50)
+            + ", p90=" + getValueAtPercentile(90)
+            + ", p99=" + getValueAtPercentile(99)
+            + ", max=" + this.max;
+    }
+}
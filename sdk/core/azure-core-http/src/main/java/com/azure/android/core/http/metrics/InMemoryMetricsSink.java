@@ -0,0 +1,94 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.metrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link MetricsSink} that keeps a {@link LogLinearHistogram} in memory for each metric of each operation.
+ *
+ * <pre>
+ * final InMemoryMetricsSink metricsSink = new InMemoryMetricsSink();
+ * final HttpPipeline pipeline = new HttpPipelineBuilder()
+ *     .metricsSink(metricsSink)
+ *     .build();
+ * ...
+ * final HistogramSnapshot networkTime = metricsSink.getSnapshot(operationName, MetricsSink.NETWORK_TIME);
+ * </pre>
+ */
+public final class InMemoryMetricsSink implements MetricsSink {
+    private final ConcurrentMap<String, ConcurrentMap<String, LogLinearHistogram>> histograms
+        = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty InMemoryMetricsSink.
+     */
+    public InMemoryMetricsSink() {
+    }
+
+    @Override
+    public void record(String operationName, String metricName, long value) {
+        ConcurrentMap<String, LogLinearHistogram> operationHistograms = this.histograms.get(operationName);
+        if (operationHistograms == null) {
+            final ConcurrentMap<String, LogLinearHistogram> newOperationHistograms = new ConcurrentHashMap<>();
+            operationHistograms = this.histograms.putIfAbsent(operationName, newOperationHistograms);
+            if (operationHistograms == null) {
+                operationHistograms = newOperationHistograms;
+            }
+        }
+        LogLinearHistogram histogram = operationHistograms.get(metricName);
+        if (histogram == null) {
+            final LogLinearHistogram newHistogram = new LogLinearHistogram();
+            histogram = operationHistograms.putIfAbsent(metricName, newHistogram);
+            if (histogram == null) {
+                histogram = newHistogram;
+            }
+        }
+        histogram.record(value);
+    }
+
+    /**
+     * Takes a snapshot of a metric of an operation.
+     *
+     * @param operationName The name of the operation.
+     * @param metricName The name of the metric.
+     * @return The snapshot of the metric, null if no value is recorded for the metric of the operation.
+     */
+    public HistogramSnapshot getSnapshot(String operationName, String metricName) {
+        final Map<String, LogLinearHistogram> operationHistograms = this.histograms.get(operationName);
+        if (operationHistograms == null) {
+            return null;
+        }
+        final LogLinearHistogram histogram = operationHistograms.get(metricName);
+        return histogram == null ? null : histogram.getSnapshot();
+    }
+
+    /**
+     * Takes a snapshot of all the metrics recorded so far.
+     *
+     * @return The snapshots of the metrics, keyed by operation name and then by metric name.
+     */
+    public Map<String, Map<String, HistogramSnapshot>> getSnapshot() {
+        final Map<String, Map<String, HistogramSnapshot>> snapshot = new HashMap<>();
+        for (Map.Entry<String, ConcurrentMap<String, LogLinearHistogram>> operation : this.histograms.entrySet()) {
+            final Map<String, HistogramSnapshot> operationSnapshot = new HashMap<>();
+            for (Map.Entry<String, LogLinearHistogram> metric : operation.getValue().entrySet()) {
+                operationSnapshot.put(metric.getKey(), metric.getValue().getSnapshot());
+            }
+            snapshot.put(operation.getKey(), Collections.unmodifiableMap(operationSnapshot));
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Removes all the recorded metrics.
+     */
+    public void clear() {
+        this.histograms.clear();
+    }
+}
@@ -0,0 +1,123 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of non-negative long values with log-linear buckets, that can be recorded to concurrently
+ * without locking.
+ *
+ * <p>
+ * The values are grouped by their power of two, and each power of two is split into 8 linear sub-buckets, so the
+ * value reported for a percentile is within 12.5% of the recorded value. The values lower than 8 are recorded
+ * exactly. The histogram has a fixed footprint of {@value #BUCKET_COUNT} buckets.
+ * </p>
+ */
+public final class LogLinearHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // The linear buckets of the values lower than SUB_BUCKET_COUNT, then SUB_BUCKET_COUNT buckets for each of the
+    // powers of two from 2^SUB_BUCKET_BITS to 2^62.
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Creates an empty LogLinearHistogram.
+     */
+    public LogLinearHistogram() {
+    }
+
+    /**
+     * Records a value, a negative value is recorded as zero.
+     *
+     * @param value The value to record.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        this.bucketCounts.incrementAndGet(getBucketIndex(value));
+        this.count.incrementAndGet();
+        this.sum.addAndGet(value);
+        long current;
+        while (value < (current = this.min.get()) && !this.min.compareAndSet(current, value)) {
+            // Retry until the min is updated or another thread recorded a lower value.
+        }
+        while (value > (current = this.max.get()) && !this.max.compareAndSet(current, value)) {
+            // Retry until the max is updated or another thread recorded a higher value.
+        }
+    }
+
+    /**
+     * Gets the number of values recorded.
+     *
+     * @return The number of values recorded.
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * Takes a snapshot of the values recorded so far. The snapshot is not affected by the values recorded later.
+     *
+     * @return The snapshot of the histogram.
+     */
+    public HistogramSnapshot getSnapshot() {
+        final long[] counts = new long[BUCKET_COUNT];
+        long snapshotCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = this.bucketCounts.get(i);
+            snapshotCount += counts[i];
+        }
+        if (snapshotCount == 0) {
+            return new HistogramSnapshot(counts, 0, 0, 0, 0);
+        }
+        // The min, max and sum are read separately from the buckets, so they may include a value recorded
+        // concurrently with the snapshot, which is acceptable for metrics.
+        return new HistogramSnapshot(counts, snapshotCount, this.sum.get(), this.min.get(), this.max.get());
+    }
+
+    /**
+     * package-private.
+     *
+     * Gets the index of the bucket a value is recorded in.
+     *
+     * @param value The non-negative value.
+     * @return The bucket index.
+     */
+    static int getBucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * package-private.
+     *
+     * Gets the highest value recorded in a bucket.
+     *
+     * @param index The bucket index.
+     * @return The highest value of the bucket.
+     */
+    static long getBucketHighestValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        final int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        final long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        final long lowestValue = (SUB_BUCKET_COUNT + subBucket) << shift;
+        return lowestValue + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,110 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.metrics;
+
+/**
+ * The sink of the metrics recorded by a {@link com.azure.android.core.http.HttpPipeline}, configured with
+ * {@link com.azure.android.core.http.HttpPipelineBuilder#metricsSink(MetricsSink)}.
+ *
+ * <p>
+ * A metric is recorded for an operation, which is the name set in the request context under
+ * {@link #OPERATION_NAME_CONTEXT_KEY} (the full name of the REST API method for the calls made through the REST
+ * proxy), or the HTTP method of the request when no name is set. The durations are recorded in nanoseconds.
+ * </p>
+ *
+ * <p>
+ * The sink is called by the threads running the pipeline, an implementation must be thread-safe and should not
+ * block.
+ * </p>
+ *
+ * @see InMemoryMetricsSink
+ */
+public interface MetricsSink {
+    /**
+     * The key of the request context data holding the name of the operation the metrics are recorded for.
+     */
+    String OPERATION_NAME_CONTEXT_KEY = "metrics-operation-name";
+
+    /**
+     * The time a call waited in the dispatcher queue before the pipeline started to run it.
+     */
+    String QUEUE_WAIT = "queue-wait";
+
+    /**
+     * The time from sending the request through the pipeline to the notification of the result.
+     */
+    String TOTAL_TIME = "total";
+
+    /**
+     * The prefix of the time spent in a pipeline policy, followed by the simple class name of the policy. It is
+     * the time spent by the policy to process the request and the response, which excludes the time spent in the
+     * next policies.
+     */
+    String POLICY_TIME_PREFIX = "policy:";
+
+    /**
+     * The time the HTTP client took to send a request and receive its response, recorded for each attempt.
+     */
+    String NETWORK_TIME = "network";
+
+    /**
+     * The time the HTTP client took to resolve the host name, recorded for the attempts that opened a connection.
+     * This and the other "network:" metrics are recorded only if the HTTP client measures the phases of the call.
+     *
+     * @see com.azure.android.core.http.HttpResponse#getTimings()
+     */
+    String DNS_TIME = "network:dns";
+
+    /**
+     * The time the HTTP client took to open a connection, excluding the TLS handshake.
+     */
+    String CONNECT_TIME = "network:connect";
+
+    /**
+     * The time the TLS handshake of a new connection took.
+     */
+    String TLS_HANDSHAKE_TIME = "network:tls";
+
+    /**
+     * The time the HTTP client took to write the request.
+     */
+    String REQUEST_WRITE_TIME = "network:request-write";
+
+    /**
+     * The time from the request being written to the response headers being received, which is the server time
+     * plus a network round trip.
+     */
+    String TIME_TO_FIRST_BYTE = "network:time-to-first-byte";
+
+    /**
+     * The time taken to read the response body, recorded by the REST proxy once the response is mapped.
+     */
+    String BODY_READ_TIME = "network:body-read";
+
+    /**
+     * Whether an attempt reused a pooled connection, 1 if reused and 0 if a new connection was opened, so the mean
+     * is the connection reuse ratio.
+     */
+    String CONNECTION_REUSED = "network:connection-reused";
+
+    /**
+     * The time taken to map an HTTP response to the result of the REST API method, which includes reading
+     * the response body when it is not read already.
+     */
+    String DESERIALIZATION_TIME = "deserialization";
+
+    /**
+     * The number of retried attempts made to get the result of a call.
+     */
+    String RETRY_COUNT = "retries";
+
+    /**
+     * Records a value of a metric.
+     *
+     * @param operationName The name of the operation the value is recorded for.
+     * @param metricName The name of the metric.
+     * @param value The value, a duration in nanoseconds or a count.
+     */
+    void record(String operationName, String metricName, long value);
+}
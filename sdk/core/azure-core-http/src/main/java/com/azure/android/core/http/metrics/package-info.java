@@ -0,0 +1,7 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+/**
+ * Package containing the types to record the metrics of a {@link com.azure.android.core.http.HttpPipeline}.
+ */
+package com.azure.android.core.http.metrics;
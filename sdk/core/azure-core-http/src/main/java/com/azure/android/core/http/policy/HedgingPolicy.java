@@ -0,0 +1,259 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.policy;
+
+import com.azure.android.core.http.HttpCallDispatcher;
+import com.azure.android.core.http.HttpMethod;
+import com.azure.android.core.http.HttpPipelinePolicy;
+import com.azure.android.core.http.HttpPipelinePolicyChain;
+import com.azure.android.core.http.HttpRequest;
+import com.azure.android.core.http.HttpResponse;
+import com.azure.android.core.http.NextPolicyCallback;
+import com.azure.android.core.http.PolicyCompleter;
+import com.azure.android.core.logging.ClientLogger;
+import com.azure.android.core.util.CancellationToken;
+
+import org.threeten.bp.Duration;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pipeline policy that hedges idempotent requests (GET and HEAD) to cut the tail latency.
+ *
+ * <p>
+ * The policy sends the request and, if no result arrives within the hedging delay, sends a second
+ * identical request. The first response wins, and the other attempt is cancelled. The hedging delay
+ * is the configured percentile of the latencies of the first attempts observed by the policy, bounded
+ * by the minimum and maximum delay. A first attempt cancelled because the hedged attempt won counts
+ * with the time it ran until cancelled. Until enough latencies are observed, the maximum delay is used.
+ * </p>
+ *
+ * <p>
+ * The hedged attempt is scheduled through the dispatcher of the pipeline, hence it takes a slot
+ * of the dispatcher's maximum running calls when it runs. The policy is expected to be placed after
+ * the {@link RetryPolicy}, so that each retry attempt is hedged. Hedging has no effect when the
+ * HTTP client completes the first attempt in the calling thread.
+ * </p>
+ */
+public class HedgingPolicy implements HttpPipelinePolicy {
+    private static final int SAMPLE_WINDOW_SIZE = 128;
+    private static final int MIN_SAMPLES = 16;
+    private static final int REFRESH_INTERVAL = 16;
+
+    private final ClientLogger logger = new ClientLogger(HedgingPolicy.class);
+    private final double latencyPercentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final LatencyWindow latencyWindow;
+
+    /**
+     * Creates {@link HedgingPolicy} that hedges once the 95th percentile of the observed latencies
+     * elapses, bounded between 50 milliseconds and 2 seconds.
+     */
+    public HedgingPolicy() {
+        this(95, Duration.ofMillis(50), Duration.ofSeconds(2));
+    }
+
+    /**
+     * Creates {@link HedgingPolicy}.
+     *
+     * @param latencyPercentile The percentile of the observed latencies to use as the hedging delay,
+     *     must be in the range (0, 100].
+     * @param minDelay The minimum delay before hedging a request.
+     * @param maxDelay The maximum delay before hedging a request, also the delay used until enough
+     *     latencies are observed.
+     * @throws NullPointerException if {@code minDelay} or {@code maxDelay} is null.
+     * @throws IllegalArgumentException if {@code latencyPercentile} is out of range, {@code minDelay} is
+     *     negative or {@code maxDelay} is less than {@code minDelay}.
+     */
+    public HedgingPolicy(double latencyPercentile, Duration minDelay, Duration maxDelay) {
+        if (minDelay == null) {
+            throw logger.logExceptionAsError(new NullPointerException("'minDelay' cannot be null."));
+        }
+        if (maxDelay == null) {
+            throw logger.logExceptionAsError(new NullPointerException("'maxDelay' cannot be null."));
+        }
+        if (!(latencyPercentile > 0 && latencyPercentile <= 100)) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'latencyPercentile' must be in the range (0, 100]."));
+        }
+        if (minDelay.isNegative()) {
+            throw logger.logExceptionAsError(new IllegalArgumentException("'minDelay' cannot be negative."));
+        }
+        if (maxDelay.compareTo(minDelay) < 0) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'maxDelay' cannot be less than 'minDelay'."));
+        }
+        this.latencyPercentile = latencyPercentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.latencyWindow = new LatencyWindow();
+    }
+
+    /**
+     * Gets the delay after which the policy sends the hedged attempt of a request.
+     *
+     * @return The current hedging delay.
+     */
+    public Duration getHedgingDelay() {
+        return Duration.ofNanos(this.latencyWindow.hedgingDelayNanos);
+    }
+
+    @Override
+    public void process(HttpPipelinePolicyChain chain) {
+        if (chain.getCancellationToken().isCancellationRequested()) {
+            chain.completedError(new IOException("Canceled."));
+            return;
+        }
+        final HttpMethod httpMethod = chain.getRequest().getHttpMethod();
+        if (httpMethod != HttpMethod.GET && httpMethod != HttpMethod.HEAD) {
+            chain.processNextPolicy(chain.getRequest());
+            return;
+        }
+        new HedgedCall(chain).begin();
+    }
+
+    /**
+     * Tracks the attempts of a hedged request and picks the first response.
+     */
+    private final class HedgedCall {
+        private final HttpPipelinePolicyChain chain;
+        private final CancellationToken primaryToken = new CancellationToken();
+        private final CancellationToken hedgeToken = new CancellationToken();
+        private CancellationToken.Registration cancellationRegistration;
+        // Guarded by 'this'.
+        private int pendingAttempts;
+        private boolean isCompleted;
+
+        HedgedCall(HttpPipelinePolicyChain chain) {
+            this.chain = chain;
+        }
+
+        void begin() {
+            // Propagate the cancellation of the pipeline run to both attempts.
+            this.cancellationRegistration = this.chain.getCancellationToken().registerOnCancel(() -> {
+                this.primaryToken.cancel();
+                this.hedgeToken.cancel();
+            });
+
+            synchronized (this) {
+                this.pendingAttempts = 1;
+            }
+            this.chain.processNextPolicy(this.newAttemptRequest(this.primaryToken),
+                new AttemptCallback(this.hedgeToken, true));
+
+            synchronized (this) {
+                if (this.isCompleted) {
+                    // The first attempt completed in the calling thread.
+                    return;
+                }
+                this.pendingAttempts++;
+            }
+            this.chain.processNextPolicy(this.newAttemptRequest(this.hedgeToken),
+                new AttemptCallback(this.primaryToken, false),
+                HedgingPolicy.this.latencyWindow.hedgingDelayNanos,
+                TimeUnit.NANOSECONDS);
+        }
+
+        private HttpRequest newAttemptRequest(CancellationToken attemptToken) {
+            final HttpRequest request = this.chain.getRequest().copy();
+            request.getTags().put(HttpCallDispatcher.ATTEMPT_CANCELLATION_TOKEN_TAG, attemptToken);
+            return request;
+        }
+
+        private void finish(CancellationToken otherAttemptToken) {
+            otherAttemptToken.cancel();
+            this.cancellationRegistration.dispose();
+        }
+
+        /**
+         * The callback receiving the result of one attempt.
+         */
+        private final class AttemptCallback implements NextPolicyCallback {
+            private final CancellationToken otherAttemptToken;
+            private final boolean isPrimary;
+            private final long startNanos = System.nanoTime();
+
+            AttemptCallback(CancellationToken otherAttemptToken, boolean isPrimary) {
+                this.otherAttemptToken = otherAttemptToken;
+                this.isPrimary = isPrimary;
+            }
+
+            @Override
+            public PolicyCompleter.CompletionState onSuccess(HttpResponse response, PolicyCompleter completer) {
+                final boolean isWinner;
+                synchronized (HedgedCall.this) {
+                    pendingAttempts--;
+                    isWinner = !isCompleted;
+                    isCompleted = true;
+                }
+                if (this.isPrimary) {
+                    // Only the first attempt runs from the start of the request, the hedged one would bias
+                    // the latencies towards the hedging delay.
+                    latencyWindow.record(System.nanoTime() - this.startNanos);
+                }
+                if (!isWinner) {
+                    response.close();
+                    return completer.defer();
+                }
+                finish(this.otherAttemptToken);
+                return completer.completed(response);
+            }
+
+            @Override
+            public PolicyCompleter.CompletionState onError(Throwable error, PolicyCompleter completer) {
+                final boolean isLastAttempt;
+                synchronized (HedgedCall.this) {
+                    pendingAttempts--;
+                    isLastAttempt = !isCompleted && pendingAttempts == 0;
+                    if (isLastAttempt) {
+                        isCompleted = true;
+                    }
+                }
+                if (this.isPrimary && primaryToken.isCancellationRequested()
+                    && !chain.getCancellationToken().isCancellationRequested()) {
+                    // The first attempt lost to the hedged attempt, its latency is at least the time it ran.
+                    latencyWindow.record(System.nanoTime() - this.startNanos);
+                }
+                if (!isLastAttempt) {
+                    // Either a response already won or the other attempt may still produce one.
+                    return completer.defer();
+                }
+                finish(this.otherAttemptToken);
+                return completer.completedError(error);
+            }
+        }
+    }
+
+    /**
+     * A fixed size window of the most recent latencies, used to compute the hedging delay.
+     */
+    private final class LatencyWindow {
+        private final long[] samples = new long[SAMPLE_WINDOW_SIZE];
+        // Guarded by 'this'.
+        private int nextIndex;
+        private int count;
+        private int recordsSinceRefresh;
+        // The delay is refreshed periodically rather than on every request.
+        volatile long hedgingDelayNanos = maxDelayNanos;
+
+        synchronized void record(long latencyNanos) {
+            this.samples[this.nextIndex] = latencyNanos;
+            this.nextIndex = (this.nextIndex + 1) % SAMPLE_WINDOW_SIZE;
+            if (this.count < SAMPLE_WINDOW_SIZE) {
+                this.count++;
+            }
+            if (++this.recordsSinceRefresh >= REFRESH_INTERVAL && this.count >= MIN_SAMPLES) {
+                this.recordsSinceRefresh = 0;
+                final long[] sorted = Arrays.copyOf(this.samples, this.count);
+                Arrays.sort(sorted);
+                final int rank = (int) Math.ceil(latencyPercentile / 100 * this.count) - 1;
+                final long percentileNanos = sorted[Math.max(0, rank)];
+                this.hedgingDelayNanos = Math.min(maxDelayNanos, Math.max(minDelayNanos, percentileNanos));
+            }
+        }
+    }
+}
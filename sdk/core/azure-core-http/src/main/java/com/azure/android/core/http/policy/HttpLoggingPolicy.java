@@ -85,8 +85,8 @@ public class HttpLoggingPolicy implements HttpPipelinePolicy {
             return;
         }
 
-        // final ClientLogger logger = new ClientLogger((String) context.getData("caller-method").orElse(""));
-        final ClientLogger logger = new ClientLogger((String) "caller-method"); // TODO: bring context ^
+        // final ClientLogger logger = ClientLogger.getLogger((String) context.getData("caller-method").orElse(""));
+        final ClientLogger logger = ClientLogger.getLogger("caller-method"); // TODO: bring context ^
         if (!logger.canLogAtLevel(LogLevel.INFORMATIONAL)) {
             chain.processNextPolicy(chain.getRequest());
             return;
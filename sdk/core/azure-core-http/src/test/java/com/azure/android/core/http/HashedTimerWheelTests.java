@@ -0,0 +1,124 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HashedTimerWheelTests {
+
+    @Test
+    public void itemsExpireInDeadlineOrderAndNeverEarly() throws InterruptedException {
+        final List<Integer> expired = Collections.synchronizedList(new ArrayList<>());
+        final long[] expiredAtNanos = new long[3];
+        final CountDownLatch latch = new CountDownLatch(3);
+        final HashedTimerWheel<Integer> wheel = new HashedTimerWheel<>("test-timer", 5, TimeUnit.MILLISECONDS,
+            8, items -> {
+                for (Integer item : items) {
+                    expiredAtNanos[item] = System.nanoTime();
+                    expired.add(item);
+                    latch.countDown();
+                }
+            });
+
+        final long startNanos = System.nanoTime();
+        // 120ms is beyond one round of the wheel (8 * 5ms).
+        wheel.schedule(2, 120, TimeUnit.MILLISECONDS);
+        wheel.schedule(0, 0, TimeUnit.MILLISECONDS);
+        wheel.schedule(1, 30, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(3, expired.size());
+        assertEquals(0, (int) expired.get(0));
+        assertEquals(1, (int) expired.get(1));
+        assertEquals(2, (int) expired.get(2));
+        assertTrue(expiredAtNanos[1] - startNanos >= TimeUnit.MILLISECONDS.toNanos(30));
+        assertTrue(expiredAtNanos[2] - startNanos >= TimeUnit.MILLISECONDS.toNanos(120));
+    }
+
+    @Test
+    public void itemsExpiringInSameTickAreHandedOverAsBatch() throws InterruptedException {
+        final List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch latch = new CountDownLatch(1);
+        final HashedTimerWheel<Integer> wheel = new HashedTimerWheel<>("test-timer", 50, TimeUnit.MILLISECONDS,
+            8, items -> {
+                batches.add(new ArrayList<>(items));
+                latch.countDown();
+            });
+
+        for (int i = 0; i < 100; i++) {
+            wheel.schedule(i, 0, TimeUnit.MILLISECONDS);
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(1, batches.size());
+        assertEquals(100, batches.get(0).size());
+    }
+
+    @Test
+    public void cancelledItemIsNotHandedOver() throws InterruptedException {
+        final List<Integer> expired = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch latch = new CountDownLatch(1);
+        final HashedTimerWheel<Integer> wheel = new HashedTimerWheel<>("test-timer", 5, TimeUnit.MILLISECONDS,
+            8, items -> {
+                expired.addAll(items);
+                latch.countDown();
+            });
+
+        final HashedTimerWheel.Timeout<Integer> timeout = wheel.schedule(1, 20, TimeUnit.MILLISECONDS);
+        wheel.schedule(2, 60, TimeUnit.MILLISECONDS);
+        assertEquals(2, wheel.getPendingTimeouts());
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertEquals(1, wheel.getPendingTimeouts());
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList(2), expired);
+    }
+
+    @Test
+    public void workerStopsWhenWheelIsEmpty() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(2);
+        final HashedTimerWheel<Integer> wheel = new HashedTimerWheel<>("test-timer", 5, TimeUnit.MILLISECONDS,
+            8, items -> latch.countDown());
+        assertFalse(wheel.isWorkerRunning());
+
+        wheel.schedule(1, 10, TimeUnit.MILLISECONDS);
+        assertTrue(wheel.isWorkerRunning());
+        awaitWorkerStop(wheel);
+
+        // The worker restarts on demand.
+        wheel.schedule(2, 10, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        awaitWorkerStop(wheel);
+        assertEquals(0, wheel.getPendingTimeouts());
+    }
+
+    @Test
+    public void invalidArguments() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new HashedTimerWheel<Integer>("test-timer", 0, TimeUnit.MILLISECONDS, 8, items -> { }));
+        assertThrows(IllegalArgumentException.class,
+            () -> new HashedTimerWheel<Integer>("test-timer", 5, TimeUnit.MILLISECONDS, 0, items -> { }));
+    }
+
+    private static void awaitWorkerStop(HashedTimerWheel<?> wheel) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (wheel.isWorkerRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertFalse(wheel.isWorkerRunning());
+    }
+}
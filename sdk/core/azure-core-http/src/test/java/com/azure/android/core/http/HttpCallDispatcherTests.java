@@ -0,0 +1,332 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http;
+
+import com.azure.android.core.http.policy.FixedDelay;
+import com.azure.android.core.http.policy.MockHttpResponse;
+import com.azure.android.core.http.policy.NoOpHttpClient;
+import com.azure.android.core.http.policy.RetryPolicy;
+import com.azure.android.core.util.CancellationToken;
+import com.azure.android.core.util.RequestContext;
+
+import org.junit.jupiter.api.Test;
+import org.threeten.bp.Duration;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HttpCallDispatcherTests {
+
+    @Test
+    public void cancelRemovesWaitingCall() {
+        final HttpCallDispatcher dispatcher = new HttpCallDispatcher();
+        dispatcher.setMaxRunningCalls(1);
+        final CountDownLatch releaseLatch = new CountDownLatch(1);
+        dispatcher.enqueue(blockingCall(releaseLatch), newRequest("a"), CancellationToken.NONE,
+            new ResultCallback(new CountDownLatch(1)));
+
+        final AtomicInteger invocations = new AtomicInteger();
+        final CancellationToken cancellationToken = new CancellationToken();
+        final ResultCallback waitingCallback = new ResultCallback(new CountDownLatch(1));
+        dispatcher.enqueue((request, callback) -> {
+            invocations.incrementAndGet();
+            callback.onSuccess(new MockHttpResponse(request, 200));
+        }, newRequest("a"), cancellationToken, waitingCallback);
+
+        // The waiting call is completed on cancel, without waiting for the running call to free the slot.
+        cancellationToken.cancel();
+        assertNotNull(waitingCallback.error);
+        assertEquals("Canceled.", waitingCallback.error.getMessage());
+
+        releaseLatch.countDown();
+        sleep(100);
+        assertEquals(0, invocations.get());
+    }
+
+    @Test
+    public void cancelAllRemovesMatchingWaitingCalls() {
+        final HttpCallDispatcher dispatcher = new HttpCallDispatcher();
+        dispatcher.setMaxRunningCalls(1);
+        final CountDownLatch releaseLatch = new CountDownLatch(1);
+        final ResultCallback runningCallback = new ResultCallback(new CountDownLatch(1));
+        dispatcher.enqueue(blockingCall(releaseLatch), newRequest("a"), CancellationToken.NONE, runningCallback);
+
+        final AtomicInteger invocations = new AtomicInteger();
+        final HttpCallDispatcher.HttpCallFunction callFunction = (request, callback) -> {
+            invocations.incrementAndGet();
+            callback.onSuccess(new MockHttpResponse(request, 200));
+        };
+        final ResultCallback[] cancelledCallbacks = new ResultCallback[2];
+        for (int i = 0; i < cancelledCallbacks.length; i++) {
+            cancelledCallbacks[i] = new ResultCallback(new CountDownLatch(1));
+            dispatcher.enqueue(callFunction, newRequest("a"), CancellationToken.NONE, cancelledCallbacks[i]);
+        }
+        final ResultCallback otherCallback = new ResultCallback(new CountDownLatch(1));
+        dispatcher.enqueue(callFunction, newRequest("b"), CancellationToken.NONE, otherCallback);
+
+        // The running call is not affected.
+        assertEquals(2, dispatcher.cancelAll(request -> "a".equals(request.getTags().get("thread-id"))));
+        for (ResultCallback cancelledCallback : cancelledCallbacks) {
+            assertNotNull(cancelledCallback.error);
+            assertEquals("Canceled.", cancelledCallback.error.getMessage());
+        }
+
+        releaseLatch.countDown();
+        awaitOnLatch(runningCallback.latch, "cancelAllRemovesMatchingWaitingCalls");
+        awaitOnLatch(otherCallback.latch, "cancelAllRemovesMatchingWaitingCalls");
+        assertEquals(200, runningCallback.statusCode);
+        assertEquals(200, otherCallback.statusCode);
+        assertEquals(1, invocations.get());
+        assertEquals(0, dispatcher.cancelAll(request -> true));
+    }
+
+    @Test
+    public void cancelAllEndsPausedPipelineRun() {
+        final HttpCallDispatcher dispatcher = new HttpCallDispatcher();
+        final AtomicInteger attempts = new AtomicInteger();
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new NoOpHttpClient() {
+                @Override
+                public HttpCallDispatcher getHttpCallDispatcher() {
+                    return dispatcher;
+                }
+
+                @Override
+                public void send(HttpRequest httpRequest, CancellationToken cancellationToken,
+                                 HttpCallback httpCallback) {
+                    attempts.incrementAndGet();
+                    httpCallback.onSuccess(new MockHttpResponse(httpRequest, 500));
+                }
+            })
+            .policies(new RetryPolicy(new FixedDelay(3, Duration.ofSeconds(30))))
+            .build();
+
+        final ResultCallback resultCallback = new ResultCallback(new CountDownLatch(1));
+        pipeline.send(newRequest("a"), RequestContext.NONE, CancellationToken.NONE, resultCallback);
+
+        // Wait for the pipeline run to pause on the retry delay.
+        final long deadline = System.currentTimeMillis() + 10_000;
+        int cancelled = 0;
+        while (cancelled == 0 && System.currentTimeMillis() < deadline) {
+            cancelled = dispatcher.cancelAll(request -> "a".equals(request.getTags().get("thread-id")));
+            if (cancelled == 0) {
+                sleep(5);
+            }
+        }
+        awaitOnLatch(resultCallback.latch, "cancelAllEndsPausedPipelineRun");
+
+        assertEquals(1, cancelled);
+        assertNotNull(resultCallback.error);
+        assertEquals("Canceled.", resultCallback.error.getMessage());
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void cancelledPausedPipelineRunWaitsForSlot() {
+        final HttpCallDispatcher dispatcher = new HttpCallDispatcher();
+        dispatcher.setMaxRunningCalls(1);
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new NoOpHttpClient() {
+                @Override
+                public HttpCallDispatcher getHttpCallDispatcher() {
+                    return dispatcher;
+                }
+
+                @Override
+                public void send(HttpRequest httpRequest, CancellationToken cancellationToken,
+                                 HttpCallback httpCallback) {
+                    httpCallback.onSuccess(new MockHttpResponse(httpRequest, 500));
+                }
+            })
+            .policies(new RetryPolicy(new FixedDelay(3, Duration.ofSeconds(30))))
+            .build();
+
+        final CancellationToken cancellationToken = new CancellationToken();
+        final ResultCallback resultCallback = new ResultCallback(new CountDownLatch(1));
+        pipeline.send(newRequest("a"), RequestContext.NONE, cancellationToken, resultCallback);
+
+        // Wait for the pipeline run to pause on the retry delay, then take its slot.
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while ((dispatcher.getStats().getScheduledCalls() == 0 || dispatcher.getStats().getRunningCalls() != 0)
+            && System.currentTimeMillis() < deadline) {
+            sleep(5);
+        }
+        final CountDownLatch releaseLatch = new CountDownLatch(1);
+        final ResultCallback runningCallback = new ResultCallback(new CountDownLatch(1));
+        dispatcher.enqueue(blockingCall(releaseLatch), newRequest("b"), CancellationToken.NONE, runningCallback);
+        assertEquals(1, dispatcher.getStats().getRunningCalls());
+
+        // The cancelled run resumes only once a slot is free, rather than on the cancelling thread.
+        cancellationToken.cancel();
+        assertEquals(1, resultCallback.latch.getCount());
+        assertEquals(1, dispatcher.getStats().getRunningCalls());
+        assertEquals(1, dispatcher.getStats().getWaitingNestedCalls());
+
+        releaseLatch.countDown();
+        awaitOnLatch(resultCallback.latch, "cancelledPausedPipelineRunWaitsForSlot");
+        awaitOnLatch(runningCallback.latch, "cancelledPausedPipelineRunWaitsForSlot");
+        assertNotNull(resultCallback.error);
+        assertEquals("Canceled.", resultCallback.error.getMessage());
+        assertEquals(200, runningCallback.statusCode);
+    }
+
+    @Test
+    public void cancelAllRequiresPredicate() {
+        assertThrows(NullPointerException.class, () -> new HttpCallDispatcher().cancelAll(null));
+    }
+
+    @Test
+    public void statsTrackRunningAndWaitingCalls() {
+        final HttpCallDispatcher dispatcher = new HttpCallDispatcher();
+        dispatcher.setMaxRunningCalls(2);
+        final CountDownLatch releaseLatch = new CountDownLatch(1);
+        final ResultCallback[] callbacks = new ResultCallback[3];
+        for (int i = 0; i < callbacks.length; i++) {
+            callbacks[i] = new ResultCallback(new CountDownLatch(1));
+            dispatcher.enqueue(blockingCall(releaseLatch), newRequest("a"), CancellationToken.NONE, callbacks[i]);
+        }
+
+        HttpCallDispatcherStats stats = dispatcher.getStats();
+        assertEquals(2, stats.getMaxRunningCalls());
+        assertEquals(2, stats.getRunningCalls());
+        assertEquals(2, stats.getPeakRunningCalls());
+        assertEquals(1, stats.getWaitingCalls());
+        assertEquals(0, stats.getScheduledCalls());
+        assertEquals(2, stats.getDispatchedCalls());
+        assertEquals(2, stats.getQueueWaitTime().getCount());
+        sleep(20);
+        assertTrue(dispatcher.getStats().getSaturatedNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+
+        releaseLatch.countDown();
+        for (ResultCallback callback : callbacks) {
+            awaitOnLatch(callback.latch, "statsTrackRunningAndWaitingCalls");
+        }
+        sleep(50);
+
+        stats = dispatcher.getStats();
+        assertEquals(0, stats.getRunningCalls());
+        assertEquals(2, stats.getPeakRunningCalls());
+        assertEquals(0, stats.getWaitingCalls());
+        assertEquals(3, stats.getDispatchedCalls());
+        assertEquals(0, stats.getRejectedExecutions());
+        assertEquals(0, stats.getSaturatedNanos());
+        // The third call waited for a slot until the first calls completed.
+        assertEquals(3, stats.getQueueWaitTime().getCount());
+        assertTrue(stats.getQueueWaitTime().getMax() >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    public void statsCountRejectedExecutions() {
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        executorService.shutdown();
+        final HttpCallDispatcher dispatcher = new HttpCallDispatcher(executorService);
+        final ResultCallback callback = new ResultCallback(new CountDownLatch(1));
+        dispatcher.enqueue(blockingCall(new CountDownLatch(0)), newRequest("a"), CancellationToken.NONE, callback);
+
+        assertNotNull(callback.error);
+        final HttpCallDispatcherStats stats = dispatcher.getStats();
+        assertEquals(1, stats.getRejectedExecutions());
+        assertEquals(0, stats.getRunningCalls());
+    }
+
+    @Test
+    public void saturationListenerNotifiedOncePerEpisode() {
+        final HttpCallDispatcher dispatcher = new HttpCallDispatcher();
+        dispatcher.setMaxRunningCalls(1);
+        final AtomicInteger notifications = new AtomicInteger();
+        final HttpCallDispatcherStats[] notifiedStats = new HttpCallDispatcherStats[1];
+        dispatcher.setSaturationListener(20, TimeUnit.MILLISECONDS, stats -> {
+            notifiedStats[0] = stats;
+            notifications.incrementAndGet();
+        });
+
+        final CountDownLatch releaseLatch = new CountDownLatch(1);
+        final ResultCallback[] callbacks = new ResultCallback[4];
+        for (int i = 0; i < callbacks.length; i++) {
+            callbacks[i] = new ResultCallback(new CountDownLatch(1));
+            dispatcher.enqueue(blockingCall(releaseLatch), newRequest("a"), CancellationToken.NONE, callbacks[i]);
+            if (i == 1) {
+                // The queue is saturated from the second call, but not yet beyond the threshold.
+                assertEquals(0, notifications.get());
+                sleep(30);
+            }
+        }
+
+        // The third call is enqueued beyond the threshold, the fourth does not notify again.
+        assertEquals(1, notifications.get());
+        assertEquals(1, notifiedStats[0].getRunningCalls());
+        assertTrue(notifiedStats[0].getWaitingCalls() >= 2);
+        assertTrue(notifiedStats[0].getSaturatedNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+
+        releaseLatch.countDown();
+        for (ResultCallback callback : callbacks) {
+            awaitOnLatch(callback.latch, "saturationListenerNotifiedOncePerEpisode");
+        }
+        assertEquals(1, notifications.get());
+        assertThrows(IllegalArgumentException.class,
+            () -> dispatcher.setSaturationListener(-1, TimeUnit.MILLISECONDS, null));
+    }
+
+    private static HttpRequest newRequest(String threadId) {
+        final HttpRequest httpRequest = new HttpRequest(HttpMethod.GET, "http://localhost/");
+        httpRequest.getTags().put("thread-id", threadId);
+        return httpRequest;
+    }
+
+    private static HttpCallDispatcher.HttpCallFunction blockingCall(CountDownLatch releaseLatch) {
+        return (request, callback) -> {
+            awaitOnLatch(releaseLatch, "blockingCall");
+            callback.onSuccess(new MockHttpResponse(request, 200));
+        };
+    }
+
+    private static final class ResultCallback implements HttpCallback {
+        private final CountDownLatch latch;
+        private volatile int statusCode;
+        private volatile Throwable error;
+
+        ResultCallback(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void onSuccess(HttpResponse response) {
+            assertNull(this.error);
+            this.statusCode = response.getStatusCode();
+            this.latch.countDown();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+            this.latch.countDown();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitOnLatch(CountDownLatch latch, String method) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            assertFalse(true, method + " didn't produce any result.");
+        }
+    }
+}
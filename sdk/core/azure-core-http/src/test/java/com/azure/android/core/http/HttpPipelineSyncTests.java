@@ -0,0 +1,175 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http;
+
+import com.azure.android.core.http.policy.FixedDelay;
+import com.azure.android.core.http.policy.MockHttpResponse;
+import com.azure.android.core.http.policy.NoOpHttpClient;
+import com.azure.android.core.http.policy.RetryPolicy;
+import com.azure.android.core.util.CancellationToken;
+import com.azure.android.core.util.RequestContext;
+
+import org.junit.jupiter.api.Test;
+import org.threeten.bp.Duration;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HttpPipelineSyncTests {
+    @Test
+    public void runsPoliciesAndHttpCallInCallingThread() {
+        final List<Thread> threads = new CopyOnWriteArrayList<>();
+        final HttpCallDispatcher httpCallDispatcher = new HttpCallDispatcher();
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new NoOpHttpClient() {
+                @Override
+                public HttpCallDispatcher getHttpCallDispatcher() {
+                    return httpCallDispatcher;
+                }
+
+                @Override
+                public void sendSync(HttpRequest httpRequest,
+                                     CancellationToken cancellationToken,
+                                     HttpCallback httpCallback) {
+                    threads.add(Thread.currentThread());
+                    httpCallback.onSuccess(new MockHttpResponse(httpRequest, 200));
+                }
+            })
+            .policies(chain -> {
+                threads.add(Thread.currentThread());
+                chain.processNextPolicy(chain.getRequest());
+            })
+            .build();
+
+        final HttpResponse response = pipeline.sendSync(new HttpRequest(HttpMethod.GET, "http://localhost/"),
+            RequestContext.NONE,
+            CancellationToken.NONE);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals(Collections.nCopies(2, Thread.currentThread()), threads);
+        assertEquals(0, httpCallDispatcher.getStats().getDispatchedCalls());
+    }
+
+    @Test
+    public void retriesInCallingThread() {
+        final AtomicInteger attempts = new AtomicInteger();
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new NoOpHttpClient() {
+                private final Thread callingThread = Thread.currentThread();
+
+                @Override
+                public void sendSync(HttpRequest httpRequest,
+                                     CancellationToken cancellationToken,
+                                     HttpCallback httpCallback) {
+                    assertSame(this.callingThread, Thread.currentThread());
+                    final int statusCode = attempts.incrementAndGet() < 3 ? 503 : 200;
+                    httpCallback.onSuccess(new MockHttpResponse(httpRequest, statusCode));
+                }
+            })
+            .policies(new RetryPolicy(new FixedDelay(3, Duration.ofMillis(10))))
+            .build();
+
+        final long startNanos = System.nanoTime();
+        final HttpResponse response = pipeline.sendSync(new HttpRequest(HttpMethod.GET, "http://localhost/"),
+            RequestContext.NONE,
+            CancellationToken.NONE);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals(3, attempts.get());
+        assertTrue(System.nanoTime() - startNanos >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    public void throwsErrorOfHttpCall() {
+        final IOException error = new IOException("Connection reset.");
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new NoOpHttpClient() {
+                @Override
+                public void sendSync(HttpRequest httpRequest,
+                                     CancellationToken cancellationToken,
+                                     HttpCallback httpCallback) {
+                    httpCallback.onError(error);
+                }
+            })
+            .build();
+
+        final RuntimeException thrown = assertThrows(RuntimeException.class,
+            () -> pipeline.sendSync(new HttpRequest(HttpMethod.GET, "http://localhost/"),
+                RequestContext.NONE,
+                CancellationToken.NONE));
+        assertSame(error, thrown.getCause());
+    }
+
+    @Test
+    public void cancellationEndsRetryDelay() {
+        final CancellationToken cancellationToken = new CancellationToken();
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new NoOpHttpClient() {
+                @Override
+                public void sendSync(HttpRequest httpRequest,
+                                     CancellationToken cancellationToken,
+                                     HttpCallback httpCallback) {
+                    httpCallback.onSuccess(new MockHttpResponse(httpRequest, 503));
+                }
+            })
+            .policies(new RetryPolicy(new FixedDelay(3, Duration.ofSeconds(30))))
+            .build();
+
+        final Thread canceller = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            cancellationToken.cancel();
+        });
+        canceller.start();
+
+        final long startNanos = System.nanoTime();
+        final RuntimeException thrown = assertThrows(RuntimeException.class,
+            () -> pipeline.sendSync(new HttpRequest(HttpMethod.GET, "http://localhost/"),
+                RequestContext.NONE,
+                cancellationToken));
+        assertTrue(thrown.getCause() instanceof IOException, thrown.toString());
+        assertEquals("Canceled.", thrown.getCause().getMessage());
+        assertTrue(System.nanoTime() - startNanos < TimeUnit.SECONDS.toNanos(10));
+    }
+
+    @Test
+    public void waitsForClientNotifyingFromAnotherThread() {
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new NoOpHttpClient() {
+                @Override
+                public void send(HttpRequest httpRequest,
+                                 CancellationToken cancellationToken,
+                                 HttpCallback httpCallback) {
+                    // A client without synchronous support, relying on the default sendSync.
+                    new Thread(() -> {
+                        try {
+                            Thread.sleep(20);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        httpCallback.onSuccess(new MockHttpResponse(httpRequest, 204));
+                    }).start();
+                }
+            })
+            .build();
+
+        final HttpResponse response = pipeline.sendSync(new HttpRequest(HttpMethod.GET, "http://localhost/"),
+            RequestContext.NONE,
+            CancellationToken.NONE);
+
+        assertEquals(204, response.getStatusCode());
+    }
+}
@@ -0,0 +1,147 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http;
+
+import com.azure.android.core.http.policy.HttpLogDetailLevel;
+import com.azure.android.core.http.policy.HttpLogOptions;
+import com.azure.android.core.http.policy.HttpLoggingPolicy;
+import com.azure.android.core.http.policy.MockHttpResponse;
+import com.azure.android.core.http.policy.NoOpHttpClient;
+import com.azure.android.core.http.policy.RequestIdPolicy;
+import com.azure.android.core.http.policy.RetryPolicy;
+import com.azure.android.core.logging.ClientLogger;
+import com.azure.android.core.util.CancellationToken;
+import com.azure.android.core.util.RequestContext;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedConstruction;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mockConstruction;
+
+/**
+ * Benchmark of the loggers allocated per request sent through the pipeline.
+ *
+ * <p>
+ * The pipeline runs in the calling thread, so that the {@link ClientLogger} constructions (and the bytes
+ * allocated by the thread, when the JVM reports it) are attributed to the requests.
+ * </p>
+ */
+public class LoggerAllocationBenchmark {
+    private static final int WARM_UP_REQUESTS = 1_000;
+    private static final int REQUESTS = 10_000;
+
+    @Test
+    public void noLoggerAllocationPerRequest() {
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new NoOpHttpClient() {
+                private final HttpCallDispatcher httpCallDispatcher
+                    = new HttpCallDispatcher(new DirectExecutorService());
+
+                @Override
+                public HttpCallDispatcher getHttpCallDispatcher() {
+                    return this.httpCallDispatcher;
+                }
+
+                @Override
+                public void send(HttpRequest httpRequest, CancellationToken cancellationToken,
+                                 HttpCallback httpCallback) {
+                    httpCallback.onSuccess(new MockHttpResponse(httpRequest, 200));
+                }
+            })
+            .policies(new RequestIdPolicy(),
+                RetryPolicy.withExponentialBackoff(),
+                new HttpLoggingPolicy(new HttpLogOptions().setLogLevel(HttpLogDetailLevel.BASIC)))
+            .build();
+
+        sendRequests(pipeline, WARM_UP_REQUESTS);
+
+        final int loggerAllocations;
+        try (MockedConstruction<ClientLogger> constructions = mockConstruction(ClientLogger.class)) {
+            sendRequests(pipeline, REQUESTS);
+            loggerAllocations = constructions.constructed().size();
+        }
+
+        final long allocatedBytesBefore = getAllocatedBytes();
+        final long startNanos = System.nanoTime();
+        sendRequests(pipeline, REQUESTS);
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        final long allocatedBytes = allocatedBytesBefore < 0 ? -1 : getAllocatedBytes() - allocatedBytesBefore;
+
+        System.out.println(REQUESTS + " requests, " + loggerAllocations + " logger allocations, "
+            + (allocatedBytes < 0 ? "n/a" : String.valueOf(allocatedBytes / REQUESTS)) + " bytes/request, "
+            + (elapsedNanos / REQUESTS) + " ns/request");
+        assertEquals(0, loggerAllocations);
+    }
+
+    private static void sendRequests(HttpPipeline pipeline, int count) {
+        final int[] completed = new int[1];
+        for (int i = 0; i < count; i++) {
+            final HttpRequest httpRequest = new HttpRequest(HttpMethod.GET, "http://localhost/");
+            pipeline.send(httpRequest, RequestContext.NONE.addData("caller-method", "benchmark"),
+                CancellationToken.NONE, new HttpCallback() {
+                    @Override
+                    public void onSuccess(HttpResponse response) {
+                        completed[0]++;
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        throw new RuntimeException(error);
+                    }
+                });
+        }
+        assertEquals(count, completed[0]);
+    }
+
+    private static long getAllocatedBytes() {
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(
+                Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * An ExecutorService running the tasks in the calling thread.
+     */
+    private static final class DirectExecutorService extends AbstractExecutorService {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LogLinearHistogramTests {
+    @Test
+    public void bucketBoundsCoverAllValues() {
+        long previousHighest = -1;
+        for (int i = 0; i < LogLinearHistogram.BUCKET_COUNT; i++) {
+            final long highest = LogLinearHistogram.getBucketHighestValue(i);
+            assertTrue(highest > previousHighest);
+            assertEquals(i, LogLinearHistogram.getBucketIndex(previousHighest + 1));
+            assertEquals(i, LogLinearHistogram.getBucketIndex(highest));
+            previousHighest = highest;
+        }
+        assertEquals(Long.MAX_VALUE, previousHighest);
+    }
+
+    @Test
+    public void percentilesAreWithinRelativeError() {
+        final LogLinearHistogram histogram = new LogLinearHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+        final HistogramSnapshot snapshot = histogram.getSnapshot();
+
+        assertEquals(10_000, snapshot.getCount());
+        assertEquals(1, snapshot.getMin());
+        assertEquals(10_000, snapshot.getMax());
+        assertEquals(5_000.5, snapshot.getMean(), 0.001);
+        assertWithinRelativeError(5_000, snapshot.getValueAtPercentile(50));
+        assertWithinRelativeError(9_900, snapshot.getValueAtPercentile(99));
+        assertEquals(1, snapshot.getValueAtPercentile(0));
+        assertEquals(10_000, snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        final LogLinearHistogram histogram = new LogLinearHistogram();
+        histogram.record(-5);
+        histogram.record(3);
+        histogram.record(3);
+        histogram.record(7);
+        final HistogramSnapshot snapshot = histogram.getSnapshot();
+
+        assertEquals(0, snapshot.getMin());
+        assertEquals(3, snapshot.getValueAtPercentile(50));
+        assertEquals(7, snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void snapshotIsNotAffectedByLaterValues() {
+        final LogLinearHistogram histogram = new LogLinearHistogram();
+        assertEquals(0, histogram.getSnapshot().getValueAtPercentile(50));
+        histogram.record(100);
+        final HistogramSnapshot snapshot = histogram.getSnapshot();
+        histogram.record(1_000_000);
+
+        assertEquals(1, snapshot.getCount());
+        assertEquals(100, snapshot.getMax());
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getValueAtPercentile(101));
+    }
+
+    @Test
+    public void concurrentRecording() throws InterruptedException {
+        final LogLinearHistogram histogram = new LogLinearHistogram();
+        final int threadCount = 4;
+        final int valuesPerThread = 100_000;
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            final long offset = t;
+            new Thread(() -> {
+                for (int i = 0; i < valuesPerThread; i++) {
+                    histogram.record(offset + i);
+                }
+                latch.countDown();
+            }).start();
+        }
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        final HistogramSnapshot snapshot = histogram.getSnapshot();
+
+        assertEquals(threadCount * valuesPerThread, snapshot.getCount());
+        assertEquals(0, snapshot.getMin());
+        assertEquals(threadCount - 1 + valuesPerThread - 1, snapshot.getMax());
+    }
+
+    private static void assertWithinRelativeError(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 8, "expected ~" + expected + " but was " + actual);
+    }
+}
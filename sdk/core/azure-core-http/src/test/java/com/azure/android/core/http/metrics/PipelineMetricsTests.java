@@ -0,0 +1,184 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.metrics;
+
+import com.azure.android.core.http.HttpCallback;
+import com.azure.android.core.http.HttpMethod;
+import com.azure.android.core.http.HttpPipeline;
+import com.azure.android.core.http.HttpPipelineBuilder;
+import com.azure.android.core.http.HttpPipelinePolicy;
+import com.azure.android.core.http.HttpPipelinePolicyChain;
+import com.azure.android.core.http.HttpRequest;
+import com.azure.android.core.http.HttpResponse;
+import com.azure.android.core.http.NextPolicyCallback;
+import com.azure.android.core.http.PolicyCompleter;
+import com.azure.android.core.http.policy.FixedDelay;
+import com.azure.android.core.http.policy.MockHttpResponse;
+import com.azure.android.core.http.policy.NoOpHttpClient;
+import com.azure.android.core.http.policy.RetryPolicy;
+import com.azure.android.core.util.CancellationToken;
+import com.azure.android.core.util.RequestContext;
+
+import org.junit.jupiter.api.Test;
+import org.threeten.bp.Duration;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PipelineMetricsTests {
+    private static final String OPERATION_NAME = "ChatService.sendMessage";
+
+    @Test
+    public void recordsMetricsOfCall() throws InterruptedException {
+        final InMemoryMetricsSink metricsSink = new InMemoryMetricsSink();
+        final AtomicInteger attempts = new AtomicInteger();
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new NoOpHttpClient() {
+                @Override
+                public void send(HttpRequest httpRequest, CancellationToken cancellationToken,
+                                 HttpCallback httpCallback) {
+                    sleep(20);
+                    // The first attempt fails with a retriable status code.
+                    httpCallback.onSuccess(new MockHttpResponse(httpRequest,
+                        attempts.incrementAndGet() == 1 ? 503 : 200));
+                }
+            })
+            .policies(new RetryPolicy(new FixedDelay(3, Duration.ofMillis(1))), new SlowPolicy())
+            .metricsSink(metricsSink)
+            .build();
+        assertSame(metricsSink, pipeline.getMetricsSink());
+
+        send(pipeline, RequestContext.NONE.addData(MetricsSink.OPERATION_NAME_CONTEXT_KEY, OPERATION_NAME));
+
+        final Map<String, HistogramSnapshot> metrics = metricsSink.getSnapshot().get(OPERATION_NAME);
+        assertNotNull(metrics);
+        assertEquals(1, metrics.get(MetricsSink.QUEUE_WAIT).getCount());
+        assertEquals(1, metrics.get(MetricsSink.TOTAL_TIME).getCount());
+        assertEquals(1, metrics.get(MetricsSink.RETRY_COUNT).getMax());
+        assertEquals(2, metrics.get(MetricsSink.NETWORK_TIME).getCount());
+        assertTrue(metrics.get(MetricsSink.NETWORK_TIME).getMin() >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(1, metrics.get(MetricsSink.POLICY_TIME_PREFIX + "RetryPolicy").getCount());
+
+        // The time of the slow policy excludes the time spent in the network.
+        final HistogramSnapshot slowPolicyTime = metrics.get(MetricsSink.POLICY_TIME_PREFIX + "SlowPolicy");
+        assertEquals(2, slowPolicyTime.getCount());
+        assertTrue(slowPolicyTime.getMin() >= TimeUnit.MILLISECONDS.toNanos(4));
+        assertTrue(slowPolicyTime.getMax() < TimeUnit.MILLISECONDS.toNanos(20), slowPolicyTime.toString());
+        assertTrue(metrics.get(MetricsSink.TOTAL_TIME).getMax() >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void operationNameDefaultsToHttpMethod() throws InterruptedException {
+        final InMemoryMetricsSink metricsSink = new InMemoryMetricsSink();
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new NoOpHttpClient())
+            .metricsSink(metricsSink)
+            .build();
+
+        send(pipeline, RequestContext.NONE);
+
+        assertEquals(0, metricsSink.getSnapshot("GET", MetricsSink.RETRY_COUNT).getMax());
+        assertEquals(1, metricsSink.getSnapshot("GET", MetricsSink.NETWORK_TIME).getCount());
+        assertNull(metricsSink.getSnapshot("GET", "unknown"));
+        assertNull(metricsSink.getSnapshot(OPERATION_NAME, MetricsSink.NETWORK_TIME));
+        metricsSink.clear();
+        assertTrue(metricsSink.getSnapshot().isEmpty());
+    }
+
+    @Test
+    public void lambdaAndAnonymousPoliciesHaveTheirOwnMetric() throws InterruptedException {
+        final InMemoryMetricsSink metricsSink = new InMemoryMetricsSink();
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new NoOpHttpClient())
+            .policies(chain -> chain.processNextPolicy(chain.getRequest()),
+                chain -> chain.processNextPolicy(chain.getRequest()),
+                new HttpPipelinePolicy() {
+                    @Override
+                    public void process(HttpPipelinePolicyChain chain) {
+                        chain.processNextPolicy(chain.getRequest());
+                    }
+                })
+            .metricsSink(metricsSink)
+            .build();
+
+        send(pipeline, RequestContext.NONE);
+
+        int policyMetricCount = 0;
+        for (Map.Entry<String, HistogramSnapshot> metric : metricsSink.getSnapshot().get("GET").entrySet()) {
+            if (metric.getKey().startsWith(MetricsSink.POLICY_TIME_PREFIX)) {
+                assertTrue(metric.getKey().length() > MetricsSink.POLICY_TIME_PREFIX.length(), metric.getKey());
+                assertEquals(1, metric.getValue().getCount(), metric.getKey());
+                policyMetricCount++;
+            }
+        }
+        assertEquals(3, policyMetricCount);
+    }
+
+    @Test
+    public void noMetricsWithoutSink() {
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new NoOpHttpClient())
+            .build();
+
+        assertNull(pipeline.getMetricsSink());
+    }
+
+    private static void send(HttpPipeline pipeline, RequestContext requestContext) throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Throwable[] error = new Throwable[1];
+        pipeline.send(new HttpRequest(HttpMethod.GET, "http://localhost/"), requestContext, CancellationToken.NONE,
+            new HttpCallback() {
+                @Override
+                public void onSuccess(HttpResponse response) {
+                    latch.countDown();
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    error[0] = throwable;
+                    latch.countDown();
+                }
+            });
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        assertNull(error[0]);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * A policy spending 2ms processing the request and 3ms processing the response.
+     */
+    private static final class SlowPolicy implements HttpPipelinePolicy {
+        @Override
+        public void process(HttpPipelinePolicyChain chain) {
+            sleep(2);
+            chain.processNextPolicy(chain.getRequest(), new NextPolicyCallback() {
+                @Override
+                public PolicyCompleter.CompletionState onSuccess(HttpResponse response, PolicyCompleter completer) {
+                    sleep(3);
+                    return completer.completed(response);
+                }
+
+                @Override
+                public PolicyCompleter.CompletionState onError(Throwable error, PolicyCompleter completer) {
+                    return completer.completedError(error);
+                }
+            });
+        }
+    }
+}
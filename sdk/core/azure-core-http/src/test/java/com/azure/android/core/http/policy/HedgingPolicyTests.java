@@ -0,0 +1,245 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.http.policy;
+
+import com.azure.android.core.http.HttpCallback;
+import com.azure.android.core.http.HttpMethod;
+import com.azure.android.core.http.HttpPipeline;
+import com.azure.android.core.http.HttpPipelineBuilder;
+import com.azure.android.core.http.HttpRequest;
+import com.azure.android.core.http.HttpResponse;
+import com.azure.android.core.util.CancellationToken;
+import com.azure.android.core.util.RequestContext;
+
+import org.junit.jupiter.api.Test;
+import org.threeten.bp.Duration;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HedgingPolicyTests {
+
+    @Test
+    public void hedgedAttemptWinsAndCancelsSlowAttempt() {
+        final AtomicInteger attempts = new AtomicInteger();
+        final AtomicBoolean slowAttemptCancelled = new AtomicBoolean();
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new NoOpHttpClient() {
+                @Override
+                public void send(HttpRequest httpRequest, CancellationToken cancellationToken,
+                                 HttpCallback httpCallback) {
+                    if (attempts.getAndIncrement() == 0) {
+                        // The first attempt never responds unless cancelled.
+                        cancellationToken.registerOnCancel(() -> {
+                            slowAttemptCancelled.set(true);
+                            httpCallback.onError(new IOException("Canceled."));
+                        });
+                    } else {
+                        httpCallback.onSuccess(new MockHttpResponse(httpRequest, 200));
+                    }
+                }
+            })
+            .policies(new HedgingPolicy(95, Duration.ofMillis(10), Duration.ofMillis(100)))
+            .build();
+
+        final HttpResponse[] httpResponse = new HttpResponse[1];
+        final CountDownLatch latch = new CountDownLatch(1);
+        pipeline.send(new HttpRequest(HttpMethod.GET, "http://localhost/"), RequestContext.NONE,
+            CancellationToken.NONE, new HttpCallback() {
+                @Override
+                public void onSuccess(HttpResponse response) {
+                    httpResponse[0] = response;
+                    latch.countDown();
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    try {
+                        throw new RuntimeException(error);
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            });
+        awaitOnLatch(latch, "hedgedAttemptWinsAndCancelsSlowAttempt");
+
+        assertNotNull(httpResponse[0]);
+        assertEquals(200, httpResponse[0].getStatusCode());
+        assertEquals(2, attempts.get());
+        assertTrue(slowAttemptCancelled.get());
+    }
+
+    @Test
+    public void fastResponseIsNotHedged() {
+        final AtomicInteger attempts = new AtomicInteger();
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new NoOpHttpClient() {
+                @Override
+                public void send(HttpRequest httpRequest, CancellationToken cancellationToken,
+                                 HttpCallback httpCallback) {
+                    attempts.incrementAndGet();
+                    httpCallback.onSuccess(new MockHttpResponse(httpRequest, 200));
+                }
+            })
+            .policies(new HedgingPolicy(95, Duration.ofMillis(200), Duration.ofMillis(200)))
+            .build();
+
+        final int[] statusCode = new int[1];
+        final CountDownLatch latch = new CountDownLatch(1);
+        pipeline.send(new HttpRequest(HttpMethod.GET, "http://localhost/"), RequestContext.NONE,
+            CancellationToken.NONE, new StatusCodeCallback(statusCode, latch));
+        awaitOnLatch(latch, "fastResponseIsNotHedged");
+        sleep(400);
+
+        assertEquals(200, statusCode[0]);
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void nonIdempotentRequestIsNotHedged() {
+        final AtomicInteger attempts = new AtomicInteger();
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new NoOpHttpClient() {
+                @Override
+                public void send(HttpRequest httpRequest, CancellationToken cancellationToken,
+                                 HttpCallback httpCallback) {
+                    attempts.incrementAndGet();
+                    new Thread(() -> {
+                        sleep(200);
+                        httpCallback.onSuccess(new MockHttpResponse(httpRequest, 201));
+                    }).start();
+                }
+            })
+            .policies(new HedgingPolicy(95, Duration.ofMillis(10), Duration.ofMillis(10)))
+            .build();
+
+        final int[] statusCode = new int[1];
+        final CountDownLatch latch = new CountDownLatch(1);
+        pipeline.send(new HttpRequest(HttpMethod.POST, "http://localhost/"), RequestContext.NONE,
+            CancellationToken.NONE, new StatusCodeCallback(statusCode, latch));
+        awaitOnLatch(latch, "nonIdempotentRequestIsNotHedged");
+
+        assertEquals(201, statusCode[0]);
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void hedgingDelayFollowsObservedLatency() {
+        final HedgingPolicy hedgingPolicy = new HedgingPolicy(50, Duration.ZERO, Duration.ofSeconds(10));
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new NoOpHttpClient())
+            .policies(hedgingPolicy)
+            .build();
+
+        assertEquals(Duration.ofSeconds(10), hedgingPolicy.getHedgingDelay());
+        for (int i = 0; i < 32; i++) {
+            final int[] statusCode = new int[1];
+            final CountDownLatch latch = new CountDownLatch(1);
+            pipeline.send(new HttpRequest(HttpMethod.GET, "http://localhost/"), RequestContext.NONE,
+                CancellationToken.NONE, new StatusCodeCallback(statusCode, latch));
+            awaitOnLatch(latch, "hedgingDelayFollowsObservedLatency");
+        }
+        assertTrue(hedgingPolicy.getHedgingDelay().compareTo(Duration.ofSeconds(10)) < 0);
+    }
+
+    @Test
+    public void hedgingDelayFollowsLatencyOfLosingFirstAttempts() {
+        final AtomicBoolean slowFirstAttempts = new AtomicBoolean();
+        final AtomicInteger slowAttempts = new AtomicInteger();
+        final HedgingPolicy hedgingPolicy = new HedgingPolicy(50, Duration.ZERO, Duration.ofSeconds(1));
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new NoOpHttpClient() {
+                @Override
+                public void send(HttpRequest httpRequest, CancellationToken cancellationToken,
+                                 HttpCallback httpCallback) {
+                    if (slowFirstAttempts.get() && slowAttempts.getAndIncrement() % 2 == 0) {
+                        // The first attempt responds late, after the hedged attempt won.
+                        new Thread(() -> {
+                            sleep(300);
+                            httpCallback.onSuccess(new MockHttpResponse(httpRequest, 200));
+                        }).start();
+                    } else {
+                        httpCallback.onSuccess(new MockHttpResponse(httpRequest, 200));
+                    }
+                }
+            })
+            .policies(hedgingPolicy)
+            .build();
+
+        for (int i = 0; i < 48; i++) {
+            slowFirstAttempts.set(i >= 16);
+            final int[] statusCode = new int[1];
+            final CountDownLatch latch = new CountDownLatch(1);
+            pipeline.send(new HttpRequest(HttpMethod.GET, "http://localhost/"), RequestContext.NONE,
+                CancellationToken.NONE, new StatusCodeCallback(statusCode, latch));
+            awaitOnLatch(latch, "hedgingDelayFollowsLatencyOfLosingFirstAttempts");
+            assertEquals(200, statusCode[0]);
+        }
+        sleep(600);
+
+        // The fast hedged attempts do not hide that the first attempts became slow.
+        assertTrue(hedgingPolicy.getHedgingDelay().compareTo(Duration.ofMillis(200)) > 0,
+            hedgingPolicy.getHedgingDelay().toString());
+    }
+
+    @Test
+    public void invalidArguments() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new HedgingPolicy(0, Duration.ZERO, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class,
+            () -> new HedgingPolicy(95, Duration.ofSeconds(2), Duration.ofSeconds(1)));
+        assertThrows(NullPointerException.class,
+            () -> new HedgingPolicy(95, null, Duration.ofSeconds(1)));
+    }
+
+    private static final class StatusCodeCallback implements HttpCallback {
+        private final int[] statusCode;
+        private final CountDownLatch latch;
+
+        StatusCodeCallback(int[] statusCode, CountDownLatch latch) {
+            this.statusCode = statusCode;
+            this.latch = latch;
+        }
+
+        @Override
+        public void onSuccess(HttpResponse response) {
+            statusCode[0] = response.getStatusCode();
+            latch.countDown();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            try {
+                throw new RuntimeException(error);
+            } finally {
+                latch.countDown();
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitOnLatch(CountDownLatch latch, String method) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            assertFalse(true, method + " didn't produce any result.");
+        }
+    }
+}
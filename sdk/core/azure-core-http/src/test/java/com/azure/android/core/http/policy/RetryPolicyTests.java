@@ -155,6 +155,51 @@ public class RetryPolicyTests {
         awaitOnLatch(latch, "fixedDelayRetry");
     }
 
+    @Test
+    public void cancelDuringRetryDelay() {
+        final AtomicInteger attempts = new AtomicInteger();
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new NoOpHttpClient() {
+                @Override
+                public void send(HttpRequest httpRequest, CancellationToken cancellationToken, HttpCallback httpCallback) {
+                    attempts.incrementAndGet();
+                    httpCallback.onSuccess(new MockHttpResponse(httpRequest, 500));
+                }
+            })
+            .policies(new RetryPolicy(new FixedDelay(3, Duration.ofSeconds(30))))
+            .build();
+
+        final CancellationToken cancellationToken = new CancellationToken();
+        final Throwable[] throwable = new Throwable[1];
+        CountDownLatch latch = new CountDownLatch(1);
+        pipeline.send(new HttpRequest(HttpMethod.GET, "http://localhost/"), RequestContext.NONE, cancellationToken,
+            new HttpCallback() {
+                @Override
+                public void onSuccess(HttpResponse response) {
+                    latch.countDown();
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    throwable[0] = error;
+                    latch.countDown();
+                }
+            });
+
+        while (attempts.get() == 0) {
+            Thread.yield();
+        }
+        final long cancelledAt = System.currentTimeMillis();
+        cancellationToken.cancel();
+        awaitOnLatch(latch, "cancelDuringRetryDelay");
+
+        // The scheduled retry is removed from the timer rather than waiting for the 30 seconds delay.
+        Assertions.assertTrue(System.currentTimeMillis() - cancelledAt < 10_000);
+        assertNotNull(throwable[0]);
+        assertEquals("Canceled.", throwable[0].getMessage());
+        assertEquals(1, attempts.get());
+    }
+
     @Test
     public void exponentialDelayRetry() {
         final int maxRetries = 5;
@@ -0,0 +1,107 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.logging;
+
+import android.util.Log;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mockStatic;
+
+/**
+ * Benchmark of the log level checks done before each log statement.
+ *
+ * <p>
+ * The "before" loop checks the level with {@link Log#isLoggable(String, int)} as the logger did on each check, the
+ * "after" loop checks it with {@link ClientLogger#canLogAtLevel(LogLevel)} which reads the level snapshot of the
+ * logger. On a device {@link Log#isLoggable(String, int)} reads the system properties, on the host it is replaced by
+ * a counting mock, so the number of lookups per check is the meaningful result and the timings are indicative.
+ * </p>
+ *
+ * <p>
+ * The benchmark runs with the azure-core-http tests, which mock {@link Log} with mockito-inline; the mock maker of
+ * PowerMock used by the azure-core-logging tests cannot mock static methods.
+ * </p>
+ */
+public class LogLevelCheckBenchmark {
+    private static final String TAG = "LogLevelCheck";
+    private static final int WARM_UP_CHECKS = 1_000;
+    // The mocked lookup is slow, so the "before" loop runs fewer checks.
+    private static final int CHECKS_BEFORE = 10_000;
+    private static final int CHECKS_AFTER = 1_000_000;
+
+    @Test
+    public void levelCheckDoesNotLookUpLevel() {
+        final AtomicInteger lookups = new AtomicInteger();
+        final int[] minimumLevel = { Log.INFO };
+        try (MockedStatic<Log> log = mockStatic(Log.class)) {
+            log.when(() -> Log.isLoggable(anyString(), anyInt())).thenAnswer(invocation -> {
+                lookups.incrementAndGet();
+                return (int) invocation.getArgument(1) >= minimumLevel[0];
+            });
+            final ClientLogger clientLogger = new ClientLogger(TAG);
+
+            checkBefore(WARM_UP_CHECKS);
+            checkAfter(clientLogger, WARM_UP_CHECKS);
+
+            lookups.set(0);
+            long startNanos = System.nanoTime();
+            final int enabledBefore = checkBefore(CHECKS_BEFORE);
+            final long beforeNanos = System.nanoTime() - startNanos;
+            final int lookupsBefore = lookups.getAndSet(0);
+
+            startNanos = System.nanoTime();
+            final int enabledAfter = checkAfter(clientLogger, CHECKS_AFTER);
+            final long afterNanos = System.nanoTime() - startNanos;
+            final int lookupsAfter = lookups.get();
+
+            System.out.println("before: " + CHECKS_BEFORE + " checks, " + lookupsBefore + " level lookups, "
+                + (beforeNanos / CHECKS_BEFORE) + " ns/check");
+            System.out.println("after:  " + CHECKS_AFTER + " checks, " + lookupsAfter + " level lookups, "
+                + (afterNanos / CHECKS_AFTER) + " ns/check");
+
+            // The verbose level is below the minimum level, it is disabled in both cases.
+            assertEquals(0, enabledBefore);
+            assertEquals(0, enabledAfter);
+            assertEquals(CHECKS_BEFORE, lookupsBefore);
+            assertEquals(0, lookupsAfter);
+
+            // A level changed at runtime is picked up once the loggers are reconfigured.
+            minimumLevel[0] = Log.VERBOSE;
+            assertFalse(clientLogger.canLogAtLevel(LogLevel.VERBOSE));
+            ClientLogger.reconfigure();
+            assertTrue(clientLogger.canLogAtLevel(LogLevel.VERBOSE));
+        } finally {
+            ClientLogger.reconfigure();
+        }
+    }
+
+    private static int checkBefore(int count) {
+        int enabled = 0;
+        for (int i = 0; i < count; i++) {
+            if (Log.isLoggable(TAG, Log.DEBUG)) {
+                enabled++;
+            }
+        }
+        return enabled;
+    }
+
+    private static int checkAfter(ClientLogger clientLogger, int count) {
+        int enabled = 0;
+        for (int i = 0; i < count; i++) {
+            if (clientLogger.canLogAtLevel(LogLevel.VERBOSE)) {
+                enabled++;
+            }
+        }
+        return enabled;
+    }
+}
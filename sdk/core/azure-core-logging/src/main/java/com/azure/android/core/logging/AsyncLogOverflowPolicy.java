@@ -0,0 +1,21 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.logging;
+
+/**
+ * The policy applied to a log event when the buffer of the asynchronous logging is full.
+ *
+ * @see ClientLogger#enableAsyncLogging(int, AsyncLogOverflowPolicy)
+ */
+public enum AsyncLogOverflowPolicy {
+    /**
+     * Indicates that the log event is dropped and counted in {@link ClientLogger#getDroppedLogEventCount()}.
+     */
+    DROP,
+
+    /**
+     * Indicates that the logging thread waits until the background writer frees a slot in the buffer.
+     */
+    BLOCK
+}
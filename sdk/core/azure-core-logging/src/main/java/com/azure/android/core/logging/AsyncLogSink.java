@@ -0,0 +1,222 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * package-private.
+ *
+ * A bounded ring buffer of log events, written to the loggers by a single background thread.
+ *
+ * <p>
+ * The logging threads capture the log parameters into one of the pre-allocated event records and return, the
+ * formatting of the message and the call to the underlying logger are done by the writer thread. Any number of
+ * threads can log concurrently, a slot is claimed with a CAS on the claim cursor and published by advancing
+ * the sequence of the slot, so that no lock is taken on the logging path.
+ * </p>
+ */
+final class AsyncLogSink {
+    // The bit set in the claim cursor once the sink is closed and drained, no more slot can be claimed then.
+    private static final long CLOSED_BIT = Long.MIN_VALUE;
+    private static final long BLOCK_PARK_NANOS = 50_000L;
+    private static final AtomicLong DROPPED_EVENT_COUNT = new AtomicLong();
+
+    private final AsyncLogOverflowPolicy overflowPolicy;
+    private final LogEvent[] events;
+    // The sequence of each slot, a slot is free for the claim 'c' when its sequence is 'c', and published for
+    // the claim 'c' when its sequence is 'c + 1'.
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong claimCursor = new AtomicLong();
+    // Accessed only by the writer thread.
+    private long writeCursor;
+    private final Thread writerThread;
+    private volatile boolean writerParked;
+    private volatile boolean closed;
+
+    /**
+     * Creates and starts an AsyncLogSink.
+     *
+     * @param bufferSize The number of events the buffer can hold, rounded up to a power of two.
+     * @param overflowPolicy The policy applied to an event logged when the buffer is full.
+     */
+    AsyncLogSink(int bufferSize, AsyncLogOverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+        final int capacity = bufferSize <= 1 ? 1 : Integer.highestOneBit(bufferSize - 1) << 1;
+        this.events = new LogEvent[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            this.events[i] = new LogEvent();
+            this.sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+        this.writerThread = new Thread(this::runWriter, "azure-async-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Gets the total number of events dropped by the asynchronous logging because the buffer was full.
+     *
+     * @return The number of dropped events.
+     */
+    static long getDroppedEventCount() {
+        return DROPPED_EVENT_COUNT.get();
+    }
+
+    /**
+     * Gets the number of events that can be held in the buffer.
+     *
+     * @return The capacity of the buffer.
+     */
+    int getCapacity() {
+        return this.events.length;
+    }
+
+    /**
+     * Enqueues a log event to be written by the background thread.
+     *
+     * @param clientLogger The logger to write the event to.
+     * @param logLevel The level of the event.
+     * @param isExceptionLogging Flag indicating the event logs an exception.
+     * @param format The formattable message, or the message when {@code args} is null.
+     * @param args The arguments for the message, null for a message that is not formatted.
+     * @return true if the event is enqueued or dropped as per the overflow policy, false if the event must be
+     * written by the calling thread, which is the case when the sink is closed or the caller is the writer thread.
+     */
+    boolean offer(ClientLogger clientLogger, LogLevel logLevel, boolean isExceptionLogging, String format,
+                  Object[] args) {
+        if (Thread.currentThread() == this.writerThread) {
+            // Logging from the writer thread (e.g. by the underlying logger) can't wait for itself.
+            return false;
+        }
+        while (true) {
+            final long claim = this.claimCursor.get();
+            if ((claim & CLOSED_BIT) != 0) {
+                return false;
+            }
+            final int index = (int) claim & this.mask;
+            final long available = this.sequences.get(index) - claim;
+            if (available == 0) {
+                if (this.claimCursor.compareAndSet(claim, claim + 1)) {
+                    this.events[index].set(clientLogger, logLevel, isExceptionLogging, format, args);
+                    this.sequences.set(index, claim + 1);
+                    if (this.writerParked) {
+                        LockSupport.unpark(this.writerThread);
+                    }
+                    return true;
+                }
+            } else if (available < 0) {
+                // The slot still holds the event of the previous lap, the buffer is full.
+                if (this.overflowPolicy == AsyncLogOverflowPolicy.DROP) {
+                    DROPPED_EVENT_COUNT.incrementAndGet();
+                    return true;
+                }
+                LockSupport.unpark(this.writerThread);
+                LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            }
+            // Otherwise another thread claimed the slot, retry with the next one.
+        }
+    }
+
+    /**
+     * Closes the sink, the events enqueued before are written and then the writer thread terminates. An event
+     * logged concurrently with or after the close is either written by the writer thread or rejected from
+     * {@link #offer(ClientLogger, LogLevel, boolean, String, Object[])}.
+     */
+    void close() {
+        this.closed = true;
+        LockSupport.unpark(this.writerThread);
+        if (Thread.currentThread() == this.writerThread) {
+            return;
+        }
+        boolean interrupted = false;
+        while (this.writerThread.isAlive()) {
+            try {
+                this.writerThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWriter() {
+        while (true) {
+            if (writeNext()) {
+                continue;
+            }
+            if (this.closed) {
+                final long claim = this.claimCursor.get();
+                if (claim == this.writeCursor && this.claimCursor.compareAndSet(claim, claim | CLOSED_BIT)) {
+                    return;
+                }
+                // A slot is claimed but its event is not yet published.
+                Thread.yield();
+                continue;
+            }
+            this.writerParked = true;
+            // Re-check after announcing the park, so that an event published concurrently is not missed.
+            if (!isNextPublished() && !this.closed) {
+                LockSupport.park(this);
+            }
+            this.writerParked = false;
+        }
+    }
+
+    private boolean isNextPublished() {
+        final long cursor = this.writeCursor;
+        return this.sequences.get((int) cursor & this.mask) == cursor + 1;
+    }
+
+    private boolean writeNext() {
+        final long cursor = this.writeCursor;
+        final int index = (int) cursor & this.mask;
+        if (this.sequences.get(index) != cursor + 1) {
+            return false;
+        }
+        final LogEvent event = this.events[index];
+        try {
+            event.clientLogger.writeLog(event.logLevel, event.isExceptionLogging, event.format, event.args);
+        } catch (RuntimeException ignored) {
+            // A failure of the underlying logger must not stop the writing of the next events.
+        }
+        event.clear();
+        this.writeCursor = cursor + 1;
+        // Free the slot for the claim of the next lap.
+        this.sequences.set(index, cursor + this.events.length);
+        return true;
+    }
+
+    /**
+     * A pre-allocated record holding the parameters of a log event.
+     */
+    private static final class LogEvent {
+        private ClientLogger clientLogger;
+        private LogLevel logLevel;
+        private boolean isExceptionLogging;
+        private String format;
+        private Object[] args;
+
+        void set(ClientLogger clientLogger, LogLevel logLevel, boolean isExceptionLogging, String format,
+                 Object[] args) {
+            this.clientLogger = clientLogger;
+            this.logLevel = logLevel;
+            this.isExceptionLogging = isExceptionLogging;
+            this.format = format;
+            this.args = args;
+        }
+
+        void clear() {
+            this.clientLogger = null;
+            this.format = null;
+            this.args = null;
+        }
+    }
+}
@@ -9,6 +9,8 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.helpers.NOPLogger;
 
 import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 /**
@@ -29,6 +31,10 @@ import java.util.regex.Pattern;
 public class ClientLogger {
     private static final Pattern CRLF_PATTERN = Pattern.compile("[\r\n]");
     private static final String LINE_SEPARATOR;
+    // The process-wide registry of the shared loggers, populated on first use of a name.
+    private static final ConcurrentMap<String, ClientLogger> LOGGERS = new ConcurrentHashMap<>();
+    // The sink of the asynchronous logging, null when the logging is done by the logging thread.
+    private static volatile AsyncLogSink asyncLogSink;
     private final Logger logger;
 
     static {
@@ -60,6 +66,119 @@ public class ClientLogger {
         logger = initLogger instanceof NOPLogger ? new DefaultLogger(className) : initLogger;
     }
 
+    /**
+     * package-private.
+     *
+     * Creates a ClientLogger wrapping the passed logger.
+     *
+     * @param logger The logger to wrap.
+     */
+    ClientLogger(Logger logger) {
+        this.logger = requireNonNull(logger, "'logger' cannot be null.");
+    }
+
+    /**
+     * Gets the shared logger for the passed class, the logger is created on the first call for the class.
+     *
+     * <p>
+     * Prefer the shared logger in the types created per request (or per call), so that creating such an
+     * object doesn't resolve a logger from the {@link LoggerFactory}.
+     * </p>
+     *
+     * @param clazz Class using the logger.
+     * @return The shared logger.
+     */
+    public static ClientLogger getLogger(Class<?> clazz) {
+        return getLogger(clazz.getName());
+    }
+
+    /**
+     * Gets the shared logger for the passed name, the logger is created on the first call for the name.
+     *
+     * @param name The name of the logger, usually the class name using it.
+     * @return The shared logger.
+     */
+    public static ClientLogger getLogger(String name) {
+        ClientLogger clientLogger = LOGGERS.get(name);
+        if (clientLogger == null) {
+            final ClientLogger newClientLogger = new ClientLogger(name);
+            clientLogger = LOGGERS.putIfAbsent(name, newClientLogger);
+            if (clientLogger == null) {
+                clientLogger = newClientLogger;
+            }
+        }
+        return clientLogger;
+    }
+
+    /**
+     * Enables the asynchronous logging for all the {@link ClientLogger} instances.
+     *
+     * <p>
+     * Once enabled, a logging thread checks the log level and captures the message and its arguments into a
+     * bounded buffer, the formatting of the message and the call to the underlying logger are done by a single
+     * background thread. The events logged by a thread are written in the order they are logged. Note that the
+     * arguments are formatted when the event is written, so they should not be mutated after being logged.
+     * </p>
+     *
+     * <p>
+     * If the asynchronous logging is already enabled, the events pending in the current buffer are written
+     * before switching to the new buffer.
+     * </p>
+     *
+     * @param bufferSize The number of events the buffer can hold, rounded up to the next power of two.
+     * @param overflowPolicy The policy applied to an event logged when the buffer is full.
+     * @throws IllegalArgumentException If {@code bufferSize} is not positive or greater than 2^30.
+     * @throws NullPointerException If {@code overflowPolicy} is {@code null}.
+     */
+    public static void enableAsyncLogging(int bufferSize, AsyncLogOverflowPolicy overflowPolicy) {
+        if (bufferSize <= 0 || bufferSize > (1 << 30)) {
+            throw new IllegalArgumentException("'bufferSize' must be between 1 and 2^30.");
+        }
+        requireNonNull(overflowPolicy, "'overflowPolicy' cannot be null.");
+        synchronized (ClientLogger.class) {
+            final AsyncLogSink previousSink = asyncLogSink;
+            asyncLogSink = new AsyncLogSink(bufferSize, overflowPolicy);
+            if (previousSink != null) {
+                previousSink.close();
+            }
+        }
+    }
+
+    /**
+     * Disables the asynchronous logging, the events pending in the buffer are written before this method returns.
+     */
+    public static void disableAsyncLogging() {
+        synchronized (ClientLogger.class) {
+            final AsyncLogSink previousSink = asyncLogSink;
+            asyncLogSink = null;
+            if (previousSink != null) {
+                previousSink.close();
+            }
+        }
+    }
+
+    /**
+     * Gets the total number of events dropped by the asynchronous logging because its buffer was full, when
+     * enabled with the {@link AsyncLogOverflowPolicy#DROP} policy.
+     *
+     * @return The number of dropped events.
+     */
+    public static long getDroppedLogEventCount() {
+        return AsyncLogSink.getDroppedEventCount();
+    }
+
+    /**
+     * Reads again the log levels of the loggers that log with {@code android.util.Log}.
+     *
+     * <p>
+     * Such loggers keep a snapshot of the levels enabled for their tag, call this method after changing the level
+     * of a tag at runtime (e.g. {@code setprop log.tag.<TAG> VERBOSE}) for the change to be picked up.
+     * </p>
+     */
+    public static void reconfigure() {
+        DefaultLogger.reconfigure();
+    }
+
     /**
      * Logs a message at {@code verbose} log level.
      *
@@ -67,7 +186,7 @@ public class ClientLogger {
      */
     public void verbose(String message) {
         if (logger.isDebugEnabled()) {
-            logger.debug(sanitizeLogMessageInput(message));
+            performLogging(LogLevel.VERBOSE, message);
         }
     }
 
@@ -91,7 +210,7 @@ public class ClientLogger {
      */
     public void info(String message) {
         if (logger.isInfoEnabled()) {
-            logger.info(sanitizeLogMessageInput(message));
+            performLogging(LogLevel.INFORMATIONAL, message);
         }
     }
 
@@ -115,7 +234,7 @@ public class ClientLogger {
      */
     public void warning(String message) {
         if (logger.isWarnEnabled()) {
-            logger.warn(sanitizeLogMessageInput(message));
+            performLogging(LogLevel.WARNING, message);
         }
     }
 
@@ -139,7 +258,7 @@ public class ClientLogger {
      */
     public void error(String message) {
         if (logger.isErrorEnabled()) {
-            logger.error(sanitizeLogMessageInput(message));
+            performLogging(LogLevel.ERROR, message);
         }
     }
 
@@ -230,6 +349,18 @@ public class ClientLogger {
         return throwable;
     }
 
+    /*
+     * Performs the logging of a message that is not formatted.
+     *
+     * @param message The message.
+     */
+    private void performLogging(LogLevel logLevel, String message) {
+        final AsyncLogSink sink = asyncLogSink;
+        if (sink == null || !sink.offer(this, logLevel, false, message, null)) {
+            writeLog(logLevel, false, message, null);
+        }
+    }
+
     /*
      * Performs the logging.
      *
@@ -237,6 +368,29 @@ public class ClientLogger {
      * @param args Arguments for the message, if an exception is being logged last argument is the throwable.
      */
     private void performLogging(LogLevel logLevel, boolean isExceptionLogging, String format, Object... args) {
+        final AsyncLogSink sink = asyncLogSink;
+        if (sink == null || !sink.offer(this, logLevel, isExceptionLogging, format, args)) {
+            writeLog(logLevel, isExceptionLogging, format, args);
+        }
+    }
+
+    /**
+     * package-private.
+     *
+     * Formats the message and writes it to the underlying logger, this is done by the logging thread or by the
+     * writer thread of the asynchronous logging.
+     *
+     * @param logLevel The level of the message.
+     * @param isExceptionLogging Flag indicating an exception is logged.
+     * @param format formattable message, or the message when {@code args} is null.
+     * @param args Arguments for the message, if an exception is being logged last argument is the throwable, null
+     * for a message that is not formatted.
+     */
+    void writeLog(LogLevel logLevel, boolean isExceptionLogging, String format, Object[] args) {
+        if (args == null) {
+            writeMessage(logLevel, sanitizeLogMessageInput(format));
+            return;
+        }
         // If the logging level is less granular than verbose remove the potential throwable from the args.
         String throwableMessage = "";
         if (doesArgsHaveThrowable(args)) {
@@ -286,6 +440,26 @@ public class ClientLogger {
 
     }
 
+    private void writeMessage(LogLevel logLevel, String message) {
+        switch (logLevel) {
+            case VERBOSE:
+                logger.debug(message);
+                break;
+            case INFORMATIONAL:
+                logger.info(message);
+                break;
+            case WARNING:
+                logger.warn(message);
+                break;
+            case ERROR:
+                logger.error(message);
+                break;
+            default:
+                // Don't do anything, this state shouldn't be possible.
+                break;
+        }
+    }
+
     /**
      * Determines if the app or environment logger support logging at the given log level.
      *
@@ -8,12 +8,26 @@ import android.util.Log;
 import org.slf4j.helpers.MarkerIgnoringBase;
 import org.slf4j.helpers.MessageFormatter;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * This is a fluent logger helper class that implements the logging using the Android
  * {@link Log} class and its methods.
+ *
+ * <p>
+ * The levels enabled for the tag of the logger are read with {@link Log#isLoggable(String, int)} once and kept in
+ * a snapshot, so that checking a level doesn't read the system properties each time. The snapshot is refreshed
+ * on the next check following a call to {@link #reconfigure()}.
+ * </p>
  */
 public final class DefaultLogger extends MarkerIgnoringBase {
     private static final long serialVersionUID = 1L;
+    private static final int LEVEL_BITS = 8;
+    private static final int GENERATION_MASK = -1 >>> LEVEL_BITS;
+    // The generation of the level snapshots, starts at 1 so that a zero snapshot is never current.
+    private static final AtomicInteger GENERATION = new AtomicInteger(1);
+    // The generation the levels were read in (high bits) and the bit of each enabled Android level (low bits).
+    private transient volatile int levelSnapshot;
 
     /**
      * Construct DefaultLogger for the given class.
@@ -33,12 +47,24 @@ public final class DefaultLogger extends MarkerIgnoringBase {
         this.name = LogUtils.ensureValidLoggerName(name);
     }
 
+    /**
+     * Marks the level snapshots of all the DefaultLogger instances as stale, each logger reads its levels again
+     * with {@link Log#isLoggable(String, int)} on its next level check.
+     *
+     * <p>
+     * Call this method after changing the level of a tag at runtime (e.g. {@code setprop log.tag.<TAG> VERBOSE}).
+     * </p>
+     */
+    public static void reconfigure() {
+        GENERATION.incrementAndGet();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public boolean isTraceEnabled() {
-        return Log.isLoggable(name, Log.VERBOSE);
+        return isLoggable(Log.VERBOSE);
     }
 
     /**
@@ -86,7 +112,7 @@ public final class DefaultLogger extends MarkerIgnoringBase {
      */
     @Override
     public boolean isDebugEnabled() {
-        return Log.isLoggable(name, Log.DEBUG);
+        return isLoggable(Log.DEBUG);
     }
 
     /**
@@ -134,7 +160,7 @@ public final class DefaultLogger extends MarkerIgnoringBase {
      */
     @Override
     public boolean isInfoEnabled() {
-        return Log.isLoggable(name, Log.INFO);
+        return isLoggable(Log.INFO);
     }
 
     /**
@@ -182,7 +208,7 @@ public final class DefaultLogger extends MarkerIgnoringBase {
      */
     @Override
     public boolean isWarnEnabled() {
-        return Log.isLoggable(name, Log.WARN);
+        return isLoggable(Log.WARN);
     }
 
     /**
@@ -230,7 +256,7 @@ public final class DefaultLogger extends MarkerIgnoringBase {
      */
     @Override
     public boolean isErrorEnabled() {
-        return Log.isLoggable(name, Log.ERROR);
+        return isLoggable(Log.ERROR);
     }
 
     /**
@@ -273,6 +299,21 @@ public final class DefaultLogger extends MarkerIgnoringBase {
         Log.e(name, msg, t);
     }
 
+    private boolean isLoggable(final int level) {
+        int snapshot = this.levelSnapshot;
+        final int generation = GENERATION.get() & GENERATION_MASK;
+        if ((snapshot >>> LEVEL_BITS) != generation) {
+            snapshot = generation << LEVEL_BITS;
+            for (int l = Log.VERBOSE; l <= Log.ERROR; l++) {
+                if (Log.isLoggable(name, l)) {
+                    snapshot |= 1 << l;
+                }
+            }
+            this.levelSnapshot = snapshot;
+        }
+        return (snapshot & (1 << level)) != 0;
+    }
+
     private String format(final String format, final Object arg1, final Object arg2) {
         return MessageFormatter.format(format, arg1, arg2).getMessage();
     }
@@ -0,0 +1,175 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.slf4j.Logger;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class AsyncLoggingTest {
+    @AfterEach
+    public void disableAsyncLogging() {
+        ClientLogger.disableAsyncLogging();
+    }
+
+    @Test
+    public void eventsAreWrittenInOrderByWriterThread() {
+        final Logger logger = mock(Logger.class);
+        when(logger.isInfoEnabled()).thenReturn(true);
+        final AtomicReference<Thread> writingThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            writingThread.set(Thread.currentThread());
+            return null;
+        }).when(logger).info(eq("done"));
+
+        ClientLogger.enableAsyncLogging(16, AsyncLogOverflowPolicy.BLOCK);
+        final ClientLogger clientLogger = new ClientLogger(logger);
+        for (int i = 0; i < 100; i++) {
+            clientLogger.info("message {}", i);
+        }
+        clientLogger.info("done");
+        ClientLogger.disableAsyncLogging();
+
+        final InOrder inOrder = inOrder(logger);
+        for (int i = 0; i < 100; i++) {
+            inOrder.verify(logger).info("message {}", new Object[] { i });
+        }
+        inOrder.verify(logger).info("done");
+        assertNotNull(writingThread.get());
+        assertNotSame(Thread.currentThread(), writingThread.get());
+    }
+
+    @Test
+    public void dropPolicyCountsDroppedEvents() throws InterruptedException {
+        final Logger logger = mock(Logger.class);
+        when(logger.isInfoEnabled()).thenReturn(true);
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            awaitOnLatch(release);
+            return null;
+        }).when(logger).info(eq("first"));
+
+        final long droppedBefore = ClientLogger.getDroppedLogEventCount();
+        ClientLogger.enableAsyncLogging(4, AsyncLogOverflowPolicy.DROP);
+        final ClientLogger clientLogger = new ClientLogger(logger);
+        clientLogger.info("first");
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+        // The slot of the event being written is freed once written, so the buffer is full after 3 more events.
+        for (int i = 0; i < 10; i++) {
+            clientLogger.info("message {}", i);
+        }
+        release.countDown();
+        ClientLogger.disableAsyncLogging();
+
+        assertEquals(7, ClientLogger.getDroppedLogEventCount() - droppedBefore);
+        for (int i = 0; i < 3; i++) {
+            verify(logger).info("message {}", new Object[] { i });
+        }
+        verify(logger, never()).info("message {}", new Object[] { 3 });
+    }
+
+    @Test
+    public void blockPolicyWritesAllEvents() throws InterruptedException {
+        final Logger logger = mock(Logger.class);
+        when(logger.isWarnEnabled()).thenReturn(true);
+        final long droppedBefore = ClientLogger.getDroppedLogEventCount();
+        ClientLogger.enableAsyncLogging(2, AsyncLogOverflowPolicy.BLOCK);
+        final ClientLogger clientLogger = new ClientLogger(logger);
+
+        final int threadCount = 4;
+        final int eventsPerThread = 1_000;
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < eventsPerThread; i++) {
+                    clientLogger.warning("message");
+                }
+                latch.countDown();
+            }).start();
+        }
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        ClientLogger.disableAsyncLogging();
+
+        verify(logger, times(threadCount * eventsPerThread)).warn("message");
+        assertEquals(droppedBefore, ClientLogger.getDroppedLogEventCount());
+    }
+
+    @Test
+    public void loggingFromWriterThreadIsWrittenSynchronously() {
+        final Logger logger = mock(Logger.class);
+        when(logger.isInfoEnabled()).thenReturn(true);
+        final ClientLogger clientLogger = new ClientLogger(logger);
+        doAnswer(invocation -> {
+            clientLogger.info("nested");
+            return null;
+        }).when(logger).info(eq("outer"));
+
+        ClientLogger.enableAsyncLogging(1, AsyncLogOverflowPolicy.BLOCK);
+        clientLogger.info("outer");
+        ClientLogger.disableAsyncLogging();
+
+        final InOrder inOrder = inOrder(logger);
+        inOrder.verify(logger).info("outer");
+        inOrder.verify(logger).info("nested");
+    }
+
+    @Test
+    public void loggingIsSynchronousWhenDisabled() {
+        final Logger logger = mock(Logger.class);
+        when(logger.isErrorEnabled()).thenReturn(true);
+        final ClientLogger clientLogger = new ClientLogger(logger);
+        clientLogger.error("message");
+
+        verify(logger).error("message");
+    }
+
+    @Test
+    public void invalidArguments() {
+        assertThrows(IllegalArgumentException.class,
+            () -> ClientLogger.enableAsyncLogging(0, AsyncLogOverflowPolicy.DROP));
+        assertThrows(NullPointerException.class, () -> ClientLogger.enableAsyncLogging(8, null));
+    }
+
+    @Test
+    public void bufferSizeIsRoundedUpToPowerOfTwo() {
+        assertEquals(1, getCapacity(1));
+        assertEquals(8, getCapacity(5));
+        assertEquals(16, getCapacity(16));
+    }
+
+    private static int getCapacity(int bufferSize) {
+        final AsyncLogSink sink = new AsyncLogSink(bufferSize, AsyncLogOverflowPolicy.DROP);
+        sink.close();
+        return sink.getCapacity();
+    }
+
+    private static void awaitOnLatch(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
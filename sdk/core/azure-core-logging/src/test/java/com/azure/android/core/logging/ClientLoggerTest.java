@@ -4,6 +4,8 @@
 package com.azure.android.core.logging;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import org.junit.jupiter.api.Test;
 
@@ -13,4 +15,13 @@ public class ClientLoggerTest {
         ClientLogger clientLogger = new ClientLogger(ClientLoggerTest.class);
         assertNotNull(clientLogger);
     }
+
+    @Test
+    public void sharedLoggerIsCreatedOncePerName() {
+        ClientLogger clientLogger = ClientLogger.getLogger(ClientLoggerTest.class);
+        assertNotNull(clientLogger);
+        assertSame(clientLogger, ClientLogger.getLogger(ClientLoggerTest.class));
+        assertSame(clientLogger, ClientLogger.getLogger(ClientLoggerTest.class.getName()));
+        assertNotSame(clientLogger, ClientLogger.getLogger("other-logger"));
+    }
 }
@@ -4,11 +4,13 @@
 package com.azure.android.core.rest;
 
 
+import com.azure.android.core.http.HttpCallTimings;
 import com.azure.android.core.http.HttpCallback;
 import com.azure.android.core.http.HttpPipeline;
 import com.azure.android.core.http.HttpRequest;
 import com.azure.android.core.http.HttpResponse;
 import com.azure.android.core.http.exception.HttpResponseException;
+import com.azure.android.core.http.metrics.MetricsSink;
 import com.azure.android.core.serde.jackson.JacksonSerder;
 import com.azure.android.core.util.CancellationToken;
 import com.azure.android.core.util.RequestContext;
@@ -80,9 +82,14 @@ public final class RestProxy implements InvocationHandler {
             return null;
         }
 
-        this.httpPipeline.send(httpRequest, RequestContext.NONE,
+        final MetricsSink metricsSink = this.httpPipeline.getMetricsSink();
+        final RequestContext requestContext = metricsSink == null
+            ? RequestContext.NONE
+            : RequestContext.NONE.addData(MetricsSink.OPERATION_NAME_CONTEXT_KEY, methodParser.getMethodFullName());
+
+        this.httpPipeline.send(httpRequest, requestContext,
             cancellationToken,
-            new HttpPipelineCallback(methodParser, restCallback));
+            new HttpPipelineCallback(methodParser, metricsSink, restCallback, this.logger));
         return null;
     }
 
@@ -94,26 +101,54 @@ public final class RestProxy implements InvocationHandler {
 
     private static class HttpPipelineCallback implements HttpCallback {
         private final SwaggerMethodParser methodParser;
+        private final MetricsSink metricsSink;
         private final Callback<Response<?>> restCallback;
+        private final ClientLogger logger;
 
-        HttpPipelineCallback(SwaggerMethodParser methodParser, Callback<Response<?>> restCallback) {
+        HttpPipelineCallback(SwaggerMethodParser methodParser,
+                             MetricsSink metricsSink,
+                             Callback<Response<?>> restCallback,
+                             ClientLogger logger) {
             this.methodParser = methodParser;
+            this.metricsSink = metricsSink;
             this.restCallback = restCallback;
+            this.logger = logger;
         }
 
         @Override
         public void onSuccess(HttpResponse httpResponse) {
+            final long startNanos = this.metricsSink == null ? 0 : System.nanoTime();
             final Response<?> restResponse;
             try {
                 restResponse = this.methodParser.mapToRestResponse(httpResponse);
             } catch (Throwable e) {
                 this.restCallback.onFailure(e);
                 return;
+            } finally {
+                if (this.metricsSink != null) {
+                    this.record(MetricsSink.DESERIALIZATION_TIME, System.nanoTime() - startNanos);
+                    // The body is read by now, unless the method returns the body stream.
+                    final HttpCallTimings timings = httpResponse.getTimings();
+                    if (timings != null && timings.getBodyReadNanos() != HttpCallTimings.NOT_MEASURED) {
+                        this.record(MetricsSink.BODY_READ_TIME, timings.getBodyReadNanos());
+                    }
+                }
             }
 
             this.restCallback.onSuccess(restResponse);
         }
 
+        /**
+         * Records a metric of the call, a sink failing to record it does not fail the call.
+         */
+        private void record(String metricName, long value) {
+            try {
+                this.metricsSink.record(this.methodParser.getMethodFullName(), metricName, value);
+            } catch (RuntimeException e) {
+                this.logger.logThrowableAsWarning(e);
+            }
+        }
+
         @Override
         public void onError(Throwable error) {
             this.restCallback.onFailure(error);
@@ -0,0 +1,232 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.rest.util.paging;
+
+import com.azure.android.core.logging.ClientLogger;
+import com.azure.android.core.util.Function;
+import com.azure.android.core.util.Predicate;
+import com.azure.android.core.util.AsyncStream;
+import com.azure.android.core.util.AsyncStreamHandler;
+import com.azure.android.core.util.AsyncStreamSubscriber;
+import com.azure.android.core.util.AsyncStreamSubscription;
+import com.azure.android.core.util.CancellationToken;
+
+import java.util.concurrent.CancellationException;
+
+import java9.util.concurrent.CompletableFuture;
+import java9.util.concurrent.CompletionException;
+
+/**
+ * An {@link AsyncStream} of the pages of a paginated REST API, retrieved one at a time with a
+ * {@code CompletableFuture} returning page retriever.
+ *
+ * <p>
+ * {@link #subscribe(AsyncStreamSubscriber)} retrieves a page only once the subscriber requested it, so a
+ * {@link PagedAsyncStream} backed by this stream retrieves the next page only when the demand needs it.
+ * {@link #forEach(AsyncStreamHandler)} retrieves the pages one after the other until the last page.
+ * </p>
+ *
+ * @param <T> The type of element in the page.
+ */
+public final class CFBackedPageAsyncStream<T>
+    implements AsyncStream<PagedResponse<T>> {
+    private final Function<String, CompletableFuture<PagedResponse<T>>> pageRetriever;
+    private final Predicate<String> continuationPredicate;
+    private final String startPageId;
+    private final ClientLogger logger;
+
+    /**
+     * Creates an instance of {@link CFBackedPageAsyncStream}.
+     *
+     * @param pageRetriever The function to retrieve the page with the given id, the id of the first page being
+     *     {@code startPageId}.
+     * @param continuationPredicate The predicate testing whether the continuation token of a page identifies
+     *     another page to retrieve.
+     * @param startPageId The id of the first page, null if the first page has no id.
+     * @param logger The logger to log.
+     * @throws NullPointerException if pageRetriever, continuationPredicate or logger is null.
+     */
+    public CFBackedPageAsyncStream(Function<String, CompletableFuture<PagedResponse<T>>> pageRetriever,
+                                   Predicate<String> continuationPredicate,
+                                   String startPageId,
+                                   ClientLogger logger) {
+        if (logger == null) {
+            throw new NullPointerException("'logger' cannot be null.");
+        }
+        if (pageRetriever == null) {
+            throw logger.logExceptionAsError(new NullPointerException("'pageRetriever' cannot be null."));
+        }
+        if (continuationPredicate == null) {
+            throw logger.logExceptionAsError(new NullPointerException("'continuationPredicate' cannot be null."));
+        }
+        this.pageRetriever = pageRetriever;
+        this.continuationPredicate = continuationPredicate;
+        this.startPageId = startPageId;
+        this.logger = logger;
+    }
+
+    @Override
+    public CancellationToken forEach(AsyncStreamHandler<PagedResponse<T>> handler) {
+        final CancellationToken token = new CancellationToken();
+        handler.onInit(token);
+        if (token.isCancellationRequested()) {
+            handler.onError(new CancellationException());
+            return token;
+        }
+
+        final CompletableFuture<Void> completableFuture = this.enumeratePages(startPageId, token, handler);
+        token.registerOnCancel(() -> {
+            completableFuture.cancel(true);
+        });
+        completableFuture.whenCompleteAsync((ignored, throwable) -> {
+            if (throwable != null) {
+                if (throwable instanceof CompletionException && throwable.getCause() != null) {
+                    // unwrap CF's CompletionException.
+                    handler.onError(throwable.getCause());
+                } else {
+                    handler.onError(throwable);
+                }
+            } else {
+                handler.onComplete();
+            }
+        });
+        return token;
+    }
+
+    @Override
+    public void subscribe(AsyncStreamSubscriber<PagedResponse<T>> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("'subscriber' cannot be null.");
+        }
+        new PageSubscription(subscriber).begin();
+    }
+
+    private CompletableFuture<Void> enumeratePages(String pageId,
+                                                   CancellationToken token,
+                                                   AsyncStreamHandler<PagedResponse<T>> handler) {
+        return this.pageRetriever.call(pageId).handleAsync((pagedResponse, throwable) -> {
+            if (throwable != null) {
+                if (throwable instanceof RuntimeException) {
+                    // avoid double-wrapping for already unchecked exception
+                    throw logger.logExceptionAsError((RuntimeException) throwable);
+                } else {
+                    // wrap checked exception in a unchecked runtime exception
+                    throw logger.logExceptionAsError(new RuntimeException(throwable));
+                }
+            }
+
+            handler.onNext(pagedResponse);
+
+            final String nextPageId = pagedResponse.getContinuationToken();
+            return continuationPredicate.test(nextPageId) ? nextPageId : null;
+
+        }).thenCompose(nextPageId -> {
+            if (token.isCancellationRequested()) {
+                return CompletableFuture.failedFuture(new CancellationException());
+            } else {
+                return nextPageId != null
+                    ? this.enumeratePages(nextPageId, token, handler)
+                    : CompletableFuture.completedFuture(null);
+            }
+        });
+    }
+
+    // The subscription retrieving a page only when the subscriber requested it, one page at a time.
+    //
+    private final class PageSubscription implements AsyncStreamSubscription {
+        private final AsyncStreamSubscriber<PagedResponse<T>> subscriber;
+        // Guarded by 'this'.
+        private long demand;
+        private boolean retrieving;
+        private boolean terminated;
+        private String nextPageId = startPageId;
+        private CompletableFuture<PagedResponse<T>> pendingPage;
+
+        PageSubscription(AsyncStreamSubscriber<PagedResponse<T>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void begin() {
+            this.subscriber.onSubscribe(this);
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.cancel();
+                this.subscriber.onError(new IllegalArgumentException("'n' must be positive, provided: " + n));
+                return;
+            }
+            synchronized (this) {
+                this.demand = this.demand + n < 0 ? Long.MAX_VALUE : this.demand + n;
+            }
+            this.retrieveNextPage();
+        }
+
+        @Override
+        public void cancel() {
+            final CompletableFuture<PagedResponse<T>> pendingPage;
+            synchronized (this) {
+                this.terminated = true;
+                pendingPage = this.pendingPage;
+            }
+            if (pendingPage != null) {
+                pendingPage.cancel(true);
+            }
+        }
+
+        private void retrieveNextPage() {
+            final String pageId;
+            synchronized (this) {
+                if (this.retrieving || this.terminated || this.demand == 0) {
+                    return;
+                }
+                this.retrieving = true;
+                pageId = this.nextPageId;
+            }
+            final CompletableFuture<PagedResponse<T>> pendingPage = pageRetriever.call(pageId);
+            synchronized (this) {
+                this.pendingPage = pendingPage;
+            }
+            pendingPage.whenCompleteAsync(this::onPageRetrieved);
+        }
+
+        private void onPageRetrieved(PagedResponse<T> pagedResponse, Throwable throwable) {
+            final boolean isLastPage;
+            synchronized (this) {
+                if (this.terminated) {
+                    return;
+                }
+                if (throwable != null) {
+                    this.terminated = true;
+                } else {
+                    if (this.demand != Long.MAX_VALUE) {
+                        this.demand--;
+                    }
+                    final String continuationToken = pagedResponse.getContinuationToken();
+                    this.nextPageId = continuationPredicate.test(continuationToken) ? continuationToken : null;
+                    this.terminated = this.nextPageId == null;
+                }
+                isLastPage = this.terminated;
+            }
+
+            if (throwable != null) {
+                // unwrap CF's CompletionException.
+                this.subscriber.onError(throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause()
+                    : throwable);
+                return;
+            }
+            this.subscriber.onNext(pagedResponse);
+            if (isLastPage) {
+                this.subscriber.onComplete();
+                return;
+            }
+            synchronized (this) {
+                this.retrieving = false;
+            }
+            this.retrieveNextPage();
+        }
+    }
+}
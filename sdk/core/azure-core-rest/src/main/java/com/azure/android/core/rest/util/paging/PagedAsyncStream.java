@@ -8,10 +8,17 @@ import com.azure.android.core.util.BiConsumer;
 import com.azure.android.core.util.Function;
 import com.azure.android.core.util.AsyncStream;
 import com.azure.android.core.util.AsyncStreamHandler;
+import com.azure.android.core.util.AsyncStreamSubscriber;
+import com.azure.android.core.util.AsyncStreamSubscription;
 import com.azure.android.core.util.CancellationToken;
 import com.azure.android.core.util.paging.PagedAsyncStreamCore;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * PagedAsyncStream provides the ability to asynchronously enumerate paginated REST responses of type
@@ -56,6 +63,21 @@ public final class PagedAsyncStream<T> implements PagedAsyncStreamCore<String, T
         return new PageElementAsyncStream<>(this.byPage()).forEach(handler);
     }
 
+    /**
+     * Subscribe to the {@link PagedAsyncStream} to receive the page elements across all pages on demand.
+     *
+     * A page is retrieved only once the elements of the previous pages are delivered and more elements
+     * are requested, as long as the page stream backing this stream retrieves the pages on demand, such as
+     * {@link CFBackedPageAsyncStream}. A page stream relying on the default
+     * {@link AsyncStream#subscribe(AsyncStreamSubscriber)} retrieves all the pages eagerly.
+     *
+     * @param subscriber The subscriber to receive the elements.
+     */
+    @Override
+    public void subscribe(AsyncStreamSubscriber<T> subscriber) {
+        new PageElementAsyncStream<>(this.byPage()).subscribe(subscriber);
+    }
+
     /**
      * {@inheritdoc}
      */
@@ -172,5 +194,132 @@ public final class PagedAsyncStream<T> implements PagedAsyncStreamCore<String, T
                 }
             });
         }
+
+        @Override
+        public void subscribe(AsyncStreamSubscriber<T> subscriber) {
+            if (subscriber == null) {
+                throw new NullPointerException("'subscriber' cannot be null.");
+            }
+            this.pageSourceStream.subscribe(new PageElementSubscription<>(subscriber));
+        }
+    }
+
+    // The subscription delivering the elements of pages to the downstream subscriber on demand,
+    // requesting a page from the page stream one at a time, only when the elements of the
+    // previous pages are delivered and there is outstanding demand.
+    //
+    private static final class PageElementSubscription<T>
+        implements AsyncStreamSubscription, AsyncStreamSubscriber<PagedResponse<T>> {
+        private final AsyncStreamSubscriber<T> downstream;
+        private final Queue<PagedResponse<T>> pages = new ConcurrentLinkedQueue<>();
+        private final AtomicLong demand = new AtomicLong();
+        // The number of drain requests, only the thread bringing it from 0 to 1 delivers the signals.
+        private final AtomicInteger drainRequests = new AtomicInteger();
+        private AsyncStreamSubscription upstream;
+        // Accessed only by the draining thread.
+        private Iterator<T> elements;
+        private boolean pageRequested;
+        private volatile boolean cancelled;
+        private volatile boolean done;
+        private volatile Throwable error;
+
+        PageElementSubscription(AsyncStreamSubscriber<T> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(AsyncStreamSubscription subscription) {
+            this.upstream = subscription;
+            this.downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(PagedResponse<T> page) {
+            this.pages.offer(page);
+            this.drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+            this.done = true;
+            this.drain();
+        }
+
+        @Override
+        public void onComplete() {
+            this.done = true;
+            this.drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.cancel();
+                this.downstream.onError(new IllegalArgumentException("'n' must be positive, provided: " + n));
+                return;
+            }
+            long current;
+            long updated;
+            do {
+                current = this.demand.get();
+                updated = current + n < 0 ? Long.MAX_VALUE : current + n;
+            } while (!this.demand.compareAndSet(current, updated));
+            this.drain();
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            this.upstream.cancel();
+        }
+
+        private void drain() {
+            if (this.drainRequests.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (!this.cancelled) {
+                    if (this.elements != null && this.elements.hasNext()) {
+                        if (this.demand.get() == 0) {
+                            break;
+                        }
+                        final T element = this.elements.next();
+                        if (this.demand.get() != Long.MAX_VALUE) {
+                            this.demand.decrementAndGet();
+                        }
+                        this.downstream.onNext(element);
+                        continue;
+                    }
+                    // Read 'done' before polling, a page signaled before the completion is then never missed.
+                    final boolean isDone = this.done;
+                    final PagedResponse<T> page = this.pages.poll();
+                    if (page != null) {
+                        this.pageRequested = false;
+                        final List<T> items = page.getElements();
+                        this.elements = items == null ? null : items.iterator();
+                        continue;
+                    }
+                    if (isDone) {
+                        this.cancelled = true;
+                        final Throwable throwable = this.error;
+                        if (throwable != null) {
+                            this.downstream.onError(throwable);
+                        } else {
+                            this.downstream.onComplete();
+                        }
+                        return;
+                    }
+                    if (this.demand.get() > 0 && !this.pageRequested) {
+                        // The current page is exhausted and more elements are requested, retrieve the next page.
+                        this.pageRequested = true;
+                        this.upstream.request(1);
+                    }
+                    break;
+                }
+                missed = this.drainRequests.addAndGet(-missed);
+            } while (missed != 0);
+        }
     }
 }
@@ -11,6 +11,10 @@ import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * PagedIterable provides the ability to enumerate paginated REST responses of type
@@ -18,11 +22,21 @@ import java.util.NoSuchElementException;
  * When processing the response by page each response will contain the elements in the page
  * as well as the REST response details such as status code and headers.
  *
+ * <p>
+ * By default, a page is retrieved only when the enumeration reaches it. When created with a read-ahead
+ * page count, the {@link PagedIterable} retrieves up to that many pages ahead of the page being enumerated
+ * on the given {@link Executor}, so that the retrieval of the next pages overlaps with the processing of
+ * the current one. Pages are still enumerated in order, and an error retrieving a page is thrown when the
+ * enumeration reaches that page.
+ * </p>
+ *
  * @param <T> The type of page elements contained in this {@link PagedIterable}.
  */
 public class PagedIterable<T> implements Iterable<T> {
     private final Function<String, PagedResponse<T>> pageRetriever;
     private final Predicate<String> continuationPredicate;
+    private final int readAheadPageCount;
+    private final Executor readAheadExecutor;
     private final ClientLogger logger;
 
     /**
@@ -37,6 +51,42 @@ public class PagedIterable<T> implements Iterable<T> {
                          ClientLogger logger) {
         this.pageRetriever = pageRetriever;
         this.continuationPredicate = continuationPredicate;
+        this.readAheadPageCount = 0;
+        this.readAheadExecutor = null;
+        this.logger = logger;
+    }
+
+    /**
+     * Creates an instance of {@link PagedIterable} that retrieves pages ahead of the page being enumerated.
+     *
+     * @param pageRetriever The page retriever.
+     * @param continuationPredicate A predicate which determines if paging should continue.
+     * @param readAheadPageCount The maximum number of pages to retrieve ahead of the page being enumerated,
+     *     0 disables the read-ahead.
+     * @param readAheadExecutor The executor to retrieve the pages ahead on, its bound on concurrency bounds
+     *     the number of retrievals running in the background.
+     * @param logger The logger to log.
+     * @throws IllegalArgumentException if {@code readAheadPageCount} is negative.
+     * @throws NullPointerException if {@code readAheadPageCount} is positive and {@code readAheadExecutor}
+     *     is null.
+     */
+    public PagedIterable(Function<String, PagedResponse<T>> pageRetriever,
+                         Predicate<String> continuationPredicate,
+                         int readAheadPageCount,
+                         Executor readAheadExecutor,
+                         ClientLogger logger) {
+        if (readAheadPageCount < 0) {
+            throw logger.logExceptionAsError(
+                new IllegalArgumentException("'readAheadPageCount' cannot be negative, provided: "
+                    + readAheadPageCount));
+        }
+        if (readAheadPageCount > 0 && readAheadExecutor == null) {
+            throw logger.logExceptionAsError(new NullPointerException("'readAheadExecutor' cannot be null."));
+        }
+        this.pageRetriever = pageRetriever;
+        this.continuationPredicate = continuationPredicate;
+        this.readAheadPageCount = readAheadPageCount;
+        this.readAheadExecutor = readAheadExecutor;
         this.logger = logger;
     }
 
@@ -51,7 +101,7 @@ public class PagedIterable<T> implements Iterable<T> {
      * @return A {@link Iterable} of {@link PagedResponse}.
      */
     public Iterable<PagedResponse<T>> byPage() {
-        return new PagedResponseIterable(this.pageRetriever, null, this.continuationPredicate, this.logger);
+        return this.byPage(null);
     }
 
     /**
@@ -62,7 +112,12 @@ public class PagedIterable<T> implements Iterable<T> {
      * @return A {@link Iterable} of {@link PagedResponse}.
      */
     public Iterable<PagedResponse<T>> byPage(String startPageId) {
-        return new PagedResponseIterable(this.pageRetriever, startPageId, this.continuationPredicate, this.logger);
+        return new PagedResponseIterable(this.pageRetriever,
+            startPageId,
+            this.continuationPredicate,
+            this.readAheadPageCount,
+            this.readAheadExecutor,
+            this.logger);
     }
 
     /**
@@ -93,20 +148,34 @@ public class PagedIterable<T> implements Iterable<T> {
         private final Function<String, PagedResponse<T>> pageRetriever;
         private String nextPageId;
         private final Predicate<String> continuationPredicate;
+        private final int readAheadPageCount;
+        private final Executor readAheadExecutor;
         private final ClientLogger logger;
 
         PagedResponseIterable(Function<String, PagedResponse<T>> pageRetriever,
                               String startPageId,
                               Predicate<String> continuationPredicate,
+                              int readAheadPageCount,
+                              Executor readAheadExecutor,
                               ClientLogger logger) {
             this.pageRetriever = pageRetriever;
             this.nextPageId = startPageId;
             this.continuationPredicate = continuationPredicate;
+            this.readAheadPageCount = readAheadPageCount;
+            this.readAheadExecutor = readAheadExecutor;
             this.logger = logger;
         }
 
         @Override
         public Iterator<T> iterator() {
+            if (this.readAheadPageCount > 0) {
+                return new ReadAheadPagedResponseIterator(this.pageRetriever,
+                    this.nextPageId,
+                    this.continuationPredicate,
+                    this.readAheadPageCount,
+                    this.readAheadExecutor,
+                    this.logger);
+            }
             return new PagedResponseIterator(this.pageRetriever,
                 this.nextPageId,
                 this.continuationPredicate,
@@ -147,13 +216,136 @@ public class PagedIterable<T> implements Iterable<T> {
                 return response;
             }
         }
+
+        /**
+         * An iterator of pages that retrieves up to {@code readAheadPageCount} pages ahead of the page
+         * returned last. The retrievals run one after the other on the read-ahead executor, since the
+         * continuation token of a page identifies the next one.
+         */
+        private static final class ReadAheadPagedResponseIterator<T>
+            implements Iterator<PagedResponse<T>> {
+            private final Function<String, PagedResponse<T>> pageRetriever;
+            private final Predicate<String> continuationPredicate;
+            private final int readAheadPageCount;
+            private final Executor readAheadExecutor;
+            private final ClientLogger logger;
+            // The retrievals of the pages not returned yet, in page order, the last one may be in progress.
+            private final Deque<FutureTask<PagedResponse<T>>> pages = new ArrayDeque<>();
+            private String nextPageId;
+            private boolean retrieving;
+            private boolean retrievalExhausted;
+            private boolean isExhausted;
+
+            ReadAheadPagedResponseIterator(Function<String, PagedResponse<T>> pageRetriever,
+                                           String startPageId,
+                                           Predicate<String> continuationPredicate,
+                                           int readAheadPageCount,
+                                           Executor readAheadExecutor,
+                                           ClientLogger logger) {
+                this.pageRetriever = pageRetriever;
+                this.nextPageId = startPageId;
+                this.continuationPredicate = continuationPredicate;
+                this.readAheadPageCount = readAheadPageCount;
+                this.readAheadExecutor = readAheadExecutor;
+                this.logger = logger;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !this.isExhausted;
+            }
+
+            @Override
+            public PagedResponse<T> next() {
+                if (this.isExhausted) {
+                    throw this.logger.logExceptionAsError(new NoSuchElementException());
+                }
+                FutureTask<PagedResponse<T>> page;
+                synchronized (this) {
+                    if (this.pages.isEmpty()) {
+                        this.retrieveNextPage();
+                    }
+                    page = this.pages.poll();
+                }
+                if (page == null) {
+                    this.isExhausted = true;
+                    throw this.logger.logExceptionAsError(new NoSuchElementException());
+                }
+                // Keep retrieving ahead while the caller processes this page.
+                this.retrieveNextPage();
+
+                final PagedResponse<T> response;
+                try {
+                    response = page.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    this.isExhausted = true;
+                    throw this.logger.logExceptionAsError(new RuntimeException(e));
+                } catch (ExecutionException e) {
+                    // Surface the error at the position of the page that failed.
+                    this.isExhausted = true;
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw this.logger.logExceptionAsError((RuntimeException) cause);
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    } else {
+                        throw this.logger.logExceptionAsError(new RuntimeException(cause));
+                    }
+                }
+                this.isExhausted = !this.continuationPredicate.test(response.getContinuationToken());
+                return response;
+            }
+
+            /**
+             * Starts the retrieval of the next page, unless a retrieval is in progress, the last page is
+             * retrieved, or enough pages are retrieved ahead.
+             */
+            private void retrieveNextPage() {
+                final FutureTask<PagedResponse<T>> page;
+                synchronized (this) {
+                    if (this.retrieving
+                        || this.retrievalExhausted
+                        || this.pages.size() >= this.readAheadPageCount) {
+                        return;
+                    }
+                    final String pageId = this.nextPageId;
+                    page = new FutureTask<>(() -> {
+                        final PagedResponse<T> response;
+                        try {
+                            response = this.pageRetriever.call(pageId);
+                        } catch (RuntimeException | Error e) {
+                            synchronized (this) {
+                                this.retrieving = false;
+                                this.retrievalExhausted = true;
+                            }
+                            throw e;
+                        }
+                        synchronized (this) {
+                            this.retrieving = false;
+                            this.nextPageId = response.getContinuationToken();
+                            this.retrievalExhausted = !this.continuationPredicate.test(this.nextPageId);
+                        }
+                        this.retrieveNextPage();
+                        return response;
+                    });
+                    this.retrieving = true;
+                    this.pages.add(page);
+                }
+                try {
+                    this.readAheadExecutor.execute(page);
+                } catch (RejectedExecutionException e) {
+                    // The executor is saturated or shut down, retrieve the page in the calling thread.
+                    page.run();
+                }
+            }
+        }
     }
 
     private static final class PageItemIterator<T> implements Iterator<T> {
         private final Iterator<PagedResponse<T>> pagedResponseIterator;
         private final ClientLogger logger;
         private final Deque<T> queue = new ArrayDeque<>();
-        private boolean isExhausted;
 
         PageItemIterator(Iterator<PagedResponse<T>> pagedResponseIterator, ClientLogger logger) {
             this.pagedResponseIterator = pagedResponseIterator;
@@ -162,30 +354,19 @@ public class PagedIterable<T> implements Iterable<T> {
 
         @Override
         public boolean hasNext() {
-            return !this.isExhausted;
+            // Move past empty pages, the iteration ends only once the items of the last page are returned.
+            while (this.queue.isEmpty() && this.pagedResponseIterator.hasNext()) {
+                this.queue.addAll(this.pagedResponseIterator.next().getValue());
+            }
+            return !this.queue.isEmpty();
         }
 
         @Override
         public T next() {
-            if (this.isExhausted) {
+            if (!this.hasNext()) {
                 throw this.logger.logExceptionAsError(new NoSuchElementException());
             }
-            if (this.queue.size() > 0) {
-                return this.queue.pop();
-            } else {
-                if (this.pagedResponseIterator.hasNext()) {
-                    final PagedResponse<T> response = this.pagedResponseIterator.next();
-                    this.queue.addAll(response.getValue());
-                    this.isExhausted = response.getContinuationToken() == null;
-                    if (this.queue.size() > 0) {
-                        return this.queue.pop();
-                    } else {
-                        return this.next();
-                    }
-                } else {
-                    throw new NoSuchElementException();
-                }
-            }
+            return this.queue.pop();
         }
     }
 }
@@ -10,6 +10,8 @@ import com.azure.android.core.http.HttpHeaders;
 import com.azure.android.core.http.HttpMethod;
 import com.azure.android.core.http.HttpRequest;
 import com.azure.android.core.http.HttpResponse;
+import com.azure.android.core.http.metrics.InMemoryMetricsSink;
+import com.azure.android.core.http.metrics.MetricsSink;
 import com.azure.android.core.serde.jackson.SerdeEncoding;
 import com.azure.android.core.util.CancellationToken;
 import com.azure.android.core.http.HttpPipeline;
@@ -34,11 +36,14 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 public class RestProxyXMLTests {
@@ -290,6 +295,71 @@ public class RestProxyXMLTests {
         assertEquals(expectedAcls.get(0).accessPolicy().permission(), actualAcls.get(0).accessPolicy().permission());
     }
 
+    @Test
+    public void recordsMetricsForRestMethod() {
+        final InMemoryMetricsSink metricsSink = new InMemoryMetricsSink();
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new MockXMLHTTPClient())
+            .metricsSink(metricsSink)
+            .build();
+
+        MyXMLService myXMLService = RestProxy.create(MyXMLService.class,
+            pipeline,
+            new JacksonSerder());
+
+        CountDownLatch latch = new CountDownLatch(1);
+        myXMLService.getContainerACLs(new Callback<Response<SignedIdentifiersWrapper>>() {
+            @Override
+            public void onSuccess(Response<SignedIdentifiersWrapper> response) {
+                latch.countDown();
+            }
+
+            @Override
+            public void onFailure(Throwable error) {
+                latch.countDown();
+            }
+        });
+
+        awaitOnLatch(latch, "recordsMetricsForRestMethod");
+
+        final String operationName = MyXMLService.class.getName() + ".getContainerACLs";
+        assertEquals(1, metricsSink.getSnapshot(operationName, MetricsSink.NETWORK_TIME).getCount());
+        assertEquals(1, metricsSink.getSnapshot(operationName, MetricsSink.DESERIALIZATION_TIME).getCount());
+    }
+
+    @Test
+    public void failingMetricsSinkDoesNotFailRestMethod() throws InterruptedException {
+        final HttpPipeline pipeline = new HttpPipelineBuilder()
+            .httpClient(new MockXMLHTTPClient())
+            .metricsSink((operationName, metricName, value) -> {
+                throw new IllegalStateException("The sink is broken.");
+            })
+            .build();
+
+        MyXMLService myXMLService = RestProxy.create(MyXMLService.class,
+            pipeline,
+            new JacksonSerder());
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        myXMLService.getContainerACLs(new Callback<Response<SignedIdentifiersWrapper>>() {
+            @Override
+            public void onSuccess(Response<SignedIdentifiersWrapper> response) {
+                latch.countDown();
+            }
+
+            @Override
+            public void onFailure(Throwable error) {
+                failure.set(error);
+                latch.countDown();
+            }
+        });
+
+        // The callback is completed although the sink throws while recording the deserialization time.
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertNull(failure.get());
+    }
+
     private static void awaitOnLatch(CountDownLatch latch, String method) {
         try {
             latch.await(500, TimeUnit.SECONDS);
@@ -5,6 +5,8 @@ package com.azure.android.core.rest.util.paging;
 
 import com.azure.android.core.logging.ClientLogger;
 import com.azure.android.core.util.AsyncStreamHandler;
+import com.azure.android.core.util.AsyncStreamSubscriber;
+import com.azure.android.core.util.AsyncStreamSubscription;
 import com.azure.android.core.util.CancellationToken;
 
 import org.junit.jupiter.api.Assertions;
@@ -12,7 +14,9 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -391,6 +395,138 @@ public class PagedAsyncStreamTests {
         Assertions.assertEquals(1, pageRetriever.getCallCount());
     }
 
+    @Test
+    public void subscribeRetrievesPagesOnDemand() throws InterruptedException {
+        final CFStringPageRetriever pageRetriever = new CFStringPageRetriever(3, 5);
+        final PagedAsyncStream<String> asyncStream = newAsyncStream(pageRetriever);
+        final RecordingSubscriber<String> subscriber = new RecordingSubscriber<>();
+        asyncStream.subscribe(subscriber);
+
+        // No page is retrieved before the demand is signaled.
+        Assertions.assertEquals(0, pageRetriever.getCallCount());
+
+        subscriber.subscription.request(2);
+        subscriber.awaitElements(2);
+        Assertions.assertEquals(1, pageRetriever.getCallCount());
+
+        // The first page holds the 3rd element, the next page is retrieved once the page is exhausted.
+        subscriber.subscription.request(2);
+        subscriber.awaitElements(4);
+        Assertions.assertEquals(2, pageRetriever.getCallCount());
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        Assertions.assertTrue(subscriber.completed.await(30, TimeUnit.SECONDS));
+        Assertions.assertEquals(15, subscriber.elements.size());
+        Assertions.assertEquals(5, pageRetriever.getCallCount());
+        Assertions.assertNull(subscriber.error);
+    }
+
+    @Test
+    public void subscribeToPagesRetrievesOnePagePerRequest() throws InterruptedException {
+        final CFStringPageRetriever pageRetriever = new CFStringPageRetriever(3, 5);
+        final PagedAsyncStream<String> asyncStream = newAsyncStream(pageRetriever);
+        final RecordingSubscriber<PagedResponse<String>> subscriber = new RecordingSubscriber<>();
+        asyncStream.byPage().subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        subscriber.awaitElements(1);
+        // Give a prefetching implementation the chance to show up.
+        Thread.sleep(50);
+        Assertions.assertEquals(1, pageRetriever.getCallCount());
+
+        subscriber.subscription.request(4);
+        Assertions.assertTrue(subscriber.completed.await(30, TimeUnit.SECONDS));
+        Assertions.assertEquals(5, subscriber.elements.size());
+        Assertions.assertEquals(5, pageRetriever.getCallCount());
+    }
+
+    @Test
+    public void subscribeStopsRetrievingPagesOnCancel() throws InterruptedException {
+        final CFStringPageRetriever pageRetriever = new CFStringPageRetriever(3, 5);
+        final PagedAsyncStream<String> asyncStream = newAsyncStream(pageRetriever);
+        final RecordingSubscriber<String> subscriber = new RecordingSubscriber<>();
+        asyncStream.subscribe(subscriber);
+
+        subscriber.subscription.request(3);
+        subscriber.awaitElements(3);
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(3);
+        Thread.sleep(50);
+
+        Assertions.assertEquals(3, subscriber.elements.size());
+        Assertions.assertEquals(1, pageRetriever.getCallCount());
+        Assertions.assertEquals(1, subscriber.completed.getCount());
+    }
+
+    @Test
+    public void subscribeSignalsPageRetrievalError() throws InterruptedException {
+        final CFStringPageRetriever pageRetriever = new CFStringPageRetriever(3, 5, 2);
+        final PagedAsyncStream<String> asyncStream = newAsyncStream(pageRetriever);
+        final RecordingSubscriber<String> subscriber = new RecordingSubscriber<>();
+        asyncStream.subscribe(subscriber);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        Assertions.assertTrue(subscriber.completed.await(30, TimeUnit.SECONDS));
+        Assertions.assertTrue(subscriber.error instanceof UncheckedIOException);
+        // The elements of the pages retrieved before the error are delivered.
+        Assertions.assertEquals(6, subscriber.elements.size());
+    }
+
+    @Test
+    public void subscribeSignalsErrorOnNonPositiveRequest() {
+        final CFStringPageRetriever pageRetriever = new CFStringPageRetriever(3, 5);
+        final RecordingSubscriber<String> subscriber = new RecordingSubscriber<>();
+        newAsyncStream(pageRetriever).subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+
+        Assertions.assertTrue(subscriber.error instanceof IllegalArgumentException);
+        Assertions.assertEquals(0, pageRetriever.getCallCount());
+    }
+
+    private PagedAsyncStream<String> newAsyncStream(CFStringPageRetriever pageRetriever) {
+        return new PagedAsyncStream<>(pageId -> new CFBackedPageAsyncStream<>(pageRetriever,
+            continuationToken -> continuationToken != null,
+            pageId,
+            logger), this.logger);
+    }
+
+    private static final class RecordingSubscriber<T> implements AsyncStreamSubscriber<T> {
+        private final List<T> elements = new CopyOnWriteArrayList<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile AsyncStreamSubscription subscription;
+        private volatile Throwable error;
+
+        @Override
+        public void onSubscribe(AsyncStreamSubscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T e) {
+            this.elements.add(e);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+            this.completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            this.completed.countDown();
+        }
+
+        void awaitElements(int count) throws InterruptedException {
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (this.elements.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            Assertions.assertEquals(count, this.elements.size());
+        }
+    }
+
     private static void awaitOnLatch(CountDownLatch latch, String method) {
         try {
             latch.await(30, TimeUnit.SECONDS);
@@ -5,14 +5,26 @@ package com.azure.android.core.rest.util.paging;
 
 import com.azure.android.core.logging.ClientLogger;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 public class PagedIterableTests {
     private final ClientLogger logger = new ClientLogger(PagedIterableTests.class);
+    private final ExecutorService readAheadExecutor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    public void shutdownReadAheadExecutor() {
+        this.readAheadExecutor.shutdownNow();
+    }
 
     @Test
     public void canEnumerateAllPages() {
@@ -120,4 +132,98 @@ public class PagedIterableTests {
         Assertions.assertTrue(error.getCause() instanceof IOException);
         Assertions.assertEquals(4, pageRetriever.getCallCount());
     }
+
+    @Test
+    public void canEnumerateAllElementsInOrderWithReadAhead() {
+        final StringPageRetriever pageRetriever = new StringPageRetriever(3, 5);
+        //
+        final PagedIterable<String> iterable = new PagedIterable<String>(pageRetriever,
+            continuationToken -> continuationToken != null, 2, readAheadExecutor, logger);
+
+        final List<String> elements = new ArrayList<>();
+        for (String element : iterable) {
+            elements.add(element);
+        }
+
+        Assertions.assertEquals(15, elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            Assertions.assertEquals(String.valueOf(i), elements.get(i));
+        }
+        Assertions.assertEquals(5, pageRetriever.getCallCount());
+    }
+
+    @Test
+    public void readAheadRetrievesNextPageWhileElementsAreIterated() throws InterruptedException {
+        final StringPageRetriever pageRetriever = new StringPageRetriever(3, 5);
+        //
+        final PagedIterable<String> iterable = new PagedIterable<String>(pageRetriever,
+            continuationToken -> continuationToken != null, 1, readAheadExecutor, logger);
+
+        for (String element : iterable) {
+            if (element.equalsIgnoreCase("0")) { // "0" is an item in the first page
+                Assertions.assertTrue(awaitCallCount(pageRetriever, 2));
+                break;
+            }
+        }
+    }
+
+    @Test
+    public void readAheadIsBoundedByReadAheadPageCount() throws InterruptedException {
+        final StringPageRetriever pageRetriever = new StringPageRetriever(3, 5);
+        //
+        final PagedIterable<String> iterable = new PagedIterable<String>(pageRetriever,
+            continuationToken -> continuationToken != null, 2, readAheadExecutor, logger);
+
+        for (PagedResponse<String> response : iterable.byPage()) {
+            Assertions.assertTrue(awaitCallCount(pageRetriever, 3));
+            Thread.sleep(50);
+            // The first page and the two pages ahead of it.
+            Assertions.assertEquals(3, pageRetriever.getCallCount());
+            break;
+        }
+    }
+
+    @Test
+    public void shouldPropagateSdkExceptionAtFailedPageWithReadAhead() {
+        final StringPageRetriever pageRetriever = new StringPageRetriever(3, 5, 3);
+        //
+        final PagedIterable<String> iterable = new PagedIterable<String>(pageRetriever,
+            continuationToken -> continuationToken != null, 2, readAheadExecutor, logger);
+
+        final List<String> elements = new ArrayList<>();
+        Throwable error = null;
+        try {
+            for (String element : iterable) {
+                elements.add(element);
+            }
+        } catch (Throwable throwable) {
+            error = throwable;
+        }
+
+        // The elements of the pages before the failed one are enumerated first.
+        Assertions.assertEquals(9, elements.size());
+        Assertions.assertNotNull(error);
+        Assertions.assertTrue(error instanceof UncheckedIOException);
+        Assertions.assertTrue(error.getCause() instanceof IOException);
+        Assertions.assertEquals(4, pageRetriever.getCallCount());
+    }
+
+    @Test
+    public void shouldRejectNegativeReadAheadPageCount() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> new PagedIterable<String>(new StringPageRetriever(3, 5),
+                continuationToken -> continuationToken != null, -1, readAheadExecutor, logger));
+    }
+
+    private static boolean awaitCallCount(StringPageRetriever pageRetriever, int count)
+        throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pageRetriever.getCallCount() < count) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
 }
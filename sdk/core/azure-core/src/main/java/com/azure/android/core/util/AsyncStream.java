@@ -19,4 +19,21 @@ public interface AsyncStream<T> {
      * @return CancellationToken to request the cancellation of enumeration.
      */
     CancellationToken forEach(AsyncStreamHandler<T> handler);
+
+    /**
+     * Subscribe to the {@link AsyncStream} to receive the elements on demand, as requested
+     * through the {@link AsyncStreamSubscription} signaled to {@code subscriber.onSubscribe}.
+     *
+     * The default implementation enumerates the stream with {@link #forEach(AsyncStreamHandler)}
+     * once the first element is requested: it still retrieves all the elements eagerly, buffering
+     * the elements produced ahead of the demand without bound. The streams backed by a source that
+     * can be read on demand override it to retrieve the elements only as the demand requires, such
+     * as the {@code CFBackedPageAsyncStream} of azure-core-rest which retrieves a paged REST API one
+     * requested page at a time.
+     *
+     * @param subscriber The subscriber to receive the elements.
+     */
+    default void subscribe(AsyncStreamSubscriber<T> subscriber) {
+        new ForEachSubscription<>(this, subscriber).begin();
+    }
 }
@@ -0,0 +1,80 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * An adapter exposing an {@link AsyncStream} as a Reactive Streams {@link Publisher}, to consume
+ * the stream with a Reactive Streams library (e.g. RxJava or Reactor).
+ *
+ * <p>
+ * The demand signaled by the Reactive Streams {@link Subscriber} flows to the stream through
+ * {@link AsyncStream#subscribe(AsyncStreamSubscriber)}, hence a stream that retrieves its elements
+ * on demand (e.g. a paged REST API) retrieves them only as the subscriber requests them.
+ * </p>
+ *
+ * <p>
+ * The {@code org.reactivestreams:reactive-streams} library is not a transitive dependency of azure-core,
+ * the application using the adapter provides it.
+ * </p>
+ *
+ * @param <T> The type of the stream element.
+ */
+public final class AsyncStreamPublisher<T> implements Publisher<T> {
+    private final AsyncStream<T> stream;
+
+    /**
+     * Creates an {@link AsyncStreamPublisher}.
+     *
+     * @param stream The stream to publish the elements of.
+     * @throws NullPointerException if {@code stream} is null.
+     */
+    public AsyncStreamPublisher(AsyncStream<T> stream) {
+        if (stream == null) {
+            throw new NullPointerException("'stream' cannot be null.");
+        }
+        this.stream = stream;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("'subscriber' cannot be null.");
+        }
+        this.stream.subscribe(new AsyncStreamSubscriber<T>() {
+            @Override
+            public void onSubscribe(AsyncStreamSubscription subscription) {
+                subscriber.onSubscribe(new Subscription() {
+                    @Override
+                    public void request(long n) {
+                        subscription.request(n);
+                    }
+
+                    @Override
+                    public void cancel() {
+                        subscription.cancel();
+                    }
+                });
+            }
+
+            @Override
+            public void onNext(T e) {
+                subscriber.onNext(e);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                subscriber.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                subscriber.onComplete();
+            }
+        });
+    }
+}
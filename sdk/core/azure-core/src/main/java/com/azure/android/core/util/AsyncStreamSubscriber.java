@@ -0,0 +1,47 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util;
+
+/**
+ * A type to receive the signals (element, error, completion) from an {@link AsyncStream}
+ * on demand, the demand-driven counterpart of {@link AsyncStreamHandler}.
+ *
+ * <p>
+ * The stream delivers elements only as requested through the {@link AsyncStreamSubscription}
+ * handed to {@link #onSubscribe(AsyncStreamSubscription)}, which lets a slow subscriber bound
+ * the number of elements in flight. The signals are delivered serially.
+ * </p>
+ *
+ * @param <T> The type of the stream element.
+ */
+public interface AsyncStreamSubscriber<T> {
+    /**
+     * Invoked once before any other signal. No element is delivered until demand is
+     * signaled through {@code subscription.request(n)}.
+     *
+     * @param subscription The subscription to request elements or cancel the stream.
+     */
+    void onSubscribe(AsyncStreamSubscription subscription);
+
+    /**
+     * The next element produced by the stream.
+     *
+     * @param e the element signaled.
+     */
+    void onNext(T e);
+
+    /**
+     * A terminal signal indicating that the stream terminated due to an error.
+     *
+     * @param throwable the error signaled.
+     */
+    default void onError(Throwable throwable) {
+    }
+
+    /**
+     * A terminal signal indicating that the stream terminated successfully.
+     */
+    default void onComplete() {
+    }
+}
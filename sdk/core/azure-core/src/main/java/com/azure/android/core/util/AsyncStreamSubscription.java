@@ -0,0 +1,35 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util;
+
+/**
+ * The link between an {@link AsyncStream} and an {@link AsyncStreamSubscriber}, through which
+ * the subscriber signals its demand for elements.
+ *
+ * <p>
+ * The semantics follow the Reactive Streams {@code Subscription}: the stream delivers at most as many
+ * elements to {@link AsyncStreamSubscriber#onNext(Object)} as requested, and a stream backed by
+ * a remote source (e.g. a paged REST API) retrieves elements only as the demand requires.
+ * </p>
+ */
+public interface AsyncStreamSubscription {
+    /**
+     * Requests {@code n} more elements. The demand is cumulative, a demand of {@link Long#MAX_VALUE}
+     * is treated as unbounded.
+     *
+     * <p>
+     * A non-positive {@code n} cancels the subscription and signals an {@link IllegalArgumentException}
+     * to {@link AsyncStreamSubscriber#onError(Throwable)}.
+     * </p>
+     *
+     * @param n The number of elements to request.
+     */
+    void request(long n);
+
+    /**
+     * Requests the stream to stop delivering elements and to release its resources. Cancellation is best
+     * effort, elements already being delivered may still be signaled.
+     */
+    void cancel();
+}
@@ -29,6 +29,8 @@
 package com.azure.android.core.util;
 
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
@@ -42,6 +44,11 @@ public final class CancellationToken {
         = AtomicReferenceFieldUpdater.newUpdater(CancellationToken.class,  OnCancelNode.class, "onCancelNodes");
     // Ensures side-effect of app calling cancel() happens only once.
     private final AtomicBoolean isCancelled = new AtomicBoolean(false);
+    // The number of nodes in the OnCancelNode list and the number of those marked as deleted but not yet unlinked.
+    private final AtomicInteger nodeCount = new AtomicInteger();
+    private final AtomicInteger deletedNodeCount = new AtomicInteger();
+    // Ensures only one thread sweeps the deleted nodes at a time.
+    private final AtomicBoolean isSweeping = new AtomicBoolean(false);
 
     /**
      * An empty CancellationToken that cannot be cancelled.
@@ -78,19 +85,24 @@ public final class CancellationToken {
      * This is O(1) in best case and O(k) in worst, where k is number of concurrent threads in case
      * of race.
      *
+     * The returned {@link Registration} can be used to unregister the {@link Runnable} once it is no
+     * longer needed, e.g. when the operation it cancels completes.
+     *
      * @param onCancel The {@link Runnable} to be executed when the CancellationToken is canceled.
+     * @return The registration of the {@link Runnable}.
      */
-    public void registerOnCancel(Runnable onCancel) {
+    public Registration registerOnCancel(Runnable onCancel) {
         if (this == CancellationToken.NONE) {
-            return;
+            return Registration.NONE;
         }
-        OnCancelNode node = new OnCancelNode(onCancel);
+        OnCancelNode node = new OnCancelNode(this, null, onCancel);
         final boolean added = this.tryAddOnCancelNode(node);
         if (!added) {
             // Couldn't add since the list was frozen as a result of cancellation,
             // invoke this Runnable Callback immediately.
             node.invokeOnCancel();
         }
+        return node;
     }
 
     /**
@@ -109,7 +121,10 @@ public final class CancellationToken {
         if (this == CancellationToken.NONE) {
             return;
         }
-        OnCancelNode node = new OnCancelNode(id, onCancel);
+        if (id == null) {
+            throw new NullPointerException("'id' is required and cannot be null.");
+        }
+        OnCancelNode node = new OnCancelNode(this, id, onCancel);
         final boolean added = this.tryAddOnCancelNode(node);
         if (!added) {
             // Couldn't add since the list was frozen as a result of cancellation,
@@ -122,7 +137,9 @@ public final class CancellationToken {
      * Unregister the {@link Runnable} that was registered using
      * {@link CancellationToken#registerOnCancel(String, Runnable)}.
      *
-     * This unregister operation is non-blocking and thread-safe.
+     * This unregister operation is non-blocking and thread-safe. Locating the {@link Runnable} by id
+     * is O(n), where n is the number of registered Runnables, prefer {@link Registration#dispose()}
+     * on the registration returned by {@link CancellationToken#registerOnCancel(Runnable)}.
      *
      * @param id The id of the {@link Runnable} to unregister.
      */
@@ -131,69 +148,91 @@ public final class CancellationToken {
             return;
         }
         OnCancelNode itr = this.onCancelNodes;
-        // Step_1: Locate the node and mark it as logically deleted.
-        //
+        // Locate the node and unregister it.
         while (itr != null) {
             if (this.onCancelNodes == OnCancelNode.FROZEN) {
                 // The token is cancelled, no use in progressing.
                 return;
             }
             if (itr.id != null && itr.id.equals(id)) {
-                // Mark the node as logically deleted.
-                itr.markDeleted();
-                break;
+                this.unregisterNode(itr);
+                return;
             }
             itr = itr.next;
         }
-        if (itr == null) {
-            // A node with id was not found.
+    }
+
+    /**
+     * Unregister a node from the OnCancel Callback list.
+     *
+     * The node is marked as logically deleted in O(1); the deleted nodes are unlinked in a sweep once
+     * they outnumber the live nodes, so the cost of the sweep is amortized O(1) per unregistered node.
+     *
+     * @param node The node to unregister.
+     */
+    private void unregisterNode(OnCancelNode node) {
+        if (!node.markDeleted() || this.onCancelNodes == OnCancelNode.FROZEN) {
+            // The node is already unregistered or the token is cancelled, no use in sweeping.
             return;
         }
+        final int deletedCount = this.deletedNodeCount.incrementAndGet();
+        if (deletedCount * 2 >= this.nodeCount.get()) {
+            this.sweepDeletedNodes();
+        }
+    }
 
-        // Step_2: Sweep to unlink all logically deleted nodes.
-        //
-        boolean hadRace;
-        do {
-            // Outer 'do-while' to retry on any race during sweep.
-            hadRace = false;
-            OnCancelNode predecessor = null;
-            OnCancelNode current = this.onCancelNodes; // re-fetch the volatile head for each retry.
-            if (current == OnCancelNode.FROZEN) {
-                // The token is cancelled, no use in sweeping.
-                return;
-            }
-            OnCancelNode successor;
-            // Inner 'while' to sweep & unlink all logically deleted nodes.
-            while (current != null) {
-                successor = current.next;
-                if (current.isDeleted()) {
-                    // Un-linking 'current' node.
-                    if (predecessor == null) {
-                        // The 'current' node has no 'predecessor' hence it's head, try CAS head with 'successor'.
-                        if (!ON_CANCEL_NODES_UPDATER.compareAndSet(this, current, successor)) {
-                            // Raced with
-                            //     1. another thread calling registerOnCancelCallback.
-                            //     2. OR the 'cancel()' call.
-                            // need to retry.
-                            hadRace = true;
-                            break;
+    /**
+     * Sweep to unlink all logically deleted nodes.
+     */
+    private void sweepDeletedNodes() {
+        if (!this.isSweeping.compareAndSet(false, true)) {
+            // Another thread is sweeping, the node marked as deleted is unlinked in that or a later sweep.
+            return;
+        }
+        try {
+            boolean hadRace;
+            do {
+                // Outer 'do-while' to retry on any race during sweep.
+                hadRace = false;
+                OnCancelNode predecessor = null;
+                OnCancelNode current = this.onCancelNodes; // re-fetch the volatile head for each retry.
+                if (current == OnCancelNode.FROZEN) {
+                    // The token is cancelled, no use in sweeping.
+                    return;
+                }
+                OnCancelNode successor;
+                // Inner 'while' to sweep & unlink all logically deleted nodes.
+                while (current != null) {
+                    successor = current.next;
+                    if (current.isDeleted()) {
+                        // Un-linking 'current' node.
+                        if (predecessor == null) {
+                            // The 'current' node has no 'predecessor' hence it's head, try CAS head with 'successor'.
+                            if (!ON_CANCEL_NODES_UPDATER.compareAndSet(this, current, successor)) {
+                                // Raced with
+                                //     1. another thread calling registerOnCancelCallback.
+                                //     2. OR the 'cancel()' call.
+                                // need to retry.
+                                hadRace = true;
+                                break;
+                            }
+                        } else {
+                            // The 'current' node has a 'predecessor', only the sweeping thread
+                            // updates the 'next' of a node that is not the head.
+                            predecessor.next = successor;
                         }
+                        this.nodeCount.decrementAndGet();
+                        this.deletedNodeCount.decrementAndGet();
                     } else {
-                        // The 'current' node has a 'predecessor'.
-                        predecessor.next = successor;
-                        if (predecessor.isDeleted()) {
-                            // Raced with another thread that unlinked 'predecessor', need to retry.
-                            hadRace = true;
-                            break;
-                        }
+                        // We aren't un-linking 'current' node, update 'predecessor'.
+                        predecessor = current;
                     }
-                } else {
-                    // We aren't un-linking 'current' node, update 'predecessor'.
-                    predecessor = current;
+                    current = successor;
                 }
-                current = successor;
-            }
-        } while (hadRace);
+            } while (hadRace);
+        } finally {
+            this.isSweeping.set(false);
+        }
     }
 
     /**
@@ -223,6 +262,7 @@ public final class CancellationToken {
                 headNode = this.onCancelNodes;
             } else {
                 // able to insert the new node (hence the head update) so return.
+                this.nodeCount.incrementAndGet();
                 return true;
             }
         } while (headNode != OnCancelNode.FROZEN);
@@ -279,50 +319,67 @@ public final class CancellationToken {
         }
     }
 
+    /**
+     * A registration of a {@link Runnable} to be called when the CancellationToken is canceled.
+     */
+    public interface Registration {
+        /**
+         * A registration that does nothing when disposed.
+         */
+        Registration NONE = () -> { };
+
+        /**
+         * Unregister the {@link Runnable} so that it won't be called when the CancellationToken is canceled.
+         *
+         * This operation is non-blocking, thread-safe and amortized O(1). Disposing the registration
+         * more than once, or after the token is cancelled, has no effect.
+         */
+        void dispose();
+    }
+
     /**
      * Represents a node in the OnCancel Callback list.
      */
-    private static final class OnCancelNode {
+    private static final class OnCancelNode implements Registration {
         // a node to indicate that the list is frozen hence no more
         // node can be added to the list.
-        static final OnCancelNode FROZEN = new OnCancelNode(null);
+        static final OnCancelNode FROZEN = new OnCancelNode(null, null, null);
+        // CAS Updater to mark the node as deleted.
+        private static final AtomicIntegerFieldUpdater<OnCancelNode> IS_DELETED_UPDATER
+            = AtomicIntegerFieldUpdater.newUpdater(OnCancelNode.class, "isDeleted");
+        // the token owning the list this node belongs to.
+        private final CancellationToken token;
         private final String id;
         // the reference to the OnCancel Callback.
         private final Runnable onCancel;
-        // indicate whether this node is marked as deleted.
-        private volatile boolean isDeleted = false;
+        // indicate whether this node is marked as deleted (1) or not (0).
+        private volatile int isDeleted = 0;
         // the next node in the list.
         volatile OnCancelNode next;
 
         /**
          * Creates OnCancelNode.
          *
+         * @param token The token owning the list this node belongs to.
+         * @param id The id for the node, null if the node is not identifiable.
          * @param onCancel The onCancel Callback to wrap.
          */
-        OnCancelNode(Runnable onCancel) {
-            this.id = null;
+        OnCancelNode(CancellationToken token, String id, Runnable onCancel) {
+            this.token = token;
+            this.id = id;
             this.onCancel = onCancel;
         }
 
-        /**
-         * Creates OnCancelNode.
-         *
-         * @param id The id for the node.
-         * @param onCancel The onCancel Callback to wrap.
-         */
-        OnCancelNode(String id, Runnable onCancel) {
-            if (id == null) {
-                throw new NullPointerException("'id' is required and cannot be null.");
-            }
-            this.id = id;
-            this.onCancel = onCancel;
+        @Override
+        public void dispose() {
+            this.token.unregisterNode(this);
         }
 
         /**
          * Invokes the wrapped onCancel Callback in it's executor.
          */
         void invokeOnCancel() {
-            if (this.isDeleted) {
+            if (this.isDeleted()) {
                 return;
             }
             onCancel.run();
@@ -331,9 +388,11 @@ public final class CancellationToken {
         /**
          * Mark the node as deleted hence not a part of the OnCancel Callback list
          * any more.
+         *
+         * @return true if the node got marked by this call, false if it was already marked.
          */
-        void markDeleted() {
-            this.isDeleted = true;
+        boolean markDeleted() {
+            return IS_DELETED_UPDATER.compareAndSet(this, 0, 1);
         }
 
         /**
@@ -342,7 +401,7 @@ public final class CancellationToken {
          * @return true if deleted, false otherwise.
          */
         boolean isDeleted() {
-            return this.isDeleted;
+            return this.isDeleted == 1;
         }
     }
 }
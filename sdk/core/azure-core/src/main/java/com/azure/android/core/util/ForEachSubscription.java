@@ -0,0 +1,197 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * package-private.
+ *
+ * The subscription that adapts {@link AsyncStream#forEach(AsyncStreamHandler)} to the demand of an
+ * {@link AsyncStreamSubscriber}, the default implementation of {@link AsyncStream#subscribe(AsyncStreamSubscriber)}.
+ *
+ * <p>
+ * The enumeration starts once the first element is requested; the elements it produces ahead of
+ * the demand are buffered until requested. A non-positive request cancels the enumeration and is
+ * signalled to the subscriber as an error, delivered like any other signal, unless the subscription
+ * already terminated.
+ * </p>
+ *
+ * @param <T> The type of the stream element.
+ */
+final class ForEachSubscription<T> implements AsyncStreamSubscription, AsyncStreamHandler<T> {
+    private final AsyncStream<T> stream;
+    private final AsyncStreamSubscriber<T> subscriber;
+    private final Queue<T> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicLong demand = new AtomicLong();
+    // The number of drain requests, only the thread bringing it from 0 to 1 delivers the signals.
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    private volatile boolean started;
+    private volatile boolean cancelled;
+    private volatile boolean done;
+    private volatile Throwable error;
+    // The error of a non-positive request, it takes precedence over the elements and the enumeration result.
+    private volatile Throwable requestError;
+    private volatile CancellationToken cancellationToken;
+
+    ForEachSubscription(AsyncStream<T> stream, AsyncStreamSubscriber<T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("'subscriber' cannot be null.");
+        }
+        this.stream = stream;
+        this.subscriber = subscriber;
+    }
+
+    void begin() {
+        this.subscriber.onSubscribe(this);
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            if (this.requestError == null) {
+                this.requestError = new IllegalArgumentException("'n' must be positive, provided: " + n);
+            }
+            this.cancelEnumeration();
+            this.drain();
+            return;
+        }
+        addDemand(this.demand, n);
+        boolean start = false;
+        synchronized (this) {
+            if (!this.started && !this.cancelled && this.requestError == null) {
+                this.started = true;
+                start = true;
+            }
+        }
+        if (start) {
+            this.stream.forEach(this);
+        }
+        this.drain();
+    }
+
+    @Override
+    public void cancel() {
+        this.cancelled = true;
+        this.cancelEnumeration();
+    }
+
+    private void cancelEnumeration() {
+        final CancellationToken token = this.cancellationToken;
+        if (token != null) {
+            token.cancel();
+        }
+        this.buffer.clear();
+    }
+
+    @Override
+    public void onInit(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+        if (this.cancelled || this.requestError != null) {
+            cancellationToken.cancel();
+        }
+    }
+
+    @Override
+    public void onNext(T e) {
+        this.buffer.offer(e);
+        this.drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        this.error = throwable;
+        this.done = true;
+        this.drain();
+    }
+
+    @Override
+    public void onComplete() {
+        this.done = true;
+        this.drain();
+    }
+
+    /**
+     * Delivers the buffered elements as long as there is demand, then the terminal signal once the
+     * enumeration ended and the buffer is drained.
+     */
+    private void drain() {
+        if (this.drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (!this.cancelled && this.requestError == null && this.demand.get() > 0) {
+                // Read 'done' before polling, an element offered before the completion is then never missed.
+                final boolean isDone = this.done;
+                final T element = this.buffer.poll();
+                if (element == null) {
+                    if (isDone) {
+                        this.terminate(this.error);
+                        return;
+                    }
+                    break;
+                }
+                consumeDemand(this.demand);
+                this.subscriber.onNext(element);
+            }
+            if (!this.cancelled && this.requestError != null) {
+                this.terminate(this.requestError);
+                return;
+            }
+            if (!this.cancelled && this.done && this.buffer.isEmpty()) {
+                this.terminate(this.error);
+                return;
+            }
+            missed = this.drainRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void terminate(Throwable throwable) {
+        // Leave 'drainRequests' non-zero and mark the subscription as cancelled so that no further signal
+        // is delivered.
+        this.cancelled = true;
+        this.buffer.clear();
+        if (throwable != null) {
+            this.subscriber.onError(throwable);
+        } else {
+            this.subscriber.onComplete();
+        }
+    }
+
+    /**
+     * Adds to the demand, capping it at {@link Long#MAX_VALUE} that stands for an unbounded demand.
+     *
+     * @param demand The demand.
+     * @param n The number of elements requested.
+     */
+    private static void addDemand(AtomicLong demand, long n) {
+        long current;
+        long updated;
+        do {
+            current = demand.get();
+            if (current == Long.MAX_VALUE) {
+                return;
+            }
+            updated = current + n;
+            if (updated < 0) {
+                updated = Long.MAX_VALUE;
+            }
+        } while (!demand.compareAndSet(current, updated));
+    }
+
+    /**
+     * Consumes one element of the demand, unless the demand is unbounded.
+     *
+     * @param demand The demand.
+     */
+    private static void consumeDemand(AtomicLong demand) {
+        if (demand.get() != Long.MAX_VALUE) {
+            demand.decrementAndGet();
+        }
+    }
+}
@@ -14,7 +14,7 @@ import com.azure.android.core.logging.ClientLogger;
  * {@code RequestContext} object that refers to its parent, forming a linked list.
  */
 public class RequestContext {
-    private final ClientLogger logger = new ClientLogger(RequestContext.class);
+    private static final ClientLogger LOGGER = ClientLogger.getLogger(RequestContext.class);
 
     // All fields must be immutable.
     //
@@ -60,7 +60,7 @@ public class RequestContext {
      */
     public RequestContext addData(Object key, Object value) {
         if (key == null) {
-            throw logger.logExceptionAsError(new IllegalArgumentException("key cannot be null"));
+            throw LOGGER.logExceptionAsError(new IllegalArgumentException("key cannot be null"));
         }
         return new RequestContext(this, key, value);
     }
@@ -75,7 +75,7 @@ public class RequestContext {
      */
     public Option<Object> getData(Object key) {
         if (key == null) {
-            throw logger.logExceptionAsError(new IllegalArgumentException("key cannot be null"));
+            throw LOGGER.logExceptionAsError(new IllegalArgumentException("key cannot be null"));
         }
         for (RequestContext c = this; c != null; c = c.parent) {
             if (key.equals(c.key)) {
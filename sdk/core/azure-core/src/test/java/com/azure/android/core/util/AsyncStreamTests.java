@@ -0,0 +1,191 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncStreamTests {
+    @Test
+    public void subscribeDeliversElementsOnDemand() {
+        final ListAsyncStream stream = new ListAsyncStream(Arrays.asList(1, 2, 3, 4, 5));
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        stream.subscribe(subscriber);
+
+        // The enumeration starts with the first request.
+        assertEquals(0, stream.forEachCount);
+
+        subscriber.subscription.request(2);
+        assertEquals(Arrays.asList(1, 2), subscriber.elements);
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(2);
+        assertEquals(Arrays.asList(1, 2, 3, 4), subscriber.elements);
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), subscriber.elements);
+        assertTrue(subscriber.completed);
+        assertEquals(1, stream.forEachCount);
+    }
+
+    @Test
+    public void subscribeSignalsCompletionWithoutDemand() {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        new ListAsyncStream(Arrays.asList(1, 2)).subscribe(subscriber);
+
+        subscriber.subscription.request(2);
+
+        assertEquals(Arrays.asList(1, 2), subscriber.elements);
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void subscribeSignalsErrorOnNonPositiveRequest() {
+        final ListAsyncStream stream = new ListAsyncStream(Arrays.asList(1, 2));
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        stream.subscribe(subscriber);
+
+        subscriber.subscription.request(-1);
+
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertEquals(0, stream.forEachCount);
+
+        subscriber.subscription.request(0);
+        subscriber.subscription.request(1);
+        assertEquals(1, subscriber.terminalSignals);
+        assertEquals(0, stream.forEachCount);
+    }
+
+    @Test
+    public void nonPositiveRequestAfterCompletionIsIgnored() {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        new ListAsyncStream(Arrays.asList(1, 2)).subscribe(subscriber);
+
+        subscriber.subscription.request(2);
+        subscriber.subscription.request(0);
+
+        assertEquals(Arrays.asList(1, 2), subscriber.elements);
+        assertTrue(subscriber.completed);
+        assertNull(subscriber.error);
+        assertEquals(1, subscriber.terminalSignals);
+    }
+
+    @Test
+    public void cancelStopsDelivery() {
+        final ListAsyncStream stream = new ListAsyncStream(Arrays.asList(1, 2, 3));
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        stream.subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(2);
+
+        assertEquals(Arrays.asList(1), subscriber.elements);
+        assertFalse(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void publisherForwardsDemand() {
+        final List<Integer> elements = new ArrayList<>();
+        final boolean[] completed = new boolean[1];
+        final Subscription[] subscription = new Subscription[1];
+        new AsyncStreamPublisher<>(new ListAsyncStream(Arrays.asList(1, 2, 3)))
+            .subscribe(new Subscriber<Number>() {
+                @Override
+                public void onSubscribe(Subscription s) {
+                    subscription[0] = s;
+                }
+
+                @Override
+                public void onNext(Number number) {
+                    elements.add(number.intValue());
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                }
+
+                @Override
+                public void onComplete() {
+                    completed[0] = true;
+                }
+            });
+
+        subscription[0].request(1);
+        assertEquals(Arrays.asList(1), elements);
+
+        subscription[0].request(5);
+        assertEquals(Arrays.asList(1, 2, 3), elements);
+        assertTrue(completed[0]);
+    }
+
+    /**
+     * A push-based stream, enumerating the elements of a list in the calling thread.
+     */
+    private static final class ListAsyncStream implements AsyncStream<Integer> {
+        private final List<Integer> elements;
+        private int forEachCount;
+
+        ListAsyncStream(List<Integer> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public CancellationToken forEach(AsyncStreamHandler<Integer> handler) {
+            this.forEachCount++;
+            final CancellationToken token = new CancellationToken();
+            handler.onInit(token);
+            for (Integer element : this.elements) {
+                if (token.isCancellationRequested()) {
+                    return token;
+                }
+                handler.onNext(element);
+            }
+            handler.onComplete();
+            return token;
+        }
+    }
+
+    private static final class RecordingSubscriber implements AsyncStreamSubscriber<Integer> {
+        private final List<Integer> elements = new ArrayList<>();
+        private AsyncStreamSubscription subscription;
+        private boolean completed;
+        private Throwable error;
+        private int terminalSignals;
+
+        @Override
+        public void onSubscribe(AsyncStreamSubscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Integer e) {
+            this.elements.add(e);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+            this.terminalSignals++;
+        }
+
+        @Override
+        public void onComplete() {
+            this.completed = true;
+            this.terminalSignals++;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.android.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CancellationTokenTests {
+    @Test
+    public void callbacksRunInRegistrationOrder() {
+        final CancellationToken token = new CancellationToken();
+        final List<Integer> invoked = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final int index = i;
+            token.registerOnCancel(() -> invoked.add(index));
+        }
+        token.cancel();
+        token.cancel();
+
+        assertEquals(5, invoked.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, (int) invoked.get(i));
+        }
+    }
+
+    @Test
+    public void disposedRegistrationIsNotInvoked() {
+        final CancellationToken token = new CancellationToken();
+        final List<Integer> invoked = new ArrayList<>();
+        final CancellationToken.Registration[] registrations = new CancellationToken.Registration[10];
+        for (int i = 0; i < registrations.length; i++) {
+            final int index = i;
+            registrations[i] = token.registerOnCancel(() -> invoked.add(index));
+        }
+        for (int i = 0; i < registrations.length; i += 2) {
+            registrations[i].dispose();
+            // Disposing more than once has no effect.
+            registrations[i].dispose();
+        }
+        token.cancel();
+
+        assertEquals(5, invoked.size());
+        for (int i = 0; i < invoked.size(); i++) {
+            assertEquals(i * 2 + 1, (int) invoked.get(i));
+        }
+    }
+
+    @Test
+    public void registerOnCancelledTokenRunsImmediately() {
+        final CancellationToken token = new CancellationToken();
+        token.cancel();
+        final AtomicInteger invoked = new AtomicInteger();
+        final CancellationToken.Registration registration = token.registerOnCancel(invoked::incrementAndGet);
+        registration.dispose();
+
+        assertEquals(1, invoked.get());
+    }
+
+    @Test
+    public void registerOnNoneReturnsNoOpRegistration() {
+        assertSame(CancellationToken.Registration.NONE, CancellationToken.NONE.registerOnCancel(() -> { }));
+    }
+
+    @Test
+    public void unregisterById() {
+        final CancellationToken token = new CancellationToken();
+        final AtomicInteger invoked = new AtomicInteger();
+        token.registerOnCancel("a", invoked::incrementAndGet);
+        token.registerOnCancel("b", () -> invoked.addAndGet(10));
+        token.unregisterOnCancel("a");
+        token.cancel();
+
+        assertEquals(10, invoked.get());
+    }
+
+    @Test
+    public void concurrentRegisterAndDispose() throws InterruptedException {
+        final CancellationToken token = new CancellationToken();
+        final int threadCount = 4;
+        final int registrationsPerThread = 10_000;
+        final AtomicInteger invoked = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < registrationsPerThread; i++) {
+                    final CancellationToken.Registration registration
+                        = token.registerOnCancel(invoked::incrementAndGet);
+                    if (i % 10 != 0) {
+                        registration.dispose();
+                    }
+                }
+                latch.countDown();
+            }).start();
+        }
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        token.cancel();
+
+        // Only the registrations that were kept are invoked.
+        assertEquals(threadCount * registrationsPerThread / 10, invoked.get());
+    }
+}